@@ -15,6 +15,9 @@ const OAuthCallback: React.FC = () => {
     if (success === "true" && token) {
       // Store the JWT token
       localStorage.setItem("token", token);
+      // The refresh token arrives as an HttpOnly cookie, never in the URL
+      localStorage.removeItem("refreshToken");
+      localStorage.setItem("refreshCookie", "true");
       if (email) {
         localStorage.setItem("userEmail", email);
       }
@@ -73,6 +73,8 @@ export const useAuth = () => {
     console.log("🔐 useAuth: Logout initiated");
 
     localStorage.removeItem("token");
+    localStorage.removeItem("refreshToken");
+    localStorage.removeItem("refreshCookie");
     localStorage.removeItem("userEmail");
     setToken(null);
 
@@ -104,8 +106,11 @@ export const useLogin = () => {
     mutationFn: (credentials: LoginCredentials) =>
       authAPI.login(credentials.email, credentials.password),
     onSuccess: (data) => {
-      // Store token
+      // Store access + refresh token
       localStorage.setItem("token", data.token);
+      if (data.refreshToken) {
+        localStorage.setItem("refreshToken", data.refreshToken);
+      }
 
       // Invalidate and refetch user data
       queryClient.invalidateQueries({ queryKey: ["currentUser"] });
@@ -129,8 +134,11 @@ export const useRegister = () => {
     mutationFn: (data: RegisterData) =>
       authAPI.register(data.name, data.email, data.password, data.phone),
     onSuccess: (data) => {
-      // Store token
+      // Store access + refresh token
       localStorage.setItem("token", data.token);
+      if (data.refreshToken) {
+        localStorage.setItem("refreshToken", data.refreshToken);
+      }
 
       // Invalidate and refetch user data
       queryClient.invalidateQueries({ queryKey: ["currentUser"] });
@@ -153,8 +161,10 @@ export const useLogout = () => {
   return useMutation({
     mutationFn: authAPI.logout,
     onSuccess: () => {
-      // Remove token
+      // Remove tokens
       localStorage.removeItem("token");
+      localStorage.removeItem("refreshToken");
+      localStorage.removeItem("refreshCookie");
 
       // Clear all queries and reset cache
       queryClient.clear();
@@ -12,6 +12,9 @@ export interface WeatherDto {
   weatherCode?: number;
   description: string;
   observedAt?: string;
+  tile?: string;
+  stale?: boolean;
+  ageSeconds?: number;
 }
 
 export const useCurrentWeather = (city: string, enabled = true) =>
@@ -24,3 +27,27 @@ export const useCurrentWeather = (city: string, enabled = true) =>
     enabled: enabled && !!city.trim() && !!localStorage.getItem("token"),
     staleTime: 5 * 60 * 1000,
   });
+
+export interface WeatherBatchResult {
+  city: string;
+  weather?: WeatherDto;
+  error?: string;
+}
+
+export interface WeatherBatchResponse {
+  complete: boolean;
+  failed: number;
+  results: WeatherBatchResult[];
+}
+
+/** One request for a whole dashboard of cities; failed cities carry an error instead of failing the query. */
+export const useWeatherBatch = (cities: string[], enabled = true) =>
+  useQuery({
+    queryKey: ["weather", "batch", cities],
+    queryFn: async (): Promise<WeatherBatchResponse> => {
+      const res = await api.post("/weather/batch", { cities });
+      return res.data;
+    },
+    enabled: enabled && cities.length > 0 && !!localStorage.getItem("token"),
+    staleTime: 5 * 60 * 1000,
+  });
@@ -79,29 +79,86 @@ api.interceptors.response.use(
       }
     );
 
-    if (error.response?.status === 401) {
-      // Clear all auth data
-      clearAuthData();
+    const originalRequest = error.config;
+    const refreshToken = localStorage.getItem("refreshToken");
+    const hasRefreshCookie = localStorage.getItem("refreshCookie") === "true";
+    const isAuthCall = /\/auth\/(login|register|refresh|logout)/.test(
+      originalRequest?.url || ""
+    );
 
-      // Dispatch custom event for authentication failure
-      window.dispatchEvent(
-        new CustomEvent("auth:unauthorized", {
-          detail: { message: "Session expired. Please login again." },
+    // Access tokens are short-lived: renew once with the refresh token, then replay the request
+    if (
+      error.response?.status === 401 &&
+      (refreshToken || hasRefreshCookie) &&
+      originalRequest &&
+      !originalRequest._retry &&
+      !isAuthCall
+    ) {
+      originalRequest._retry = true;
+      return refreshAccessToken(refreshToken)
+        .then((newToken) => {
+          originalRequest.headers.Authorization = `Bearer ${newToken}`;
+          return api(originalRequest);
         })
-      );
-
-      // Only redirect if we're not already on the auth page
-      if (window.location.pathname !== "/") {
-        // Use a small delay to ensure the event is processed
-        setTimeout(() => {
-          window.location.href = "/";
-        }, 100);
-      }
+        .catch(() => {
+          handleUnauthorized();
+          return Promise.reject(error);
+        });
+    }
+
+    if (error.response?.status === 401) {
+      handleUnauthorized();
     }
     return Promise.reject(error);
   }
 );
 
+// One refresh in flight at a time; concurrent 401s wait for the same result
+let refreshPromise: Promise<string> | null = null;
+
+// Without a stored refresh token (OAuth sign-in) the HttpOnly refresh cookie is sent instead
+const refreshAccessToken = (refreshToken: string | null): Promise<string> => {
+  if (!refreshPromise) {
+    refreshPromise = axios
+      .post(
+        `${API_BASE_URL}/auth/refresh`,
+        refreshToken ? { refreshToken } : {},
+        { withCredentials: true }
+      )
+      .then((response) => {
+        localStorage.setItem("token", response.data.token);
+        if (response.data.refreshToken) {
+          localStorage.setItem("refreshToken", response.data.refreshToken);
+        }
+        return response.data.token as string;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
+const handleUnauthorized = () => {
+  // Clear all auth data
+  clearAuthData();
+
+  // Dispatch custom event for authentication failure
+  window.dispatchEvent(
+    new CustomEvent("auth:unauthorized", {
+      detail: { message: "Session expired. Please login again." },
+    })
+  );
+
+  // Only redirect if we're not already on the auth page
+  if (window.location.pathname !== "/") {
+    // Use a small delay to ensure the event is processed
+    setTimeout(() => {
+      window.location.href = "/";
+    }, 100);
+  }
+};
+
 // API functions
 export const authAPI = {
   login: async (email: string, password: string) => {
@@ -125,7 +182,12 @@ export const authAPI = {
   },
 
   logout: async () => {
-    const response = await api.post("/auth/logout");
+    const refreshToken = localStorage.getItem("refreshToken");
+    const response = await api.post(
+      "/auth/logout",
+      { refreshToken },
+      { withCredentials: true }
+    );
     return response.data;
   },
 
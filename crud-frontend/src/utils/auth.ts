@@ -42,6 +42,8 @@ export const checkAuthStatus = (): boolean => {
 
 export const clearAuthData = (): void => {
   localStorage.removeItem("token");
+  localStorage.removeItem("refreshToken");
+  localStorage.removeItem("refreshCookie");
   // Clear any other auth-related data
   sessionStorage.clear();
 };
@@ -0,0 +1,18 @@
+package com.example.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Dependency tags of the entry a {@code @Cacheable} method caches, as SpEL over the parameters and
+ * {@code #result} (an {@code Optional} result is unwrapped). An expression may yield one tag or a
+ * collection of them. A committed entity change that emits a tag evicts every entry tagged with it;
+ * see {@code EntityInvalidationRules} for the tags each entity emits.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheTags {
+    String[] value();
+}
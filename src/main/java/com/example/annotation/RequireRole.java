@@ -6,8 +6,15 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Grants access when the caller holds any of the listed roles. {@link #value()} is matched against
+ * the user's primary role only; {@link #roles()} names dynamic roles from the roles table (e.g.
+ * "HR"), matched case-insensitively against those only.
+ */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface RequireRole {
-    UserRole[] value();
+    UserRole[] value() default {};
+
+    String[] roles() default {};
 }
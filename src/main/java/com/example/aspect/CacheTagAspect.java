@@ -0,0 +1,85 @@
+package com.example.aspect;
+
+import com.example.annotation.CacheTags;
+import com.example.cache.invalidation.CacheTagRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registers {@link CacheTags} for the entry the method's {@code @Cacheable} just cached. Ordered
+ * inside the caching advice (see {@code CacheConfig}), so it runs on cache misses only: hits cost
+ * nothing, and every cached entry was registered when it was loaded.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class CacheTagAspect {
+
+    private final CacheTagRegistry registry;
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    @AfterReturning(pointcut = "@annotation(cacheTags)", returning = "result")
+    public void registerTags(JoinPoint joinPoint, CacheTags cacheTags, Object result) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Cacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, Cacheable.class);
+        if (cacheable == null || cacheable.key().isEmpty()) {
+            log.warn("@CacheTags on {} needs @Cacheable with a key expression", method);
+            return;
+        }
+        MethodBasedEvaluationContext context =
+                new MethodBasedEvaluationContext(joinPoint.getTarget(), method, joinPoint.getArgs(), parameterNames);
+        context.setVariable("result", result instanceof Optional ? ((Optional<?>) result).orElse(null) : result);
+        try {
+            Object key = expression(cacheable.key()).getValue(context);
+            Set<String> tags = new LinkedHashSet<>();
+            for (String tagExpression : cacheTags.value()) {
+                addTags(expression(tagExpression).getValue(context), tags);
+            }
+            for (String cacheName : cacheable.cacheNames()) {
+                registry.register(cacheName, key, tags);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not register cache tags for {}: {}", method, e.getMessage());
+        }
+    }
+
+    private Expression expression(String source) {
+        return expressions.computeIfAbsent(source, parser::parseExpression);
+    }
+
+    private static void addTags(Object value, Set<String> tags) {
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                addTags(element, tags);
+            }
+        } else if (value != null) {
+            tags.add(value.toString());
+        }
+    }
+}
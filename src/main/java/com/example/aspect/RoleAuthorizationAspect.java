@@ -1,25 +1,30 @@
 package com.example.aspect;
 
 import com.example.annotation.RequireRole;
-import com.example.user.entity.User;
-import com.example.user.enums.UserRole;
 import com.example.exception.InsufficientPrivilegesException;
-import com.example.user.repository.UserRepository;
+import com.example.security.UserPrincipal;
+import com.example.user.enums.UserRole;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Enforces {@link RequireRole} from the principal the JWT filter resolved; no repository access.
+ * {@link RequireRole#value()} is checked against the user's primary {@link UserRole} only, and
+ * {@link RequireRole#roles()} against the dynamic roles only, so creating a dynamic role named
+ * after an enum role grants nothing. Callers whose principal is not a {@link UserPrincipal} are
+ * rejected, since their authorities cannot tell the two kinds apart.
+ */
 @Aspect
 @Component
 public class RoleAuthorizationAspect {
 
-    @Autowired
-    private UserRepository userRepository;
-
     @Before("@annotation(requireRole)")
     public void checkRole(JoinPoint joinPoint, RequireRole requireRole) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -27,27 +32,28 @@ public class RoleAuthorizationAspect {
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new InsufficientPrivilegesException("Authentication required");
         }
+        if (!(authentication.getPrincipal() instanceof UserPrincipal)) {
+            throw new InsufficientPrivilegesException("Insufficient privileges: no resolved user principal");
+        }
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
 
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new InsufficientPrivilegesException("User not found"));
-
-        UserRole[] requiredRoles = requireRole.value();
-        boolean hasRequiredRole = false;
-
-        for (UserRole role : requiredRoles) {
-            if (user.getRole() == role) {
-                hasRequiredRole = true;
-                break;
+        for (UserRole role : requireRole.value()) {
+            if (principal.getRole() == role) {
+                return;
             }
         }
-
-        if (!hasRequiredRole) {
-            throw new InsufficientPrivilegesException(
-                "Insufficient privileges. Required roles: " + 
-                java.util.Arrays.toString(requiredRoles) + 
-                ", User role: " + user.getRole()
-            );
+        Set<String> dynamicRoles = principal.getDynamicRoleNames();
+        for (String role : requireRole.roles()) {
+            if (dynamicRoles.contains(role.toUpperCase())) {
+                return;
+            }
         }
+
+        throw new InsufficientPrivilegesException(
+            "Insufficient privileges. Required roles: " + 
+            Arrays.toString(requireRole.value()) +
+            (requireRole.roles().length > 0 ? " " + Arrays.toString(requireRole.roles()) : "") +
+            ", User role: " + principal.getRole() + ", dynamic roles: " + dynamicRoles
+        );
     }
 }
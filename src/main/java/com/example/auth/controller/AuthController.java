@@ -3,17 +3,23 @@ package com.example.auth.controller;
 import com.example.auth.dto.LoginRequest;
 import com.example.auth.dto.RegisterRequest;
 import com.example.auth.dto.AuthResponse;
+import com.example.auth.dto.RefreshTokenRequest;
+import com.example.auth.ratelimit.AuthThrottle;
 import com.example.auth.service.AuthService;
 import com.example.auth.service.OAuth2Service;
 import com.example.user.dto.UserDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,8 +30,12 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class AuthController {
 
+    // OAuth sign-ins get their refresh token only as this cookie, never in the redirect URL
+    static final String REFRESH_COOKIE = "refresh_token";
+
     private final AuthService authService;
     private final OAuth2Service oAuth2Service;
+    private final AuthThrottle authThrottle;
 
     @Value("${spring.security.oauth2.client.registration.google.client-id}")
     private String googleClientId;
@@ -36,23 +46,57 @@ public class AuthController {
     @Value("${server.port:8080}")
     private int serverPort;
 
+    @Value("${jwt.refresh-expiration-ms:1209600000}")
+    private long refreshExpirationMs;
+
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request,
+                                                 HttpServletRequest httpRequest) {
+        authThrottle.check(httpRequest, request.getEmail());
         AuthResponse response = authService.register(request);
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
+        authThrottle.check(httpRequest, request.getEmail());
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Rotates the refresh token sent in the body, or else the one in the refresh cookie. A token
+     * that came from the cookie goes back as the cookie and is left out of the body.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(
+            @RequestBody(required = false) RefreshTokenRequest request,
+            @CookieValue(value = REFRESH_COOKIE, required = false) String cookieToken) {
+        String bodyToken = request != null ? request.getRefreshToken() : null;
+        if (bodyToken != null && !bodyToken.trim().isEmpty()) {
+            return ResponseEntity.ok(authService.refresh(bodyToken));
+        }
+        AuthResponse response = authService.refresh(cookieToken);
+        String next = response.getRefreshToken();
+        response.setRefreshToken(null);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, refreshCookie(next, refreshExpirationMs).toString())
+                .body(response);
+    }
+
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout() {
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) RefreshTokenRequest request,
+            @CookieValue(value = REFRESH_COOKIE, required = false) String cookieToken) {
         try {
-            authService.logout();
-            return ResponseEntity.ok().build();
+            String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+            String refreshToken = request != null && request.getRefreshToken() != null ? request.getRefreshToken() : cookieToken;
+            authService.logout(accessToken, refreshToken);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, refreshCookie("", 0).toString())
+                    .build();
         } catch (Exception e) {
             log.error("Error during logout: {}", e.getMessage());
             return ResponseEntity.status(500).build();
@@ -104,7 +148,10 @@ public class AuthController {
                     + "&email=" + response.getEmail()
                     + "&message=" + response.getMessage()
                     + "&success=true";
-            return ResponseEntity.status(302).header("Location", redirectUrl).build();
+            return ResponseEntity.status(302)
+                    .header("Location", redirectUrl)
+                    .header(HttpHeaders.SET_COOKIE, refreshCookie(response.getRefreshToken(), refreshExpirationMs).toString())
+                    .build();
         } catch (Exception e) {
             log.error("Error processing Google OAuth2 callback: {}", e.getMessage(), e);
             String errorRedirectUrl = "http://localhost:3000/oauth-callback?"
@@ -124,7 +171,10 @@ public class AuthController {
                     + "&email=" + response.getEmail()
                     + "&message=" + response.getMessage()
                     + "&success=true";
-            return ResponseEntity.status(302).header("Location", redirectUrl).build();
+            return ResponseEntity.status(302)
+                    .header("Location", redirectUrl)
+                    .header(HttpHeaders.SET_COOKIE, refreshCookie(response.getRefreshToken(), refreshExpirationMs).toString())
+                    .build();
         } catch (Exception e) {
             log.error("Error processing GitHub OAuth2 callback: {}", e.getMessage(), e);
             String errorRedirectUrl = "http://localhost:3000/oauth-callback?"
@@ -189,4 +239,18 @@ public class AuthController {
                 + "src/main/resources/application-local.properties");
         return ResponseEntity.status(503).body(response);
     }
+
+    /**
+     * HttpOnly so scripts cannot read it, Secure and SameSite=Strict so it only travels over HTTPS
+     * (browsers treat localhost as secure) with same-site requests, and scoped to /api/auth.
+     */
+    private ResponseCookie refreshCookie(String value, long maxAgeMs) {
+        return ResponseCookie.from(REFRESH_COOKIE, value)
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("Strict")
+                .path("/api/auth")
+                .maxAge(Duration.ofMillis(maxAgeMs))
+                .build();
+    }
 }
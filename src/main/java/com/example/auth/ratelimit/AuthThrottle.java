@@ -0,0 +1,98 @@
+package com.example.auth.ratelimit;
+
+import com.example.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Locale;
+
+/**
+ * Throttles credential endpoints per client IP and per email before any BCrypt or DB work.
+ *
+ * The IP bucket is checked first so an attacker spraying many emails from one address is
+ * stopped without creating an email bucket for each guess. Backend is {@code memory}
+ * (per node) or {@code redis} (shared, needs {@code spring.cache.type=redis}).
+ */
+@Slf4j
+@Component
+public class AuthThrottle {
+
+    private final boolean enabled;
+    private final boolean trustProxyHeaders;
+    private final RateLimiter ipLimiter;
+    private final RateLimiter emailLimiter;
+
+    public AuthThrottle(@Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                        @Value("${auth.rate-limit.backend:memory}") String backend,
+                        @Value("${auth.rate-limit.ip.capacity:30}") int ipCapacity,
+                        @Value("${auth.rate-limit.ip.refill-interval-ms:2000}") long ipRefillMs,
+                        @Value("${auth.rate-limit.email.capacity:10}") int emailCapacity,
+                        @Value("${auth.rate-limit.email.refill-interval-ms:30000}") long emailRefillMs,
+                        @Value("${auth.rate-limit.max-keys:100000}") int maxKeys,
+                        @Value("${auth.rate-limit.trust-proxy-headers:false}") boolean trustProxyHeaders,
+                        ObjectProvider<RedisTemplate<String, Object>> redisTemplate) {
+        this.enabled = enabled;
+        this.trustProxyHeaders = trustProxyHeaders;
+
+        RateLimiter localIp = new InMemoryTokenBucketRateLimiter(ipCapacity, ipRefillMs, maxKeys);
+        RateLimiter localEmail = new InMemoryTokenBucketRateLimiter(emailCapacity, emailRefillMs, maxKeys);
+        RedisTemplate<String, Object> template = "redis".equalsIgnoreCase(backend) ? redisTemplate.getIfAvailable() : null;
+
+        if (template != null) {
+            this.ipLimiter = new RedisTokenBucketRateLimiter(template, "ratelimit:auth:ip:", ipCapacity, ipRefillMs, localIp);
+            this.emailLimiter = new RedisTokenBucketRateLimiter(template, "ratelimit:auth:email:", emailCapacity, emailRefillMs, localEmail);
+        } else {
+            if ("redis".equalsIgnoreCase(backend)) {
+                log.warn("auth.rate-limit.backend=redis but no RedisTemplate is configured; using in-memory limits");
+            }
+            this.ipLimiter = localIp;
+            this.emailLimiter = localEmail;
+        }
+        log.info("Auth rate limit: enabled={}, backend={}, ip={}/{}ms, email={}/{}ms", enabled,
+                template != null ? "redis" : "memory", ipCapacity, ipRefillMs, emailCapacity, emailRefillMs);
+    }
+
+    /**
+     * Takes one permit for the caller's IP and then for {@code email}.
+     *
+     * @throws TooManyRequestsException when either bucket is empty
+     */
+    public void check(HttpServletRequest request, String email) {
+        if (!enabled) {
+            return;
+        }
+        reject(ipLimiter.tryAcquire(clientIp(request)));
+        if (email != null && !email.trim().isEmpty()) {
+            reject(emailLimiter.tryAcquire(email.trim().toLowerCase(Locale.ROOT)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.sweep-interval-ms:10000}")
+    public void sweep() {
+        ipLimiter.sweep();
+        emailLimiter.sweep();
+    }
+
+    String clientIp(HttpServletRequest request) {
+        // Only X-Real-IP: nginx overwrites it, while the first X-Forwarded-For entry is client-supplied
+        if (trustProxyHeaders) {
+            String realIp = request.getHeader("X-Real-IP");
+            if (realIp != null && !realIp.isEmpty()) {
+                return realIp.trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static void reject(long waitMs) {
+        if (waitMs > 0) {
+            long retryAfterSeconds = Math.max(1L, (waitMs + 999) / 1000);
+            throw new TooManyRequestsException("Too many authentication attempts. Please retry later.", retryAfterSeconds);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.auth.ratelimit;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets held in process memory.
+ *
+ * Each bucket is a single {@link AtomicLong} packing the last refill time (upper 42 bits,
+ * milliseconds since the limiter was created) and the available milli-tokens (lower 22 bits),
+ * so a check is one CAS with no allocation. Idle buckets are expired through a time wheel:
+ * a new key is parked in the slot where it would be full again, and {@link #sweep()} walks
+ * the elapsed slots, dropping idle keys and re-parking active ones. Once {@code maxKeys} is
+ * reached, a new key makes room for itself: idle keys are swept first (their buckets have
+ * refilled, so nothing is lost), then the key parked nearest the head of the wheel, the one that
+ * has gone longest without a sweep seeing it active, is evicted. Memory stays bounded under a
+ * high-cardinality attack without pushing new callers into a shared bucket.
+ */
+public class InMemoryTokenBucketRateLimiter implements RateLimiter {
+
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000L;
+
+    private final long capacityMilli;
+    private final long refillIntervalMs;
+    private final long idleTtlMs;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    private final long epochMs;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final long slotMs;
+    private final Set<String>[] wheel;
+    private long sweptTick;
+
+    /**
+     * @param capacity         burst size in permits
+     * @param refillIntervalMs one permit is added every {@code refillIntervalMs}
+     * @param maxKeys          distinct keys tracked before cold keys are evicted to make room
+     */
+    public InMemoryTokenBucketRateLimiter(int capacity, long refillIntervalMs, int maxKeys) {
+        this(capacity, refillIntervalMs, maxKeys, System::currentTimeMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    InMemoryTokenBucketRateLimiter(int capacity, long refillIntervalMs, int maxKeys, LongSupplier clock) {
+        if (capacity < 1 || capacity * MILLI > TOKEN_MASK) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + TOKEN_MASK / MILLI);
+        }
+        if (refillIntervalMs < 1) {
+            throw new IllegalArgumentException("refillIntervalMs must be positive");
+        }
+        this.capacityMilli = capacity * MILLI;
+        this.refillIntervalMs = refillIntervalMs;
+        this.idleTtlMs = capacity * refillIntervalMs;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.epochMs = clock.getAsLong();
+
+        this.slotMs = Math.max(100L, idleTtlMs / 64);
+        int slots = (int) (idleTtlMs / slotMs) + 2;
+        this.wheel = new Set[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.sweptTick = 0;
+    }
+
+    @Override
+    public long tryAcquire(String key) {
+        long now = now();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = register(key, now);
+        }
+        return take(bucket, now);
+    }
+
+    @Override
+    public synchronized void sweep() {
+        long now = now();
+        long currentTick = now / slotMs;
+        // Never walk more than one full revolution: every slot gets visited once
+        long from = Math.max(sweptTick + 1, currentTick - wheel.length + 1);
+        for (long tick = from; tick <= currentTick; tick++) {
+            Set<String> slot = wheel[(int) (tick % wheel.length)];
+            for (String key : slot) {
+                slot.remove(key);
+                AtomicLong bucket = buckets.get(key);
+                if (bucket == null) {
+                    continue;
+                }
+                long lastTouch = bucket.get() >>> TOKEN_BITS;
+                if (now - lastTouch >= idleTtlMs) {
+                    buckets.remove(key, bucket);
+                } else {
+                    park(key, lastTouch + idleTtlMs, currentTick);
+                }
+            }
+        }
+        sweptTick = currentTick;
+    }
+
+    /** Number of keys with a bucket. */
+    public int trackedKeys() {
+        return buckets.size();
+    }
+
+    private AtomicLong register(String key, long now) {
+        if (buckets.size() >= maxKeys) {
+            evictColdest();
+        }
+        AtomicLong created = new AtomicLong(pack(now, capacityMilli));
+        AtomicLong existing = buckets.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        park(key, now + idleTtlMs, now / slotMs);
+        return created;
+    }
+
+    /**
+     * Makes room for one key at the cap. Called only on a miss at the cap, so the lock stays off
+     * the path of known keys.
+     */
+    private synchronized void evictColdest() {
+        sweep();
+        if (buckets.size() < maxKeys) {
+            return;
+        }
+        // Every slot up to sweptTick is empty now; the next ones hold the keys due soonest
+        for (long tick = sweptTick + 1; tick <= sweptTick + wheel.length; tick++) {
+            Set<String> slot = wheel[(int) (tick % wheel.length)];
+            for (String key : slot) {
+                slot.remove(key);
+                if (buckets.remove(key) != null) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void park(String key, long dueMs, long currentTick) {
+        long tick = Math.max(dueMs / slotMs, currentTick + 1);
+        wheel[(int) (tick % wheel.length)].add(key);
+    }
+
+    private long take(AtomicLong bucket, long now) {
+        while (true) {
+            long state = bucket.get();
+            long last = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+            long elapsed = Math.max(0L, now - last);
+            long available = Math.min(capacityMilli, tokens + elapsed * MILLI / refillIntervalMs);
+
+            if (available < MILLI) {
+                long missing = MILLI - available;
+                return Math.max(1L, (missing * refillIntervalMs + MILLI - 1) / MILLI);
+            }
+            long updated = pack(Math.max(now, last), available - MILLI);
+            if (bucket.compareAndSet(state, updated)) {
+                return 0L;
+            }
+        }
+    }
+
+    private long now() {
+        return clock.getAsLong() - epochMs;
+    }
+
+    private static long pack(long timeMs, long milliTokens) {
+        return (timeMs << TOKEN_BITS) | milliTokens;
+    }
+}
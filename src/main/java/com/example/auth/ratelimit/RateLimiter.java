@@ -0,0 +1,18 @@
+package com.example.auth.ratelimit;
+
+/**
+ * Token-bucket style limiter keyed by an arbitrary string (client IP, email, ...).
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes one permit for {@code key}.
+     *
+     * @return 0 when the permit was granted, otherwise the number of milliseconds until one is available
+     */
+    long tryAcquire(String key);
+
+    /** Drops state for keys that have been idle long enough to be full again. No-op for remote stores. */
+    default void sweep() {
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.auth.revocation;
+
+import com.example.auth.entity.RevokedToken;
+import com.example.auth.repository.RevokedTokenRepository;
+import com.example.security.PrincipalCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node-local mirror of the {@code revoked_tokens} table.
+ *
+ * Revoked access-token ids are kept in a {@link BloomFilter}, so the common case (token not
+ * revoked) is answered without a database read; only a filter hit is confirmed against the
+ * table. Each node pulls new rows every {@code jwt.revocation.sync-interval-ms} and rebuilds
+ * the filter from scratch every {@code jwt.revocation.rebuild-interval-ms}, which also drops
+ * expired entries. Security-version rows evict the user's cached principal on every node.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final PrincipalCache principalCache;
+    private final Counter databaseChecks;
+    private final Counter rejected;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Rows committed slightly out of revoked_at order (or from a node with a skewed clock) are still picked up
+    @Value("${jwt.revocation.sync-overlap-ms:30000}")
+    private long syncOverlapMs;
+
+    private volatile BloomFilter filter;
+    private volatile boolean ready;
+    private LocalDateTime syncedUntil;
+    private final Map<Long, LocalDateTime> recentlySeen = new HashMap<>();
+    private final Cache<String, Boolean> confirmed = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository, PrincipalCache principalCache,
+                               MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.principalCache = principalCache;
+        this.databaseChecks = Counter.builder("security.revocation.db.checks")
+                .description("Bloom filter hits confirmed against the revoked_tokens table")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("security.revocation.rejected")
+                .description("Requests rejected because their access token was revoked")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Until the first successful rebuild every check goes to the database
+            log.warn("Could not load token revocation list at startup: {}", e.getMessage());
+        }
+    }
+
+    /** True if the access token with this {@code jti} has been revoked. */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (ready && !filter.mightContain(jti)) {
+            return false;
+        }
+        if (confirmed.getIfPresent(jti) != null) {
+            rejected.increment();
+            return true;
+        }
+        databaseChecks.increment();
+        boolean revoked = revokedTokenRepository.existsByJti(jti);
+        if (revoked) {
+            confirmed.put(jti, Boolean.TRUE);
+            rejected.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Revokes one access token until its own expiry. Inside a transaction the local filter and
+     * confirmation cache are only updated after commit, so a rollback leaves no phantom entry.
+     */
+    public void revokeToken(final String jti, LocalDateTime expiresAt) {
+        if (jti == null || revokedTokenRepository.existsByJti(jti)) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .expiresAt(expiresAt)
+                .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markRevoked(jti);
+                }
+            });
+        } else {
+            markRevoked(jti);
+        }
+    }
+
+    private void markRevoked(String jti) {
+        filter.put(jti);
+        confirmed.put(jti, Boolean.TRUE);
+    }
+
+    /**
+     * Records that every token of {@code email} issued below {@code securityVersion} is revoked.
+     * Locally the caller has already evicted the principal; other nodes do so on their next sync.
+     */
+    public void revokeUserTokensBelow(String email, long securityVersion, LocalDateTime expiresAt) {
+        revokedTokenRepository.save(RevokedToken.builder()
+                .userEmail(email)
+                .securityVersion(securityVersion)
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    /** Pulls rows revoked on other nodes since the last sync. */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}",
+               initialDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public synchronized void syncDeltas() {
+        if (!ready) {
+            rebuild();
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> rows = revokedTokenRepository.findByRevokedAtAfter(syncedUntil.minus(Duration.ofMillis(syncOverlapMs)));
+        BloomFilter current = filter;
+        for (RevokedToken row : rows) {
+            if (recentlySeen.put(row.getId(), row.getRevokedAt()) != null) {
+                continue;
+            }
+            if (row.getJti() != null) {
+                current.put(row.getJti());
+            }
+            if (row.getUserEmail() != null) {
+                principalCache.invalidate(row.getUserEmail());
+            }
+        }
+        syncedUntil = now;
+        forgetOlderThan(now.minus(Duration.ofMillis(syncOverlapMs * 2)));
+    }
+
+    /** Rebuilds the filter from the unexpired rows and prunes expired ones. */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}",
+               initialDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int pruned = revokedTokenRepository.deleteExpired(now);
+        List<String> jtis = revokedTokenRepository.findActiveJtis(now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, jtis.size() * 2), falsePositiveRate);
+        for (String jti : jtis) {
+            rebuilt.put(jti);
+        }
+        filter = rebuilt;
+        // Rows still uncommitted during the query above fall inside the next sync's overlap window
+        syncedUntil = now;
+        recentlySeen.clear();
+        ready = true;
+        log.info("Token revocation filter rebuilt: {} active entries, {} pruned, {} bits, k={}",
+                jtis.size(), pruned, rebuilt.bitSize(), rebuilt.hashFunctions());
+    }
+
+    private void forgetOlderThan(LocalDateTime cutoff) {
+        Iterator<Map.Entry<Long, LocalDateTime>> it = recentlySeen.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue().isBefore(cutoff)) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -15,5 +15,7 @@ public interface AuthService {
     
     UserDto getCurrentUser();
     
-    void logout();
+    AuthResponse refresh(String refreshToken);
+    
+    void logout(String accessToken, String refreshToken);
 }
@@ -0,0 +1,19 @@
+package com.example.auth.service;
+
+import com.example.auth.dto.AuthResponse;
+import com.example.user.entity.User;
+
+public interface TokenService {
+
+    /** Issues a short-lived access token and a new refresh-token family for {@code user}. */
+    AuthResponse issueTokens(User user, String message);
+
+    /** Rotates {@code refreshToken}: the presented token is spent and a new pair is returned. */
+    AuthResponse refresh(String refreshToken);
+
+    /** Revokes the given access token and the refresh-token family; either may be null. */
+    void logout(String accessToken, String refreshToken);
+
+    /** Invalidates every access and refresh token of {@code user} on all nodes. */
+    void revokeAllSessions(User user);
+}
@@ -11,13 +11,20 @@ import com.example.user.mapper.UserMapper;
 import com.example.user.repository.UserRepository;
 import com.example.user.service.UserService;
 import com.example.auth.service.AuthService;
-import com.example.security.JwtUtil;
+import com.example.auth.service.TokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Login, register and createAdmin run without a surrounding transaction: BCrypt may queue for up
+ * to the hashing pool's wait timeout, and a transaction would hold a pooled connection for all of
+ * it. The user is read in its own short call, the hash is done with no connection held, and the
+ * writes (user row, refresh token) each commit in their own repository/service transaction.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -26,11 +33,12 @@ public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtUtil jwtUtil;
+    private final TokenService tokenService;
     private final UserService userService;
     private final UserMapper userMapper;
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegisterRequest request) {
         log.info("Registration attempt for email: {}", request.getEmail());
         
@@ -52,16 +60,11 @@ public class AuthServiceImpl implements AuthService {
         User savedUser = userRepository.save(user);
         log.info("User registered successfully: {}", savedUser.getEmail());
         
-        String token = jwtUtil.generateToken(savedUser.getEmail());
-        
-        return AuthResponse.builder()
-                .token(token)
-                .message("User registered successfully")
-                .email(savedUser.getEmail())
-                .build();
+        return tokenService.issueTokens(savedUser, "User registered successfully");
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest request) {
         log.info("Login attempt for: {}", request.getEmail());
         
@@ -78,16 +81,11 @@ public class AuthServiceImpl implements AuthService {
         
         log.info("Login success for: {}", request.getEmail());
         
-        String token = jwtUtil.generateToken(user.getEmail());
-        
-        return AuthResponse.builder()
-                .token(token)
-                .message("Login successful")
-                .email(user.getEmail())
-                .build();
+        return tokenService.issueTokens(user, "Login successful");
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse createAdmin(RegisterRequest request) {
         log.info("Admin creation attempt for email: {}", request.getEmail());
         
@@ -113,13 +111,7 @@ public class AuthServiceImpl implements AuthService {
         User savedAdmin = userRepository.save(adminUser);
         log.info("First admin user created: {}", savedAdmin.getEmail());
         
-        String token = jwtUtil.generateToken(savedAdmin.getEmail());
-        
-        return AuthResponse.builder()
-                .token(token)
-                .message("Admin user created successfully")
-                .email(savedAdmin.getEmail())
-                .build();
+        return tokenService.issueTokens(savedAdmin, "Admin user created successfully");
     }
 
     @Override
@@ -129,8 +121,13 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public void logout() {
-        // Stateless JWT: client should discard token. Nothing to invalidate server-side.
-        log.info("Logout request processed");
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    public AuthResponse refresh(String refreshToken) {
+        return tokenService.refresh(refreshToken);
+    }
+
+    @Override
+    public void logout(String accessToken, String refreshToken) {
+        tokenService.logout(accessToken, refreshToken);
     }
 }
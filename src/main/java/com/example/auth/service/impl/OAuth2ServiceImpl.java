@@ -3,10 +3,10 @@ package com.example.auth.service.impl;
 import com.example.auth.dto.AuthResponse;
 import com.example.auth.dto.OAuth2UserInfo;
 import com.example.auth.service.OAuth2Service;
+import com.example.auth.service.TokenService;
 import com.example.user.entity.User;
 import com.example.user.enums.UserRole;
 import com.example.user.service.UserService;
-import com.example.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -29,7 +29,7 @@ import java.util.Optional;
 public class OAuth2ServiceImpl implements OAuth2Service {
 
     private final UserService userService;
-    private final JwtUtil jwtUtil;
+    private final TokenService tokenService;
     private final RestTemplate restTemplate;
 
     @Value("${spring.security.oauth2.client.registration.google.client-id}")
@@ -57,14 +57,8 @@ public class OAuth2ServiceImpl implements OAuth2Service {
             // Find or create user
             User user = findOrCreateOAuth2User(userInfo);
             
-            // Generate JWT token
-            String token = jwtUtil.generateToken(user.getEmail());
-            
-            return AuthResponse.builder()
-                    .token(token)
-                    .email(user.getEmail())
-                    .message("OAuth2 authentication successful")
-                    .build();
+            // Issue access + refresh tokens
+            return tokenService.issueTokens(user, "OAuth2 authentication successful");
                     
         } catch (Exception e) {
             log.error("Error processing Google OAuth2: {}", e.getMessage(), e);
@@ -85,14 +79,8 @@ public class OAuth2ServiceImpl implements OAuth2Service {
             // Find or create user
             User user = findOrCreateOAuth2User(userInfo);
             
-            // Generate JWT token
-            String token = jwtUtil.generateToken(user.getEmail());
-            
-            return AuthResponse.builder()
-                    .token(token)
-                    .email(user.getEmail())
-                    .message("OAuth2 authentication successful")
-                    .build();
+            // Issue access + refresh tokens
+            return tokenService.issueTokens(user, "OAuth2 authentication successful");
                     
         } catch (Exception e) {
             log.error("Error processing GitHub OAuth2: {}", e.getMessage(), e);
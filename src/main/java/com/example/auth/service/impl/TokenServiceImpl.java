@@ -0,0 +1,191 @@
+package com.example.auth.service.impl;
+
+import com.example.auth.dto.AuthResponse;
+import com.example.auth.entity.RefreshToken;
+import com.example.auth.exception.InvalidCredentialsException;
+import com.example.auth.repository.RefreshTokenRepository;
+import com.example.auth.revocation.TokenRevocationList;
+import com.example.auth.service.TokenService;
+import com.example.security.JwtUtil;
+import com.example.security.PrincipalCache;
+import com.example.user.entity.User;
+import com.example.user.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TokenServiceImpl implements TokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final JwtUtil jwtUtil;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final TokenRevocationList revocationList;
+    private final PrincipalCache principalCache;
+
+    @Value("${jwt.refresh-expiration-ms:1209600000}")
+    private long refreshExpirationMs;
+
+    // Two tabs refreshing with the same token moments apart is a race, not theft
+    @Value("${jwt.refresh-reuse-grace-ms:10000}")
+    private long reuseGraceMs;
+
+    @Override
+    public AuthResponse issueTokens(User user, String message) {
+        String refreshToken = createRefreshToken(user.getId(), UUID.randomUUID().toString()).raw;
+        return buildResponse(user, refreshToken, message);
+    }
+
+    // Reuse detection revokes in the same transaction that reports the failure
+    @Override
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    public AuthResponse refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.trim().isEmpty()) {
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (current.getRevokedAt() != null) {
+            boolean rotated = current.getReplacedById() != null;
+            if (rotated && current.getRevokedAt().plus(Duration.ofMillis(reuseGraceMs)).isBefore(now)) {
+                handleReuse(current, now);
+            }
+            throw new InvalidCredentialsException("Refresh token has been revoked");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new InvalidCredentialsException("Refresh token expired");
+        }
+
+        User user = userRepository.findById(current.getUserId())
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+
+        IssuedRefreshToken next = createRefreshToken(user.getId(), current.getFamilyId());
+        if (refreshTokenRepository.markRotated(current.getId(), next.entity.getId(), now) == 0) {
+            // Another request spent this token between our read and update
+            refreshTokenRepository.delete(next.entity);
+            throw new InvalidCredentialsException("Refresh token has been revoked");
+        }
+
+        return buildResponse(user, next.raw, "Token refreshed");
+    }
+
+    @Override
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null && !accessToken.isEmpty()) {
+            try {
+                Claims claims = jwtUtil.extractAllClaims(accessToken);
+                revocationList.revokeToken(claims.getId(), toLocalDateTime(claims.getExpiration().getTime()));
+            } catch (JwtException | IllegalArgumentException e) {
+                // Expired or malformed: nothing left to revoke
+                log.debug("Logout with unusable access token: {}", e.getMessage());
+            }
+        }
+        if (refreshToken != null && !refreshToken.isEmpty()) {
+            refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                    .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+        }
+        log.info("Logout request processed");
+    }
+
+    @Override
+    public void revokeAllSessions(User user) {
+        user.bumpSecurityVersion();
+        userRepository.save(user);
+        refreshTokenRepository.revokeAllForUser(user.getId(), LocalDateTime.now());
+        revocationList.revokeUserTokensBelow(user.getEmail(), user.getSecurityVersion(),
+                toLocalDateTime(System.currentTimeMillis() + jwtUtil.getExpirationMs()));
+        principalCache.invalidate(user.getEmail());
+        log.warn("All sessions revoked for user: {}", user.getEmail());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.prune-interval-ms:3600000}",
+               initialDelayString = "${jwt.refresh.prune-interval-ms:3600000}")
+    public void pruneExpiredRefreshTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Pruned {} expired refresh tokens", deleted);
+        }
+    }
+
+    private void handleReuse(RefreshToken reused, LocalDateTime now) {
+        log.warn("Refresh token reuse detected for user id {} (family {}), revoking sessions",
+                reused.getUserId(), reused.getFamilyId());
+        refreshTokenRepository.revokeFamily(reused.getFamilyId(), now);
+        // Access tokens minted from the stolen chain die with the security version bump
+        userRepository.findById(reused.getUserId()).ifPresent(this::revokeAllSessions);
+    }
+
+    private AuthResponse buildResponse(User user, String refreshToken, String message) {
+        long securityVersion = user.getSecurityVersion() != null ? user.getSecurityVersion() : 0L;
+        return AuthResponse.builder()
+                .token(jwtUtil.generateToken(user.getEmail(), securityVersion))
+                .refreshToken(refreshToken)
+                .expiresIn(jwtUtil.getExpirationMs() / 1000)
+                .message(message)
+                .email(user.getEmail())
+                .build();
+    }
+
+    private IssuedRefreshToken createRefreshToken(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        RefreshToken entity = refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(raw))
+                .userId(userId)
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs)))
+                .build());
+        return new IssuedRefreshToken(raw, entity);
+    }
+
+    private static String hash(String raw) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class IssuedRefreshToken {
+        private final String raw;
+        private final RefreshToken entity;
+
+        private IssuedRefreshToken(String raw, RefreshToken entity) {
+            this.raw = raw;
+            this.entity = entity;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks which keys are accessed most often, in constant memory: a {@link CountMinSketch} holds
+ * the counts and a small candidate set ({@code capacity} keys) remembers the current heavy
+ * hitters. A newcomer replaces the least frequent candidate only when its estimate is higher.
+ *
+ * Counts decay: after {@code 10 × width} recorded accesses every counter is halved, so a city
+ * that was popular yesterday gives way to today's.
+ */
+public class AccessFrequencyTracker {
+
+    private static final int DEPTH = 4;
+    private static final int SAMPLES_PER_COUNTER = 10;
+
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final int sampleSize;
+    private final AtomicInteger samples = new AtomicInteger();
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+
+    /** Estimate a newcomer must beat once the candidate set is full. */
+    private volatile int admissionThreshold;
+
+    public AccessFrequencyTracker(int capacity, int width) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Tracker capacity must be positive");
+        }
+        this.sketch = new CountMinSketch(DEPTH, width);
+        this.capacity = capacity;
+        this.sampleSize = sketch.getWidth() * SAMPLES_PER_COUNTER;
+    }
+
+    public void record(String key) {
+        int estimate = sketch.increment(key);
+        if (samples.incrementAndGet() == sampleSize) {
+            decay();
+        }
+        if (estimate > admissionThreshold && !candidates.contains(key)) {
+            admit(key, estimate);
+        }
+    }
+
+    public int estimate(String key) {
+        return sketch.estimate(key);
+    }
+
+    /** Most frequently accessed keys, highest estimate first. */
+    public List<HotKey> topKeys(int limit) {
+        List<HotKey> hot = new ArrayList<>(candidates.size());
+        for (String key : candidates) {
+            hot.add(new HotKey(key, sketch.estimate(key)));
+        }
+        return hot.stream()
+                .sorted(Comparator.comparingInt(HotKey::getEstimate).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private synchronized void admit(String key, int estimate) {
+        if (candidates.contains(key)) {
+            return;
+        }
+        if (candidates.size() < capacity) {
+            candidates.add(key);
+            return;
+        }
+        String coldest = null;
+        int coldestEstimate = Integer.MAX_VALUE;
+        for (String candidate : candidates) {
+            int candidateEstimate = sketch.estimate(candidate);
+            if (candidateEstimate < coldestEstimate) {
+                coldest = candidate;
+                coldestEstimate = candidateEstimate;
+            }
+        }
+        if (estimate <= coldestEstimate) {
+            admissionThreshold = coldestEstimate;
+            return;
+        }
+        candidates.remove(coldest);
+        candidates.add(key);
+        int threshold = Integer.MAX_VALUE;
+        for (String candidate : candidates) {
+            threshold = Math.min(threshold, sketch.estimate(candidate));
+        }
+        admissionThreshold = threshold;
+    }
+
+    private synchronized void decay() {
+        sketch.halve();
+        admissionThreshold >>>= 1;
+        samples.set(0);
+    }
+
+    public static final class HotKey {
+        private final String key;
+        private final int estimate;
+
+        HotKey(String key, int estimate) {
+            this.key = key;
+            this.estimate = estimate;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getEstimate() {
+            return estimate;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.cache;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Cache key made of a scope ({@code UserServiceImpl}, {@code user}), a method name and the call's
+ * arguments. Equality and the hash (computed once) are over the arguments themselves, like
+ * Spring's {@code SimpleKey}, so {@code (null, "x")} and {@code ("x")} are different keys.
+ *
+ * <p>{@link #toString()} is the key's stable text form: what the Redis cache, the L1 and the
+ * invalidation broadcasts see ({@code TwoLevelCache} keys both levels by {@code String.valueOf}).
+ * It is built once, on first use: {@code scope.method:arg:arg}, with {@code null} written as
+ * {@code \0}, arrays and collections as {@code [a,b]}, and {@code \ : , [ ]} inside arguments
+ * escaped with a backslash, so distinct argument lists never render the same. Arguments at one
+ * position are expected to have one type, as method parameters do: {@code 1L} and {@code "1"}
+ * render alike.
+ */
+public final class CacheKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Object[] NO_PARAMS = new Object[0];
+    private static final String NULL = "\\0";
+
+    private final String scope;
+    private final String method;
+    private final Object[] params;
+    private final int hash;
+    private transient String text;
+
+    private CacheKey(String scope, String method, Object[] params) {
+        this.scope = scope;
+        this.method = method;
+        this.params = params;
+        this.hash = 31 * (31 * scope.hashCode() + method.hashCode()) + Arrays.deepHashCode(params);
+    }
+
+    /** {@code params} is copied; {@code null} means no arguments. */
+    public static CacheKey of(String scope, String method, Object... params) {
+        if (scope == null || method == null) {
+            throw new IllegalArgumentException("scope and method are required");
+        }
+        return new CacheKey(scope, method, params == null || params.length == 0 ? NO_PARAMS : params.clone());
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public int size() {
+        return params.length;
+    }
+
+    public Object get(int index) {
+        return params[index];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey that = (CacheKey) other;
+        return hash == that.hash && scope.equals(that.scope) && method.equals(that.method)
+                && Arrays.deepEquals(params, that.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        String result = text;
+        if (result == null) {
+            StringBuilder out = new StringBuilder(scope.length() + method.length() + 1 + 12 * params.length);
+            out.append(scope).append('.').append(method);
+            for (Object param : params) {
+                out.append(':');
+                appendPart(out, param);
+            }
+            result = out.toString();
+            text = result;
+        }
+        return result;
+    }
+
+    private static void appendPart(StringBuilder out, Object part) {
+        if (part == null) {
+            out.append(NULL);
+        } else if (part instanceof String) {
+            appendEscaped(out, (String) part);
+        } else if (part instanceof Number || part instanceof Boolean) {
+            out.append(part);
+        } else if (part instanceof Enum) {
+            out.append(((Enum<?>) part).name());
+        } else if (part.getClass().isArray()) {
+            out.append('[');
+            for (int i = 0, n = Array.getLength(part); i < n; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendPart(out, Array.get(part, i));
+            }
+            out.append(']');
+        } else if (part instanceof Collection) {
+            out.append('[');
+            for (Iterator<?> it = ((Collection<?>) part).iterator(); it.hasNext(); ) {
+                appendPart(out, it.next());
+                if (it.hasNext()) {
+                    out.append(',');
+                }
+            }
+            out.append(']');
+        } else {
+            appendEscaped(out, part.toString());
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == ':' || c == ',' || c == '[' || c == ']') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+    }
+}
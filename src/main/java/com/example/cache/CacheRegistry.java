@@ -0,0 +1,64 @@
+package com.example.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All {@link StaleWhileRevalidateCache} beans by name, so cache management (clear, list) covers
+ * them alongside the Spring {@code CacheManager} caches. Also purges hard-expired entries.
+ */
+@Component
+@Slf4j
+public class CacheRegistry {
+
+    private final Map<String, StaleWhileRevalidateCache<?, ?>> caches = new LinkedHashMap<>();
+
+    public CacheRegistry(List<StaleWhileRevalidateCache<?, ?>> caches) {
+        for (StaleWhileRevalidateCache<?, ?> cache : caches) {
+            this.caches.put(cache.getName(), cache);
+        }
+    }
+
+    public StaleWhileRevalidateCache<?, ?> get(String name) {
+        return caches.get(name);
+    }
+
+    public Collection<String> getNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    public Collection<StaleWhileRevalidateCache<?, ?>> getAll() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+
+    /** Returns {@code true} when a cache with that name exists. */
+    public boolean clear(String name) {
+        StaleWhileRevalidateCache<?, ?> cache = caches.get(name);
+        if (cache == null) {
+            return false;
+        }
+        cache.clear();
+        return true;
+    }
+
+    public void clearAll() {
+        caches.values().forEach(StaleWhileRevalidateCache::clear);
+    }
+
+    @Scheduled(fixedDelayString = "${cache.swr.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        for (StaleWhileRevalidateCache<?, ?> cache : caches.values()) {
+            int removed = cache.purgeExpired();
+            if (removed > 0) {
+                log.debug("Purged {} expired entries from cache '{}'", removed, cache.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.cache;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Approximate per-key access counts in constant memory ({@code depth × width} ints). Estimates
+ * never undercount; collisions can only overcount, by roughly {@code total / width}.
+ * Lock-free: counters are updated with atomic increments.
+ */
+public class CountMinSketch {
+
+    private static final int[] SEEDS = {
+            0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1, 0xD3A2646C, 0xFD7046C5, 0xB55A4F09
+    };
+
+    private final int depth;
+    private final int width;
+    private final AtomicIntegerArray counters;
+
+    /** {@code width} is rounded up to a power of two; {@code depth} is between 1 and 8. */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length || width < 1) {
+            throw new IllegalArgumentException("Require 1 <= depth <= " + SEEDS.length + " and width >= 1");
+        }
+        int powerOfTwo = 1;
+        while (powerOfTwo < width) {
+            powerOfTwo <<= 1;
+        }
+        this.depth = depth;
+        this.width = powerOfTwo;
+        this.counters = new AtomicIntegerArray(depth * this.width);
+    }
+
+    /** Counts one access and returns the new estimate for {@code key}. */
+    public int increment(String key) {
+        int hash = key.hashCode();
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    public int estimate(String key) {
+        int hash = key.hashCode();
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /** Halves every counter, so old popularity fades and recent accesses dominate. */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.updateAndGet(i, count -> count >>> 1);
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    private int index(int hash, int row) {
+        // Murmur3 finaliser over the key hash mixed with a per-row seed
+        int h = hash ^ SEEDS[row];
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return row * width + (h & (width - 1));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keeps the most requested keys of a {@link StaleWhileRevalidateCache} warm. Services report
+ * every lookup with {@link #recordAccess}; an {@link AccessFrequencyTracker} per cache finds the
+ * heavy hitters. Every {@code cache.prefetch.interval-ms} the top {@code cache.prefetch.top-n}
+ * keys that turn stale within {@code cache.prefetch.lead-seconds} are refreshed in the background,
+ * so popular cities and pairs do not expire in front of a user.
+ *
+ * Tracked keys may differ from cache keys (e.g. currency pairs all map to one rate table), so
+ * each registration supplies the mapping. A prefetch counts as a hit when its entry is read
+ * before the next prefetch round drops it.
+ */
+@Component
+@Slf4j
+public class HotKeyPrefetcher {
+
+    private final Map<String, Target<?, ?>> targets = new ConcurrentSkipListMap<>();
+    private final boolean enabled;
+    private final int topN;
+    private final long leadMs;
+    private final int trackedKeys;
+    private final int sketchWidth;
+
+    public HotKeyPrefetcher(@Value("${cache.prefetch.enabled:true}") boolean enabled,
+                            @Value("${cache.prefetch.top-n:20}") int topN,
+                            @Value("${cache.prefetch.lead-seconds:60}") long leadSeconds,
+                            @Value("${cache.prefetch.tracked-keys:200}") int trackedKeys,
+                            @Value("${cache.prefetch.sketch-width:4096}") int sketchWidth) {
+        this.enabled = enabled;
+        this.topN = topN;
+        this.leadMs = TimeUnit.SECONDS.toMillis(leadSeconds);
+        this.trackedKeys = trackedKeys;
+        this.sketchWidth = sketchWidth;
+    }
+
+    /**
+     * Starts tracking accesses for {@code cache}. {@code cacheKey} maps a tracked key to the cache
+     * key to refresh; {@code loader} loads it, as for {@link StaleWhileRevalidateCache#get}.
+     */
+    public <K, V> void register(StaleWhileRevalidateCache<K, V> cache, Function<String, K> cacheKey,
+                                Function<? super K, ? extends V> loader) {
+        targets.put(cache.getName(), new Target<>(cache, cacheKey, loader,
+                new AccessFrequencyTracker(trackedKeys, sketchWidth)));
+    }
+
+    /** Counts one lookup of {@code key}; ignored for caches that were not registered. */
+    public void recordAccess(String cacheName, String key) {
+        Target<?, ?> target = targets.get(cacheName);
+        if (target != null) {
+            target.record(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.prefetch.interval-ms:30000}",
+            initialDelayString = "${cache.prefetch.interval-ms:30000}")
+    public void prefetch() {
+        if (!enabled) {
+            return;
+        }
+        for (Target<?, ?> target : targets.values()) {
+            int started = target.prefetch(topN, leadMs);
+            if (started > 0) {
+                log.debug("Prefetching {} hot keys of cache '{}'", started, target.cache.getName());
+            }
+        }
+    }
+
+    /** Per registered cache: the {@code limit} most accessed keys and prefetch effectiveness. */
+    public List<Report> report(int limit) {
+        List<Report> reports = new ArrayList<>(targets.size());
+        for (Target<?, ?> target : targets.values()) {
+            long prefetches = target.prefetches.sum();
+            long hits = target.prefetchHits.sum();
+            reports.add(new Report(target.cache.getName(), prefetches, hits,
+                    prefetches == 0 ? 0.0 : (double) hits / prefetches, target.tracker.topKeys(limit)));
+        }
+        return reports;
+    }
+
+    private static final class Target<K, V> {
+        private final StaleWhileRevalidateCache<K, V> cache;
+        private final Function<String, K> cacheKey;
+        private final Function<? super K, ? extends V> loader;
+        private final AccessFrequencyTracker tracker;
+        private final Set<K> prefetchedUnread = ConcurrentHashMap.newKeySet();
+        private final LongAdder prefetches = new LongAdder();
+        private final LongAdder prefetchHits = new LongAdder();
+
+        Target(StaleWhileRevalidateCache<K, V> cache, Function<String, K> cacheKey,
+               Function<? super K, ? extends V> loader, AccessFrequencyTracker tracker) {
+            this.cache = cache;
+            this.cacheKey = cacheKey;
+            this.loader = loader;
+            this.tracker = tracker;
+        }
+
+        void record(String key) {
+            tracker.record(key);
+            if (!prefetchedUnread.isEmpty() && prefetchedUnread.remove(cacheKey.apply(key))) {
+                prefetchHits.increment();
+            }
+        }
+
+        int prefetch(int topN, long leadMs) {
+            Set<K> hot = new HashSet<>();
+            int started = 0;
+            for (AccessFrequencyTracker.HotKey hotKey : tracker.topKeys(topN)) {
+                K key = cacheKey.apply(hotKey.getKey());
+                if (hot.add(key) && cache.refreshAhead(key, leadMs, loader)) {
+                    prefetchedUnread.add(key);
+                    prefetches.increment();
+                    started++;
+                }
+            }
+            // Keys that left the top N are no longer waited on, keeping the set bounded
+            prefetchedUnread.retainAll(hot);
+            return started;
+        }
+    }
+
+    public static final class Report {
+        private final String cache;
+        private final long prefetches;
+        private final long prefetchHits;
+        private final double prefetchHitRatio;
+        private final List<AccessFrequencyTracker.HotKey> topKeys;
+
+        Report(String cache, long prefetches, long prefetchHits, double prefetchHitRatio,
+               List<AccessFrequencyTracker.HotKey> topKeys) {
+            this.cache = cache;
+            this.prefetches = prefetches;
+            this.prefetchHits = prefetchHits;
+            this.prefetchHitRatio = prefetchHitRatio;
+            this.topKeys = topKeys;
+        }
+
+        public String getCache() {
+            return cache;
+        }
+
+        public long getPrefetches() {
+            return prefetches;
+        }
+
+        public long getPrefetchHits() {
+            return prefetchHits;
+        }
+
+        public double getPrefetchHitRatio() {
+            return prefetchHitRatio;
+        }
+
+        public List<AccessFrequencyTracker.HotKey> getTopKeys() {
+            return topKeys;
+        }
+    }
+}
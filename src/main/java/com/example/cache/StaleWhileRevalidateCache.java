@@ -0,0 +1,564 @@
+package com.example.cache;
+
+import com.example.exception.UpstreamUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory cache for slow upstream lookups with single-flight loading and two TTLs.
+ *
+ * <ul>
+ *   <li>Younger than {@code softTtl}: served as is.</li>
+ *   <li>Between {@code softTtl} and {@code hardTtl}: the stale value is served immediately and one
+ *       background refresh is started. If the refresh fails the stale value keeps being served.</li>
+ *   <li>Older than {@code hardTtl} or missing: the caller loads synchronously.</li>
+ * </ul>
+ *
+ * Concurrent misses (and refreshes) for the same key share one in-flight load, so N callers
+ * produce one upstream call. A miss never queues behind the refresh pool: a refresh that has not
+ * started yet is taken over and run by the caller, and waiting on a load that is already running
+ * is bounded by {@code loadWaitMs}. Callers fetching many keys at once register them through
+ * {@link #batchLoad} so they coalesce with these loads too. Null results and failures are not cached.
+ *
+ * Hard-expired entries are kept until {@code retainMs} as last-known-good values
+ * ({@link #peek}) for callers that prefer an old value over an error.
+ */
+@Slf4j
+public class StaleWhileRevalidateCache<K, V> {
+
+    public static final long DEFAULT_LOAD_WAIT_MS = 10_000;
+
+    private final String name;
+    private final long softTtlMs;
+    private final long hardTtlMs;
+    private final long retainMs;
+    private final int maxSize;
+    private final long loadWaitMs;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, Load<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StaleWhileRevalidateCache(String name, long softTtlMs, long hardTtlMs, int maxSize, Executor refreshExecutor) {
+        this(name, softTtlMs, hardTtlMs, hardTtlMs, maxSize, refreshExecutor, System::currentTimeMillis);
+    }
+
+    public StaleWhileRevalidateCache(String name, long softTtlMs, long hardTtlMs, int maxSize,
+                                     Executor refreshExecutor, LongSupplier clock) {
+        this(name, softTtlMs, hardTtlMs, hardTtlMs, maxSize, refreshExecutor, clock);
+    }
+
+    public StaleWhileRevalidateCache(String name, long softTtlMs, long hardTtlMs, long retainMs, int maxSize,
+                                     Executor refreshExecutor, LongSupplier clock) {
+        this(name, softTtlMs, hardTtlMs, retainMs, maxSize, DEFAULT_LOAD_WAIT_MS, refreshExecutor, clock);
+    }
+
+    /**
+     * @param loadWaitMs how long a miss waits for a load another caller is already running before
+     *                   failing with {@link UpstreamUnavailableException}
+     */
+    public StaleWhileRevalidateCache(String name, long softTtlMs, long hardTtlMs, long retainMs, int maxSize,
+                                     long loadWaitMs, Executor refreshExecutor, LongSupplier clock) {
+        if (softTtlMs <= 0 || hardTtlMs < softTtlMs || retainMs < hardTtlMs) {
+            throw new IllegalArgumentException("Require 0 < softTtl <= hardTtl <= retain for cache " + name);
+        }
+        if (loadWaitMs <= 0) {
+            throw new IllegalArgumentException("Require loadWaitMs > 0 for cache " + name);
+        }
+        this.name = name;
+        this.softTtlMs = softTtlMs;
+        this.hardTtlMs = hardTtlMs;
+        this.retainMs = retainMs;
+        this.maxSize = maxSize;
+        this.loadWaitMs = loadWaitMs;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the value for {@code key}, loading it with {@code loader} when missing or hard-expired.
+     * Loader exceptions propagate to every caller waiting on that load; a caller that waits longer
+     * than {@code loadWaitMs} gets an {@link UpstreamUnavailableException}.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long now = clock.getAsLong();
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (age < softTtlMs) {
+                hits.increment();
+                return entry.value;
+            }
+            if (age < hardTtlMs) {
+                staleHits.increment();
+                refreshAsync(key, loader);
+                return entry.value;
+            }
+        }
+        misses.increment();
+        return loadShared(key, loader);
+    }
+
+    /**
+     * Like {@link #get} but never loads synchronously: returns {@code null} when the key is missing
+     * or hard-expired, so callers can batch those loads themselves. Stale values still trigger a
+     * background refresh with {@code loader}.
+     */
+    public V getIfPresent(K key, Function<? super K, ? extends V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            long age = clock.getAsLong() - entry.loadedAt;
+            if (age < softTtlMs) {
+                hits.increment();
+                return entry.value;
+            }
+            if (age < hardTtlMs) {
+                staleHits.increment();
+                refreshAsync(key, loader);
+                return entry.value;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Registers in-flight loads for keys {@link #getIfPresent} missed, so a caller can fetch them with
+     * one upstream call per chunk through {@link BatchLoad#load}. Keys another caller is already
+     * loading are not registered again: their loads are handed back to be joined. Until a chunk
+     * starts, its keys behave like a queued refresh and a synchronous miss takes them over.
+     */
+    public BatchLoad<K, V> batchLoad(Collection<K> keys) {
+        Map<K, Load<V>> registered = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> joined = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (registered.containsKey(key) || joined.containsKey(key)) {
+                continue;
+            }
+            Load<V> mine = new Load<>();
+            Load<V> existing = inFlight.putIfAbsent(key, mine);
+            if (existing == null) {
+                registered.put(key, mine);
+            } else {
+                coalesced.increment();
+                // A copy, so a caller that stops waiting (cancel) does not fail the load for everyone else
+                joined.put(key, existing.future.thenApply(Function.identity()));
+            }
+        }
+        return new BatchLoad<>(this, registered, joined);
+    }
+
+    /**
+     * Starts a background refresh when {@code key} is missing or will turn stale within
+     * {@code leadMs}, so the next reader still gets a fresh value. Returns {@code true} when a
+     * refresh was started (not already in flight, refresh pool not saturated).
+     */
+    public boolean refreshAhead(K key, long leadMs, Function<? super K, ? extends V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && clock.getAsLong() - entry.loadedAt < softTtlMs - leadMs) {
+            return false;
+        }
+        return refreshAsync(key, loader);
+    }
+
+    /** Cached entry regardless of age, including hard-expired ones still within the retention period. */
+    public Entry<V> peek(K key) {
+        return entries.get(key);
+    }
+
+    public void put(K key, V value) {
+        put(key, value, clock.getAsLong());
+    }
+
+    /** Inserts a value with an explicit load time, e.g. when restoring entries from a snapshot. */
+    public void put(K key, V value, long loadedAt) {
+        if (value == null) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, loadedAt));
+        if (entries.size() > maxSize) {
+            evictOldest();
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /** Drops entries past the retention period. Called periodically by {@link CacheRegistry}. */
+    public int purgeExpired() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+            if (now - e.getValue().loadedAt >= retainMs && entries.remove(e.getKey(), e.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /** Point-in-time view of the entries, for snapshots and diagnostics. */
+    public Map<K, Entry<V>> asMap() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSoftTtlMs() {
+        return softTtlMs;
+    }
+
+    public long getHardTtlMs() {
+        return hardTtlMs;
+    }
+
+    public long getRetainMs() {
+        return retainMs;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), staleHits.sum(), misses.sum(), loads.sum(), loadFailures.sum(),
+                coalesced.sum(), evictions.sum(), entries.size(), inFlight.size());
+    }
+
+    /**
+     * Drops refreshes the pool discarded without running them, e.g. the queue returned by
+     * {@code shutdownNow()}, so their keys can load again and nothing is left pending.
+     */
+    public static void cancelRefreshes(List<Runnable> dropped) {
+        for (Runnable runnable : dropped) {
+            if (runnable instanceof Refresh) {
+                ((Refresh<?, ?>) runnable).cancel();
+            }
+        }
+    }
+
+    private V loadShared(K key, Function<? super K, ? extends V> loader) {
+        Load<V> mine = new Load<>();
+        mine.claim();
+        Load<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing == null) {
+            return runLoad(key, loader, mine);
+        }
+        if (existing.claim()) {
+            // A refresh still queued on the pool: run it here instead of waiting behind the queue
+            return runLoad(key, loader, existing);
+        }
+        coalesced.increment();
+        return await(key, existing);
+    }
+
+    /** Returns {@code true} when this call started a background refresh. */
+    private boolean refreshAsync(K key, Function<? super K, ? extends V> loader) {
+        Load<V> mine = new Load<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return false;
+        }
+        try {
+            refreshExecutor.execute(new Refresh<>(this, key, loader, mine));
+        } catch (RejectedExecutionException e) {
+            // Refresh pool saturated: keep serving stale, a later request will retry. A miss that
+            // joined in the meantime has claimed the load and runs it itself.
+            inFlight.remove(key, mine);
+            return false;
+        }
+        return true;
+    }
+
+    private V runLoad(K key, Function<? super K, ? extends V> loader, Load<V> load) {
+        loads.increment();
+        try {
+            V value = loader.apply(key);
+            put(key, value);
+            load.future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            loadFailures.increment();
+            load.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private V await(K key, Load<V> load) {
+        try {
+            return load.future.get(loadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            throw new UpstreamUnavailableException("Timed out after " + loadWaitMs + " ms waiting for cache '"
+                    + name + "' to load " + key, Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(loadWaitMs)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamUnavailableException("Interrupted waiting for cache '" + name + "' to load " + key, 1);
+        }
+    }
+
+    private synchronized void evictOldest() {
+        int excess = entries.size() - maxSize;
+        if (excess <= 0) {
+            return;
+        }
+        // Evict in batches (10% headroom) so the scan is amortised over many inserts
+        int toEvict = Math.max(excess, maxSize / 10);
+        List<Map.Entry<K, Entry<V>>> snapshot = new ArrayList<>(entries.entrySet());
+        snapshot.sort(Comparator.comparingLong(e -> e.getValue().loadedAt));
+        for (int i = 0; i < toEvict && i < snapshot.size(); i++) {
+            Map.Entry<K, Entry<V>> victim = snapshot.get(i);
+            if (entries.remove(victim.getKey(), victim.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /** One in-flight load. Whoever claims it first runs the loader; everyone else waits on the future. */
+    private static final class Load<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Loads registered by {@link #batchLoad}. Each registered key must end up in exactly one
+     * {@link #load} or {@link #cancel} call.
+     */
+    public static final class BatchLoad<K, V> {
+        private final StaleWhileRevalidateCache<K, V> cache;
+        private final Map<K, Load<V>> registered;
+        private final Map<K, CompletableFuture<V>> joined;
+
+        BatchLoad(StaleWhileRevalidateCache<K, V> cache, Map<K, Load<V>> registered,
+                  Map<K, CompletableFuture<V>> joined) {
+            this.cache = cache;
+            this.registered = registered;
+            this.joined = joined;
+        }
+
+        /** Keys this batch has to load, in request order. */
+        public List<K> getKeys() {
+            return new ArrayList<>(registered.keySet());
+        }
+
+        /** Keys already loading elsewhere, with a future per key that completes when that load does. */
+        public Map<K, CompletableFuture<V>> getJoined() {
+            return Collections.unmodifiableMap(joined);
+        }
+
+        /**
+         * Loads {@code keys} with one {@code loader} call, skipping keys a synchronous miss took over
+         * in the meantime. Loaded values are cached and handed to everyone waiting on those keys; a key
+         * missing from the result completes with {@code null}, like a loader returning {@code null}.
+         */
+        public Map<K, V> load(List<K> keys, Function<? super List<K>, ? extends Map<K, ? extends V>> loader) {
+            List<K> claimed = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                if (registered.get(key).claim()) {
+                    claimed.add(key);
+                }
+            }
+            if (claimed.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            cache.loads.add(claimed.size());
+            try {
+                Map<K, ? extends V> values = loader.apply(claimed);
+                Map<K, V> loaded = new LinkedHashMap<>();
+                for (K key : claimed) {
+                    V value = values.get(key);
+                    cache.put(key, value);
+                    registered.get(key).future.complete(value);
+                    if (value != null) {
+                        loaded.put(key, value);
+                    }
+                }
+                return loaded;
+            } catch (RuntimeException | Error e) {
+                cache.loadFailures.add(claimed.size());
+                for (K key : claimed) {
+                    registered.get(key).future.completeExceptionally(e);
+                }
+                throw e;
+            } finally {
+                for (K key : claimed) {
+                    cache.inFlight.remove(key, registered.get(key));
+                }
+            }
+        }
+
+        /** Gives up on {@code keys} that have not started loading, e.g. when their chunk was never run. */
+        public void cancel(Collection<K> keys) {
+            for (K key : keys) {
+                Load<V> load = registered.get(key);
+                if (load.claim()) {
+                    cache.inFlight.remove(key, load);
+                    load.future.completeExceptionally(new UpstreamUnavailableException(
+                            "Batch load for cache '" + cache.name + "' was dropped before it ran", 1));
+                }
+            }
+        }
+    }
+
+    /** Background refresh; does nothing if a synchronous miss took the load over first. */
+    private static final class Refresh<K, V> implements Runnable {
+        private final StaleWhileRevalidateCache<K, V> cache;
+        private final K key;
+        private final Function<? super K, ? extends V> loader;
+        private final Load<V> load;
+
+        Refresh(StaleWhileRevalidateCache<K, V> cache, K key, Function<? super K, ? extends V> loader, Load<V> load) {
+            this.cache = cache;
+            this.key = key;
+            this.loader = loader;
+            this.load = load;
+        }
+
+        @Override
+        public void run() {
+            if (!load.claim()) {
+                return;
+            }
+            try {
+                cache.runLoad(key, loader, load);
+            } catch (RuntimeException e) {
+                log.warn("Background refresh failed for cache '{}' key '{}', serving stale value: {}",
+                        cache.name, key, e.getMessage());
+            }
+        }
+
+        void cancel() {
+            if (load.claim()) {
+                cache.inFlight.remove(key, load);
+                load.future.completeExceptionally(new RejectedExecutionException("Refresh pool shut down"));
+            }
+        }
+    }
+
+    /** Cached value and the time it was loaded from upstream. */
+    public static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public long getLoadedAt() {
+            return loadedAt;
+        }
+    }
+
+    /** Counters since startup. */
+    public static final class Stats {
+        private final long hits;
+        private final long staleHits;
+        private final long misses;
+        private final long loads;
+        private final long loadFailures;
+        private final long coalesced;
+        private final long evictions;
+        private final int size;
+        private final int inFlight;
+
+        Stats(long hits, long staleHits, long misses, long loads, long loadFailures, long coalesced,
+              long evictions, int size, int inFlight) {
+            this.hits = hits;
+            this.staleHits = staleHits;
+            this.misses = misses;
+            this.loads = loads;
+            this.loadFailures = loadFailures;
+            this.coalesced = coalesced;
+            this.evictions = evictions;
+            this.size = size;
+            this.inFlight = inFlight;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getStaleHits() {
+            return staleHits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getLoads() {
+            return loads;
+        }
+
+        public long getLoadFailures() {
+            return loadFailures;
+        }
+
+        public long getCoalesced() {
+            return coalesced;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.cache.codec;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Short, stable type ids written instead of class names by {@link CompactCacheValueCodec}. Ids are
+ * part of the stored format: once deployed, an id must keep naming the same class, and a removed
+ * class's id must not be reused. Unregistered classes fall back to their class name.
+ */
+public final class CacheTypeRegistry {
+
+    private final Map<String, Class<?>> typesById = new HashMap<>();
+    private final Map<Class<?>, String> idsByType = new HashMap<>();
+
+    public CacheTypeRegistry register(String id, Class<?> type) {
+        if (id.indexOf('.') >= 0) {
+            throw new IllegalArgumentException("Type id must not look like a class name: " + id);
+        }
+        if (typesById.containsKey(id) || idsByType.containsKey(type)) {
+            throw new IllegalStateException("Duplicate cache type registration: " + id + " -> " + type.getName());
+        }
+        typesById.put(id, type);
+        idsByType.put(type, id);
+        return this;
+    }
+
+    String idOf(Class<?> type) {
+        return idsByType.get(type);
+    }
+
+    Class<?> typeOf(String id) {
+        return typesById.get(id);
+    }
+
+    public Map<String, Class<?>> getTypes() {
+        return Collections.unmodifiableMap(typesById);
+    }
+}
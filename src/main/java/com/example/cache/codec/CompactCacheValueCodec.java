@@ -0,0 +1,160 @@
+package com.example.cache.codec;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.TypeResolverBuilder;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary cache value format: Jackson Smile (binary JSON; repeated property names and short string
+ * values are written once and back-referenced, so a list of DTOs carries its field names once) with
+ * registered type ids instead of class names, deflated when larger than {@code compressionThreshold}.
+ *
+ * Every value starts with a 3-byte header: {@link #MAGIC}, format version, flags. No JSON text can
+ * start with the magic byte, so entries written by the JSON serializer before the switch are still
+ * read, by {@code legacy}. Unknown properties are ignored, so a DTO may gain or lose fields between
+ * deploys without failing reads.
+ */
+public class CompactCacheValueCodec implements RedisSerializer<Object> {
+
+    /** Not valid as the first byte of UTF-8 JSON (or of UTF-8 text at all). */
+    static final byte MAGIC = (byte) 0xCB;
+    static final byte VERSION = 1;
+    private static final byte FLAG_DEFLATED = 1;
+    private static final int HEADER = 3;
+    private static final String TYPE_PROPERTY = "@t";
+
+    private final ObjectMapper mapper;
+    private final RedisSerializer<Object> legacy;
+    private final int compressionThreshold;
+
+    /**
+     * @param legacy               reads values without the header (the previous JSON format)
+     * @param compressionThreshold encoded size above which values are deflated; 0 disables
+     */
+    public CompactCacheValueCodec(CacheTypeRegistry registry, RedisSerializer<Object> legacy, int compressionThreshold) {
+        this.legacy = legacy;
+        this.compressionThreshold = compressionThreshold;
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        this.mapper = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        TypeResolverBuilder<?> typing = ObjectMapper.DefaultTypeResolverBuilder
+                .construct(ObjectMapper.DefaultTyping.EVERYTHING, mapper.getPolymorphicTypeValidator())
+                .init(JsonTypeInfo.Id.CUSTOM, new RegistryTypeIdResolver(registry, mapper.getTypeFactory(),
+                        mapper.getPolymorphicTypeValidator()))
+                .inclusion(JsonTypeInfo.As.PROPERTY)
+                .typeProperty(TYPE_PROPERTY);
+        mapper.setDefaultTyping(typing);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] body;
+        try {
+            body = mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value of " + value.getClass().getName(), e);
+        }
+        if (compressionThreshold > 0 && body.length > compressionThreshold) {
+            byte[] deflated = deflate(body);
+            if (deflated.length + 4 < body.length) {
+                return withHeader(FLAG_DEFLATED, deflated, body.length);
+            }
+        }
+        return withHeader((byte) 0, body, -1);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return legacy.deserialize(bytes);
+        }
+        if (bytes.length < HEADER || bytes[1] != VERSION) {
+            throw new SerializationException("Unsupported cache value format version " + (bytes.length > 1 ? bytes[1] : -1));
+        }
+        try {
+            if ((bytes[2] & FLAG_DEFLATED) != 0) {
+                int length = ((bytes[3] & 0xFF) << 24) | ((bytes[4] & 0xFF) << 16) | ((bytes[5] & 0xFF) << 8) | (bytes[6] & 0xFF);
+                return mapper.readValue(inflate(bytes, HEADER + 4, length), Object.class);
+            }
+            return mapper.readValue(bytes, HEADER, bytes.length - HEADER, Object.class);
+        } catch (IOException | DataFormatException e) {
+            throw new SerializationException("Could not read cache value", e);
+        }
+    }
+
+    /** Header, then the original length (deflated values only), then the body. */
+    private static byte[] withHeader(byte flags, byte[] body, int originalLength) {
+        int lengthBytes = originalLength >= 0 ? 4 : 0;
+        byte[] out = new byte[HEADER + lengthBytes + body.length];
+        out[0] = MAGIC;
+        out[1] = VERSION;
+        out[2] = flags;
+        if (originalLength >= 0) {
+            out[3] = (byte) (originalLength >>> 24);
+            out[4] = (byte) (originalLength >>> 16);
+            out[5] = (byte) (originalLength >>> 8);
+            out[6] = (byte) originalLength;
+        }
+        System.arraycopy(body, 0, out, HEADER + lengthBytes, body.length);
+        return out;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int originalLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, input.length - offset);
+            byte[] out = new byte[originalLength];
+            int read = 0;
+            while (read < originalLength && !inflater.finished()) {
+                int n = inflater.inflate(out, read, originalLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != originalLength) {
+                throw new DataFormatException("Truncated cache value: " + read + " of " + originalLength + " bytes");
+            }
+            return out;
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.cache.codec;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.TypeIdResolverBase;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.io.IOException;
+
+/** Type ids from the {@link CacheTypeRegistry}; class names, as Jackson writes them, for the rest. */
+final class RegistryTypeIdResolver extends TypeIdResolverBase {
+
+    private final CacheTypeRegistry registry;
+    private final ClassNameIdResolver classNames;
+
+    RegistryTypeIdResolver(CacheTypeRegistry registry, TypeFactory typeFactory, PolymorphicTypeValidator validator) {
+        super(typeFactory.constructType(Object.class), typeFactory);
+        this.registry = registry;
+        this.classNames = new ClassNameIdResolver(_baseType, typeFactory, validator);
+    }
+
+    @Override
+    public String idFromValue(Object value) {
+        return idFromValueAndType(value, value.getClass());
+    }
+
+    @Override
+    public String idFromValueAndType(Object value, Class<?> type) {
+        String id = registry.idOf(type);
+        return id != null ? id : classNames.idFromValueAndType(value, type);
+    }
+
+    @Override
+    public JavaType typeFromId(DatabindContext context, String id) throws IOException {
+        Class<?> type = registry.typeOf(id);
+        return type != null ? context.constructType(type) : classNames.typeFromId(context, id);
+    }
+
+    @Override
+    public JsonTypeInfo.Id getMechanism() {
+        return JsonTypeInfo.Id.CUSTOM;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.cache.invalidation;
+
+import com.example.cache.twolevel.TwoLevelCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dependency tags declared by services with {@link com.example.annotation.CacheTags}: which cache
+ * entries depend on a tag such as {@code file:42}, for entries whose key an entity change cannot
+ * derive (per-requester keys, list pages, entries holding other entities' data).
+ *
+ * Registrations are per node and kept for the longest cache TTL after their last use, when every
+ * entry they point at has expired anyway. Bounded by {@code cache.invalidation.max-tags}; a tag
+ * dropped early only means its entries live until their TTL.
+ */
+@Component
+public class CacheTagRegistry {
+
+    /** Separates cache name and key in a registered entry; cannot occur in either. */
+    private static final char SEPARATOR = '\u0000';
+
+    private final Cache<String, Set<String>> entriesByTag;
+
+    public CacheTagRegistry(TwoLevelCacheProperties properties,
+                            @Value("${cache.invalidation.max-tags:100000}") long maxTags) {
+        this(properties.maxTtl(), maxTags);
+    }
+
+    CacheTagRegistry(Duration retention, long maxTags) {
+        this.entriesByTag = Caffeine.newBuilder()
+                .maximumSize(maxTags)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    public void register(String cacheName, Object key, Collection<String> tags) {
+        String entry = cacheName + SEPARATOR + key;
+        for (String tag : tags) {
+            entriesByTag.asMap().compute(tag, (t, entries) -> {
+                Set<String> updated = entries != null ? entries : ConcurrentHashMap.newKeySet();
+                updated.add(entry);
+                return updated;
+            });
+        }
+    }
+
+    /** Removes the tags and returns the entries they pointed at, as cache name to keys. */
+    public Map<String, Set<String>> invalidate(Collection<String> tags) {
+        Map<String, Set<String>> keysByCache = new LinkedHashMap<>();
+        for (String tag : tags) {
+            Set<String> entries = entriesByTag.asMap().remove(tag);
+            if (entries == null) {
+                continue;
+            }
+            for (String entry : entries) {
+                int separator = entry.indexOf(SEPARATOR);
+                keysByCache.computeIfAbsent(entry.substring(0, separator), name -> new LinkedHashSet<>())
+                        .add(entry.substring(separator + 1));
+            }
+        }
+        return keysByCache;
+    }
+
+    public long size() {
+        return entriesByTag.estimatedSize();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.cache.invalidation;
+
+import com.example.cache.twolevel.TwoLevelCache;
+import com.example.cache.twolevel.TwoLevelCacheManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Evicts exactly the cache entries a committed write made stale. Hibernate reports every inserted,
+ * updated and deleted row and every changed collection; the {@link EntityInvalidationRule} for the
+ * entity maps it to cache keys and {@link CacheTagRegistry} tags while the session is flushing, and
+ * the collected set is applied once the transaction has committed (nothing on rollback).
+ *
+ * Repository writes anywhere (services, seeders, the auth flow) are covered without annotations;
+ * JPQL bulk updates bypass Hibernate events and still need an explicit eviction.
+ */
+@Component
+@Slf4j
+public class EntityCacheInvalidator {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TwoLevelCacheManager cacheManager;
+    private final CacheTagRegistry tagRegistry;
+    private final Map<Class<?>, EntityInvalidationRule<?>> rules = new HashMap<>();
+    /** Invalidations collected per open transaction, keyed by session. */
+    private final ConcurrentMap<SharedSessionContractImplementor, InvalidationSet> pending = new ConcurrentHashMap<>();
+
+    public EntityCacheInvalidator(EntityManagerFactory entityManagerFactory, TwoLevelCacheManager cacheManager,
+                                  CacheTagRegistry tagRegistry, List<EntityInvalidationRule<?>> rules) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheManager = cacheManager;
+        this.tagRegistry = tagRegistry;
+        for (EntityInvalidationRule<?> rule : rules) {
+            this.rules.put(rule.entityType(), rule);
+        }
+    }
+
+    @PostConstruct
+    void registerListeners() {
+        EntityChangeListener listener = new EntityChangeListener(this::onChange);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.PRE_COLLECTION_UPDATE, listener);
+        registry.appendListeners(EventType.PRE_COLLECTION_REMOVE, listener);
+        cacheManager.onTagInvalidation(tag -> evict(tagRegistry.invalidate(Collections.singleton(tag))));
+        log.info("Entity-driven cache invalidation enabled for {}", rules.keySet());
+    }
+
+    /** Maps the change now, while its state is at hand, and applies it after the transaction commits. */
+    void onChange(EventSource session, EntityChange change) {
+        EntityInvalidationRule<?> rule = ruleFor(change.getEntity().getClass());
+        if (rule == null) {
+            return;
+        }
+        InvalidationSet invalidations = new InvalidationSet();
+        try {
+            rule.collect(change, invalidations);
+        } catch (RuntimeException e) {
+            log.warn("Could not map {} to cache keys: {}", change, e.getMessage());
+            return;
+        }
+        if (invalidations.isEmpty()) {
+            return;
+        }
+        boolean[] first = new boolean[1];
+        pending.computeIfAbsent(session, s -> {
+            first[0] = true;
+            return new InvalidationSet();
+        }).addAll(invalidations);
+        if (first[0]) {
+            session.getActionQueue().registerProcess((success, s) -> {
+                InvalidationSet collected = pending.remove(s);
+                if (success && collected != null) {
+                    apply(collected);
+                }
+            });
+        }
+    }
+
+    public void apply(InvalidationSet invalidations) {
+        log.debug("Invalidating {}", invalidations);
+        evict(invalidations.getKeys());
+        if (!invalidations.getTags().isEmpty()) {
+            evict(tagRegistry.invalidate(invalidations.getTags()));
+            invalidations.getTags().forEach(cacheManager::publishTagInvalidation);
+        }
+    }
+
+    /**
+     * Evicts on the caches themselves rather than their transaction-aware views: this runs after
+     * commit already. Creating a cache this node has not used yet still reaches the shared L2.
+     */
+    private void evict(Map<String, Set<String>> keysByCache) {
+        keysByCache.forEach((cacheName, keys) -> {
+            cacheManager.getCache(cacheName);
+            TwoLevelCache cache = cacheManager.getTwoLevelCache(cacheName);
+            if (cache == null) {
+                return;
+            }
+            keys.forEach(cache::evict);
+        });
+    }
+
+    private EntityInvalidationRule<?> ruleFor(Class<?> type) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            EntityInvalidationRule<?> rule = rules.get(c);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.cache.invalidation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * One changed row as seen by an {@link EntityInvalidationRule}: the entity's property values
+ * before and after the change, or, for a collection change, the elements it held before and after.
+ * Values are captured at flush time; rules run then too, so nothing is lazily loaded later.
+ */
+public final class EntityChange {
+
+    public enum Type {
+        INSERT, UPDATE, DELETE,
+        /** A collection property of the entity changed, e.g. {@code User.roles}. */
+        COLLECTION
+    }
+
+    private final Type type;
+    private final Object entity;
+    private final Object id;
+    private final List<String> propertyNames;
+    private final Object[] state;
+    private final Object[] previousState;
+    private final String collectionProperty;
+    private final Set<Object> elements;
+
+    private EntityChange(Type type, Object entity, Object id, String[] propertyNames, Object[] state,
+                         Object[] previousState, String collectionProperty, Collection<?> elements) {
+        this.type = type;
+        this.entity = entity;
+        this.id = id;
+        this.propertyNames = propertyNames != null ? Arrays.asList(propertyNames) : Collections.<String>emptyList();
+        this.state = state;
+        this.previousState = previousState;
+        this.collectionProperty = collectionProperty;
+        this.elements = elements != null
+                ? Collections.unmodifiableSet(new LinkedHashSet<Object>(elements))
+                : Collections.emptySet();
+    }
+
+    /**
+     * @param state         values after an insert or update, the deleted values for a delete
+     * @param previousState values before an update; {@code null} otherwise, or when Hibernate had no
+     *                      snapshot (a detached entity re-attached without a merge)
+     */
+    public static EntityChange ofRow(Type type, Object entity, Object id, String[] propertyNames,
+                                     Object[] state, Object[] previousState) {
+        return new EntityChange(type, entity, id, propertyNames, state, previousState, null, null);
+    }
+
+    /** @param elements the collection's elements before and after the change, merged */
+    public static EntityChange ofCollection(Object owner, Object ownerId, String property, Collection<?> elements) {
+        return new EntityChange(Type.COLLECTION, owner, ownerId, null, null, null, property, elements);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Object getEntity() {
+        return entity;
+    }
+
+    public Object getId() {
+        return id;
+    }
+
+    /** The value after the change (the deleted value for a delete); {@code null} for unknown properties. */
+    public Object get(String property) {
+        int index = propertyNames.indexOf(property);
+        return index >= 0 && state != null ? state[index] : null;
+    }
+
+    /** The value before an update; {@code null} for inserts, deletes and unknown properties. */
+    public Object previous(String property) {
+        int index = propertyNames.indexOf(property);
+        return index >= 0 && previousState != null ? previousState[index] : null;
+    }
+
+    /** The distinct non-null values the property had before and after the change. */
+    public Set<Object> values(String property) {
+        Set<Object> values = new LinkedHashSet<>();
+        if (previous(property) != null) {
+            values.add(previous(property));
+        }
+        if (get(property) != null) {
+            values.add(get(property));
+        }
+        return values;
+    }
+
+    /**
+     * Whether the property's value changes. Always true for inserts and deletes, and for updates
+     * without a previous state, so rules err towards evicting.
+     */
+    public boolean changed(String property) {
+        if (type != Type.UPDATE || previousState == null) {
+            return true;
+        }
+        return !Objects.equals(previous(property), get(property));
+    }
+
+    /** Inserts and deletes: the row enters or leaves every query result it matches. */
+    public boolean isInsertOrDelete() {
+        return type == Type.INSERT || type == Type.DELETE;
+    }
+
+    public String getCollectionProperty() {
+        return collectionProperty;
+    }
+
+    public Set<Object> getElements() {
+        return elements;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + (entity != null ? entity.getClass().getSimpleName() : "?") + "#" + id
+                + (collectionProperty != null ? "." + collectionProperty : "");
+    }
+}
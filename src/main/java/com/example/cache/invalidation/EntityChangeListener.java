@@ -0,0 +1,106 @@
+package com.example.cache.invalidation;
+
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.event.spi.PreCollectionRemoveEvent;
+import org.hibernate.event.spi.PreCollectionRemoveEventListener;
+import org.hibernate.event.spi.PreCollectionUpdateEvent;
+import org.hibernate.event.spi.PreCollectionUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Turns Hibernate's flush-time row and collection events into {@link EntityChange}s. Collection
+ * updates and removals are taken before they execute, while the stored snapshot still holds the
+ * old elements; after the action Hibernate has already replaced it.
+ */
+class EntityChangeListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PreCollectionUpdateEventListener, PreCollectionRemoveEventListener {
+
+    private final BiConsumer<EventSource, EntityChange> sink;
+
+    EntityChangeListener(BiConsumer<EventSource, EntityChange> sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        sink.accept(event.getSession(), EntityChange.ofRow(EntityChange.Type.INSERT, event.getEntity(), event.getId(),
+                event.getPersister().getPropertyNames(), event.getState(), null));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        sink.accept(event.getSession(), EntityChange.ofRow(EntityChange.Type.UPDATE, event.getEntity(), event.getId(),
+                event.getPersister().getPropertyNames(), event.getState(), event.getOldState()));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        sink.accept(event.getSession(), EntityChange.ofRow(EntityChange.Type.DELETE, event.getEntity(), event.getId(),
+                event.getPersister().getPropertyNames(), event.getDeletedState(), null));
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollection(event);
+    }
+
+    @Override
+    public void onPreUpdateCollection(PreCollectionUpdateEvent event) {
+        onCollection(event);
+    }
+
+    @Override
+    public void onPreRemoveCollection(PreCollectionRemoveEvent event) {
+        onCollection(event);
+    }
+
+    /** Changes are applied after commit by {@link EntityCacheInvalidator}, not by Hibernate's post-commit hooks. */
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void onCollection(AbstractCollectionEvent event) {
+        Object owner = event.getAffectedOwnerOrNull();
+        if (owner == null) {
+            return;
+        }
+        PersistentCollection collection = event.getCollection();
+        String role = collection.getRole();
+        String property = role != null ? role.substring(role.lastIndexOf('.') + 1) : null;
+        sink.accept(event.getSession(),
+                EntityChange.ofCollection(owner, event.getAffectedOwnerIdOrNull(), property, elements(collection)));
+    }
+
+    /** Old elements from the snapshot plus current ones, if loaded; never triggers a lazy load. */
+    private static List<Object> elements(PersistentCollection collection) {
+        List<Object> elements = new ArrayList<>();
+        Serializable snapshot = collection.getStoredSnapshot();
+        if (snapshot instanceof Map) {
+            elements.addAll(((Map<?, ?>) snapshot).values());
+        } else if (snapshot instanceof Collection) {
+            elements.addAll((Collection<?>) snapshot);
+        }
+        if (collection.wasInitialized() && collection instanceof Collection) {
+            elements.addAll((Collection<?>) collection);
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.cache.invalidation;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Maps a changed row of one entity type to the cache keys and tags it makes stale. Rules are
+ * beans; {@link EntityCacheInvalidator} picks them up and applies what they collect after commit.
+ */
+public interface EntityInvalidationRule<T> {
+
+    Class<T> entityType();
+
+    void collect(EntityChange change, InvalidationSet invalidations);
+
+    static <T> EntityInvalidationRule<T> of(Class<T> entityType, BiConsumer<EntityChange, InvalidationSet> collector) {
+        return new EntityInvalidationRule<T>() {
+            @Override
+            public Class<T> entityType() {
+                return entityType;
+            }
+
+            @Override
+            public void collect(EntityChange change, InvalidationSet invalidations) {
+                collector.accept(change, invalidations);
+            }
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.cache.invalidation;
+
+import com.example.file.entity.FileEntity;
+import com.example.role.entity.Role;
+import com.example.translation.entity.Translation;
+import com.example.user.entity.User;
+import com.example.workflow.entity.WorkflowProcess;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * What each entity change makes stale, in the key format of the services' {@code @Cacheable}
+ * expressions. Keys a row determines are evicted directly, for its old and new values; entries it
+ * cannot name (per-requester keys, pages, other entities' DTOs) are reached through tags the
+ * services declare with {@link com.example.annotation.CacheTags}:
+ * <ul>
+ *   <li>{@code user:<id>}</li>
+ *   <li>{@code role:<id>}, {@code role-name:<name>}</li>
+ *   <li>{@code file:<id>}, {@code file-stored:<storedFileName>}, {@code files:recent}</li>
+ * </ul>
+ * A rule that changes here must change with the cache keys of its service.
+ */
+@Configuration
+public class EntityInvalidationRules {
+
+    @Bean
+    public EntityInvalidationRule<User> userInvalidationRule() {
+        return EntityInvalidationRule.of(User.class, (change, out) -> {
+            if (change.getType() == EntityChange.Type.COLLECTION) {
+                // User.roles: the user's role list, and user ids/counts of every role gained or lost
+                out.evict("roles", "user:" + change.getId());
+                out.evict("users", "id:" + change.getId());
+                out.evict("users", "email:" + ((User) change.getEntity()).getEmail());
+                out.evict("roles", "all").evict("roles", "active");
+                for (Object role : change.getElements()) {
+                    out.evict("roles", "id:" + ((Role) role).getId());
+                    out.tag("role:" + ((Role) role).getId());
+                }
+                return;
+            }
+            out.evict("users", "id:" + change.getId());
+            out.evictEach("users", "email:", change.values("email"));
+            out.tag("user:" + change.getId());
+            for (String property : new String[]{"email", "phone", "name"}) {
+                if (change.changed(property)) {
+                    out.evictEach("userExists", property + ":", change.values(property));
+                }
+            }
+            if (change.isInsertOrDelete()) {
+                out.evict("userCounts", "all");
+            }
+            if (change.changed("role")) {
+                out.evictEach("userCounts", "role:", change.values("role"));
+            }
+        });
+    }
+
+    @Bean
+    public EntityInvalidationRule<Role> roleInvalidationRule() {
+        return EntityInvalidationRule.of(Role.class, (change, out) -> {
+            if (change.getType() == EntityChange.Type.COLLECTION) {
+                return; // Role.users is the inverse side; the change is reported on User.roles
+            }
+            out.evict("roles", "all").evict("roles", "active").evict("roles", "id:" + change.getId());
+            out.tag("role:" + change.getId());
+            if (change.changed("name")) {
+                for (Object name : change.values("name")) {
+                    out.tag("role-name:" + name);
+                }
+            }
+        });
+    }
+
+    @Bean
+    public EntityInvalidationRule<Translation> translationInvalidationRule() {
+        return EntityInvalidationRule.of(Translation.class, (change, out) -> {
+            out.evict("translations", "id:" + change.getId());
+            out.evict("translations", "active").evict("translations", "grouped");
+            out.evict("translationKeys", "active");
+            boolean moved = change.changed("languageCode") || change.changed("translationKey");
+            for (Object[] languageAndKey : new Object[][]{
+                    {change.previous("languageCode"), change.previous("translationKey")},
+                    {change.get("languageCode"), change.get("translationKey")}}) {
+                if (languageAndKey[0] == null) {
+                    continue;
+                }
+                String languageCode = languageAndKey[0].toString();
+                out.evict("translations", "key:" + languageCode + ":" + languageAndKey[1]);
+                out.evict("translations", "language:" + languageCode);
+                out.evict("translationMaps", languageCode);
+                if (moved) {
+                    out.evict("translationExists", languageCode + ":" + languageAndKey[1]);
+                }
+            }
+            if (change.isInsertOrDelete() || change.changed("languageCode")) {
+                out.evict("translationLanguages", "all");
+            }
+        });
+    }
+
+    @Bean
+    public EntityInvalidationRule<FileEntity> fileInvalidationRule() {
+        return EntityInvalidationRule.of(FileEntity.class, (change, out) -> {
+            out.tag("file:" + change.getId());
+            for (Object storedFileName : change.values("storedFileName")) {
+                out.tag("file-stored:" + storedFileName);
+            }
+            out.tag("files:recent");
+            if (change.changed("isActive") || change.changed("uploadedBy")) {
+                out.evictEach("fileStats", "user:", change.values("uploadedBy"));
+            }
+            if (change.isInsertOrDelete()) {
+                out.evict("fileStats", "total");
+            }
+        });
+    }
+
+    @Bean
+    public EntityInvalidationRule<WorkflowProcess> workflowInvalidationRule() {
+        return EntityInvalidationRule.of(WorkflowProcess.class, (change, out) -> {
+            out.evict("workflows", "id:" + change.getId());
+            out.evictEach("workflows", "key:", change.values("processKey"));
+            out.evict("workflows", "all");
+        });
+    }
+}
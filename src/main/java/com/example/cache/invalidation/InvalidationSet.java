@@ -0,0 +1,62 @@
+package com.example.cache.invalidation;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The cache keys and dependency tags one or more entity changes invalidate. Keys are written the
+ * way the {@code @Cacheable} key expressions produce them, e.g. {@code translationMaps} /
+ * {@code uz}; duplicates collapse, so a bulk write evicts each key once.
+ */
+public final class InvalidationSet {
+
+    private final Map<String, Set<String>> keys = new LinkedHashMap<>();
+    private final Set<String> tags = new LinkedHashSet<>();
+
+    public InvalidationSet evict(String cacheName, Object key) {
+        keys.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).add(String.valueOf(key));
+        return this;
+    }
+
+    /** Evicts {@code prefix + value} for every value, e.g. the old and new email of a user. */
+    public InvalidationSet evictEach(String cacheName, String prefix, Collection<?> values) {
+        for (Object value : values) {
+            evict(cacheName, prefix + value);
+        }
+        return this;
+    }
+
+    /** Evicts every entry registered under {@code tag} in the {@link CacheTagRegistry}. */
+    public InvalidationSet tag(String tag) {
+        tags.add(tag);
+        return this;
+    }
+
+    public InvalidationSet addAll(InvalidationSet other) {
+        other.keys.forEach((cacheName, cacheKeys) ->
+                keys.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).addAll(cacheKeys));
+        tags.addAll(other.tags);
+        return this;
+    }
+
+    public Map<String, Set<String>> getKeys() {
+        return Collections.unmodifiableMap(keys);
+    }
+
+    public Set<String> getTags() {
+        return Collections.unmodifiableSet(tags);
+    }
+
+    public boolean isEmpty() {
+        return keys.isEmpty() && tags.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "keys=" + keys + ", tags=" + tags;
+    }
+}
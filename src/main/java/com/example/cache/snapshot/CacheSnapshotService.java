@@ -0,0 +1,162 @@
+package com.example.cache.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persists the external-data caches (weather tiles, geocoding memory, exchange-rate tables) to
+ * {@code cache.snapshot.directory} so a restart or deploy starts warm instead of sending the first
+ * minutes of traffic upstream.
+ *
+ * File layout (gzip-compressed, CRC-checked by gzip): magic, format version, write time, then per
+ * {@link SnapshotSection} its name, byte length and payload. Length-prefixed sections let a
+ * corrupt or no longer known section be skipped without losing the others.
+ *
+ * The snapshot is written by the scheduler thread (never a request thread) and on shutdown, to a
+ * temporary file that is fsynced and then renamed over the previous snapshot, so a crash mid-write
+ * leaves the last complete snapshot in place. It is restored once at startup, before traffic.
+ */
+@Component
+@Slf4j
+public class CacheSnapshotService {
+
+    static final int MAGIC = 0x43534E50; // "CSNP"
+    static final int VERSION = 1;
+    private static final String FILE_NAME = "external-caches.snapshot";
+
+    private final Map<String, SnapshotSection> sections = new LinkedHashMap<>();
+    private final boolean enabled;
+    private final Path file;
+
+    public CacheSnapshotService(List<SnapshotSection> sections,
+                                @Value("${cache.snapshot.enabled:true}") boolean enabled,
+                                @Value("${cache.snapshot.directory:data/cache-snapshot}") String directory) {
+        for (SnapshotSection section : sections) {
+            this.sections.put(section.getName(), section);
+        }
+        this.enabled = enabled;
+        this.file = Paths.get(directory).resolve(FILE_NAME);
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!enabled) {
+            return;
+        }
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file));
+             DataInputStream in = new DataInputStream(new GZIPInputStream(raw))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("Ignoring cache snapshot {}: unknown format", file);
+                return;
+            }
+            long writtenAt = in.readLong();
+            int sectionCount = in.readInt();
+            for (int i = 0; i < sectionCount; i++) {
+                String name = in.readUTF();
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+                restoreSection(name, payload);
+            }
+            log.info("Restored cache snapshot written {} s ago", (System.currentTimeMillis() - writtenAt) / 1000);
+        } catch (NoSuchFileException e) {
+            log.info("No cache snapshot at {}, starting cold", file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read cache snapshot {}, starting cold: {}", file, e.toString());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.snapshot.interval-ms:300000}",
+            initialDelayString = "${cache.snapshot.interval-ms:300000}")
+    public void snapshot() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cache snapshot to {} failed, keeping the previous one: {}", file, e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    synchronized void write() throws IOException {
+        long started = System.currentTimeMillis();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+
+        int total = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream raw = new BufferedOutputStream(Channels.newOutputStream(channel));
+            GZIPOutputStream gzip = new GZIPOutputStream(raw);
+            DataOutputStream out = new DataOutputStream(gzip);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(started);
+            out.writeInt(sections.size());
+            for (SnapshotSection section : sections.values()) {
+                ByteArrayOutputStream payload = new ByteArrayOutputStream();
+                total += section.write(new DataOutputStream(payload));
+                out.writeUTF(section.getName());
+                out.writeInt(payload.size());
+                payload.writeTo(out);
+            }
+            gzip.finish();
+            out.flush();
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        log.debug("Wrote cache snapshot with {} entries to {} in {} ms", total, file, System.currentTimeMillis() - started);
+    }
+
+    private void restoreSection(String name, byte[] payload) {
+        SnapshotSection section = sections.get(name);
+        if (section == null) {
+            log.debug("Skipping unknown cache snapshot section '{}'", name);
+            return;
+        }
+        try {
+            int restored = section.read(new DataInputStream(new ByteArrayInputStream(payload)));
+            log.info("Restored {} entries into '{}' from snapshot", restored, name);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Skipping unreadable cache snapshot section '{}': {}", name, e.toString());
+        }
+    }
+}
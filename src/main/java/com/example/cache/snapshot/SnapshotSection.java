@@ -0,0 +1,21 @@
+package com.example.cache.snapshot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * One named part of the cache snapshot file. Implementations are beans; {@link CacheSnapshotService}
+ * writes every section periodically and feeds each one its own bytes back at startup.
+ */
+public interface SnapshotSection {
+
+    /** Stable name stored in the file; a section whose name is unknown at restore time is skipped. */
+    String getName();
+
+    /** Writes the current contents and returns the number of entries written. */
+    int write(DataOutput out) throws IOException;
+
+    /** Restores what {@link #write} produced and returns the number of entries restored. */
+    int read(DataInput in) throws IOException;
+}
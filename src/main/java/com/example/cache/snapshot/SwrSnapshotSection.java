@@ -0,0 +1,64 @@
+package com.example.cache.snapshot;
+
+import com.example.cache.StaleWhileRevalidateCache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot section for a {@link StaleWhileRevalidateCache} with string keys. Entries keep their
+ * original load time, so after a restart they are fresh, stale (served while one refresh runs) or
+ * last-known-good exactly as before. Entries past the retention period are not restored, and
+ * entries loaded since startup are never overwritten.
+ */
+public abstract class SwrSnapshotSection<V> implements SnapshotSection {
+
+    private final StaleWhileRevalidateCache<String, V> cache;
+
+    protected SwrSnapshotSection(StaleWhileRevalidateCache<String, V> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public String getName() {
+        return cache.getName();
+    }
+
+    @Override
+    public int write(DataOutput out) throws IOException {
+        // Copy first: the count must match what follows even while requests add entries
+        List<Map.Entry<String, StaleWhileRevalidateCache.Entry<V>>> entries = new ArrayList<>(cache.asMap().entrySet());
+        out.writeInt(entries.size());
+        for (Map.Entry<String, StaleWhileRevalidateCache.Entry<V>> entry : entries) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue().getLoadedAt());
+            writeValue(out, entry.getValue().getValue());
+        }
+        return entries.size();
+    }
+
+    @Override
+    public int read(DataInput in) throws IOException {
+        long now = System.currentTimeMillis();
+        int count = in.readInt();
+        int restored = 0;
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            long loadedAt = in.readLong();
+            V value = readValue(in);
+            if (now - loadedAt < cache.getRetainMs() && cache.peek(key) == null) {
+                cache.put(key, value, loadedAt);
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    protected abstract void writeValue(DataOutput out, V value) throws IOException;
+
+    protected abstract V readValue(DataInput in) throws IOException;
+}
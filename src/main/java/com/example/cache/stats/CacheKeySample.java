@@ -0,0 +1,24 @@
+package com.example.cache.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One key seen by the key browser, with where it lives and how long it has left. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheKeySample {
+
+    private String key;
+    /** {@code L1} (this process) or {@code L2} (Redis). */
+    private String level;
+    /** Time since the entry was written; {@code null} when unknown (Redis). */
+    private Long ageSeconds;
+    /** Time until the entry expires; {@code null} when it does not expire or is unknown. */
+    private Long ttlSeconds;
+    /** Estimated heap size for L1 entries, serialized size for L2 entries. */
+    private long sizeBytes;
+}
@@ -0,0 +1,54 @@
+package com.example.cache.stats;
+
+import com.example.cache.AccessFrequencyTracker;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Counters of one cache since startup, for the {@code /api/cache/stats} endpoint. Fields that do
+ * not apply to a cache type are {@code null} (e.g. {@code l2Hits} without Redis, {@code staleHits}
+ * outside the stale-while-revalidate caches).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatistics {
+
+    /** {@code two-level} (Caffeine + Redis), {@code local} (Caffeine only) or {@code stale-while-revalidate}. */
+    private String type;
+    private String name;
+
+    private long hits;
+    private Long l1Hits;
+    private Long l2Hits;
+    private Long staleHits;
+    private long misses;
+    private double hitRatio;
+
+    private Long puts;
+    private long loads;
+    private Long loadFailures;
+    private Double averageLoadMillis;
+
+    /** Explicit evictions ({@code @CacheEvict}, invalidations). */
+    private Long evictions;
+    /** Entries dropped for size or age. */
+    private long sizeEvictions;
+
+    /** Entries held in this process. */
+    private long size;
+    /** Sampled estimate of the memory held by those entries. */
+    private long estimatedMemoryBytes;
+
+    /** Configured entry lifetime (hard TTL for stale-while-revalidate caches). */
+    private long ttlSeconds;
+    private Long softTtlSeconds;
+
+    /** Keys with the most hits (approximate counts); empty where hits are not tracked per key. */
+    private List<AccessFrequencyTracker.HotKey> topKeys;
+}
@@ -0,0 +1,300 @@
+package com.example.cache.stats;
+
+import com.example.cache.CacheRegistry;
+import com.example.cache.StaleWhileRevalidateCache;
+import com.example.cache.twolevel.TwoLevelCache;
+import com.example.cache.twolevel.TwoLevelCacheManager;
+import com.example.cache.twolevel.TwoLevelCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-cache statistics for the Spring caches ({@link TwoLevelCache}) and the stale-while-revalidate
+ * caches: counters, size, sampled memory footprint and hottest keys, served by
+ * {@code /api/cache/stats} and published to Micrometer as {@code cache.*} meters tagged with the
+ * cache name. Also browses the keys of a cache, L1 from memory and L2 by Redis SCAN.
+ *
+ * Memory is estimated from up to {@code cache.stats.memory-sample-size} entries and scaled to the
+ * entry count, so it is cheap enough for every scrape.
+ */
+@Service
+@Slf4j
+public class CacheStatsService {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final TwoLevelCacheProperties properties;
+    private final CacheRegistry cacheRegistry;
+    private final MeterRegistry meterRegistry;
+    private final RedisKeySampler redisKeys;
+    private final int memorySampleSize;
+    private final int topKeys;
+
+    public CacheStatsService(TwoLevelCacheManager cacheManager,
+                             TwoLevelCacheProperties properties,
+                             CacheRegistry cacheRegistry,
+                             MeterRegistry meterRegistry,
+                             ObjectProvider<RedisConnectionFactory> connectionFactory,
+                             @Value("${cache.stats.memory-sample-size:64}") int memorySampleSize,
+                             @Value("${cache.stats.top-keys:10}") int topKeys) {
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.cacheRegistry = cacheRegistry;
+        this.meterRegistry = meterRegistry;
+        RedisConnectionFactory redis = cacheManager.isTwoLevel() ? connectionFactory.getIfAvailable() : null;
+        this.redisKeys = redis != null ? new RedisKeySampler(redis) : null;
+        this.memorySampleSize = memorySampleSize;
+        this.topKeys = topKeys;
+    }
+
+    @PostConstruct
+    void bindMetrics() {
+        cacheManager.onCacheCreated(this::bind);
+        cacheRegistry.getAll().forEach(this::bind);
+    }
+
+    public List<CacheStatistics> getAll() {
+        List<CacheStatistics> all = new ArrayList<>();
+        for (TwoLevelCache cache : cacheManager.getTwoLevelCaches()) {
+            all.add(statistics(cache));
+        }
+        for (StaleWhileRevalidateCache<?, ?> cache : cacheRegistry.getAll()) {
+            all.add(statistics(cache));
+        }
+        all.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return all;
+    }
+
+    /** Statistics of one cache, or {@code null} for an unknown (or not yet used) cache. */
+    public CacheStatistics get(String cacheName) {
+        TwoLevelCache cache = cacheManager.getTwoLevelCache(cacheName);
+        if (cache != null) {
+            return statistics(cache);
+        }
+        StaleWhileRevalidateCache<?, ?> swr = cacheRegistry.get(cacheName);
+        return swr != null ? statistics(swr) : null;
+    }
+
+    /**
+     * Up to {@code limit} keys of the cache from this process and, with Redis, up to {@code limit}
+     * from L2. Returns {@code null} for an unknown cache.
+     */
+    public List<CacheKeySample> sampleKeys(String cacheName, int limit) {
+        TwoLevelCache cache = cacheManager.getTwoLevelCache(cacheName);
+        if (cache != null) {
+            List<CacheKeySample> samples = sampleL1(l1Of(cache), limit);
+            if (redisKeys != null) {
+                try {
+                    samples.addAll(redisKeys.sample(cacheName, limit));
+                } catch (RuntimeException e) {
+                    log.warn("Could not sample Redis keys of cache '{}': {}", cacheName, e.getMessage());
+                }
+            }
+            return samples;
+        }
+        StaleWhileRevalidateCache<?, ?> swr = cacheRegistry.get(cacheName);
+        return swr != null ? sampleSwr(swr, limit) : null;
+    }
+
+    private CacheStatistics statistics(TwoLevelCache cache) {
+        TwoLevelCache.Stats stats = cache.stats(topKeys);
+        long hits = stats.getL1Hits() + stats.getL2Hits();
+        return CacheStatistics.builder()
+                .type(cache.isTwoLevel() ? "two-level" : "local")
+                .name(cache.getName())
+                .hits(hits)
+                .l1Hits(stats.getL1Hits())
+                .l2Hits(cache.isTwoLevel() ? stats.getL2Hits() : null)
+                .misses(stats.getMisses())
+                .hitRatio(ratio(hits, stats.getMisses()))
+                .puts(stats.getPuts())
+                .loads(stats.getLoads())
+                .averageLoadMillis(stats.getLoads() == 0 ? null
+                        : stats.getTotalLoadNanos() / 1e6 / stats.getLoads())
+                .evictions(stats.getEvictions())
+                .sizeEvictions(stats.getL1Evictions())
+                .size(stats.getL1Size())
+                .estimatedMemoryBytes(estimateMemory(l1Of(cache).asMap().values(), stats.getL1Size()))
+                .ttlSeconds(properties.ttlFor(cache.getName()).getSeconds())
+                .topKeys(stats.getTopKeys())
+                .build();
+    }
+
+    private CacheStatistics statistics(StaleWhileRevalidateCache<?, ?> cache) {
+        StaleWhileRevalidateCache.Stats stats = cache.stats();
+        long hits = stats.getHits() + stats.getStaleHits();
+        return CacheStatistics.builder()
+                .type("stale-while-revalidate")
+                .name(cache.getName())
+                .hits(hits)
+                .staleHits(stats.getStaleHits())
+                .misses(stats.getMisses())
+                .hitRatio(ratio(hits, stats.getMisses()))
+                .loads(stats.getLoads())
+                .loadFailures(stats.getLoadFailures())
+                .sizeEvictions(stats.getEvictions())
+                .size(stats.getSize())
+                .estimatedMemoryBytes(estimateMemory(cache))
+                .ttlSeconds(TimeUnit.MILLISECONDS.toSeconds(cache.getHardTtlMs()))
+                .softTtlSeconds(TimeUnit.MILLISECONDS.toSeconds(cache.getSoftTtlMs()))
+                .topKeys(Collections.emptyList())
+                .build();
+    }
+
+    private List<CacheKeySample> sampleL1(Cache<String, Object> l1, int limit) {
+        Policy.Expiration<String, Object> expiration = l1.policy().expireAfterWrite().orElse(null);
+        List<CacheKeySample> samples = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : l1.asMap().entrySet()) {
+            if (samples.size() == limit) {
+                break;
+            }
+            Long age = null;
+            Long ttl = null;
+            if (expiration != null) {
+                OptionalLong ageMs = expiration.ageOf(entry.getKey(), TimeUnit.MILLISECONDS);
+                if (ageMs.isPresent()) {
+                    age = ageMs.getAsLong() / 1000;
+                    ttl = Math.max(0, expiration.getExpiresAfter(TimeUnit.MILLISECONDS) - ageMs.getAsLong()) / 1000;
+                }
+            }
+            samples.add(CacheKeySample.builder()
+                    .key(entry.getKey())
+                    .level("L1")
+                    .ageSeconds(age)
+                    .ttlSeconds(ttl)
+                    .sizeBytes(ObjectSizeEstimator.estimate(entry.getValue()))
+                    .build());
+        }
+        return samples;
+    }
+
+    private List<CacheKeySample> sampleSwr(StaleWhileRevalidateCache<?, ?> cache, int limit) {
+        long now = System.currentTimeMillis();
+        List<CacheKeySample> samples = new ArrayList<>();
+        for (Map.Entry<?, ? extends StaleWhileRevalidateCache.Entry<?>> entry : cache.asMap().entrySet()) {
+            if (samples.size() == limit) {
+                break;
+            }
+            long ageMs = Math.max(0, now - entry.getValue().getLoadedAt());
+            samples.add(CacheKeySample.builder()
+                    .key(String.valueOf(entry.getKey()))
+                    .level("L1")
+                    .ageSeconds(ageMs / 1000)
+                    .ttlSeconds(Math.max(0, cache.getHardTtlMs() - ageMs) / 1000)
+                    .sizeBytes(ObjectSizeEstimator.estimate(entry.getValue().getValue()))
+                    .build());
+        }
+        return samples;
+    }
+
+    private void bind(TwoLevelCache cache) {
+        Tags tags = Tags.of("cache", cache.getName());
+        FunctionCounter.builder("cache.gets", cache, c -> {
+                    TwoLevelCache.Stats stats = c.stats(0);
+                    return stats.getL1Hits() + stats.getL2Hits();
+                })
+                .tags(tags).tag("result", "hit")
+                .description("Cache lookups that found an entry")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, c -> c.stats(0).getMisses())
+                .tags(tags).tag("result", "miss")
+                .description("Cache lookups that found nothing")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.puts", cache, c -> c.stats(0).getPuts())
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, c -> {
+                    TwoLevelCache.Stats stats = c.stats(0);
+                    return stats.getEvictions() + stats.getL1Evictions();
+                })
+                .tags(tags)
+                .description("Entries evicted explicitly, for size or for age")
+                .register(meterRegistry);
+        FunctionTimer.builder("cache.load.duration", cache,
+                        c -> c.stats(0).getLoads(), c -> c.stats(0).getTotalLoadNanos(), TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("Time from a miss to the loaded value being cached")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", cache, c -> c.stats(0).getL1Size())
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("cache.memory.estimated", cache, c -> estimateMemory(l1Of(c).asMap().values(), c.stats(0).getL1Size()))
+                .tags(tags)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private void bind(StaleWhileRevalidateCache<?, ?> cache) {
+        Tags tags = Tags.of("cache", cache.getName());
+        FunctionCounter.builder("cache.gets", cache, c -> c.stats().getHits() + c.stats().getStaleHits())
+                .tags(tags).tag("result", "hit")
+                .description("Cache lookups that found an entry")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, c -> c.stats().getMisses())
+                .tags(tags).tag("result", "miss")
+                .description("Cache lookups that found nothing")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, c -> c.stats().getEvictions())
+                .tags(tags)
+                .description("Entries evicted explicitly, for size or for age")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", cache, c -> c.size())
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("cache.memory.estimated", cache, this::estimateMemory)
+                .tags(tags)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private long estimateMemory(StaleWhileRevalidateCache<?, ?> cache) {
+        List<Object> values = new ArrayList<>();
+        for (StaleWhileRevalidateCache.Entry<?> entry : cache.asMap().values()) {
+            if (values.size() == memorySampleSize) {
+                break;
+            }
+            values.add(entry.getValue());
+        }
+        return estimateMemory(values, cache.size());
+    }
+
+    /** Average estimated size of up to {@code memorySampleSize} values, times the entry count. */
+    private long estimateMemory(Iterable<?> values, long entries) {
+        long sampledBytes = 0;
+        int sampled = 0;
+        Iterator<?> it = values.iterator();
+        while (sampled < memorySampleSize && it.hasNext()) {
+            sampledBytes += ObjectSizeEstimator.estimate(it.next());
+            sampled++;
+        }
+        return sampled == 0 ? 0 : sampledBytes / sampled * entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<String, Object> l1Of(TwoLevelCache cache) {
+        return (Cache<String, Object>) cache.getNativeCache();
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
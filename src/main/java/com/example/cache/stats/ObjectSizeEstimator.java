@@ -0,0 +1,140 @@
+package com.example.cache.stats;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rough retained size of a cached value, assuming a 64-bit JVM with compressed oops (12-byte
+ * headers, 4-byte references, 8-byte alignment). Application objects are walked by reflection;
+ * JDK types (strings, boxes, collections, maps, java.time) are sized from their contents, so no
+ * JDK internals are opened. Good for comparing caches, not for exact accounting.
+ */
+final class ObjectSizeEstimator {
+
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    /** Per element: a hash node or list slot, averaged. */
+    private static final int COLLECTION_ENTRY = 32;
+    private static final int MAX_DEPTH = 32;
+
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && !isJdk(c); c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    private ObjectSizeEstimator() {
+    }
+
+    static long estimate(Object value) {
+        return estimate(value, new IdentityHashMap<>(), 0);
+    }
+
+    private static long estimate(Object value, Map<Object, Boolean> seen, int depth) {
+        if (value == null || value instanceof Enum || depth > MAX_DEPTH || seen.put(value, Boolean.TRUE) != null) {
+            return 0;
+        }
+        Class<?> type = value.getClass();
+        if (value instanceof String) {
+            return align(HEADER + 8) + align(ARRAY_HEADER + 2L * ((String) value).length());
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return align(HEADER + 8);
+        }
+        if (value instanceof TemporalAccessor) {
+            return align(HEADER + 2 * REFERENCE) + 2 * align(HEADER + 8);
+        }
+        if (type.isArray()) {
+            return arraySize(value, seen, depth);
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            long size = align(HEADER + 4 * REFERENCE) + (long) collection.size() * COLLECTION_ENTRY;
+            for (Object element : collection) {
+                size += estimate(element, seen, depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            long size = align(HEADER + 6 * REFERENCE) + (long) map.size() * COLLECTION_ENTRY;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimate(entry.getKey(), seen, depth + 1) + estimate(entry.getValue(), seen, depth + 1);
+            }
+            return size;
+        }
+        if (isJdk(type)) {
+            return align(HEADER + 4 * REFERENCE);
+        }
+
+        long shallow = HEADER;
+        long referenced = 0;
+        for (Field field : FIELDS.get(type)) {
+            Class<?> fieldType = field.getType();
+            if (fieldType.isPrimitive()) {
+                shallow += primitiveSize(fieldType);
+                continue;
+            }
+            shallow += REFERENCE;
+            try {
+                referenced += estimate(field.get(value), seen, depth + 1);
+            } catch (IllegalAccessException e) {
+                // not readable: counted as a reference only
+            }
+        }
+        return align(shallow) + referenced;
+    }
+
+    private static long arraySize(Object array, Map<Object, Boolean> seen, int depth) {
+        Class<?> component = array.getClass().getComponentType();
+        int length = Array.getLength(array);
+        if (component.isPrimitive()) {
+            return align(ARRAY_HEADER + (long) length * primitiveSize(component));
+        }
+        long size = align(ARRAY_HEADER + (long) length * REFERENCE);
+        for (Object element : (Object[]) array) {
+            size += estimate(element, seen, depth + 1);
+        }
+        return size;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static boolean isJdk(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.") || name.startsWith("jdk.");
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
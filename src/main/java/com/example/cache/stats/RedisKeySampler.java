@@ -0,0 +1,53 @@
+package com.example.cache.stats;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Samples the Redis keys of one cache with {@code SCAN MATCH <cache>::*} rather than {@code KEYS}:
+ * each SCAN call looks at about {@link #SCAN_BATCH} keys, so Redis never blocks on a full keyspace
+ * walk, and iteration stops as soon as {@code limit} keys were found.
+ */
+class RedisKeySampler {
+
+    /** Separator of {@code RedisCacheManager}'s default key prefix, {@code <cache>::<key>}. */
+    private static final String PREFIX_SEPARATOR = "::";
+    private static final int SCAN_BATCH = 500;
+
+    private final RedisConnectionFactory connectionFactory;
+
+    RedisKeySampler(RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    List<CacheKeySample> sample(String cacheName, int limit) {
+        String prefix = cacheName + PREFIX_SEPARATOR;
+        ScanOptions options = ScanOptions.scanOptions().match(escapeGlob(prefix) + "*").count(SCAN_BATCH).build();
+        List<CacheKeySample> samples = new ArrayList<>();
+        try (RedisConnection connection = connectionFactory.getConnection();
+             Cursor<byte[]> cursor = connection.scan(options)) {
+            while (samples.size() < limit && cursor.hasNext()) {
+                byte[] key = cursor.next();
+                Long ttlMs = connection.pTtl(key);
+                Long length = connection.strLen(key);
+                samples.add(CacheKeySample.builder()
+                        .key(new String(key, StandardCharsets.UTF_8).substring(prefix.length()))
+                        .level("L2")
+                        .ttlSeconds(ttlMs != null && ttlMs >= 0 ? ttlMs / 1000 : null)
+                        .sizeBytes(length != null ? length : 0)
+                        .build());
+            }
+        }
+        return samples;
+    }
+
+    private static String escapeGlob(String literal) {
+        return literal.replaceAll("([*?\\[\\]\\\\])", "\\\\$1");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.cache.twolevel;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss, load and eviction counters of one {@link TwoLevelCache}.
+ *
+ * {@code @Cacheable} loads happen outside the cache (lookup misses, the method runs, the result
+ * is put), so load time is measured from a miss to the put of the same key on the same thread.
+ * A miss whose result is not cached (null, {@code unless}) is simply never completed.
+ */
+final class CacheCounters {
+
+    final LongAdder l1Hits = new LongAdder();
+    final LongAdder l2Hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder puts = new LongAdder();
+    final LongAdder loads = new LongAdder();
+    final LongAdder loadNanos = new LongAdder();
+    final LongAdder evictions = new LongAdder();
+
+    private final ThreadLocal<PendingLoad> pending = new ThreadLocal<>();
+
+    void miss(String key) {
+        misses.increment();
+        pending.set(new PendingLoad(key, System.nanoTime()));
+    }
+
+    void put(String key) {
+        puts.increment();
+        PendingLoad load = pending.get();
+        if (load != null && load.key.equals(key)) {
+            pending.remove();
+            load(System.nanoTime() - load.startedAt);
+        }
+    }
+
+    void load(long nanos) {
+        loads.increment();
+        loadNanos.add(nanos);
+    }
+
+    private static final class PendingLoad {
+        private final String key;
+        private final long startedAt;
+
+        PendingLoad(String key, long startedAt) {
+            this.key = key;
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.cache.twolevel;
+
+/**
+ * Pub/sub message telling other nodes to drop an L1 entry ({@code key} set), a whole L1 cache
+ * ({@code key == null}) or every entry registered under a dependency tag ({@code tag} set).
+ * Encoded as tab-separated text: {@code origin, E|C, cacheName[, key]} or {@code origin, T, tag}.
+ */
+final class CacheInvalidation {
+
+    private final String origin;
+    private final String cacheName;
+    private final String key;
+    private final String tag;
+
+    CacheInvalidation(String origin, String cacheName, String key) {
+        this(origin, cacheName, key, null);
+    }
+
+    private CacheInvalidation(String origin, String cacheName, String key, String tag) {
+        this.origin = origin;
+        this.cacheName = cacheName;
+        this.key = key;
+        this.tag = tag;
+    }
+
+    static CacheInvalidation forTag(String origin, String tag) {
+        return new CacheInvalidation(origin, null, null, tag);
+    }
+
+    String encode() {
+        if (tag != null) {
+            return origin + '\t' + 'T' + '\t' + tag;
+        }
+        return key != null
+                ? origin + '\t' + 'E' + '\t' + cacheName + '\t' + key
+                : origin + '\t' + 'C' + '\t' + cacheName;
+    }
+
+    /** Returns {@code null} for messages that are not in this format. */
+    static CacheInvalidation decode(String message) {
+        String[] parts = message.split("\t", 4);
+        if (parts.length == 4 && "E".equals(parts[1])) {
+            return new CacheInvalidation(parts[0], parts[2], parts[3]);
+        }
+        if (parts.length == 3 && "C".equals(parts[1])) {
+            return new CacheInvalidation(parts[0], parts[2], null);
+        }
+        if (parts.length == 3 && "T".equals(parts[1])) {
+            return forTag(parts[0], parts[2]);
+        }
+        return null;
+    }
+
+    String getOrigin() {
+        return origin;
+    }
+
+    String getCacheName() {
+        return cacheName;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    String getTag() {
+        return tag;
+    }
+}
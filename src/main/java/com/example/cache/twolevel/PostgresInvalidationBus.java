@@ -0,0 +1,285 @@
+package com.example.cache.twolevel;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Invalidation transport for several nodes without Redis: the {@link TwoLevelCacheManager}
+ * messages go out with {@code pg_notify} on the application's pool and come in on one dedicated
+ * {@code LISTEN} connection per node, opened outside the pool so it is never recycled.
+ *
+ * Outgoing messages are coalesced per {@code window}: duplicates collapse, a cache with more than
+ * {@code maxKeysPerCache} evicted keys is cleared instead, and the rest are packed into as few
+ * payloads as Postgres' 8000-byte NOTIFY limit allows.
+ *
+ * Postgres does not queue notifications for a session that is not listening. When the listener
+ * connection is lost and comes back, this node may have missed evictions, so it clears every local
+ * cache (full resync) once it is listening again.
+ */
+@Slf4j
+public class PostgresInvalidationBus implements DisposableBean {
+
+    /** NOTIFY payloads must stay below 8000 bytes; leaves room for the protocol framing. */
+    static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final long POLL_MS = 500;
+    private static final long KEEPALIVE_MS = 30_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource listenerDataSource;
+    private final String channel;
+    private final long windowMs;
+    private final int maxKeysPerCache;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-bus-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object lock = new Object();
+    private List<String> pending = new ArrayList<>();
+
+    private volatile Consumer<String> receiver;
+    private volatile Runnable resync;
+    private volatile boolean running;
+    private volatile int listenerPid;
+    private Thread listener;
+
+    /**
+     * @param jdbcTemplate       on the application's pooled datasource, for publishing
+     * @param listenerDataSource opens a new physical connection per call, for listening
+     */
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate, DataSource listenerDataSource, String channel,
+                                   Duration window, int maxKeysPerCache) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid NOTIFY channel name: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.listenerDataSource = listenerDataSource;
+        this.channel = channel;
+        this.windowMs = window.toMillis();
+        this.maxKeysPerCache = maxKeysPerCache;
+    }
+
+    /** Queues an encoded invalidation; the first message of a window schedules the flush. */
+    public void publish(String message) {
+        synchronized (lock) {
+            pending.add(message);
+            if (pending.size() > 1) {
+                return;
+            }
+        }
+        try {
+            flusher.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            flush(); // shutting down
+        }
+    }
+
+    /**
+     * Starts listening on a background thread.
+     *
+     * @param receiver called with every encoded invalidation, own messages included
+     * @param resync   called after a reconnect, when notifications may have been missed
+     */
+    public synchronized void start(Consumer<String> receiver, Runnable resync) {
+        if (running) {
+            return;
+        }
+        this.receiver = receiver;
+        this.resync = resync;
+        running = true;
+        listener = new Thread(this::listen, "cache-bus-listen");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        running = false;
+        flusher.shutdown();
+        flusher.awaitTermination(1, TimeUnit.SECONDS);
+        flush();
+        if (listener != null) {
+            listener.join(POLL_MS * 2);
+        }
+    }
+
+    /** Backend PID of the listener connection, 0 while disconnected. */
+    public int getListenerPid() {
+        return listenerPid;
+    }
+
+    void flush() {
+        List<String> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        for (String payload : payloads(coalesce(batch, maxKeysPerCache))) {
+            try {
+                jdbcTemplate.queryForRowSet("SELECT pg_notify(?, ?)", channel, payload);
+            } catch (DataAccessException e) {
+                log.warn("Could not publish cache invalidations on '{}': {}", channel, e.getMessage());
+            }
+        }
+    }
+
+    private void listen() {
+        long backoffMs = 1000;
+        boolean listenedBefore = false;
+        while (running) {
+            try (Connection connection = listenerDataSource.getConnection()) {
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                listenerPid = pg.getBackendPID();
+                if (listenedBefore) {
+                    log.warn("Cache invalidation listener reconnected; clearing local caches");
+                    resync.run();
+                }
+                listenedBefore = true;
+                backoffMs = 1000;
+                long lastCheck = System.currentTimeMillis();
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications((int) POLL_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            deliver(notification.getParameter());
+                        }
+                    }
+                    if (System.currentTimeMillis() - lastCheck > KEEPALIVE_MS) {
+                        // getNotifications does not notice a silently dropped connection
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        lastCheck = System.currentTimeMillis();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                listenerPid = 0;
+                if (!running) {
+                    break;
+                }
+                log.warn("Cache invalidation listener lost its connection ({}); retrying in {} ms",
+                        e.getMessage(), backoffMs);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+        listenerPid = 0;
+    }
+
+    private void deliver(String payload) {
+        for (String message : payload.split("\n")) {
+            try {
+                receiver.accept(message);
+            } catch (RuntimeException e) {
+                log.warn("Could not apply cache invalidation '{}': {}", message, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drops duplicates and unreadable messages; turns a cache's key evictions into one clear when a
+     * clear is already queued, there are more than {@code maxKeysPerCache}, or a key cannot be sent
+     * (contains a newline, or does not fit a payload). Tag invalidations pass through if sendable.
+     */
+    static List<String> coalesce(List<String> messages, int maxKeysPerCache) {
+        Map<String, Set<String>> evictions = new LinkedHashMap<>();
+        Map<String, String> clears = new LinkedHashMap<>();
+        Set<String> tags = new LinkedHashSet<>();
+        for (String message : messages) {
+            CacheInvalidation invalidation = CacheInvalidation.decode(message);
+            if (invalidation == null) {
+                continue;
+            }
+            boolean sendable = message.indexOf('\n') < 0 && utf8Length(message) <= MAX_PAYLOAD_BYTES;
+            if (invalidation.getTag() != null) {
+                if (sendable) {
+                    tags.add(message);
+                }
+            } else if (invalidation.getKey() == null || !sendable) {
+                clears.put(invalidation.getCacheName(),
+                        new CacheInvalidation(invalidation.getOrigin(), invalidation.getCacheName(), null).encode());
+            } else {
+                evictions.computeIfAbsent(invalidation.getCacheName(), name -> new LinkedHashSet<>()).add(message);
+            }
+        }
+        List<String> coalesced = new ArrayList<>(clears.values());
+        evictions.forEach((cacheName, keyMessages) -> {
+            if (clears.containsKey(cacheName)) {
+                return;
+            }
+            if (keyMessages.size() > maxKeysPerCache) {
+                CacheInvalidation first = CacheInvalidation.decode(keyMessages.iterator().next());
+                coalesced.add(new CacheInvalidation(first.getOrigin(), cacheName, null).encode());
+            } else {
+                coalesced.addAll(keyMessages);
+            }
+        });
+        coalesced.addAll(tags);
+        return coalesced;
+    }
+
+    /** Newline-separated messages, each payload at most {@link #MAX_PAYLOAD_BYTES}. */
+    static List<String> payloads(List<String> messages) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder();
+        int payloadBytes = 0;
+        for (String message : messages) {
+            int bytes = utf8Length(message);
+            if (payload.length() > 0 && payloadBytes + 1 + bytes > MAX_PAYLOAD_BYTES) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+                payloadBytes = 0;
+            }
+            if (payload.length() > 0) {
+                payload.append('\n');
+                payloadBytes++;
+            }
+            payload.append(message);
+            payloadBytes += bytes;
+        }
+        if (payload.length() > 0) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    private static int utf8Length(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
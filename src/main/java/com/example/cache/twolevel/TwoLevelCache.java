@@ -0,0 +1,296 @@
+package com.example.cache.twolevel;
+
+import com.example.cache.AccessFrequencyTracker;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Spring cache with a bounded in-process Caffeine L1 in front of an optional shared L2 (Redis).
+ *
+ * Reads try L1, then L2 (copying hits into L1), then the loader; {@code get(key, loader)} runs at
+ * most one load per key per node. Writes and evictions go to both levels and are broadcast so
+ * other nodes drop their L1 copy; without L2 only evictions and clears are broadcast. L1 is keyed by {@code String.valueOf(key)}, the same string the
+ * Redis cache uses, so both levels and every node agree on what one key is.
+ *
+ * L2 failures are logged and treated as misses: with Redis down the cache degrades to L1 only
+ * instead of failing the request.
+ *
+ * Every lookup is counted ({@link #stats(int)}), and hits feed an optional
+ * {@link AccessFrequencyTracker} for the hottest keys.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<String, Object> l1;
+    private final org.springframework.cache.Cache l2;
+    private final BiConsumer<String, String> invalidations;
+    private final AccessFrequencyTracker hotKeys;
+    private final CacheCounters counters = new CacheCounters();
+
+    /**
+     * @param l2            shared cache, or {@code null} for L1 only
+     * @param invalidations called with {@code (cacheName, key)} after a local write or eviction,
+     *                      {@code key == null} for clear
+     * @param hotKeys       records every hit, or {@code null} to not track keys
+     */
+    public TwoLevelCache(String name, Cache<String, Object> l1, org.springframework.cache.Cache l2,
+                         BiConsumer<String, String> invalidations, AccessFrequencyTracker hotKeys) {
+        super(false);
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.invalidations = invalidations;
+        this.hotKeys = hotKeys;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = l1.getIfPresent(localKey);
+        if (value != null) {
+            hit(counters.l1Hits, localKey);
+            return value;
+        }
+        value = l2Get(key);
+        if (value != null) {
+            l1.put(localKey, value);
+            hit(counters.l2Hits, localKey);
+        } else {
+            counters.miss(localKey);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        boolean[] l1Miss = new boolean[1];
+        T value = (T) l1.get(localKey, k -> {
+            l1Miss[0] = true;
+            Object shared = l2Get(key);
+            if (shared != null) {
+                hit(counters.l2Hits, localKey);
+                return shared;
+            }
+            counters.misses.increment();
+            long start = System.nanoTime();
+            T loaded;
+            try {
+                loaded = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            counters.load(System.nanoTime() - start);
+            if (loaded != null) {
+                l2Put(key, loaded);
+            }
+            return loaded;
+        });
+        if (!l1Miss[0]) {
+            hit(counters.l1Hits, localKey);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        String localKey = localKey(key);
+        counters.put(localKey);
+        l2Put(key, value);
+        l1.put(localKey, value);
+        if (l2 != null) {
+            // without L2 a put is a read-through fill of this node only; broadcasting it would
+            // make every node's miss drop the others' valid copies
+            invalidations.accept(name, localKey);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        counters.evictions.increment();
+        l2Evict(key);
+        l1.invalidate(localKey(key));
+        invalidations.accept(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        if (l2 != null) {
+            try {
+                l2.clear();
+            } catch (RuntimeException e) {
+                log.warn("L2 clear failed for cache '{}': {}", name, e.getMessage());
+            }
+        }
+        l1.invalidateAll();
+        invalidations.accept(name, null);
+    }
+
+    public boolean isTwoLevel() {
+        return l2 != null;
+    }
+
+    /** Counters since startup; L1 evictions are Caffeine's (size and expiry), not explicit ones. */
+    public Stats stats(int topKeys) {
+        return new Stats(counters.l1Hits.sum(), counters.l2Hits.sum(), counters.misses.sum(), counters.puts.sum(),
+                counters.loads.sum(), counters.loadNanos.sum(), counters.evictions.sum(),
+                l1.stats().evictionCount(), l1.estimatedSize(),
+                hotKeys != null && topKeys > 0 ? hotKeys.topKeys(topKeys)
+                        : Collections.<AccessFrequencyTracker.HotKey>emptyList());
+    }
+
+    /** Drops the L1 entry only; called for invalidations from other nodes. */
+    void evictLocal(String localKey) {
+        l1.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        l1.invalidateAll();
+    }
+
+    private void hit(LongAdder level, String localKey) {
+        level.increment();
+        if (hotKeys != null) {
+            hotKeys.record(localKey);
+        }
+    }
+
+    static String localKey(Object key) {
+        return key instanceof String ? (String) key : String.valueOf(key);
+    }
+
+    private Object l2Get(Object key) {
+        if (l2 == null) {
+            return null;
+        }
+        try {
+            ValueWrapper wrapper = l2.get(key);
+            return wrapper != null ? wrapper.get() : null;
+        } catch (RuntimeException e) {
+            log.warn("L2 read failed for cache '{}', using L1 only: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private void l2Put(Object key, Object value) {
+        if (l2 == null) {
+            return;
+        }
+        try {
+            l2.put(key, value);
+        } catch (RuntimeException e) {
+            log.warn("L2 write failed for cache '{}': {}", name, e.getMessage());
+        }
+    }
+
+    private void l2Evict(Object key) {
+        if (l2 == null) {
+            return;
+        }
+        try {
+            l2.evict(key);
+        } catch (RuntimeException e) {
+            log.warn("L2 evict failed for cache '{}': {}", name, e.getMessage());
+        }
+    }
+
+    public static final class Stats {
+        private final long l1Hits;
+        private final long l2Hits;
+        private final long misses;
+        private final long puts;
+        private final long loads;
+        private final long totalLoadNanos;
+        private final long evictions;
+        private final long l1Evictions;
+        private final long l1Size;
+        private final List<AccessFrequencyTracker.HotKey> topKeys;
+
+        Stats(long l1Hits, long l2Hits, long misses, long puts, long loads, long totalLoadNanos, long evictions,
+              long l1Evictions, long l1Size, List<AccessFrequencyTracker.HotKey> topKeys) {
+            this.l1Hits = l1Hits;
+            this.l2Hits = l2Hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.loads = loads;
+            this.totalLoadNanos = totalLoadNanos;
+            this.evictions = evictions;
+            this.l1Evictions = l1Evictions;
+            this.l1Size = l1Size;
+            this.topKeys = topKeys;
+        }
+
+        public long getL1Hits() {
+            return l1Hits;
+        }
+
+        public long getL2Hits() {
+            return l2Hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getPuts() {
+            return puts;
+        }
+
+        public long getLoads() {
+            return loads;
+        }
+
+        public long getTotalLoadNanos() {
+            return totalLoadNanos;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getL1Evictions() {
+            return l1Evictions;
+        }
+
+        public long getL1Size() {
+            return l1Size;
+        }
+
+        public List<AccessFrequencyTracker.HotKey> getTopKeys() {
+            return topKeys;
+        }
+    }
+}
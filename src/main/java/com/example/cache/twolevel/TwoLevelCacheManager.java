@@ -0,0 +1,171 @@
+package com.example.cache.twolevel;
+
+import com.example.cache.AccessFrequencyTracker;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link CacheManager} for all {@code @Cacheable} caches: a {@link TwoLevelCache} per name with a
+ * Caffeine L1 sized and timed from {@link TwoLevelCacheProperties} and, when Redis is configured,
+ * the matching Redis cache as L2.
+ *
+ * With Redis, local writes and evictions are published on the invalidation channel and
+ * {@link #onInvalidation} drops the L1 entry on every other node. Without Redis the caches are L1
+ * only, bounded and TTL-aware, replacing the unbounded {@code simple} cache; evictions then reach
+ * the other nodes over {@link PostgresInvalidationBus} when it is enabled.
+ *
+ * Caches are handed out transaction-aware: puts and evictions made inside a transaction are
+ * applied after it commits, so a reader cannot re-cache the old row between the eviction and the
+ * commit, and a rolled-back write evicts nothing.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final TwoLevelCacheProperties properties;
+    private final CacheManager l2;
+    private final Consumer<String> publisher;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Cache> transactionAware = new ConcurrentHashMap<>();
+    private final List<Consumer<TwoLevelCache>> creationListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<String>> tagListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param l2        shared caches (Redis), or {@code null} for L1 only
+     * @param publisher sends an encoded invalidation to the other nodes, or {@code null} for a single node
+     */
+    public TwoLevelCacheManager(TwoLevelCacheProperties properties, CacheManager l2, Consumer<String> publisher) {
+        this.properties = properties;
+        this.l2 = l2;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = transactionAware.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        boolean[] created = new boolean[1];
+        TwoLevelCache twoLevel = caches.computeIfAbsent(name, n -> {
+            created[0] = true;
+            return createCache(n);
+        });
+        if (created[0]) {
+            creationListeners.forEach(listener -> listener.accept(twoLevel));
+        }
+        return transactionAware.computeIfAbsent(name, n -> new TransactionAwareCacheDecorator(twoLevel));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    public boolean isTwoLevel() {
+        return l2 != null;
+    }
+
+    /** The cache itself (not the transaction-aware view), or {@code null} when not created yet. */
+    public TwoLevelCache getTwoLevelCache(String name) {
+        return caches.get(name);
+    }
+
+    public Collection<TwoLevelCache> getTwoLevelCaches() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+
+    /** Calls {@code listener} for every cache created so far and every cache created later. */
+    public void onCacheCreated(Consumer<TwoLevelCache> listener) {
+        creationListeners.add(listener);
+        caches.values().forEach(listener);
+    }
+
+    /**
+     * Calls {@code listener} with every dependency tag invalidated on another node, so entries this
+     * node registered under the tag can be evicted here (tag registries are per node).
+     */
+    public void onTagInvalidation(Consumer<String> listener) {
+        tagListeners.add(listener);
+    }
+
+    /** Tells the other nodes that {@code tag} was invalidated; no-op without Redis. */
+    public void publishTagInvalidation(String tag) {
+        if (publisher == null) {
+            return;
+        }
+        try {
+            publisher.accept(CacheInvalidation.forTag(nodeId, tag).encode());
+        } catch (RuntimeException e) {
+            log.warn("Could not publish invalidation for tag '{}': {}", tag, e.getMessage());
+        }
+    }
+
+    /** Drops every L1 entry on this node, e.g. after invalidations may have been missed. */
+    public void clearAllLocal() {
+        caches.values().forEach(TwoLevelCache::clearLocal);
+    }
+
+    /** Applies an invalidation published by another node; own messages are ignored. */
+    public void onInvalidation(String message) {
+        CacheInvalidation invalidation = CacheInvalidation.decode(message);
+        if (invalidation == null) {
+            log.debug("Ignoring malformed cache invalidation: {}", message);
+            return;
+        }
+        if (nodeId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        if (invalidation.getTag() != null) {
+            tagListeners.forEach(listener -> listener.accept(invalidation.getTag()));
+            return;
+        }
+        TwoLevelCache cache = caches.get(invalidation.getCacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.getKey() != null) {
+            cache.evictLocal(invalidation.getKey());
+        } else {
+            cache.clearLocal();
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Duration ttl = properties.ttlFor(name);
+        Duration l1Ttl = l2 != null && properties.getL1MaxTtl().compareTo(ttl) < 0 ? properties.getL1MaxTtl() : ttl;
+        com.github.benmanes.caffeine.cache.Cache<String, Object> l1 = Caffeine.newBuilder()
+                .maximumSize(properties.l1MaxSizeFor(name))
+                .expireAfterWrite(l1Ttl)
+                .recordStats()
+                .build();
+        AccessFrequencyTracker hotKeys = properties.getTrackedKeys() > 0
+                ? new AccessFrequencyTracker(properties.getTrackedKeys(), properties.getSketchWidth())
+                : null;
+        return new TwoLevelCache(name, l1, l2 != null ? l2.getCache(name) : null, this::publish, hotKeys);
+    }
+
+    private void publish(String cacheName, String key) {
+        if (publisher == null) {
+            return;
+        }
+        try {
+            publisher.accept(new CacheInvalidation(nodeId, cacheName, key).encode());
+        } catch (RuntimeException e) {
+            log.warn("Could not publish invalidation for cache '{}': {}", cacheName, e.getMessage());
+        }
+    }
+}
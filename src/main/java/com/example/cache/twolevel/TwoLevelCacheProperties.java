@@ -0,0 +1,70 @@
+package com.example.cache.twolevel;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for the Spring {@code CacheManager} caches ({@code cache.spring.*}), the one place
+ * per-cache TTLs are defined: {@code cache.spring.caches[users].ttl=15m}. Unlisted caches use the
+ * defaults.
+ */
+@Data
+@ConfigurationProperties(prefix = "cache.spring")
+public class TwoLevelCacheProperties {
+
+    /** Entry lifetime in Redis (L2), and in L1 when there is no Redis. */
+    private Duration defaultTtl = Duration.ofMinutes(30);
+    /**
+     * Upper bound for serving an entry from L1 without going back to L2. Bounds staleness when an
+     * invalidation message is lost (Redis pub/sub is fire-and-forget).
+     */
+    private Duration l1MaxTtl = Duration.ofMinutes(5);
+    /** Entries per cache kept in process; Caffeine evicts by W-TinyLFU beyond this. */
+    private long l1MaxSize = 10_000;
+    private String invalidationChannel = "cache:invalidation";
+    /** Hottest keys per cache remembered for the statistics endpoint (by hit count); 0 disables. */
+    private int trackedKeys = 50;
+    /** Counters per row of the count-min sketch behind the hot-key tracking. */
+    private int sketchWidth = 1024;
+
+    /**
+     * Redis value format: {@code compact} (binary with type ids, reads {@code json} entries too) or
+     * {@code json} (typed JSON, the previous format).
+     */
+    private String codec = "compact";
+    /** Compact values encoding to more bytes than this are deflated; 0 disables compression. */
+    private int compressionThreshold = 512;
+
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+
+    @Data
+    public static class Spec {
+        private Duration ttl;
+        private Long l1MaxSize;
+    }
+
+    public Duration ttlFor(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        return spec != null && spec.getTtl() != null ? spec.getTtl() : defaultTtl;
+    }
+
+    /** The longest TTL of any cache: how long a cache entry can outlive the write that created it. */
+    public Duration maxTtl() {
+        Duration max = defaultTtl;
+        for (Spec spec : caches.values()) {
+            if (spec.getTtl() != null && spec.getTtl().compareTo(max) > 0) {
+                max = spec.getTtl();
+            }
+        }
+        return max;
+    }
+
+    public long l1MaxSizeFor(String cacheName) {
+        Spec spec = caches.get(cacheName);
+        return spec != null && spec.getL1MaxSize() != null ? spec.getL1MaxSize() : l1MaxSize;
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.cache.warmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Preloads the {@link CacheWarmupTask} caches once the application is ready, all loads in parallel
+ * on a small bounded pool ({@code cache.warmup.threads}). {@link #isComplete()} turns true when
+ * every task has finished or {@code cache.warmup.budget-ms} has passed, whichever comes first;
+ * {@link CacheWarmupHealthIndicator} holds readiness until then. Loads still running past the
+ * budget carry on in the background. Each task's duration is logged, shown in the health details
+ * and recorded as the {@code cache.warmup} timer.
+ */
+@Component
+@Slf4j
+public class CacheWarmup implements DisposableBean {
+
+    private final List<Progress> tasks = new ArrayList<>();
+    private final boolean enabled;
+    private final long budgetNanos;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger remainingTasks;
+    private volatile long startedAt;
+    private volatile boolean started;
+
+    @Autowired
+    public CacheWarmup(List<CacheWarmupTask> tasks,
+                       @Value("${cache.warmup.enabled:true}") boolean enabled,
+                       @Value("${cache.warmup.threads:4}") int threads,
+                       @Value("${cache.warmup.budget-ms:30000}") long budgetMs,
+                       MeterRegistry meterRegistry) {
+        this(tasks, enabled, threads, budgetMs, meterRegistry, System::nanoTime);
+    }
+
+    CacheWarmup(List<CacheWarmupTask> tasks, boolean enabled, int threads, long budgetMs,
+                MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        for (CacheWarmupTask task : tasks) {
+            this.tasks.add(new Progress(task));
+        }
+        this.enabled = enabled;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.remainingTasks = new AtomicInteger(this.tasks.size());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-warmup-");
+        threadFactory.setDaemon(true);
+        // Full queue: the submitting warm-up thread runs the load itself, so nothing is dropped
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(64), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || started) {
+            return;
+        }
+        started = true;
+        startedAt = nanoClock.getAsLong();
+        log.info("Cache warm-up started: {} caches, budget {} ms", tasks.size(), TimeUnit.NANOSECONDS.toMillis(budgetNanos));
+        for (Progress task : tasks) {
+            executor.execute(() -> run(task));
+        }
+    }
+
+    /** Whether readiness may be reported: warm-up is off, finished, or out of time. */
+    public boolean isComplete() {
+        return !enabled || remainingTasks.get() == 0 || isBudgetExpired();
+    }
+
+    /** Started, not finished, and the time budget has run out. */
+    public boolean isBudgetExpired() {
+        return started && remainingTasks.get() > 0 && nanoClock.getAsLong() - startedAt >= budgetNanos;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<CacheWarmupResult> getResults() {
+        List<CacheWarmupResult> results = new ArrayList<>(tasks.size());
+        for (Progress task : tasks) {
+            results.add(task.result());
+        }
+        return results;
+    }
+
+    private void run(Progress task) {
+        task.startedAt = nanoClock.getAsLong();
+        task.running = true;
+        List<Runnable> loads;
+        try {
+            loads = task.task.loads();
+        } catch (RuntimeException e) {
+            task.fail(e);
+            finish(task);
+            return;
+        }
+        task.loads = loads.size();
+        if (loads.isEmpty()) {
+            finish(task);
+            return;
+        }
+        task.pending.set(loads.size());
+        for (Runnable load : loads) {
+            executor.execute(() -> {
+                try {
+                    load.run();
+                } catch (RuntimeException e) {
+                    task.fail(e);
+                } finally {
+                    if (task.pending.decrementAndGet() == 0) {
+                        finish(task);
+                    }
+                }
+            });
+        }
+    }
+
+    private void finish(Progress task) {
+        long elapsed = nanoClock.getAsLong() - task.startedAt;
+        task.durationMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        Timer.builder("cache.warmup")
+                .description("Time to preload a cache at startup")
+                .tag("cache", task.task.name())
+                .tag("result", task.error == null ? "success" : "failure")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        if (task.error == null) {
+            log.info("Cache warm-up of {}: {} loads in {} ms", task.task.name(), task.loads, task.durationMs);
+        } else {
+            log.warn("Cache warm-up of {} failed after {} ms: {}", task.task.name(), task.durationMs, task.error);
+        }
+        boolean last = remainingTasks.decrementAndGet() == 0;
+        task.done = true;
+        if (last) {
+            log.info("Cache warm-up finished in {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - startedAt));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private final class Progress {
+        private final CacheWarmupTask task;
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile long startedAt;
+        private volatile boolean running;
+        private volatile int loads;
+        private volatile long durationMs;
+        private volatile boolean done;
+        private volatile String error;
+
+        private Progress(CacheWarmupTask task) {
+            this.task = task;
+        }
+
+        private void fail(RuntimeException e) {
+            if (error == null) {
+                error = e.toString();
+            }
+        }
+
+        private CacheWarmupResult result() {
+            String status;
+            Long duration = null;
+            if (done) {
+                status = error == null ? "DONE" : "FAILED";
+                duration = durationMs;
+            } else if (running) {
+                status = "RUNNING";
+                duration = TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - startedAt);
+            } else {
+                status = started ? "QUEUED" : "PENDING";
+            }
+            return CacheWarmupResult.builder()
+                    .cache(task.name())
+                    .status(status)
+                    .loads(loads)
+                    .durationMs(duration)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.cache.warmup;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code cacheWarmup}: {@code OUT_OF_SERVICE} until {@link CacheWarmup} is complete, then
+ * {@code UP}. Part of the readiness group, so a restarted node gets traffic only with warm caches
+ * or once the warm-up budget is spent; liveness is unaffected.
+ */
+@Component
+public class CacheWarmupHealthIndicator extends AbstractHealthIndicator {
+
+    private final CacheWarmup warmup;
+
+    public CacheWarmupHealthIndicator(CacheWarmup warmup) {
+        super("Cache warm-up health check failed");
+        this.warmup = warmup;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (!warmup.isEnabled()) {
+            builder.up().withDetail("enabled", false);
+            return;
+        }
+        if (warmup.isComplete()) {
+            builder.up();
+        } else {
+            builder.outOfService();
+        }
+        builder.withDetail("budgetExpired", warmup.isBudgetExpired())
+                .withDetail("caches", warmup.getResults());
+    }
+}
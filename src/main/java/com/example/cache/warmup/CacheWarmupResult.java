@@ -0,0 +1,23 @@
+package com.example.cache.warmup;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Warm-up progress of one cache. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheWarmupResult {
+
+    private String cache;
+    /** {@code PENDING} (not started), {@code QUEUED}, {@code RUNNING}, {@code DONE} or {@code FAILED}. */
+    private String status;
+    /** Number of loads, e.g. one per language; 0 until the task starts. */
+    private int loads;
+    /** Time taken so far, or in total once done; {@code null} before the task starts. */
+    private Long durationMs;
+    private String error;
+}
@@ -0,0 +1,54 @@
+package com.example.cache.warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Preloads one cache at startup. Tasks are beans; {@link CacheWarmup} runs their loads in parallel
+ * and reports one duration per task.
+ */
+public interface CacheWarmupTask {
+
+    /** The cache this fills, as reported in health details and metrics. */
+    String name();
+
+    /** The independent loads; called on a warm-up thread, so it may itself read the database. */
+    List<Runnable> loads();
+
+    static CacheWarmupTask of(String name, Runnable load) {
+        return new CacheWarmupTask() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<Runnable> loads() {
+                return Collections.singletonList(load);
+            }
+        };
+    }
+
+    /** One load per item, e.g. per language; the items are listed when the task starts. */
+    static <T> CacheWarmupTask forEach(String name, Supplier<? extends Collection<T>> items, Consumer<T> load) {
+        return new CacheWarmupTask() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<Runnable> loads() {
+                List<Runnable> loads = new ArrayList<>();
+                for (T item : items.get()) {
+                    loads.add(() -> load.accept(item));
+                }
+                return loads;
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.cache.warmup;
+
+import com.example.role.service.RoleService;
+import com.example.translation.service.TranslationService;
+import com.example.workflow.service.WorkflowProcessService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The caches the first requests after a restart hit all at once. Each load goes through the
+ * service proxy, so it fills the cache under the same key a request would.
+ */
+@Configuration
+public class CacheWarmupTasks {
+
+    @Bean
+    public CacheWarmupTask translationMapsWarmup(TranslationService translationService) {
+        return CacheWarmupTask.forEach("translationMaps", translationService::getAvailableLanguages,
+                translationService::getTranslationsMapForLanguage);
+    }
+
+    @Bean
+    public CacheWarmupTask activeRolesWarmup(RoleService roleService) {
+        return CacheWarmupTask.of("roles", roleService::getActiveRoles);
+    }
+
+    @Bean
+    public CacheWarmupTask workflowsWarmup(WorkflowProcessService workflowProcessService) {
+        return CacheWarmupTask.of("workflows", workflowProcessService::getAll);
+    }
+}
@@ -1,99 +1,199 @@
 package com.example.config;
 
+import com.example.cache.codec.CacheTypeRegistry;
+import com.example.cache.codec.CompactCacheValueCodec;
+import com.example.cache.twolevel.PostgresInvalidationBus;
+import com.example.cache.twolevel.TwoLevelCacheManager;
+import com.example.cache.twolevel.TwoLevelCacheProperties;
+import com.example.file.dto.FileDto;
+import com.example.role.dto.RoleDto;
+import com.example.translation.dto.TranslationDto;
+import com.example.user.dto.UserDto;
+import com.example.user.enums.UserRole;
+import com.example.workflow.dto.WorkflowProcessDto;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.cache.CacheManager;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Arrays;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 
+/**
+ * The one {@code CacheManager}: Caffeine L1 per node, Redis L2 when {@code spring.cache.type=redis}.
+ * TTLs and sizes per cache come from {@code cache.spring.*} ({@link TwoLevelCacheProperties}).
+ * Without Redis, {@code cache.bus.enabled=true} keeps several nodes' L1 caches in step over
+ * Postgres NOTIFY.
+ *
+ * The caching advice is ordered just outside the lowest-precedence advice (transactions,
+ * {@code CacheTagAspect}): a hit returns without opening a transaction, and tags are registered on
+ * misses only.
+ */
 @Configuration
-@EnableCaching
-@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@EnableConfigurationProperties(TwoLevelCacheProperties.class)
+@Slf4j
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30)) // Default TTL of 30 minutes
+    public TwoLevelCacheManager cacheManager(TwoLevelCacheProperties properties,
+                                             @Value("${spring.cache.type:simple}") String cacheType,
+                                             ObjectProvider<RedisConnectionFactory> connectionFactory,
+                                             ObjectProvider<PostgresInvalidationBus> invalidationBus) {
+        RedisConnectionFactory redis = "redis".equalsIgnoreCase(cacheType) ? connectionFactory.getIfAvailable() : null;
+        if (redis == null) {
+            PostgresInvalidationBus bus = invalidationBus.getIfAvailable();
+            if (bus != null) {
+                log.info("Spring caches are in-process, invalidated across nodes over Postgres NOTIFY");
+                TwoLevelCacheManager manager = new TwoLevelCacheManager(properties, null, bus::publish);
+                bus.start(manager::onInvalidation, manager::clearAllLocal);
+                return manager;
+            }
+            log.info("Spring caches are in-process only (spring.cache.type={})", cacheType);
+            return new TwoLevelCacheManager(properties, null, null);
+        }
+
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(properties.getDefaultTtl())
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer(properties)))
                 .disableCachingNullValues();
-
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .withCacheConfiguration("users", 
-                    config.entryTtl(Duration.ofMinutes(15)))
-                .withCacheConfiguration("roles", 
-                    config.entryTtl(Duration.ofMinutes(30)))
-                .withCacheConfiguration("translations", 
-                    config.entryTtl(Duration.ofHours(1)))
-                .withCacheConfiguration("files", 
-                    config.entryTtl(Duration.ofMinutes(10)))
+        Map<String, RedisCacheConfiguration> perCache = new LinkedHashMap<>();
+        for (String name : properties.getCaches().keySet()) {
+            perCache.put(name, defaults.entryTtl(properties.ttlFor(name)));
+        }
+        RedisCacheManager l2 = RedisCacheManager.builder(redis)
+                .cacheDefaults(defaults)
+                .withInitialCacheConfigurations(perCache)
                 .build();
+        l2.afterPropertiesSet();
+        StringRedisTemplate publisher = new StringRedisTemplate(redis);
+        return new TwoLevelCacheManager(properties, l2,
+                message -> publisher.convertAndSend(properties.getInvalidationChannel(), message));
+    }
+
+    /**
+     * {@code cache.spring.codec=compact}: the binary codec, which still reads values stored as
+     * JSON, so switching needs no flush. Nodes on the JSON format treat compact entries as misses.
+     */
+    private static RedisSerializer<Object> valueSerializer(TwoLevelCacheProperties properties) {
+        if ("json".equalsIgnoreCase(properties.getCodec())) {
+            return jsonValueSerializer();
+        }
+        return new CompactCacheValueCodec(cacheTypes(), jsonValueSerializer(), properties.getCompressionThreshold());
+    }
+
+    /**
+     * Type ids of the cached value classes for the compact codec. Ids are stored with the values:
+     * never change or reuse one, only add.
+     */
+    public static CacheTypeRegistry cacheTypes() {
+        return new CacheTypeRegistry()
+                .register("L", ArrayList.class)
+                .register("M", HashMap.class)
+                .register("LM", LinkedHashMap.class)
+                .register("S", HashSet.class)
+                .register("LS", LinkedHashSet.class)
+                .register("J", Long.class)
+                .register("T", LocalDateTime.class)
+                .register("u", UserDto.class)
+                .register("ur", UserRole.class)
+                .register("r", RoleDto.class)
+                .register("t", TranslationDto.class)
+                .register("f", FileDto.class)
+                .register("w", WorkflowProcessDto.class);
+    }
+
+    /**
+     * Typed JSON like the default {@link GenericJackson2JsonRedisSerializer} (every value carries its
+     * class, so cached {@code long} counts come back as {@code Long}), plus java.time support:
+     * the cached DTOs carry {@code LocalDateTime} fields, which the default mapper cannot write.
+     */
+    public static GenericJackson2JsonRedisSerializer jsonValueSerializer() {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+
+    /** Drops L1 entries written or evicted on other nodes. */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   TwoLevelCacheManager cacheManager,
+                                                                   TwoLevelCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> cacheManager.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+
+    /**
+     * Invalidation bus for several nodes without Redis. Listens on its own connection, opened with
+     * the datasource's settings outside the pool.
+     */
+    @Bean
+    @ConditionalOnExpression("${cache.bus.enabled:false} and '${spring.cache.type:simple}' != 'redis'")
+    public PostgresInvalidationBus postgresInvalidationBus(DataSource dataSource,
+                                                           DataSourceProperties dataSourceProperties,
+                                                           @Value("${cache.bus.channel:cache_invalidation}") String channel,
+                                                           @Value("${cache.bus.window-ms:50}") long windowMs,
+                                                           @Value("${cache.bus.max-keys-per-cache:200}") int maxKeysPerCache) {
+        DriverManagerDataSource listenerDataSource = new DriverManagerDataSource(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        return new PostgresInvalidationBus(new JdbcTemplate(dataSource), listenerDataSource, channel,
+                Duration.ofMillis(windowMs), maxKeysPerCache);
     }
 
     @Bean
     public KeyGenerator customKeyGenerator() {
-        return (target, method, params) -> {
-            StringBuilder sb = new StringBuilder();
-            sb.append(target.getClass().getSimpleName()).append(".");
-            sb.append(method.getName()).append(".");
-            
-            if (params != null && params.length > 0) {
-                for (Object param : params) {
-                    if (param != null) {
-                        sb.append(param.toString()).append(".");
-                    }
-                }
-            }
-            
-            return sb.toString();
-        };
+        return new CacheKeyGenerator();
     }
 
     @Bean
     public KeyGenerator userKeyGenerator() {
-        return (target, method, params) -> {
-            StringBuilder sb = new StringBuilder("user.");
-            sb.append(method.getName()).append(".");
-            
-            if (params != null && params.length > 0) {
-                for (Object param : params) {
-                    if (param != null) {
-                        sb.append(param.toString()).append(".");
-                    }
-                }
-            }
-            
-            return sb.toString();
-        };
+        return new CacheKeyGenerator("user");
     }
 
     @Bean
     public KeyGenerator translationKeyGenerator() {
-        return (target, method, params) -> {
-            StringBuilder sb = new StringBuilder("translation.");
-            sb.append(method.getName()).append(".");
-            
-            if (params != null && params.length > 0) {
-                for (Object param : params) {
-                    if (param != null) {
-                        sb.append(param.toString()).append(".");
-                    }
-                }
-            }
-            
-            return sb.toString();
-        };
+        return new CacheKeyGenerator("translation");
     }
 }
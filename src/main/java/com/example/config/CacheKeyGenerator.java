@@ -1,24 +1,38 @@
 package com.example.config;
 
+import com.example.cache.CacheKey;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
-import java.util.Arrays;
 
+/**
+ * Keys cached calls as a {@link CacheKey} of scope, method name and arguments. The default scope
+ * is the target's simple class name; the named generators in {@link CacheConfig} use a fixed one.
+ */
 @Component
 public class CacheKeyGenerator implements KeyGenerator {
 
+    private static final ClassValue<String> SIMPLE_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return type.getSimpleName();
+        }
+    };
+
+    private final String scope;
+
+    public CacheKeyGenerator() {
+        this(null);
+    }
+
+    /** {@code scope} replaces the target's class name; {@code null} keeps it. */
+    public CacheKeyGenerator(String scope) {
+        this.scope = scope;
+    }
+
     @Override
     public Object generate(Object target, Method method, Object... params) {
-        StringBuilder key = new StringBuilder();
-        key.append(target.getClass().getSimpleName()).append(".");
-        key.append(method.getName()).append(".");
-        
-        if (params != null && params.length > 0) {
-            key.append(Arrays.toString(params));
-        }
-        
-        return key.toString();
+        return CacheKey.of(scope != null ? scope : SIMPLE_NAMES.get(target.getClass()), method.getName(), params);
     }
 }
@@ -13,9 +13,13 @@ public class JwtConfig {
     
     @Value("${jwt.expiration-ms}")
     private long expirationMs;
+
+    // 0 disables the verified-claims cache
+    @Value("${jwt.claims-cache.max-size:50000}")
+    private long claimsCacheSize;
     
     @Bean
     public JwtUtil jwtUtil() {
-        return new JwtUtil(secret, expirationMs);
+        return new JwtUtil(secret, expirationMs, claimsCacheSize);
     }
 }
@@ -0,0 +1,40 @@
+package com.example.config;
+
+import com.example.http.CircuitBreakerEndpoint;
+import com.example.http.CircuitBreakerRegistry;
+import com.example.http.OutboundHttpClient;
+import com.example.http.OutboundHttpProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Outbound HTTP for Open-Meteo, the exchange-rate API and the OAuth2 providers.
+ * Replaces the former bare {@code new RestTemplate()}; the bean name stays {@code restTemplate}.
+ */
+@Configuration
+@EnableConfigurationProperties(OutboundHttpProperties.class)
+public class OutboundHttpConfig {
+
+    @Bean
+    public OutboundHttpClient outboundHttpClient(OutboundHttpProperties properties, MeterRegistry meterRegistry) {
+        return new OutboundHttpClient(properties, meterRegistry);
+    }
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(OutboundHttpProperties properties, MeterRegistry meterRegistry) {
+        return new CircuitBreakerRegistry(properties, meterRegistry);
+    }
+
+    @Bean
+    public CircuitBreakerEndpoint circuitBreakerEndpoint(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return new CircuitBreakerEndpoint(circuitBreakerRegistry);
+    }
+
+    @Bean
+    public RestTemplate restTemplate(OutboundHttpClient outboundHttpClient) {
+        return outboundHttpClient.restTemplate();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.config;
+
+import com.example.cache.StaleWhileRevalidateCache;
+import com.example.exchange.rates.RateTable;
+import com.example.weather.dto.TileForecast;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stale-while-revalidate caches for the external weather and exchange-rate lookups.
+ * These replace {@code @Cacheable} on those services: the Spring cache has a single TTL and
+ * no request coalescing, so every expiry turned into a burst of identical upstream calls.
+ */
+@Configuration
+public class SwrCacheConfig implements DisposableBean {
+
+    public static final String WEATHER_CACHE = "weather";
+    public static final String EXCHANGE_RATE_CACHE = "exchangeRates";
+
+    /**
+     * Background refreshes only; when full, callers keep getting the stale value. Deliberately
+     * not a bean: an {@code Executor} bean would replace Boot's {@code applicationTaskExecutor}.
+     */
+    private final ThreadPoolExecutor cacheRefreshExecutor;
+    private final long loadWaitMs;
+
+    public SwrCacheConfig(@Value("${cache.swr.refresh-threads:2}") int threads,
+                          @Value("${cache.swr.refresh-queue-capacity:100}") int queueCapacity,
+                          @Value("${cache.swr.load-wait-ms:10000}") long loadWaitMs) {
+        this.loadWaitMs = loadWaitMs;
+        this.cacheRefreshExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new RefreshThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    public StaleWhileRevalidateCache<String, TileForecast> weatherCache(
+            @Value("${cache.swr.weather.soft-ttl-seconds:600}") long softTtlSeconds,
+            @Value("${cache.swr.weather.hard-ttl-seconds:3600}") long hardTtlSeconds,
+            @Value("${cache.swr.weather.retain-seconds:86400}") long retainSeconds,
+            @Value("${cache.swr.weather.max-size:2000}") int maxSize) {
+        return new StaleWhileRevalidateCache<>(WEATHER_CACHE, TimeUnit.SECONDS.toMillis(softTtlSeconds),
+                TimeUnit.SECONDS.toMillis(hardTtlSeconds), TimeUnit.SECONDS.toMillis(retainSeconds), maxSize,
+                loadWaitMs, cacheRefreshExecutor, System::currentTimeMillis);
+    }
+
+    @Bean
+    public StaleWhileRevalidateCache<String, RateTable> exchangeRateCache(
+            @Value("${cache.swr.exchange-rates.soft-ttl-seconds:1800}") long softTtlSeconds,
+            @Value("${cache.swr.exchange-rates.hard-ttl-seconds:21600}") long hardTtlSeconds,
+            @Value("${cache.swr.exchange-rates.retain-seconds:604800}") long retainSeconds,
+            @Value("${cache.swr.exchange-rates.max-size:16}") int maxSize) {
+        return new StaleWhileRevalidateCache<>(EXCHANGE_RATE_CACHE, TimeUnit.SECONDS.toMillis(softTtlSeconds),
+                TimeUnit.SECONDS.toMillis(hardTtlSeconds), TimeUnit.SECONDS.toMillis(retainSeconds), maxSize,
+                loadWaitMs, cacheRefreshExecutor, System::currentTimeMillis);
+    }
+
+    @Override
+    public void destroy() {
+        StaleWhileRevalidateCache.cancelRefreshes(cacheRefreshExecutor.shutdownNow());
+    }
+
+    private static final class RefreshThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "cache-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.controller;
 
+import com.example.cache.HotKeyPrefetcher;
+import com.example.cache.stats.CacheKeySample;
+import com.example.cache.stats.CacheStatistics;
+import com.example.cache.stats.CacheStatsService;
 import com.example.service.CacheManagementService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,9 +22,14 @@ import java.util.Map;
 public class CacheController {
 
     private final CacheManagementService cacheManagementService;
+    private final HotKeyPrefetcher hotKeyPrefetcher;
+    private final CacheStatsService cacheStatsService;
 
-    public CacheController(CacheManagementService cacheManagementService) {
+    public CacheController(CacheManagementService cacheManagementService, HotKeyPrefetcher hotKeyPrefetcher,
+                           CacheStatsService cacheStatsService) {
         this.cacheManagementService = cacheManagementService;
+        this.hotKeyPrefetcher = hotKeyPrefetcher;
+        this.cacheStatsService = cacheStatsService;
     }
 
     @GetMapping("/names")
@@ -27,6 +38,34 @@ public class CacheController {
         return ResponseEntity.ok(cacheManagementService.getCacheNames());
     }
 
+    @GetMapping("/hot-keys")
+    @Operation(summary = "Get hot keys", description = "Most accessed weather tiles and currency pairs, with prefetch hit ratio")
+    public ResponseEntity<List<HotKeyPrefetcher.Report>> getHotKeys(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(hotKeyPrefetcher.report(Math.max(1, Math.min(limit, 200))));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get cache statistics", description = "Hits, misses, load time, evictions, size, estimated memory and top keys per cache")
+    public ResponseEntity<List<CacheStatistics>> getStatistics() {
+        return ResponseEntity.ok(cacheStatsService.getAll());
+    }
+
+    @GetMapping("/stats/{cacheName}")
+    @Operation(summary = "Get statistics of one cache", description = "Statistics of a single cache by name")
+    public ResponseEntity<CacheStatistics> getStatistics(@PathVariable String cacheName) {
+        CacheStatistics statistics = cacheStatsService.get(cacheName);
+        return statistics != null ? ResponseEntity.ok(statistics) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{cacheName}/keys")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Sample cache keys", description = "Up to limit keys per level with age, TTL and size; Redis is read with SCAN, never KEYS")
+    public ResponseEntity<List<CacheKeySample>> sampleKeys(@PathVariable String cacheName,
+                                                           @RequestParam(defaultValue = "50") int limit) {
+        List<CacheKeySample> keys = cacheStatsService.sampleKeys(cacheName, Math.max(1, Math.min(limit, 200)));
+        return keys != null ? ResponseEntity.ok(keys) : ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("/all")
     @Operation(summary = "Clear all caches", description = "Clear all application caches")
     public ResponseEntity<Map<String, String>> clearAllCaches() {
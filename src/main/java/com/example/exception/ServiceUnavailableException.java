@@ -0,0 +1,19 @@
+package com.example.exception;
+
+/**
+ * Thrown when a bounded resource is saturated and the request should be retried later.
+ * Rendered as 503 with a Retry-After header by {@link GlobalExceptionHandler}.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
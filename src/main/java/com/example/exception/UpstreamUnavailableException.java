@@ -0,0 +1,12 @@
+package com.example.exception;
+
+/**
+ * An external API (weather, exchange rates) failed or timed out. Counted as a failure by the
+ * upstream's circuit breaker and rendered as 503 by {@link GlobalExceptionHandler}.
+ */
+public class UpstreamUnavailableException extends ServiceUnavailableException {
+
+    public UpstreamUnavailableException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
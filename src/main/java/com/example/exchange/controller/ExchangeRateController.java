@@ -1,12 +1,20 @@
 package com.example.exchange.controller;
 
+import com.example.exchange.dto.BulkConvertRequest;
+import com.example.exchange.dto.BulkConvertResponse;
 import com.example.exchange.dto.ExchangeRateDto;
+import com.example.exchange.dto.RateHistoryDto;
+import com.example.exchange.history.ResampleInterval;
 import com.example.exchange.service.ExchangeRateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.validation.Valid;
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/exchange-rates")
 @RequiredArgsConstructor
@@ -23,4 +31,34 @@ public class ExchangeRateController {
         log.info("GET /api/exchange-rates/latest?from={}&to={}", from, to);
         return ResponseEntity.ok(exchangeRateService.getLatestRate(from, to));
     }
+
+    /** Converts many amounts/pairs against one rate snapshot. */
+    @PostMapping("/convert")
+    public ResponseEntity<BulkConvertResponse> convert(@Valid @RequestBody BulkConvertRequest request) {
+        log.info("POST /api/exchange-rates/convert ({} items)", request.getItems().size());
+        return ResponseEntity.ok(exchangeRateService.convert(request));
+    }
+
+    /** Daily rates, e.g. ?from=USD&to=UZS&start=2024-01-01&end=2024-03-31 (default: last 30 days). */
+    @GetMapping("/history")
+    public ResponseEntity<RateHistoryDto> getHistory(
+            @RequestParam(defaultValue = "USD") String from,
+            @RequestParam(defaultValue = "UZS") String to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        log.info("GET /api/exchange-rates/history?from={}&to={}&start={}&end={}", from, to, start, end);
+        return ResponseEntity.ok(exchangeRateService.getHistory(from, to, start, end));
+    }
+
+    /** Averages per day or ISO week (interval=DAILY|WEEKLY) over the same range as /history. */
+    @GetMapping("/history/resampled")
+    public ResponseEntity<RateHistoryDto> getResampledHistory(
+            @RequestParam(defaultValue = "USD") String from,
+            @RequestParam(defaultValue = "UZS") String to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(defaultValue = "WEEKLY") ResampleInterval interval) {
+        log.info("GET /api/exchange-rates/history/resampled?from={}&to={}&interval={}", from, to, interval);
+        return ResponseEntity.ok(exchangeRateService.getResampledHistory(from, to, start, end, interval));
+    }
 }
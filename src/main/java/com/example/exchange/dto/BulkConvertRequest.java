@@ -0,0 +1,41 @@
+package com.example.exchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkConvertRequest {
+
+    @NotEmpty(message = "At least one conversion is required")
+    @Size(max = 1000, message = "At most 1000 conversions per request")
+    @Valid
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @NotBlank(message = "Source currency is required")
+        private String from;
+
+        @NotBlank(message = "Target currency is required")
+        private String to;
+
+        @NotNull(message = "Amount is required")
+        private Double amount;
+    }
+}
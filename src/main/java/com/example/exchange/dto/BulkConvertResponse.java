@@ -0,0 +1,37 @@
+package com.example.exchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * All results are computed against the same rate snapshot ({@code fetchedAt}).
+ * Unsupported currencies fail only their own item ({@code error} set, no amount).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkConvertResponse {
+    private LocalDateTime fetchedAt;
+    private Boolean stale;
+    private Long ageSeconds;
+    private List<Result> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private String from;
+        private String to;
+        private Double amount;
+        private Double rate;
+        private Double convertedAmount;
+        private String error;
+    }
+}
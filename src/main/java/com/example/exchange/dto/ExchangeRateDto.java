@@ -18,4 +18,8 @@ public class ExchangeRateDto {
     private Double rate;
     private LocalDateTime fetchedAt;
     private Map<String, Double> rates;
+    /** True when the rate table is a last-known-good copy because the upstream is unavailable. */
+    private Boolean stale;
+    /** Age of the rate table in seconds. */
+    private Long ageSeconds;
 }
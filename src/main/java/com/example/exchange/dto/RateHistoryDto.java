@@ -0,0 +1,37 @@
+package com.example.exchange.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rates of one pair over a date range. Daily points carry the day's closing rate; resampled points
+ * carry the average over the bucket starting at {@code date} and the number of days averaged.
+ * Days without a recorded table are absent, not interpolated.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateHistoryDto {
+    private String baseCurrency;
+    private String targetCurrency;
+    private LocalDate start;
+    private LocalDate end;
+    private String interval;
+    private List<Point> points;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private LocalDate date;
+        private Double rate;
+        private Integer samples;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.exchange.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Closing rate of one currency against {@code baseCurrency} for one day. Backup of the
+ * memory-mapped series in {@code RateHistoryStore}; read back only when those files are missing.
+ */
+@Entity
+@Table(name = "exchange_rate_history",
+        uniqueConstraints = @UniqueConstraint(name = "uk_exchange_rate_history_day",
+                columnNames = {"base_currency", "currency", "rate_date"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExchangeRateHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "base_currency", nullable = false, length = 8)
+    private String baseCurrency;
+
+    @Column(nullable = false, length = 8)
+    private String currency;
+
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    @Column(nullable = false)
+    private Double rate;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
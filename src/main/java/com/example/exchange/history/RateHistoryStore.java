@@ -0,0 +1,294 @@
+package com.example.exchange.history;
+
+import com.example.exchange.entity.ExchangeRateHistory;
+import com.example.exchange.rates.RateTable;
+import com.example.exchange.repository.ExchangeRateHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily exchange-rate history against the anchor currency, one {@link RateSeries} file per quoted
+ * currency under {@code exchange-rate.history.directory}. Every table fetched by the rate store is
+ * recorded as that day's rate (the last table of a day wins), and any pair is derived per day as
+ * {@code rate[to] / rate[from]}, the same way {@link RateTable} derives cross rates.
+ *
+ * Queries are answered from the mapped files. Closed days are backed up to the
+ * {@code exchange_rate_history} table by a scheduled job; the table is read back only when the
+ * local files are missing (new host, wiped volume).
+ */
+@Component
+@Slf4j
+public class RateHistoryStore {
+
+    private static final String FILE_SUFFIX = ".series";
+
+    private final ExchangeRateHistoryRepository repository;
+    private final boolean enabled;
+    private final String anchorCurrency;
+    private final Path directory;
+    private final int initialCapacity;
+
+    private final ConcurrentHashMap<String, RateSeries> series = new ConcurrentHashMap<>();
+    /** Last day per currency already stored in the database. */
+    private final ConcurrentHashMap<String, Integer> backedUpThrough = new ConcurrentHashMap<>();
+
+    public RateHistoryStore(ExchangeRateHistoryRepository repository,
+                            @Value("${exchange-rate.history.enabled:true}") boolean enabled,
+                            @Value("${exchange-rate.anchor-currency:USD}") String anchorCurrency,
+                            @Value("${exchange-rate.history.directory:data/rate-history}") String directory,
+                            @Value("${exchange-rate.history.initial-capacity:512}") int initialCapacity) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.anchorCurrency = anchorCurrency;
+        this.directory = Paths.get(directory).resolve(anchorCurrency);
+        this.initialCapacity = initialCapacity;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            openLocalSeries();
+        } catch (IOException e) {
+            log.warn("Rate history directory {} unavailable: {}", directory, e.getMessage());
+        }
+        try {
+            for (Object[] row : repository.findLatestDates(anchorCurrency)) {
+                backedUpThrough.put((String) row[0], (int) ((LocalDate) row[1]).toEpochDay());
+            }
+            if (series.isEmpty() && !backedUpThrough.isEmpty()) {
+                restoreFromDatabase();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rate history backup table unavailable, using local series only: {}", e.getMessage());
+        }
+        log.info("Rate history: {} currencies against {} in {}", series.size(), anchorCurrency, directory);
+    }
+
+    /** Records the table's rates as the rates of the day it was fetched. Never throws. */
+    public void record(RateTable table) {
+        if (!enabled || table.isStale() || !anchorCurrency.equals(table.getBaseCurrency())) {
+            return;
+        }
+        int day = (int) table.getFetchedAt().toLocalDate().toEpochDay();
+        try {
+            table.forEachRate((currency, rate) -> {
+                if (!anchorCurrency.equals(currency)) {
+                    append(currency, day, rate);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not record rate history for {}: {}", table.getFetchedAt(), e.getMessage());
+        }
+    }
+
+    /** Daily rates of {@code from → to} between {@code start} and {@code end}, inclusive. */
+    public List<RatePoint> range(String from, String to, LocalDate start, LocalDate end) {
+        RateSeries.Slice pair = pair(from, to, start, end);
+        List<RatePoint> points = new ArrayList<>(pair.size());
+        for (int i = 0; i < pair.size(); i++) {
+            points.add(new RatePoint(LocalDate.ofEpochDay(pair.dayAt(i)), pair.rateAt(i), 1));
+        }
+        return points;
+    }
+
+    /** Average rate of {@code from → to} per {@code interval} bucket between {@code start} and {@code end}. */
+    public List<RatePoint> resample(String from, String to, LocalDate start, LocalDate end, ResampleInterval interval) {
+        RateSeries.Slice pair = pair(from, to, start, end);
+        List<RatePoint> points = new ArrayList<>();
+        int i = 0;
+        while (i < pair.size()) {
+            int bucket = interval.bucketStart(pair.dayAt(i));
+            double sum = 0;
+            int samples = 0;
+            while (i < pair.size() && interval.bucketStart(pair.dayAt(i)) == bucket) {
+                sum += pair.rateAt(i++);
+                samples++;
+            }
+            points.add(new RatePoint(LocalDate.ofEpochDay(bucket), sum / samples, samples));
+        }
+        return points;
+    }
+
+    /** Copies closed days that are not in the database yet into {@code exchange_rate_history}. */
+    @Scheduled(fixedDelayString = "${exchange-rate.history.backup-interval-ms:3600000}",
+            initialDelayString = "${exchange-rate.history.backup-interval-ms:3600000}")
+    public void backup() {
+        if (!enabled) {
+            return;
+        }
+        int today = (int) LocalDate.now().toEpochDay();
+        int stored = 0;
+        try {
+            for (Map.Entry<String, RateSeries> entry : series.entrySet()) {
+                String currency = entry.getKey();
+                entry.getValue().force();
+                int after = backedUpThrough.getOrDefault(currency, Integer.MIN_VALUE);
+                RateSeries.Slice closed = entry.getValue().range(after + 1, today - 1);
+                if (closed.size() == 0) {
+                    continue;
+                }
+                stored += save(currency, closed);
+                backedUpThrough.put(currency, closed.dayAt(closed.size() - 1));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rate history backup failed, will retry: {}", e.getMessage());
+        }
+        if (stored > 0) {
+            log.info("Backed up {} daily rates against {}", stored, anchorCurrency);
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        for (RateSeries s : series.values()) {
+            s.force();
+        }
+    }
+
+    private void openLocalSeries() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String currency = file.getFileName().toString().replace(FILE_SUFFIX, "");
+                try {
+                    series.put(currency, RateSeries.open(file, initialCapacity));
+                } catch (IOException e) {
+                    log.warn("Moving unreadable rate series {} aside: {}", file, e.getMessage());
+                    Files.move(file, file.resolveSibling(file.getFileName() + ".corrupt"),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    private void append(String currency, int day, double rate) {
+        try {
+            series.computeIfAbsent(currency, this::openSeries).append(day, rate);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private RateSeries openSeries(String currency) {
+        try {
+            return RateSeries.open(directory.resolve(currency + FILE_SUFFIX), initialCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Per-day rates of the pair on days where both currencies have a rate. The anchor currency has
+     * no series of its own: its rate is 1 on every day.
+     */
+    private RateSeries.Slice pair(String from, String to, LocalDate start, LocalDate end) {
+        int fromDay = (int) start.toEpochDay();
+        int toDay = (int) end.toEpochDay();
+        RateSeries.Slice base = slice(from, fromDay, toDay);
+        RateSeries.Slice quote = slice(to, fromDay, toDay);
+        if (base == null && quote == null) {
+            return new RateSeries.Slice(new int[0], new double[0]);
+        }
+        if (base == null || quote == null) {
+            RateSeries.Slice only = base != null ? base : quote;
+            int[] days = new int[only.size()];
+            double[] rates = new double[only.size()];
+            for (int i = 0; i < only.size(); i++) {
+                days[i] = only.dayAt(i);
+                rates[i] = base != null ? 1.0 / only.rateAt(i) : only.rateAt(i);
+            }
+            return new RateSeries.Slice(days, rates);
+        }
+
+        int[] days = new int[Math.min(base.size(), quote.size())];
+        double[] rates = new double[days.length];
+        int size = 0;
+        int b = 0;
+        int q = 0;
+        while (b < base.size() && q < quote.size()) {
+            int baseDay = base.dayAt(b);
+            int quoteDay = quote.dayAt(q);
+            if (baseDay < quoteDay) {
+                b++;
+            } else if (quoteDay < baseDay) {
+                q++;
+            } else {
+                days[size] = baseDay;
+                rates[size++] = quote.rateAt(q++) / base.rateAt(b++);
+            }
+        }
+        return new RateSeries.Slice(Arrays.copyOf(days, size), Arrays.copyOf(rates, size));
+    }
+
+    /** Range of {@code currency}'s series, or {@code null} for the anchor currency. */
+    private RateSeries.Slice slice(String currency, int fromDay, int toDay) {
+        if (anchorCurrency.equals(currency)) {
+            return null;
+        }
+        RateSeries s = series.get(currency);
+        if (s == null) {
+            throw new IllegalArgumentException("No rate history for currency: " + currency);
+        }
+        return s.range(fromDay, toDay);
+    }
+
+    private int save(String currency, RateSeries.Slice closed) {
+        List<ExchangeRateHistory> rows = new ArrayList<>(closed.size());
+        for (int i = 0; i < closed.size(); i++) {
+            rows.add(ExchangeRateHistory.builder()
+                    .baseCurrency(anchorCurrency)
+                    .currency(currency)
+                    .rateDate(LocalDate.ofEpochDay(closed.dayAt(i)))
+                    .rate(closed.rateAt(i))
+                    .build());
+        }
+        try {
+            repository.saveAll(rows);
+            return rows.size();
+        } catch (DataIntegrityViolationException e) {
+            // Days already stored (another instance, or a restart before the watermark was known)
+            int inserted = 0;
+            for (ExchangeRateHistory row : rows) {
+                try {
+                    row.setId(null);
+                    repository.save(row);
+                    inserted++;
+                } catch (DataIntegrityViolationException duplicate) {
+                    // already present
+                }
+            }
+            return inserted;
+        }
+    }
+
+    private void restoreFromDatabase() {
+        int restored = 0;
+        for (ExchangeRateHistory row : repository.findByBaseCurrencyOrderByCurrencyAscRateDateAsc(anchorCurrency)) {
+            append(row.getCurrency(), (int) row.getRateDate().toEpochDay(), row.getRate());
+            restored++;
+        }
+        log.info("Rebuilt {} daily rates against {} from the backup table", restored, anchorCurrency);
+    }
+}
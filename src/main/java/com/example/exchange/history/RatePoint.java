@@ -0,0 +1,29 @@
+package com.example.exchange.history;
+
+import java.time.LocalDate;
+
+/** One point of a (possibly resampled) pair series: the day or bucket start, rate and number of daily samples. */
+public final class RatePoint {
+
+    private final LocalDate date;
+    private final double rate;
+    private final int samples;
+
+    public RatePoint(LocalDate date, double rate, int samples) {
+        this.date = date;
+        this.rate = rate;
+        this.samples = samples;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.exchange.history;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only daily series of one currency, stored as {@code (epochDay, rate)} records in a
+ * memory-mapped file: reads are binary searches over the mapped pages, with no objects per point.
+ *
+ * File layout (little-endian): header {@code magic, version, count, reserved}, then 12-byte records
+ * ordered by day. Only the last record is ever rewritten (later tables of the same day replace the
+ * day's rate), and readers take that record from the published {@link State} instead of the file,
+ * so a single writer and any number of readers need no locking.
+ */
+public final class RateSeries {
+
+    static final int MAGIC = 0x52485331; // "RHS1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 12;
+    private static final int COUNT_OFFSET = 8;
+
+    private final Path file;
+    private volatile State state;
+
+    private RateSeries(Path file, State state) {
+        this.file = file;
+        this.state = state;
+    }
+
+    /** Opens (or creates) the series file, mapping room for at least {@code initialCapacity} records. */
+    public static RateSeries open(Path file, int initialCapacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size == 0) {
+                MappedByteBuffer buffer = map(channel, initialCapacity);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(COUNT_OFFSET, 0);
+                return new RateSeries(file, new State(buffer, initialCapacity, 0, 0, Double.NaN));
+            }
+
+            int capacity = (int) Math.max(initialCapacity, (size - HEADER_BYTES) / RECORD_BYTES);
+            MappedByteBuffer buffer = map(channel, capacity);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a rate series file: " + file);
+            }
+            int count = buffer.getInt(COUNT_OFFSET);
+            if (count < 0 || count > capacity) {
+                throw new IOException("Corrupt rate series file: " + file + " (count " + count + ")");
+            }
+            int lastDay = count > 0 ? buffer.getInt(recordOffset(count - 1)) : 0;
+            double lastRate = count > 0 ? buffer.getDouble(recordOffset(count - 1) + 4) : Double.NaN;
+            return new RateSeries(file, new State(buffer, capacity, count, lastDay, lastRate));
+        }
+    }
+
+    /**
+     * Appends the rate for {@code epochDay}, or replaces it when that day is already the last one.
+     * Returns {@code false} (and stores nothing) for days older than the last recorded day.
+     */
+    public synchronized boolean append(int epochDay, double rate) throws IOException {
+        State current = state;
+        if (current.count > 0 && epochDay < current.lastDay) {
+            return false;
+        }
+        if (current.count > 0 && epochDay == current.lastDay) {
+            current.buffer.putDouble(recordOffset(current.count - 1) + 4, rate);
+            state = new State(current.buffer, current.capacity, current.count, epochDay, rate);
+            return true;
+        }
+
+        MappedByteBuffer buffer = current.buffer;
+        int capacity = current.capacity;
+        if (current.count == capacity) {
+            capacity = capacity * 2;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = map(channel, capacity);
+            }
+        }
+        int offset = recordOffset(current.count);
+        buffer.putInt(offset, epochDay);
+        buffer.putDouble(offset + 4, rate);
+        buffer.putInt(COUNT_OFFSET, current.count + 1);
+        state = new State(buffer, capacity, current.count + 1, epochDay, rate);
+        return true;
+    }
+
+    /** Points with {@code fromDay <= day <= toDay}, copied into primitive arrays. */
+    public Slice range(int fromDay, int toDay) {
+        State s = state;
+        int start = lowerBound(s, fromDay);
+        int end = lowerBound(s, toDay + 1);
+        int size = Math.max(0, end - start);
+        int[] days = new int[size];
+        double[] rates = new double[size];
+        for (int i = 0; i < size; i++) {
+            days[i] = s.dayAt(start + i);
+            rates[i] = s.rateAt(start + i);
+        }
+        return new Slice(days, rates);
+    }
+
+    public int size() {
+        return state.count;
+    }
+
+    /** Last recorded day, or {@code Integer.MIN_VALUE} when empty. */
+    public int lastDay() {
+        State s = state;
+        return s.count > 0 ? s.lastDay : Integer.MIN_VALUE;
+    }
+
+    /** Flushes mapped pages to disk. */
+    public void force() {
+        state.buffer.force();
+    }
+
+    private static int lowerBound(State s, int day) {
+        int low = 0;
+        int high = s.count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (s.dayAt(mid) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int recordOffset(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, int capacity) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_BYTES + (long) capacity * RECORD_BYTES);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /** What readers see: mapping, record count and the last record, published together. */
+    private static final class State {
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final int count;
+        private final int lastDay;
+        private final double lastRate;
+
+        State(MappedByteBuffer buffer, int capacity, int count, int lastDay, double lastRate) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.count = count;
+            this.lastDay = lastDay;
+            this.lastRate = lastRate;
+        }
+
+        int dayAt(int index) {
+            return index == count - 1 ? lastDay : buffer.getInt(recordOffset(index));
+        }
+
+        double rateAt(int index) {
+            return index == count - 1 ? lastRate : buffer.getDouble(recordOffset(index) + 4);
+        }
+    }
+
+    /** A copied range of the series: {@code days[i]} is an epoch day, {@code rates[i]} its rate. */
+    public static final class Slice {
+        private final int[] days;
+        private final double[] rates;
+
+        Slice(int[] days, double[] rates) {
+            this.days = days;
+            this.rates = rates;
+        }
+
+        public int size() {
+            return days.length;
+        }
+
+        public int dayAt(int index) {
+            return days[index];
+        }
+
+        public double rateAt(int index) {
+            return rates[index];
+        }
+    }
+}
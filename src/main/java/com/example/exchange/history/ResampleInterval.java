@@ -0,0 +1,17 @@
+package com.example.exchange.history;
+
+/** Bucket size for averaging a rate series. Weeks start on Monday (ISO-8601). */
+public enum ResampleInterval {
+
+    DAILY,
+    WEEKLY;
+
+    /** Epoch day of the first day of the bucket containing {@code epochDay}. */
+    int bucketStart(int epochDay) {
+        if (this == DAILY) {
+            return epochDay;
+        }
+        // 1970-01-01 was a Thursday, three days after Monday
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+}
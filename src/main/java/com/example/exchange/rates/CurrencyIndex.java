@@ -0,0 +1,43 @@
+package com.example.exchange.rates;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stable currency code → ordinal mapping shared by all {@link RateTable} snapshots, so a table
+ * is just a {@code double[]} and ordinals survive refreshes. Codes are only added from provider
+ * data; lookups with user input never grow the index.
+ */
+public class CurrencyIndex {
+
+    private final ConcurrentHashMap<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private volatile String[] codes = new String[0];
+
+    /** Ordinal for {@code code}, or -1 when the provider never returned it. */
+    public int indexOf(String code) {
+        Integer ordinal = ordinals.get(code);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /** Ordinal for {@code code}, assigning the next one when it is new. */
+    public synchronized int ordinalOf(String code) {
+        Integer existing = ordinals.get(code);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = codes.length;
+        String[] grown = Arrays.copyOf(codes, ordinal + 1);
+        grown[ordinal] = code;
+        codes = grown;
+        ordinals.put(code, ordinal);
+        return ordinal;
+    }
+
+    public String codeAt(int ordinal) {
+        return codes[ordinal];
+    }
+
+    public int size() {
+        return codes.length;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.exchange.rates;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Immutable snapshot of one provider rate table: units of each currency per one unit of
+ * {@code baseCurrency}, stored by {@link CurrencyIndex} ordinal ({@code NaN} = not quoted).
+ * Any pair is derived locally as {@code rates[to] / rates[from]}. A {@link #isStale() stale} copy
+ * is a last-known-good table served while the provider is unavailable.
+ */
+public final class RateTable {
+
+    private final String baseCurrency;
+    private final CurrencyIndex index;
+    private final double[] rates;
+    private final LocalDateTime fetchedAt;
+    private final boolean stale;
+
+    public RateTable(String baseCurrency, CurrencyIndex index, double[] rates, LocalDateTime fetchedAt) {
+        this(baseCurrency, index, rates, fetchedAt, false);
+    }
+
+    private RateTable(String baseCurrency, CurrencyIndex index, double[] rates, LocalDateTime fetchedAt, boolean stale) {
+        this.baseCurrency = baseCurrency;
+        this.index = index;
+        this.rates = rates;
+        this.fetchedAt = fetchedAt;
+        this.stale = stale;
+    }
+
+    /** Same rates, flagged as a last-known-good copy. */
+    public RateTable asStale() {
+        return new RateTable(baseCurrency, index, rates, fetchedAt, true);
+    }
+
+    /**
+     * Rate for converting one unit of {@code from} into {@code to}.
+     *
+     * @throws IllegalArgumentException when either currency is not in this table
+     */
+    public double rate(String from, String to) {
+        double fromRate = quote(from);
+        double toRate = quote(to);
+        return from.equals(to) ? 1.0 : toRate / fromRate;
+    }
+
+    /** Calls {@code consumer} with every quoted currency and its rate against {@link #getBaseCurrency()}. */
+    public void forEachRate(ObjDoubleConsumer<String> consumer) {
+        for (int ordinal = 0; ordinal < rates.length; ordinal++) {
+            if (!Double.isNaN(rates[ordinal])) {
+                consumer.accept(index.codeAt(ordinal), rates[ordinal]);
+            }
+        }
+    }
+
+    public boolean supports(String currency) {
+        int ordinal = index.indexOf(currency);
+        return ordinal >= 0 && ordinal < rates.length && !Double.isNaN(rates[ordinal]);
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public LocalDateTime getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public long ageSeconds() {
+        return Math.max(0, Duration.between(fetchedAt, LocalDateTime.now()).getSeconds());
+    }
+
+    public int size() {
+        int count = 0;
+        for (double rate : rates) {
+            if (!Double.isNaN(rate)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private double quote(String currency) {
+        if (!supports(currency)) {
+            throw new IllegalArgumentException("Currency not supported: " + currency);
+        }
+        return rates[index.indexOf(currency)];
+    }
+}
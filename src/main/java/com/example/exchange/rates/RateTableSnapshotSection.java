@@ -0,0 +1,69 @@
+package com.example.exchange.rates;
+
+import com.example.cache.StaleWhileRevalidateCache;
+import com.example.cache.snapshot.SwrSnapshotSection;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exchange-rate tables in the cache snapshot. Rates are stored by currency code, not ordinal, and
+ * re-indexed into the store's {@link CurrencyIndex} on restore, so they line up with later downloads.
+ */
+@Component
+public class RateTableSnapshotSection extends SwrSnapshotSection<RateTable> {
+
+    private final CurrencyIndex currencyIndex;
+
+    public RateTableSnapshotSection(StaleWhileRevalidateCache<String, RateTable> exchangeRateCache,
+                                    RateTableStore rateTableStore) {
+        super(exchangeRateCache);
+        this.currencyIndex = rateTableStore.currencyIndex();
+    }
+
+    @Override
+    protected void writeValue(DataOutput out, RateTable table) throws IOException {
+        out.writeUTF(table.getBaseCurrency());
+        out.writeLong(table.getFetchedAt().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(table.getFetchedAt().getNano());
+        List<String> quoted = new ArrayList<>();
+        for (int ordinal = 0; ordinal < currencyIndex.size(); ordinal++) {
+            String code = currencyIndex.codeAt(ordinal);
+            if (table.supports(code)) {
+                quoted.add(code);
+            }
+        }
+        out.writeInt(quoted.size());
+        for (String code : quoted) {
+            out.writeUTF(code);
+            out.writeDouble(table.rate(table.getBaseCurrency(), code));
+        }
+    }
+
+    @Override
+    protected RateTable readValue(DataInput in) throws IOException {
+        String base = in.readUTF();
+        LocalDateTime fetchedAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        int quoted = in.readInt();
+        String[] codes = new String[quoted];
+        double[] values = new double[quoted];
+        for (int i = 0; i < quoted; i++) {
+            codes[i] = in.readUTF();
+            values[i] = in.readDouble();
+            currencyIndex.ordinalOf(codes[i]);
+        }
+        double[] rates = new double[currencyIndex.size()];
+        Arrays.fill(rates, Double.NaN);
+        for (int i = 0; i < quoted; i++) {
+            rates[currencyIndex.indexOf(codes[i])] = values[i];
+        }
+        return new RateTable(base, currencyIndex, rates, fetchedAt);
+    }
+}
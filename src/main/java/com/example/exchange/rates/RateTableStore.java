@@ -0,0 +1,152 @@
+package com.example.exchange.rates;
+
+import com.example.cache.HotKeyPrefetcher;
+import com.example.cache.StaleWhileRevalidateCache;
+import com.example.exception.UpstreamUnavailableException;
+import com.example.exchange.history.RateHistoryStore;
+import com.example.http.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Holds the full provider rate table for one anchor currency (USD by default) and derives every
+ * pair from it, so a new pair never costs another download. The table is cached in the
+ * {@code exchangeRates} stale-while-revalidate cache and replaced as a whole by a scheduled
+ * refresh; readers always see one consistent snapshot.
+ *
+ * Downloads go through the {@code er-api} circuit breaker. When the provider is unavailable and no
+ * fresh table can be loaded, the last-known-good table is returned flagged as stale.
+ *
+ * Pair lookups are reported to the {@link HotKeyPrefetcher}; every pair maps to the one table, so
+ * while any pair is hot the table is refreshed ahead of its soft TTL.
+ *
+ * Every downloaded table is also recorded in the {@link RateHistoryStore} as that day's rates.
+ */
+@Component
+@Slf4j
+public class RateTableStore {
+
+    private static final String CIRCUIT = "er-api";
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    private final RestTemplate restTemplate;
+    private final StaleWhileRevalidateCache<String, RateTable> exchangeRateCache;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final RateHistoryStore rateHistoryStore;
+    private final CurrencyIndex currencyIndex = new CurrencyIndex();
+
+    @Value("${exchange-rate.api-url:https://open.er-api.com/v6/latest}")
+    private String apiUrl;
+
+    @Value("${exchange-rate.anchor-currency:USD}")
+    private String anchorCurrency;
+
+    public RateTableStore(RestTemplate restTemplate,
+                          StaleWhileRevalidateCache<String, RateTable> exchangeRateCache,
+                          CircuitBreakerRegistry circuitBreakers,
+                          HotKeyPrefetcher hotKeyPrefetcher,
+                          RateHistoryStore rateHistoryStore) {
+        this.restTemplate = restTemplate;
+        this.exchangeRateCache = exchangeRateCache;
+        this.circuitBreakers = circuitBreakers;
+        this.rateHistoryStore = rateHistoryStore;
+        hotKeyPrefetcher.register(exchangeRateCache, pair -> anchorCurrency, this::fetch);
+    }
+
+    /** Current snapshot; loads it on first use, falls back to the last-known-good table. */
+    public RateTable current() {
+        try {
+            return exchangeRateCache.get(anchorCurrency, this::fetch);
+        } catch (UpstreamUnavailableException e) {
+            StaleWhileRevalidateCache.Entry<RateTable> lastKnownGood = exchangeRateCache.peek(anchorCurrency);
+            if (lastKnownGood == null) {
+                throw e;
+            }
+            log.warn("Exchange rate provider unavailable ({}), serving rates from {}",
+                    e.getMessage(), lastKnownGood.getValue().getFetchedAt());
+            return lastKnownGood.getValue().asStale();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${exchange-rate.refresh-interval-ms:900000}",
+            initialDelayString = "${exchange-rate.refresh-interval-ms:900000}")
+    public void refresh() {
+        try {
+            exchangeRateCache.put(anchorCurrency, fetch(anchorCurrency));
+        } catch (RuntimeException e) {
+            log.warn("Scheduled exchange rate refresh failed, keeping previous table: {}", e.getMessage());
+        }
+    }
+
+    CurrencyIndex currencyIndex() {
+        return currencyIndex;
+    }
+
+    RateTable fetch(String base) {
+        RateTable table = circuitBreakers.get(CIRCUIT).execute(() -> download(base));
+        rateHistoryStore.record(table);
+        return table;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RateTable download(String base) {
+        log.info("Fetching exchange rate table for {}", base);
+
+        try {
+            // open.er-api.com/v6/latest/{BASE}
+            String uri = apiUrl.endsWith("/")
+                    ? apiUrl + base
+                    : apiUrl + "/" + base;
+
+            Map<String, Object> response = restTemplate.getForObject(uri, Map.class);
+            if (response == null || response.get("rates") == null) {
+                throw new UpstreamUnavailableException("Exchange rate data unavailable", RETRY_AFTER_SECONDS);
+            }
+
+            Object result = response.get("result");
+            if (result != null && !"success".equalsIgnoreCase(String.valueOf(result))) {
+                throw new UpstreamUnavailableException("Exchange rate provider returned: " + result, RETRY_AFTER_SECONDS);
+            }
+
+            Map<String, Object> ratesRaw = (Map<String, Object>) response.get("rates");
+            for (String code : ratesRaw.keySet()) {
+                currencyIndex.ordinalOf(code);
+            }
+            int baseOrdinal = currencyIndex.ordinalOf(base);
+
+            double[] rates = new double[currencyIndex.size()];
+            Arrays.fill(rates, Double.NaN);
+            for (Map.Entry<String, Object> entry : ratesRaw.entrySet()) {
+                if (entry.getValue() instanceof Number) {
+                    double rate = ((Number) entry.getValue()).doubleValue();
+                    if (rate > 0) {
+                        rates[currencyIndex.indexOf(entry.getKey())] = rate;
+                    }
+                }
+            }
+            rates[baseOrdinal] = 1.0;
+
+            RateTable table = new RateTable(base, currencyIndex, rates, LocalDateTime.now());
+            log.debug("Loaded {} rates against {}", table.size(), base);
+            return table;
+
+        } catch (HttpClientErrorException e) {
+            log.error("Exchange rate API HTTP {}: {}", e.getStatusCode(), e.getResponseBodyAsString());
+            throw new UpstreamUnavailableException("Exchange rate service is unavailable. Try again later.",
+                    RETRY_AFTER_SECONDS);
+        } catch (RestClientException e) {
+            log.error("Exchange rate API failed: {}", e.getMessage());
+            throw new UpstreamUnavailableException("Exchange rate service is unavailable. Try again later.",
+                    RETRY_AFTER_SECONDS);
+        }
+    }
+}
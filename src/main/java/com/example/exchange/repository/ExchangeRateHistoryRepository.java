@@ -0,0 +1,20 @@
+package com.example.exchange.repository;
+
+import com.example.exchange.entity.ExchangeRateHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExchangeRateHistoryRepository extends JpaRepository<ExchangeRateHistory, Long> {
+
+    List<ExchangeRateHistory> findByBaseCurrencyOrderByCurrencyAscRateDateAsc(String baseCurrency);
+
+    /** Latest backed-up day per currency: rows of {@code [currency, max(rateDate)]}. */
+    @Query("SELECT h.currency, MAX(h.rateDate) FROM ExchangeRateHistory h "
+            + "WHERE h.baseCurrency = :base GROUP BY h.currency")
+    List<Object[]> findLatestDates(@Param("base") String baseCurrency);
+}
@@ -1,8 +1,22 @@
 package com.example.exchange.service;
 
+import com.example.exchange.dto.BulkConvertRequest;
+import com.example.exchange.dto.BulkConvertResponse;
 import com.example.exchange.dto.ExchangeRateDto;
+import com.example.exchange.dto.RateHistoryDto;
+import com.example.exchange.history.ResampleInterval;
+
+import java.time.LocalDate;
 
 public interface ExchangeRateService {
 
     ExchangeRateDto getLatestRate(String from, String to);
+
+    BulkConvertResponse convert(BulkConvertRequest request);
+
+    /** Daily rates between {@code start} and {@code end} (inclusive; defaults: the last 30 days). */
+    RateHistoryDto getHistory(String from, String to, LocalDate start, LocalDate end);
+
+    /** Daily or weekly averages over the same range as {@link #getHistory}. */
+    RateHistoryDto getResampledHistory(String from, String to, LocalDate start, LocalDate end, ResampleInterval interval);
 }
@@ -1,19 +1,26 @@
 package com.example.exchange.service.impl;
 
+import com.example.cache.HotKeyPrefetcher;
+import com.example.config.SwrCacheConfig;
+import com.example.exchange.dto.BulkConvertRequest;
+import com.example.exchange.dto.BulkConvertResponse;
 import com.example.exchange.dto.ExchangeRateDto;
+import com.example.exchange.dto.RateHistoryDto;
+import com.example.exchange.history.RateHistoryStore;
+import com.example.exchange.history.RatePoint;
+import com.example.exchange.history.ResampleInterval;
+import com.example.exchange.rates.RateTable;
+import com.example.exchange.rates.RateTableStore;
 import com.example.exchange.service.ExchangeRateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Uses Open Exchange Rate API (free, no API key).
@@ -21,20 +28,25 @@ import java.util.Map;
  * Example: https://open.er-api.com/v6/latest/USD
  *
  * Note: Frankfurter does NOT support UZS — that is why we switched.
+ *
+ * One full table (see {@link RateTableStore}) serves every pair, including cross rates
+ * such as EUR → UZS, without further downloads.
+ *
+ * History queries are answered from the local daily series in {@link RateHistoryStore}.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ExchangeRateServiceImpl implements ExchangeRateService {
 
-    private final RestTemplate restTemplate;
+    private static final int DEFAULT_HISTORY_DAYS = 30;
+    private static final int MAX_HISTORY_DAYS = 3660;
 
-    @Value("${exchange-rate.api-url:https://open.er-api.com/v6/latest}")
-    private String apiUrl;
+    private final RateTableStore rateTableStore;
+    private final HotKeyPrefetcher hotKeyPrefetcher;
+    private final RateHistoryStore rateHistoryStore;
 
     @Override
-    @Cacheable(value = "exchangeRates", key = "#from + '-' + #to")
-    @SuppressWarnings("unchecked")
     public ExchangeRateDto getLatestRate(String from, String to) {
         String base = normalizeCurrency(from, "USD");
         String target = normalizeCurrency(to, "UZS");
@@ -49,50 +61,101 @@ public class ExchangeRateServiceImpl implements ExchangeRateService {
                     .build();
         }
 
-        log.info("Fetching exchange rate {} -> {}", base, target);
-
-        try {
-            // open.er-api.com/v6/latest/{BASE}
-            String uri = apiUrl.endsWith("/")
-                    ? apiUrl + base
-                    : apiUrl + "/" + base;
+        hotKeyPrefetcher.recordAccess(SwrCacheConfig.EXCHANGE_RATE_CACHE, base + "/" + target);
+        RateTable table = rateTableStore.current();
+        double rate = table.rate(base, target);
+
+        return ExchangeRateDto.builder()
+                .baseCurrency(base)
+                .targetCurrency(target)
+                .rate(rate)
+                .rates(Collections.singletonMap(target, rate))
+                .fetchedAt(table.getFetchedAt())
+                .stale(table.isStale())
+                .ageSeconds(table.ageSeconds())
+                .build();
+    }
 
-            Map<String, Object> response = restTemplate.getForObject(uri, Map.class);
-            if (response == null || response.get("rates") == null) {
-                throw new IllegalStateException("Exchange rate data unavailable");
+    @Override
+    public BulkConvertResponse convert(BulkConvertRequest request) {
+        RateTable table = rateTableStore.current();
+        List<BulkConvertResponse.Result> results = new ArrayList<>(request.getItems().size());
+
+        for (BulkConvertRequest.Item item : request.getItems()) {
+            String base = normalizeCurrency(item.getFrom(), "USD");
+            String target = normalizeCurrency(item.getTo(), "UZS");
+            BulkConvertResponse.Result.ResultBuilder result = BulkConvertResponse.Result.builder()
+                    .from(base)
+                    .to(target)
+                    .amount(item.getAmount());
+            hotKeyPrefetcher.recordAccess(SwrCacheConfig.EXCHANGE_RATE_CACHE, base + "/" + target);
+            try {
+                double rate = table.rate(base, target);
+                result.rate(rate).convertedAmount(item.getAmount() * rate);
+            } catch (IllegalArgumentException e) {
+                result.error(e.getMessage());
             }
+            results.add(result.build());
+        }
 
-            Object result = response.get("result");
-            if (result != null && !"success".equalsIgnoreCase(String.valueOf(result))) {
-                throw new IllegalStateException("Exchange rate provider returned: " + result);
-            }
+        return BulkConvertResponse.builder()
+                .fetchedAt(table.getFetchedAt())
+                .stale(table.isStale())
+                .ageSeconds(table.ageSeconds())
+                .results(results)
+                .build();
+    }
 
-            Map<String, Object> ratesRaw = (Map<String, Object>) response.get("rates");
-            Double rate = ratesRaw.get(target) instanceof Number
-                    ? ((Number) ratesRaw.get(target)).doubleValue()
-                    : null;
+    @Override
+    public RateHistoryDto getHistory(String from, String to, LocalDate start, LocalDate end) {
+        String base = normalizeCurrency(from, "USD");
+        String target = normalizeCurrency(to, "UZS");
+        LocalDate last = end != null ? end : LocalDate.now();
+        LocalDate first = start != null ? start : last.minusDays(DEFAULT_HISTORY_DAYS);
+        validateRange(first, last);
+        return toHistoryDto(base, target, first, last, ResampleInterval.DAILY,
+                rateHistoryStore.range(base, target, first, last));
+    }
 
-            if (rate == null) {
-                throw new IllegalArgumentException("Currency not supported: " + target);
-            }
+    @Override
+    public RateHistoryDto getResampledHistory(String from, String to, LocalDate start, LocalDate end,
+                                              ResampleInterval interval) {
+        String base = normalizeCurrency(from, "USD");
+        String target = normalizeCurrency(to, "UZS");
+        LocalDate last = end != null ? end : LocalDate.now();
+        LocalDate first = start != null ? start : last.minusDays(DEFAULT_HISTORY_DAYS);
+        validateRange(first, last);
+        return toHistoryDto(base, target, first, last, interval,
+                rateHistoryStore.resample(base, target, first, last, interval));
+    }
 
-            return ExchangeRateDto.builder()
-                    .baseCurrency(base)
-                    .targetCurrency(target)
-                    .rate(rate)
-                    .rates(Collections.singletonMap(target, rate))
-                    .fetchedAt(LocalDateTime.now())
-                    .build();
+    private void validateRange(LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("start must not be after end");
+        }
+        if (start.plusDays(MAX_HISTORY_DAYS).isBefore(end)) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_HISTORY_DAYS + " days");
+        }
+    }
 
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            throw e;
-        } catch (HttpClientErrorException e) {
-            log.error("Exchange rate API HTTP {}: {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new IllegalStateException("Exchange rate service is unavailable. Try again later.");
-        } catch (RestClientException e) {
-            log.error("Exchange rate API failed: {}", e.getMessage());
-            throw new IllegalStateException("Exchange rate service is unavailable. Try again later.");
+    private RateHistoryDto toHistoryDto(String base, String target, LocalDate start, LocalDate end,
+                                        ResampleInterval interval, List<RatePoint> points) {
+        List<RateHistoryDto.Point> dtoPoints = new ArrayList<>(points.size());
+        for (RatePoint point : points) {
+            dtoPoints.add(RateHistoryDto.Point.builder()
+                    .date(point.getDate())
+                    .rate(point.getRate())
+                    .samples(point.getSamples())
+                    .build());
         }
+        return RateHistoryDto.builder()
+                .baseCurrency(base)
+                .targetCurrency(target)
+                .start(start)
+                .end(end)
+                .interval(interval.name())
+                .points(dtoPoints)
+                .build();
     }
 
     private String normalizeCurrency(String value, String defaultValue) {
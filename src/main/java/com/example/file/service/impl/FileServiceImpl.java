@@ -1,5 +1,6 @@
 package com.example.file.service.impl;
 
+import com.example.annotation.CacheTags;
 import com.example.file.dto.FileDto;
 import com.example.file.dto.FileUploadRequest;
 import com.example.file.entity.FileEntity;
@@ -12,6 +13,7 @@ import com.example.file.service.FileService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.data.domain.Page;
@@ -108,7 +110,11 @@ public class FileServiceImpl implements FileService {
         return getFileResource(fileEntity.getFilePath());
     }
     
+    // Keyed per requester: the access check is part of the cached call, so one user's
+    // successful lookup is never served to another
     @Override
+    @Cacheable(cacheNames = "files", key = "'id:' + #fileId + ':' + #requestedBy")
+    @CacheTags("'file:' + #fileId")
     public FileDto getFileById(Long fileId, String requestedBy) {
         FileEntity fileEntity = getFileEntityById(fileId);
         validateFileAccess(fileEntity, requestedBy);
@@ -116,6 +122,8 @@ public class FileServiceImpl implements FileService {
     }
     
     @Override
+    @Cacheable(cacheNames = "files", key = "'stored:' + #storedFileName + ':' + #requestedBy")
+    @CacheTags("'file-stored:' + #storedFileName")
     public FileDto getFileByStoredName(String storedFileName, String requestedBy) {
         FileEntity fileEntity = fileRepository.findByStoredFileNameAndIsActiveTrue(storedFileName)
                 .orElseThrow(() -> new FileNotFoundException("File not found: " + storedFileName));
@@ -164,6 +172,8 @@ public class FileServiceImpl implements FileService {
     }
     
     @Override
+    @Cacheable(cacheNames = "files", key = "'recent:' + #limit")
+    @CacheTags("'files:recent'")
     public List<FileDto> getRecentFiles(int limit) {
         List<FileEntity> files = fileRepository.findRecentFiles(Pageable.ofSize(limit));
         return fileMapper.toDtoList(files);
@@ -211,16 +221,20 @@ public class FileServiceImpl implements FileService {
     }
     
     @Override
+    @Cacheable(cacheNames = "fileStats", key = "'user:' + #username")
     public long getFileCountByUser(String username) {
         return fileRepository.countByUploadedByAndIsActiveTrue(username);
     }
     
     @Override
+    @Cacheable(cacheNames = "fileStats", key = "'total'")
     public long getTotalFileCount() {
         return fileRepository.count();
     }
     
     @Override
+    @Cacheable(cacheNames = "fileExists", key = "#fileId + ':' + #requestedBy")
+    @CacheTags("'file:' + #fileId")
     public boolean isFileAccessible(Long fileId, String requestedBy) {
         try {
             FileEntity fileEntity = getFileEntityById(fileId);
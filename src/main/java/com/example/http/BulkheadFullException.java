@@ -0,0 +1,14 @@
+package com.example.http;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown when a destination already has its maximum number of in-flight requests.
+ * Extends {@link RestClientException} so callers' existing "upstream unavailable" handling applies.
+ */
+public class BulkheadFullException extends RestClientException {
+
+    public BulkheadFullException(String host, int limit) {
+        super("Too many concurrent requests to " + host + " (limit " + limit + ")");
+    }
+}
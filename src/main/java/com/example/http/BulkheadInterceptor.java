@@ -0,0 +1,71 @@
+package com.example.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps in-flight requests per destination host so one slow upstream cannot tie up every
+ * caller thread. The permit is held until the response body has been read and closed.
+ */
+public class BulkheadInterceptor implements ClientHttpRequestInterceptor {
+
+    private final OutboundHttpProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public BulkheadInterceptor(OutboundHttpProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost();
+        int limit = properties.maxConcurrentFor(host);
+        Semaphore semaphore = permits.computeIfAbsent(host, h -> new Semaphore(limit));
+
+        if (!tryAcquire(semaphore)) {
+            Counter.builder("http.client.outbound.rejected")
+                    .description("Outbound requests rejected by the per-host bulkhead")
+                    .tag("host", host)
+                    .register(meterRegistry)
+                    .increment();
+            throw new BulkheadFullException(host, limit);
+        }
+        try {
+            return new CloseCallbackResponse(execution.execute(request, body), semaphore::release);
+        } catch (IOException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    /** Permits currently free for {@code host}, or the configured limit if it has not been called yet. */
+    public int availablePermits(String host) {
+        Semaphore semaphore = permits.get(host);
+        return semaphore != null ? semaphore.availablePermits() : properties.maxConcurrentFor(host);
+    }
+
+    private boolean tryAcquire(Semaphore semaphore) {
+        long waitMs = properties.getBulkheadWaitMs();
+        if (waitMs <= 0) {
+            return semaphore.tryAcquire();
+        }
+        try {
+            return semaphore.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.http;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Count-based circuit breaker for one upstream.
+ *
+ * <ul>
+ *   <li>CLOSED: outcomes of the last {@code windowSize} calls are kept in a ring buffer. Once
+ *       {@code minimumCalls} are recorded, a failure rate or slow-call rate at or above its
+ *       threshold opens the circuit.</li>
+ *   <li>OPEN: calls are rejected with {@link CircuitOpenException} for {@code openStateMs}.</li>
+ *   <li>HALF_OPEN: one probe at a time, at most one per {@code probeIntervalMs}. A failed or slow
+ *       probe reopens the circuit; {@code halfOpenSuccesses} good probes close it.</li>
+ * </ul>
+ *
+ * Only exceptions matching {@code isFailure} count as failures; other exceptions (e.g. "city not
+ * found") mean the upstream answered and are recorded as successes.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int MAX_TRANSITIONS = 20;
+
+    private final String name;
+    private final OutboundHttpProperties.CircuitBreaker settings;
+    private final Predicate<Throwable> isFailure;
+    private final LongSupplier clock;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int head;
+    private int buffered;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long lastProbeAt;
+    private int successfulProbes;
+    private long notPermittedCalls;
+    private final Deque<Transition> transitions = new ArrayDeque<>();
+    private final List<Consumer<Transition>> listeners = new ArrayList<>();
+
+    public CircuitBreaker(String name, OutboundHttpProperties.CircuitBreaker settings, Predicate<Throwable> isFailure) {
+        this(name, settings, isFailure, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(String name, OutboundHttpProperties.CircuitBreaker settings, Predicate<Throwable> isFailure,
+                          LongSupplier clock) {
+        this.name = name;
+        this.settings = settings;
+        this.isFailure = isFailure;
+        this.clock = clock;
+        this.failed = new boolean[settings.getWindowSize()];
+        this.slow = new boolean[settings.getWindowSize()];
+    }
+
+    /** Runs {@code call} if the circuit permits it and records the outcome. */
+    public <T> T execute(Supplier<T> call) {
+        if (!tryAcquirePermission()) {
+            throw new CircuitOpenException(name, retryAfterSeconds());
+        }
+        long start = clock.getAsLong();
+        try {
+            T result = call.get();
+            onResult(clock.getAsLong() - start, false);
+            return result;
+        } catch (RuntimeException e) {
+            onResult(clock.getAsLong() - start, isFailure.test(e));
+            throw e;
+        } catch (Throwable e) {
+            // Errors are recorded too: an unrecorded probe would leave the half-open circuit waiting on it forever
+            onResult(clock.getAsLong() - start, true);
+            throw e;
+        }
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        long now = clock.getAsLong();
+        if (state == State.OPEN) {
+            if (now - openedAt < settings.getOpenStateMs()) {
+                notPermittedCalls++;
+                return false;
+            }
+            transitionTo(State.HALF_OPEN, now, "open state elapsed");
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight || now - lastProbeAt < settings.getProbeIntervalMs()) {
+                notPermittedCalls++;
+                return false;
+            }
+            probeInFlight = true;
+            lastProbeAt = now;
+        }
+        return true;
+    }
+
+    public synchronized void onResult(long durationMs, boolean failure) {
+        long now = clock.getAsLong();
+        boolean slowCall = durationMs >= settings.getSlowCallDurationMs();
+
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            if (failure || slowCall) {
+                transitionTo(State.OPEN, now, failure ? "probe failed" : "probe slow (" + durationMs + " ms)");
+            } else if (++successfulProbes >= settings.getHalfOpenSuccesses()) {
+                transitionTo(State.CLOSED, now, successfulProbes + " successful probes");
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // Call started before the circuit opened; its outcome no longer matters
+            return;
+        }
+
+        if (buffered == failed.length) {
+            if (failed[head]) failures--;
+            if (slow[head]) slowCalls--;
+        } else {
+            buffered++;
+        }
+        failed[head] = failure;
+        slow[head] = slowCall;
+        if (failure) failures++;
+        if (slowCall) slowCalls++;
+        head = (head + 1) % failed.length;
+
+        if (buffered >= settings.getMinimumCalls()) {
+            float failureRate = failureRate();
+            float slowCallRate = slowCallRate();
+            if (failureRate >= settings.getFailureRateThreshold()) {
+                transitionTo(State.OPEN, now, String.format("failure rate %.0f%% over %d calls", failureRate, buffered));
+            } else if (slowCallRate >= settings.getSlowCallRateThreshold()) {
+                transitionTo(State.OPEN, now, String.format("slow-call rate %.0f%% over %d calls", slowCallRate, buffered));
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Seconds until the next half-open probe may run; at least 1. */
+    public synchronized long retryAfterSeconds() {
+        long remainingMs = state == State.OPEN
+                ? settings.getOpenStateMs() - (clock.getAsLong() - openedAt)
+                : settings.getProbeIntervalMs();
+        return Math.max(1, (remainingMs + 999) / 1000);
+    }
+
+    public synchronized void addListener(Consumer<Transition> listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(name, state, failureRate(), slowCallRate(), buffered, notPermittedCalls,
+                state == State.CLOSED ? null : Instant.ofEpochMilli(openedAt), new ArrayList<>(transitions));
+    }
+
+    private float failureRate() {
+        return buffered == 0 ? 0f : failures * 100f / buffered;
+    }
+
+    private float slowCallRate() {
+        return buffered == 0 ? 0f : slowCalls * 100f / buffered;
+    }
+
+    private void transitionTo(State target, long now, String reason) {
+        Transition transition = new Transition(state, target, Instant.ofEpochMilli(now), reason);
+        state = target;
+        if (target == State.OPEN) {
+            openedAt = now;
+        }
+        if (target == State.HALF_OPEN) {
+            successfulProbes = 0;
+            probeInFlight = false;
+            lastProbeAt = Long.MIN_VALUE / 2;
+        }
+        if (target == State.CLOSED) {
+            head = 0;
+            buffered = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+        transitions.addFirst(transition);
+        if (transitions.size() > MAX_TRANSITIONS) {
+            transitions.removeLast();
+        }
+        for (Consumer<Transition> listener : listeners) {
+            listener.accept(transition);
+        }
+    }
+
+    public static final class Transition {
+        private final State from;
+        private final State to;
+        private final Instant at;
+        private final String reason;
+
+        Transition(State from, State to, Instant at, String reason) {
+            this.from = from;
+            this.to = to;
+            this.at = at;
+            this.reason = reason;
+        }
+
+        public State getFrom() {
+            return from;
+        }
+
+        public State getTo() {
+            return to;
+        }
+
+        public Instant getAt() {
+            return at;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    public static final class Snapshot {
+        private final String name;
+        private final State state;
+        private final float failureRate;
+        private final float slowCallRate;
+        private final int bufferedCalls;
+        private final long notPermittedCalls;
+        private final Instant openedAt;
+        private final List<Transition> transitions;
+
+        Snapshot(String name, State state, float failureRate, float slowCallRate, int bufferedCalls,
+                 long notPermittedCalls, Instant openedAt, List<Transition> transitions) {
+            this.name = name;
+            this.state = state;
+            this.failureRate = failureRate;
+            this.slowCallRate = slowCallRate;
+            this.bufferedCalls = bufferedCalls;
+            this.notPermittedCalls = notPermittedCalls;
+            this.openedAt = openedAt;
+            this.transitions = transitions;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public float getFailureRate() {
+            return failureRate;
+        }
+
+        public float getSlowCallRate() {
+            return slowCallRate;
+        }
+
+        public int getBufferedCalls() {
+            return bufferedCalls;
+        }
+
+        public long getNotPermittedCalls() {
+            return notPermittedCalls;
+        }
+
+        public Instant getOpenedAt() {
+            return openedAt;
+        }
+
+        public List<Transition> getTransitions() {
+            return transitions;
+        }
+    }
+}
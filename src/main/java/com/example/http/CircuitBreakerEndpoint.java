@@ -0,0 +1,37 @@
+package com.example.http;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/circuitbreakers}: state, window rates and recent transitions of every upstream
+ * circuit; {@code /actuator/circuitbreakers/{name}} for one.
+ */
+@Endpoint(id = "circuitbreakers")
+public class CircuitBreakerEndpoint {
+
+    private final CircuitBreakerRegistry registry;
+
+    public CircuitBreakerEndpoint(CircuitBreakerRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, CircuitBreaker.Snapshot> circuitBreakers() {
+        Map<String, CircuitBreaker.Snapshot> result = new TreeMap<>();
+        for (CircuitBreaker breaker : registry.getAll()) {
+            result.put(breaker.getName(), breaker.snapshot());
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public CircuitBreaker.Snapshot circuitBreaker(@Selector String name) {
+        CircuitBreaker breaker = registry.find(name);
+        return breaker != null ? breaker.snapshot() : null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.http;
+
+import com.example.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link CircuitBreaker} per upstream name (e.g. {@code open-meteo}, {@code er-api}), created on
+ * first use with the shared {@code outbound.http.circuit-breaker.*} settings. Publishes
+ * {@code circuit.breaker.state} (0 closed, 1 open, 2 half-open) and {@code circuit.breaker.transitions}.
+ */
+@Slf4j
+public class CircuitBreakerRegistry {
+
+    private final OutboundHttpProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(OutboundHttpProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CircuitBreaker get(String name) {
+        return breakers.computeIfAbsent(name, this::create);
+    }
+
+    /** Existing breaker or {@code null}; does not create one. */
+    public CircuitBreaker find(String name) {
+        return breakers.get(name);
+    }
+
+    public Collection<CircuitBreaker> getAll() {
+        return Collections.unmodifiableCollection(breakers.values());
+    }
+
+    private CircuitBreaker create(String name) {
+        CircuitBreaker breaker = new CircuitBreaker(name, properties.getCircuitBreaker(),
+                e -> e instanceof UpstreamUnavailableException);
+
+        Gauge.builder("circuit.breaker.state", breaker, b -> b.getState().ordinal())
+                .description("Circuit state: 0 closed, 1 open, 2 half-open")
+                .tag("name", name)
+                .register(meterRegistry);
+        breaker.addListener(transition -> {
+            log.warn("Circuit '{}' {} -> {}: {}", name, transition.getFrom(), transition.getTo(), transition.getReason());
+            Counter.builder("circuit.breaker.transitions")
+                    .tag("name", name)
+                    .tag("to", transition.getTo().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+        return breaker;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.http;
+
+import com.example.exception.UpstreamUnavailableException;
+
+/**
+ * Call rejected without contacting the upstream because its {@link CircuitBreaker} is open.
+ */
+public class CircuitOpenException extends UpstreamUnavailableException {
+
+    public CircuitOpenException(String circuitName, long retryAfterSeconds) {
+        super("Upstream '" + circuitName + "' is temporarily unavailable. Try again later.", retryAfterSeconds);
+    }
+}
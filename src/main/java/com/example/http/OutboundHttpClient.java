@@ -0,0 +1,106 @@
+package com.example.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared outbound HTTP stack: pooled keep-alive connections (Apache HttpClient), per-host
+ * connect/read timeouts, a per-host bulkhead and per-host latency metrics, exposed as a
+ * {@link RestTemplate} so existing callers keep their API.
+ */
+@Slf4j
+public class OutboundHttpClient implements DisposableBean {
+
+    private final OutboundHttpProperties properties;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final BulkheadInterceptor bulkhead;
+    private final RestTemplate restTemplate;
+    private final ConcurrentHashMap<String, RequestConfig> requestConfigs = new ConcurrentHashMap<>();
+
+    public OutboundHttpClient(OutboundHttpProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+
+        this.connectionManager = new PoolingHttpClientConnectionManager(
+                properties.getConnectionTtlSeconds(), TimeUnit.SECONDS);
+        connectionManager.setMaxTotal(properties.getMaxTotalConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity(2000);
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfigFor(null))
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleTimeoutSeconds(), TimeUnit.SECONDS)
+                .disableCookieManagement()
+                .build();
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setHttpContextFactory((method, uri) -> contextFor(uri));
+
+        this.bulkhead = new BulkheadInterceptor(properties, meterRegistry);
+        this.restTemplate = new RestTemplate(requestFactory);
+        // Metrics outermost so bulkhead rejections are timed and tagged too
+        restTemplate.setInterceptors(Arrays.asList(new OutboundMetricsInterceptor(meterRegistry), bulkhead));
+
+        Gauge.builder("http.client.pool.leased", connectionManager, m -> m.getTotalStats().getLeased())
+                .description("Outbound connections currently in use")
+                .register(meterRegistry);
+        Gauge.builder("http.client.pool.available", connectionManager, m -> m.getTotalStats().getAvailable())
+                .description("Idle pooled outbound connections")
+                .register(meterRegistry);
+        Gauge.builder("http.client.pool.pending", connectionManager, m -> m.getTotalStats().getPending())
+                .description("Requests waiting for an outbound connection")
+                .register(meterRegistry);
+
+        log.info("Outbound HTTP client: pool={}/{} per route, connect={}ms, read={}ms, bulkhead={} per host, overrides={}",
+                properties.getMaxTotalConnections(), properties.getMaxConnectionsPerRoute(),
+                properties.getConnectTimeoutMs(), properties.getReadTimeoutMs(), properties.getMaxConcurrent(),
+                properties.getHosts().keySet());
+    }
+
+    public RestTemplate restTemplate() {
+        return restTemplate;
+    }
+
+    public BulkheadInterceptor bulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        httpClient.close();
+    }
+
+    private HttpClientContext contextFor(URI uri) {
+        String host = uri.getHost();
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(host != null
+                ? requestConfigs.computeIfAbsent(host, this::requestConfigFor)
+                : requestConfigFor(null));
+        return context;
+    }
+
+    private RequestConfig requestConfigFor(String host) {
+        return RequestConfig.custom()
+                .setConnectTimeout(host != null ? properties.connectTimeoutFor(host) : properties.getConnectTimeoutMs())
+                .setSocketTimeout(host != null ? properties.readTimeoutFor(host) : properties.getReadTimeoutMs())
+                .setConnectionRequestTimeout(properties.getConnectionRequestTimeoutMs())
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.http;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for the shared outbound HTTP client ({@code outbound.http.*}).
+ *
+ * Top-level values are defaults; {@code outbound.http.hosts[api.open-meteo.com].read-timeout-ms=3000}
+ * overrides a single destination. Unset per-host values fall back to the defaults.
+ */
+@Data
+@ConfigurationProperties(prefix = "outbound.http")
+public class OutboundHttpProperties {
+
+    private int connectTimeoutMs = 2000;
+    private int readTimeoutMs = 5000;
+    /** How long to wait for a pooled connection before failing. */
+    private int connectionRequestTimeoutMs = 1000;
+    /** Concurrent in-flight requests per host (bulkhead); excess requests are rejected. */
+    private int maxConcurrent = 20;
+    /** How long a request may wait for a bulkhead permit; 0 rejects immediately. */
+    private long bulkheadWaitMs = 0;
+
+    private int maxTotalConnections = 100;
+    private int maxConnectionsPerRoute = 20;
+    private int idleTimeoutSeconds = 30;
+    private int connectionTtlSeconds = 300;
+
+    private Map<String, Host> hosts = new LinkedHashMap<>();
+
+    /** Settings shared by all upstream circuit breakers ({@code outbound.http.circuit-breaker.*}). */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Data
+    public static class Host {
+        private Integer connectTimeoutMs;
+        private Integer readTimeoutMs;
+        private Integer maxConcurrent;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        /** Number of most recent calls the rates are computed over. */
+        private int windowSize = 20;
+        /** Calls required in the window before the circuit may open. */
+        private int minimumCalls = 10;
+        /** Failure percentage that opens the circuit. */
+        private float failureRateThreshold = 50;
+        private long slowCallDurationMs = 2000;
+        /** Slow-call percentage that opens the circuit. */
+        private float slowCallRateThreshold = 80;
+        /** How long the circuit stays open before probing. */
+        private long openStateMs = 30000;
+        /** Minimum gap between half-open probes. */
+        private long probeIntervalMs = 5000;
+        /** Consecutive successful probes needed to close the circuit. */
+        private int halfOpenSuccesses = 2;
+    }
+
+    public int connectTimeoutFor(String host) {
+        Host settings = hosts.get(host);
+        return settings != null && settings.getConnectTimeoutMs() != null ? settings.getConnectTimeoutMs() : connectTimeoutMs;
+    }
+
+    public int readTimeoutFor(String host) {
+        Host settings = hosts.get(host);
+        return settings != null && settings.getReadTimeoutMs() != null ? settings.getReadTimeoutMs() : readTimeoutMs;
+    }
+
+    public int maxConcurrentFor(String host) {
+        Host settings = hosts.get(host);
+        return settings != null && settings.getMaxConcurrent() != null ? settings.getMaxConcurrent() : maxConcurrent;
+    }
+}
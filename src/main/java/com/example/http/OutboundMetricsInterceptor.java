@@ -0,0 +1,72 @@
+package com.example.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Records {@code http.client.outbound} per host, method, status and outcome. The timer covers
+ * the whole exchange including reading the body; bulkhead rejections and I/O failures
+ * (timeouts, refused connections) are recorded with outcome {@code REJECTED} / {@code IO_ERROR}.
+ */
+public class OutboundMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String METRIC = "http.client.outbound";
+
+    private final MeterRegistry meterRegistry;
+
+    public OutboundMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        final String host = request.getURI().getHost();
+        final String method = request.getMethodValue();
+        final Timer.Sample sample = Timer.start(meterRegistry);
+
+        final ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (BulkheadFullException e) {
+            sample.stop(timer(host, method, "NONE", "REJECTED"));
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            sample.stop(timer(host, method, "NONE", "IO_ERROR"));
+            throw e;
+        }
+
+        final int status = response.getRawStatusCode();
+        return new CloseCallbackResponse(response,
+                () -> sample.stop(timer(host, method, String.valueOf(status), outcome(status))));
+    }
+
+    private Timer timer(String host, String method, String status, String outcome) {
+        return Timer.builder(METRIC)
+                .description("Outbound HTTP calls by destination host")
+                .tag("host", host != null ? host : "unknown")
+                .tag("method", method)
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        if (status >= 300) {
+            return "REDIRECTION";
+        }
+        return "SUCCESS";
+    }
+}
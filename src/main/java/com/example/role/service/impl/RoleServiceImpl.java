@@ -1,5 +1,6 @@
 package com.example.role.service.impl;
 
+import com.example.annotation.CacheTags;
 import com.example.role.dto.CreateRoleRequest;
 import com.example.role.dto.RoleDto;
 import com.example.role.dto.UpdateRoleRequest;
@@ -11,8 +12,10 @@ import com.example.role.service.RoleService;
 import com.example.user.entity.User;
 import com.example.user.repository.UserRepository;
 import com.example.user.exception.UserNotFoundException;
+import com.example.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,9 +34,11 @@ public class RoleServiceImpl implements RoleService {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final RoleMapper roleMapper;
+    private final PrincipalCache principalCache;
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "roles", key = "'all'")
     public List<RoleDto> getAllRoles() {
         log.info("Fetching all roles");
         List<Role> roles = roleRepository.findAll();
@@ -42,6 +47,7 @@ public class RoleServiceImpl implements RoleService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "roles", key = "'id:' + #id", unless = "#result == null")
     public Optional<RoleDto> getRoleById(Long id) {
         log.info("Fetching role by ID: {}", id);
         return roleRepository.findById(id)
@@ -76,8 +82,21 @@ public class RoleServiceImpl implements RoleService {
             }
         }
         
+        String previousName = role.getName();
+        boolean wasActive = role.getIsActive() == null || role.getIsActive();
+
         roleMapper.updateEntity(role, request);
         Role updatedRole = roleRepository.save(role);
+
+        // Renaming or (de)activating a role changes the authorities of everyone holding it
+        boolean isActive = updatedRole.getIsActive() == null || updatedRole.getIsActive();
+        if (!previousName.equals(updatedRole.getName()) || wasActive != isActive) {
+            for (User user : updatedRole.getUsers()) {
+                user.bumpSecurityVersion();
+                userRepository.save(user);
+                principalCache.invalidate(user.getEmail());
+            }
+        }
         log.info("Role updated successfully with ID: {}", updatedRole.getId());
         
         return roleMapper.toDto(updatedRole);
@@ -108,6 +127,8 @@ public class RoleServiceImpl implements RoleService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "roles", key = "'user:' + #userId")
+    @CacheTags("#result.![ 'role:' + id ]")
     public Set<RoleDto> getRolesByUserId(Long userId) {
         log.info("Fetching roles for user ID: {}", userId);
         Set<Role> roles = roleRepository.findRolesByUserId(userId);
@@ -132,7 +153,9 @@ public class RoleServiceImpl implements RoleService {
         }
         
         user.getRoles().addAll(roles);
+        user.bumpSecurityVersion();
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
         log.info("Roles assigned successfully to user ID: {}", request.getUserId());
     }
 
@@ -144,12 +167,15 @@ public class RoleServiceImpl implements RoleService {
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
         
         user.getRoles().removeIf(role -> roleIds.contains(role.getId()));
+        user.bumpSecurityVersion();
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
         log.info("Roles removed successfully from user ID: {}", userId);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "roles", key = "'active'")
     public List<RoleDto> getActiveRoles() {
         log.info("Fetching active roles");
         List<Role> roles = roleRepository.findByIsActiveTrue();
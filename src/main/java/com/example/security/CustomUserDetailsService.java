@@ -12,7 +12,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -20,9 +19,22 @@ import java.util.stream.Collectors;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return principalCache.get(email, 0L, this::loadPrincipal);
+    }
+
+    /**
+     * Loads the principal for a token issued at {@code minSecurityVersion}; a cached principal
+     * older than the token is reloaded rather than trusted.
+     */
+    public UserPrincipal loadUser(String email, long minSecurityVersion) throws UsernameNotFoundException {
+        return principalCache.get(email, minSecurityVersion, this::loadPrincipal);
+    }
+
+    private UserPrincipal loadPrincipal(String email) {
         log.info("Loading user details for email: {}", email);
         
         // For now, use basic user lookup to avoid JOIN FETCH issues during startup
@@ -33,6 +45,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         
         // Use a Set to avoid duplicate authorities (enum role + dynamic role with same name)
         java.util.Set<SimpleGrantedAuthority> authoritySet = new java.util.LinkedHashSet<>();
+        java.util.Set<String> dynamicRoles = new java.util.HashSet<>();
 
         // 1) Primary enum role (e.g. ROLE_USER / ROLE_ADMIN)
         if (user.getRole() != null) {
@@ -46,8 +59,10 @@ public class CustomUserDetailsService implements UserDetailsService {
             user.getRoles().stream()
                     .filter(role -> role.getName() != null
                             && (role.getIsActive() == null || role.getIsActive()))
-                    .forEach(role -> authoritySet.add(
-                            new SimpleGrantedAuthority("ROLE_" + role.getName().toUpperCase())));
+                    .forEach(role -> {
+                        dynamicRoles.add(role.getName().toUpperCase());
+                        authoritySet.add(new SimpleGrantedAuthority("ROLE_" + role.getName().toUpperCase()));
+                    });
         }
 
         // 3) Fallback default
@@ -59,14 +74,8 @@ public class CustomUserDetailsService implements UserDetailsService {
         
         log.info("User authorities: {}", authorities);
         
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(authorities)
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(false)
-                .build();
+        long securityVersion = user.getSecurityVersion() != null ? user.getSecurityVersion() : 0L;
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getPassword(), user.getRole(),
+                securityVersion, authorities, dynamicRoles);
     }
 }
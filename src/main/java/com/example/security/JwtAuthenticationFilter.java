@@ -1,12 +1,13 @@
 package com.example.security;
 
+import com.example.auth.revocation.TokenRevocationList;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,6 +26,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final RouteSecurityTable routeSecurityTable;
+    private final TokenRevocationList revocationList;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // Truly public endpoints: no token parsing, no user lookup
+        return routeSecurityTable.skipsAuthentication(request);
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
@@ -33,13 +42,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String header = request.getHeader(HttpHeaders.AUTHORIZATION);
         String requestURI = request.getRequestURI();
         
-        // Skip JWT processing only for truly public endpoints
-        if (isPublicEndpoint(requestURI)) {
-            log.info("=== JWT FILTER SKIPPED for public endpoint: {} ===", requestURI);
-            filterChain.doFilter(request, response);
-            return;
-        }
-        
         log.info("=== JWT FILTER PROCESSING ===");
         log.info("Request URI: {}", requestURI);
         log.info("Authorization header: {}", header != null ? "present" : "absent");
@@ -49,12 +51,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             log.info("Token extracted (length: {})", token.length());
             
             try {
-                String username = jwtUtil.extractUsername(token);
+                Claims claims = jwtUtil.extractAllClaims(token);
+                String username = claims.getSubject();
                 log.info("Username extracted from token: {}", username);
+
+                // Bloom filter first; the revoked_tokens table is only read on a filter hit
+                if (revocationList.isRevoked(claims.getId())) {
+                    log.warn("❌ Revoked JWT presented for request: {}", requestURI);
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    return;
+                }
                 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    // Load user details from database
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    long tokenVersion = JwtUtil.securityVersion(claims);
+                    UserPrincipal userDetails = userDetailsService.loadUser(username, tokenVersion);
+
+                    // Password, email or role changed (or all sessions revoked) after this token was issued
+                    if (userDetails.getSecurityVersion() > tokenVersion) {
+                        log.info("❌ Stale JWT (security version {} < {}) for user: {}",
+                                tokenVersion, userDetails.getSecurityVersion(), username);
+                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                        return;
+                    }
                     
                     // Create authentication token with user details
                     UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
@@ -91,18 +109,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         log.info("=== JWT FILTER COMPLETED ===");
         filterChain.doFilter(request, response);
     }
-    
-    private boolean isPublicEndpoint(String requestURI) {
-        // Public endpoints that don't need JWT authentication
-        return requestURI.startsWith("/api/auth/login") ||
-               requestURI.startsWith("/api/auth/register") ||
-               requestURI.startsWith("/api/auth/logout") ||
-               requestURI.startsWith("/api/auth/debug-token") ||
-               requestURI.startsWith("/api/auth/oauth2/") ||
-               requestURI.startsWith("/swagger-ui/") ||
-               requestURI.startsWith("/v2/api-docs") ||
-               requestURI.startsWith("/v3/api-docs");
-    }
 }
 
 
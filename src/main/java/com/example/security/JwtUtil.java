@@ -1,17 +1,81 @@
 package com.example.security;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.DefaultClaims;
+import io.jsonwebtoken.impl.TextCodec;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
-@RequiredArgsConstructor
+/**
+ * Issues and verifies HS256 tokens.
+ *
+ * The signing key and parser are built once. Verified claims are cached by a SHA-256 digest
+ * of the token until the token's own {@code exp}, so repeated requests with the same token
+ * skip Base64 decoding, JSON parsing and HMAC verification. The cached instance is shared by
+ * every request presenting that token, so claims are handed out read-only.
+ *
+ * Access tokens carry a random {@code jti} (so a single token can be revoked) and the user's
+ * security version in {@value #SECURITY_VERSION_CLAIM} (so all older tokens of a user can be).
+ */
 public class JwtUtil {
-    private final String secret;
+
+    public static final String SECURITY_VERSION_CLAIM = "sv";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
     private final long expirationMs;
+    private final Clock clock;
+    private final byte[] signingKey;
+    private final JwtParser parser;
+    private final Cache<String, Claims> claimsCache;
+
+    public JwtUtil(String secret, long expirationMs) {
+        this(secret, expirationMs, 0);
+    }
+
+    /**
+     * @param claimsCacheSize maximum number of verified tokens kept in memory; 0 disables the cache
+     */
+    public JwtUtil(String secret, long expirationMs, long claimsCacheSize) {
+        this(secret, expirationMs, claimsCacheSize, Clock.systemUTC());
+    }
+
+    /** {@code clock} dates issued tokens and decides expiry, both when parsing and for cached claims. */
+    public JwtUtil(String secret, long expirationMs, long claimsCacheSize, Clock clock) {
+        this.expirationMs = expirationMs;
+        this.clock = clock;
+        // Same key derivation jjwt applies to a String secret, done once instead of per call
+        this.signingKey = TextCodec.BASE64.decode(secret);
+        this.parser = Jwts.parser().setSigningKey(signingKey).setClock(() -> new Date(clock.millis()));
+        this.claimsCache = claimsCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(claimsCacheSize)
+                        .expireAfter(new UntilTokenExpiry())
+                        .build()
+                : null;
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -22,27 +86,97 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Verified, read-only claims for {@code token}: mutators throw
+     * {@link UnsupportedOperationException}. Throws the usual jjwt exceptions for invalid,
+     * tampered or expired tokens; only successfully verified tokens are cached.
+     */
+    public Claims extractAllClaims(String token) {
+        if (claimsCache == null) {
+            return parse(token);
+        }
+        String key = digest(token);
+        Claims cached = claimsCache.getIfPresent(key);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+        // Cache miss or expired: the parser re-verifies and throws ExpiredJwtException as before
+        Claims claims = parse(token);
+        claimsCache.put(key, claims);
+        return claims;
+    }
+
+    private Claims parse(String token) {
+        // DefaultClaims writes through to the map it wraps, so an unmodifiable copy rejects put/setSubject
+        Claims parsed = parser.parseClaimsJws(token).getBody();
+        return new DefaultClaims(Collections.unmodifiableMap(new LinkedHashMap<>(parsed)));
     }
 
     public String generateToken(String username) {
+        return generateToken(username, 0L);
+    }
+
+    public String generateToken(String username, long securityVersion) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(SignatureAlgorithm.HS256, secret)
+                .claim(SECURITY_VERSION_CLAIM, securityVersion)
+                .setIssuedAt(new Date(clock.millis()))
+                .setExpiration(new Date(clock.millis() + expirationMs))
+                .signWith(SignatureAlgorithm.HS256, signingKey)
                 .compact();
     }
 
     public boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(username) && !isExpired(claims);
+    }
+
+    public long getExpirationMs() {
+        return expirationMs;
     }
-}
 
+    /** Security version the token was issued at; tokens issued before versioning count as 0. */
+    public static long securityVersion(Claims claims) {
+        Object value = claims.get(SECURITY_VERSION_CLAIM);
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
 
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() < clock.millis();
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    /** Each cached entry lives exactly as long as the token it was verified from. */
+    private final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return TimeUnit.MINUTES.toNanos(5);
+            }
+            long remainingMs = expiration.getTime() - clock.millis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-aware cache of {@link UserPrincipal} keyed by email.
+ *
+ * Every authenticated request used to cost a users query plus the EAGER user_roles join.
+ * Entries carry the user's security version; a lookup that needs a newer version reloads.
+ * Writers that change credentials or role assignments call {@link #invalidate(String)}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.principal-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<String, UserPrincipal> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+        log.info("Principal cache {} (maxSize={}, ttl={}s)", enabled ? "enabled" : "disabled", maxSize, ttlSeconds);
+    }
+
+    /**
+     * Returns the cached principal for {@code email} if its security version is at least
+     * {@code minSecurityVersion}; otherwise loads it and caches the result.
+     *
+     * The load runs inside {@code asMap().compute}, which holds the key's lock: an
+     * {@link #invalidate(String)} issued while a load is in flight waits for it and then removes
+     * what it cached, so a load that read pre-commit state cannot outlive the after-commit
+     * invalidation. A load never replaces an entry with a newer security version.
+     */
+    public UserPrincipal get(String email, long minSecurityVersion, Function<String, UserPrincipal> loader) {
+        if (!enabled) {
+            return loader.apply(email);
+        }
+        UserPrincipal cached = cache.getIfPresent(email);
+        if (cached != null && cached.getSecurityVersion() >= minSecurityVersion) {
+            return cached;
+        }
+        return cache.asMap().compute(email, (key, current) -> {
+            if (current != null && current.getSecurityVersion() >= minSecurityVersion) {
+                return current;
+            }
+            UserPrincipal loaded = loader.apply(key);
+            return current != null && current.getSecurityVersion() > loaded.getSecurityVersion() ? current : loaded;
+        });
+    }
+
+    /**
+     * Drops the cached principal now and again after the surrounding transaction commits,
+     * so a concurrent request cannot re-cache the pre-commit state.
+     */
+    public void invalidate(final String email) {
+        if (email == null) {
+            return;
+        }
+        cache.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(email);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.security;
+
+import com.example.security.RouteSecurityTable.RouteAccess;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Route access rules, declared once and shared by {@link SecurityConfig} (authorization)
+ * and {@link JwtAuthenticationFilter} (which skips token parsing for ANONYMOUS routes).
+ */
+@Configuration
+public class RouteSecurityConfig {
+
+    @Bean
+    public RouteSecurityTable routeSecurityTable() {
+        return RouteSecurityTable.builder()
+                .rule(HttpMethod.OPTIONS, RouteAccess.PERMIT_ALL, "/**")
+                // Auth endpoints - no token processing at all
+                .rule(RouteAccess.ANONYMOUS,
+                        "/api/auth/login", "/api/auth/register", "/api/auth/logout", "/api/auth/refresh",
+                        "/api/auth/debug-token", "/api/auth/oauth2/**")
+                .rule(RouteAccess.AUTHENTICATED, "/api/auth/me")
+                .rule(HttpMethod.GET, RouteAccess.AUTHENTICATED, "/api/users/**")
+                // Roles endpoints - require authentication
+                .rule(RouteAccess.AUTHENTICATED, "/api/roles/**")
+                // Translation endpoints - allow public access for all operations
+                .rule(RouteAccess.PERMIT_ALL, "/api/translations/**")
+                // File endpoints - allow public access for viewing files
+                .rule(HttpMethod.GET, RouteAccess.PERMIT_ALL,
+                        "/api/files/public/**", "/api/files/all/**", "/api/files/search",
+                        "/api/files/type/**", "/api/files/recent")
+                // Swagger UI endpoints
+                .rule(RouteAccess.ANONYMOUS, "/swagger-ui/**", "/v2/api-docs/**", "/v3/api-docs/**")
+                .rule(RouteAccess.PERMIT_ALL, "/swagger-ui.html", "/swagger-resources/**", "/webjars/**")
+                .rule(RouteAccess.PERMIT_ALL, "/actuator/health/**", "/actuator/info")
+                // Static resources and error pages
+                .rule(RouteAccess.PERMIT_ALL, "/", "/error", "/favicon.ico")
+                .build();
+    }
+}
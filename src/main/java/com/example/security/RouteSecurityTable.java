@@ -0,0 +1,152 @@
+package com.example.security;
+
+import org.springframework.http.HttpMethod;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single source of truth for route-level access rules, compiled into one prefix trie per
+ * HTTP method (plus one for "any method").
+ *
+ * Patterns are either exact paths ({@code /api/auth/login}) or subtrees ({@code /api/files/type/**},
+ * which also matches {@code /api/files/type} itself). A method-specific match beats an
+ * any-method match; within one trie the most specific match wins. Unmatched paths are
+ * {@link RouteAccess#AUTHENTICATED}. Lookup cost is proportional to the path length.
+ */
+public final class RouteSecurityTable {
+
+    public enum RouteAccess {
+        /** Public, and the JWT filter does not even look at the Authorization header. */
+        ANONYMOUS,
+        /** Public, but a bearer token is still resolved when present. */
+        PERMIT_ALL,
+        AUTHENTICATED
+    }
+
+    private static final String SUBTREE = "/**";
+
+    private final Node anyMethod;
+    private final Map<HttpMethod, Node> byMethod;
+
+    private RouteSecurityTable(Node anyMethod, Map<HttpMethod, Node> byMethod) {
+        this.anyMethod = anyMethod;
+        this.byMethod = byMethod;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public RouteAccess resolve(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (contextPath != null && !contextPath.isEmpty() && path.startsWith(contextPath)) {
+            path = path.substring(contextPath.length());
+        }
+        return resolve(request.getMethod(), path);
+    }
+
+    public RouteAccess resolve(String method, String path) {
+        HttpMethod httpMethod = method != null ? HttpMethod.resolve(method) : null;
+        Node methodRoot = httpMethod != null ? byMethod.get(httpMethod) : null;
+
+        if (methodRoot != null) {
+            RouteAccess specific = lookup(methodRoot, path);
+            if (specific != null) {
+                return specific;
+            }
+        }
+        RouteAccess any = lookup(anyMethod, path);
+        return any != null ? any : RouteAccess.AUTHENTICATED;
+    }
+
+    public boolean isPublic(HttpServletRequest request) {
+        return resolve(request) != RouteAccess.AUTHENTICATED;
+    }
+
+    public boolean skipsAuthentication(HttpServletRequest request) {
+        return resolve(request) == RouteAccess.ANONYMOUS;
+    }
+
+    private static RouteAccess lookup(Node root, String path) {
+        Node node = root;
+        RouteAccess subtreeAccess = root.subtree;
+        int length = path.length();
+        int start = 0;
+
+        while (start < length) {
+            if (path.charAt(start) == '/') {
+                start++;
+                continue;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.children.get(path.substring(start, end));
+            if (node == null) {
+                return subtreeAccess;
+            }
+            if (node.subtree != null) {
+                subtreeAccess = node.subtree;
+            }
+            start = end + 1;
+        }
+
+        return node.exact != null ? node.exact : subtreeAccess;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private RouteAccess exact;
+        private RouteAccess subtree;
+    }
+
+    public static final class Builder {
+
+        private final Node anyMethod = new Node();
+        private final Map<HttpMethod, Node> byMethod = new EnumMap<>(HttpMethod.class);
+
+        private Builder() {
+        }
+
+        public Builder rule(RouteAccess access, String... patterns) {
+            return rule(null, access, patterns);
+        }
+
+        public Builder rule(HttpMethod method, RouteAccess access, String... patterns) {
+            Node root = method == null ? anyMethod : byMethod.computeIfAbsent(method, m -> new Node());
+            for (String pattern : patterns) {
+                insert(root, pattern, access);
+            }
+            return this;
+        }
+
+        public RouteSecurityTable build() {
+            return new RouteSecurityTable(anyMethod, byMethod);
+        }
+
+        private void insert(Node root, String pattern, RouteAccess access) {
+            boolean subtree = pattern.endsWith(SUBTREE);
+            String path = subtree ? pattern.substring(0, pattern.length() - SUBTREE.length()) : pattern;
+            if (path.contains("*")) {
+                throw new IllegalArgumentException("Only exact paths and trailing /** are supported: " + pattern);
+            }
+
+            Node node = root;
+            for (String segment : path.split("/")) {
+                if (!segment.isEmpty()) {
+                    node = node.children.computeIfAbsent(segment, s -> new Node());
+                }
+            }
+            if (subtree) {
+                node.subtree = access;
+            } else {
+                node.exact = access;
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,11 +11,10 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.http.HttpMethod;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -26,10 +27,14 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RouteSecurityTable routeSecurityTable;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         log.info("Configuring security filter chain with JWT filter: {}", jwtAuthenticationFilter.getClass().getSimpleName());
+
+        // Public routes come from the shared RouteSecurityTable (see RouteSecurityConfig)
+        RequestMatcher publicRoutes = routeSecurityTable::isPublic;
         
         http
             .csrf().disable()
@@ -37,30 +42,7 @@ public class SecurityConfig {
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             .and()
             .authorizeRequests()
-                .antMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                .antMatchers("/api/auth/login", "/api/auth/register").permitAll()
-                .antMatchers("/api/auth/logout").permitAll()
-                .antMatchers("/api/auth/debug-token").permitAll()
-                .antMatchers("/api/auth/oauth2/**").permitAll()
-                .antMatchers("/api/auth/me").authenticated()
-                .antMatchers(HttpMethod.GET, "/api/users/**").authenticated()
-                // Roles endpoints - require authentication
-                .antMatchers("/api/roles/**").authenticated()
-                // Translation endpoints - allow public access for all operations
-                .antMatchers("/api/translations/**").permitAll()
-                .antMatchers("/api/translations/debug/**").permitAll() // Debug endpoint
-                .antMatchers("/api/translations/test").permitAll() // Test endpoint
-                // File endpoints - allow public access for viewing files
-                .antMatchers(HttpMethod.GET, "/api/files/public/**").permitAll()
-                .antMatchers(HttpMethod.GET, "/api/files/all/**").permitAll()
-                .antMatchers(HttpMethod.GET, "/api/files/search").permitAll()
-                .antMatchers(HttpMethod.GET, "/api/files/type/**").permitAll()
-                .antMatchers(HttpMethod.GET, "/api/files/recent").permitAll()
-                // Swagger UI endpoints
-                .antMatchers("/swagger-ui/**", "/swagger-ui.html", "/v2/api-docs", "/swagger-resources/**", "/webjars/**", "/v3/api-docs/**").permitAll()
-                .antMatchers("/actuator/health", "/actuator/info").permitAll()
-                // Static resources and error pages
-                .antMatchers("/", "/error", "/favicon.ico").permitAll()
+                .requestMatchers(publicRoutes).permitAll()
                 .anyRequest().authenticated()
             .and()
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -71,9 +53,34 @@ public class SecurityConfig {
         return http.build();
     }
 
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    // > 0: raise the BCrypt cost at startup as far as this per-hash budget allows
+    @Value("${security.password.target-latency-ms:0}")
+    private long targetLatencyMs;
+
+    // 0 = one worker per CPU
+    @Value("${security.password.hash-threads:0}")
+    private int hashThreads;
+
+    @Value("${security.password.queue-capacity:64}")
+    private int hashQueueCapacity;
+
+    @Value("${security.password.wait-timeout-ms:5000}")
+    private long hashWaitTimeoutMs;
+
+    @Value("${security.password.retry-after-seconds:2}")
+    private long hashRetryAfterSeconds;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int strength = targetLatencyMs > 0
+                ? BoundedPasswordEncoder.calibrateStrength(bcryptStrength, targetLatencyMs)
+                : bcryptStrength;
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(strength, threads, hashQueueCapacity, hashWaitTimeoutMs,
+                hashRetryAfterSeconds, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,133 @@
+package com.example.security;
+
+import com.example.user.enums.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable authenticated principal built once from the users table and reused
+ * across requests through {@link PrincipalCache}.
+ *
+ * Exposes {@code id} so SpEL expressions like {@code #id == authentication.principal.id} work.
+ * Dynamic role names (without the {@code ROLE_} prefix) are precomputed so authorization checks
+ * are a set lookup. The primary {@link UserRole} and the dynamic roles from the roles table are
+ * kept apart, with no combined set: a dynamic role that happens to be called "ADMIN" is not the
+ * ADMIN role.
+ */
+public final class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final UserRole role;
+    private final long securityVersion;
+    private final List<GrantedAuthority> authorities;
+    private final Set<String> dynamicRoleNames;
+
+    /** Every authority other than the primary role's counts as a dynamic role. */
+    public UserPrincipal(Long id, String email, String password, UserRole role, long securityVersion,
+                         Collection<? extends GrantedAuthority> authorities) {
+        this(id, email, password, role, securityVersion, authorities, withoutRole(toRoleNames(authorities), role));
+    }
+
+    /** {@code dynamicRoleNames}: upper-case names of the user's active roles from the roles table. */
+    public UserPrincipal(Long id, String email, String password, UserRole role, long securityVersion,
+                         Collection<? extends GrantedAuthority> authorities, Collection<String> dynamicRoleNames) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.securityVersion = securityVersion;
+        this.authorities = Collections.unmodifiableList(new ArrayList<>(authorities));
+        this.dynamicRoleNames = Collections.unmodifiableSet(new HashSet<>(dynamicRoleNames));
+    }
+
+    /** Role names of an authority list ({@code ROLE_HR} → {@code HR}). */
+    private static Set<String> toRoleNames(Collection<? extends GrantedAuthority> authorities) {
+        Set<String> names = new HashSet<>();
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name == null) {
+                continue;
+            }
+            names.add(name.startsWith("ROLE_") ? name.substring(5) : name);
+        }
+        return names;
+    }
+
+    private static Set<String> withoutRole(Set<String> names, UserRole role) {
+        if (role != null) {
+            names.remove(role.name());
+        }
+        return names;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public long getSecurityVersion() {
+        return securityVersion;
+    }
+
+    /** Upper-case names of the active dynamic roles only, without the primary enum role. */
+    public Set<String> getDynamicRoleNames() {
+        return dynamicRoleNames;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{id=" + id + ", email=" + email + ", securityVersion=" + securityVersion
+                + ", authorities=" + authorities + "}";
+    }
+}
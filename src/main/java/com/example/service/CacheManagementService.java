@@ -1,17 +1,22 @@
 package com.example.service;
 
+import com.example.cache.CacheRegistry;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Service
 public class CacheManagementService {
 
     private final CacheManager cacheManager;
+    private final CacheRegistry cacheRegistry;
 
-    public CacheManagementService(CacheManager cacheManager) {
+    public CacheManagementService(CacheManager cacheManager, CacheRegistry cacheRegistry) {
         this.cacheManager = cacheManager;
+        this.cacheRegistry = cacheRegistry;
     }
 
     /**
@@ -25,12 +30,16 @@ public class CacheManagementService {
                 cache.clear();
             }
         });
+        cacheRegistry.clearAll();
     }
 
     /**
      * Clear a specific cache by name
      */
     public void clearCache(String cacheName) {
+        if (cacheRegistry.clear(cacheName)) {
+            return;
+        }
         org.springframework.cache.Cache cache = cacheManager.getCache(cacheName);
         if (cache != null) {
             cache.clear();
@@ -38,10 +47,12 @@ public class CacheManagementService {
     }
 
     /**
-     * Get all cache names
+     * Get all cache names (Spring caches and stale-while-revalidate caches)
      */
     public Collection<String> getCacheNames() {
-        return cacheManager.getCacheNames();
+        Set<String> names = new LinkedHashSet<>(cacheManager.getCacheNames());
+        names.addAll(cacheRegistry.getNames());
+        return names;
     }
 
     /**
@@ -10,6 +10,7 @@ import com.example.translation.repository.TranslationRepository;
 import com.example.translation.service.TranslationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -99,18 +100,22 @@ public class TranslationServiceImpl implements TranslationService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "translations", key = "'id:' + #id", unless = "#result == null")
     public Optional<TranslationDto> getTranslationById(Long id) {
         return translationRepository.findById(id).map(translationMapper::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "translations", key = "'key:' + #languageCode + ':' + #translationKey",
+            unless = "#result == null")
     public Optional<TranslationDto> getTranslationByKeyAndLanguage(String translationKey, String languageCode) {
         return translationRepository.findByTranslationKeyAndLanguageCode(translationKey, languageCode).map(translationMapper::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "translations", key = "'language:' + #languageCode")
     public List<TranslationDto> getTranslationsByLanguage(String languageCode) {
         return translationRepository.findByLanguageCodeAndIsActiveTrue(languageCode)
                 .stream()
@@ -120,6 +125,7 @@ public class TranslationServiceImpl implements TranslationService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "translations", key = "'active'")
     public List<TranslationDto> getAllActiveTranslations() {
         return translationRepository.findByIsActiveTrue()
                 .stream()
@@ -129,6 +135,7 @@ public class TranslationServiceImpl implements TranslationService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "translations", key = "'grouped'")
     public Map<String, Map<String, TranslationDto>> getGroupedTranslationsByKey() {
         List<Translation> translations = translationRepository.findByIsActiveTrue();
         
@@ -163,6 +170,7 @@ public class TranslationServiceImpl implements TranslationService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "translationMaps", key = "#languageCode")
     public Map<String, String> getTranslationsMapForLanguage(String languageCode) {
         List<Translation> translations = translationRepository.findByLanguageCodeAndIsActiveTrue(languageCode);
         Map<String, String> translationsMap = new HashMap<>();
@@ -176,18 +184,21 @@ public class TranslationServiceImpl implements TranslationService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "translationKeys", key = "'active'")
     public List<String> getAllActiveTranslationKeys() {
         return translationRepository.findAllActiveTranslationKeys();
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "translationLanguages", key = "'all'")
     public List<String> getAvailableLanguages() {
         return translationRepository.findDistinctLanguageCodes();
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "translationExists", key = "#languageCode + ':' + #translationKey")
     public boolean existsByKeyAndLanguage(String translationKey, String languageCode) {
         return translationRepository.existsByTranslationKeyAndLanguageCode(translationKey, languageCode);
     }
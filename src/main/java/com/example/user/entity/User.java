@@ -67,6 +67,11 @@ public class User {
     @Column(name = "email_verified")
     private Boolean emailVerified = false;
 
+    /** Bumped whenever credentials or role assignments change; cached principals older than this are stale. */
+    @Column(name = "security_version", nullable = false)
+    @Builder.Default
+    private Long securityVersion = 0L;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -85,4 +90,8 @@ public class User {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
+
+    public void bumpSecurityVersion() {
+        securityVersion = (securityVersion != null ? securityVersion : 0L) + 1;
+    }
 }
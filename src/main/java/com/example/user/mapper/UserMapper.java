@@ -7,8 +7,8 @@ import com.example.user.entity.User;
 import com.example.role.entity.Role;
 import org.mapstruct.*;
 
+import java.util.HashSet;
 import java.util.Set;
-import java.util.Collections;
 import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
@@ -32,7 +32,7 @@ public interface UserMapper {
     // Custom mapping method to convert Set<Role> to Set<String> (role names only)
     default Set<String> mapRolesToStrings(Set<Role> roles) {
         if (roles == null || roles.isEmpty()) {
-            return Collections.emptySet();
+            return new HashSet<>();
         }
         return roles.stream()
                 .map(Role::getName)
@@ -1,5 +1,6 @@
 package com.example.user.service.impl;
 
+import com.example.annotation.CacheTags;
 import com.example.user.dto.CreateUserRequest;
 import com.example.user.dto.UpdateUserRequest;
 import com.example.user.dto.UserDto;
@@ -11,8 +12,10 @@ import com.example.user.exception.UserValidationException;
 import com.example.user.mapper.UserMapper;
 import com.example.user.repository.UserRepository;
 import com.example.user.service.UserService;
+import com.example.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -32,6 +35,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDto createUser(CreateUserRequest request) {
@@ -89,6 +93,9 @@ public class UserServiceImpl implements UserService {
             }
         }
         
+        String previousEmail = user.getEmail();
+        UserRole previousRole = user.getRole();
+
         // Update user using mapper
         userMapper.updateEntity(user, request);
         
@@ -97,8 +104,16 @@ public class UserServiceImpl implements UserService {
             validatePassword(request.getPassword());
             user.setPassword(passwordEncoder.encode(request.getPassword()));
         }
+
+        if (request.getPassword() != null
+                || !previousEmail.equals(user.getEmail())
+                || previousRole != user.getRole()) {
+            user.bumpSecurityVersion();
+        }
         
         User updatedUser = userRepository.save(user);
+        principalCache.invalidate(previousEmail);
+        principalCache.invalidate(updatedUser.getEmail());
         log.info("User updated successfully with ID: {}", updatedUser.getId());
         
         return userMapper.toDto(updatedUser);
@@ -108,20 +123,24 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long id) {
         log.info("Deleting user with ID: {}", id);
         
-        if (!userRepository.existsById(id)) {
-            throw new UserNotFoundException("User not found with ID: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + id));
         
-        userRepository.deleteById(id);
+        userRepository.delete(user);
+        principalCache.invalidate(user.getEmail());
         log.info("User deleted successfully with ID: {}", id);
     }
 
     @Override
+    @Cacheable(cacheNames = "users", key = "'id:' + #id", unless = "#result == null")
+    @CacheTags("#result != null ? #result.roles.![ 'role-name:' + #this ] : null")
     public Optional<UserDto> getUserById(Long id) {
         return userRepository.findById(id).map(userMapper::toDto);
     }
 
     @Override
+    @Cacheable(cacheNames = "users", key = "'email:' + #email", unless = "#result == null")
+    @CacheTags("#result != null ? #result.roles.![ 'role-name:' + #this ] : null")
     public Optional<UserDto> getUserByEmail(String email) {
         return userRepository.findByEmail(email).map(userMapper::toDto);
     }
@@ -137,26 +156,31 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = "userCounts", key = "'all'")
     public long getUserCount() {
         return userRepository.count();
     }
 
     @Override
+    @Cacheable(cacheNames = "userCounts", key = "'role:' + #role")
     public long getUserCountByRole(String role) {
         return userRepository.countByRole(role);
     }
 
     @Override
+    @Cacheable(cacheNames = "userExists", key = "'email:' + #email")
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
 
     @Override
+    @Cacheable(cacheNames = "userExists", key = "'phone:' + #phone")
     public boolean existsByPhone(String phone) {
         return userRepository.existsByPhone(phone);
     }
 
     @Override
+    @Cacheable(cacheNames = "userExists", key = "'name:' + #name")
     public boolean existsByName(String name) {
         return userRepository.existsByName(name);
     }
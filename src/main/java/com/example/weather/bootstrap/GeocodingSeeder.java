@@ -0,0 +1,96 @@
+package com.example.weather.bootstrap;
+
+import com.example.weather.dto.GeoLocation;
+import com.example.weather.service.GeocodingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pre-seeds {@code geocoded_cities} from a bundled CSV ({@code name,country,latitude,longitude})
+ * so common cities never hit the geocoding API. Runs on a background thread: startup and
+ * readiness do not wait for it, and lookups simply fall through to the API until it is done.
+ * Idempotent: only inserts cities that are not stored yet.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GeocodingSeeder implements CommandLineRunner {
+
+    private final GeocodingService geocodingService;
+    private final ResourceLoader resourceLoader;
+
+    @Value("${weather.geocoding.seed.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weather.geocoding.seed.resource:classpath:geo/cities.csv}")
+    private String resourceLocation;
+
+    @Value("${weather.geocoding.language:en}")
+    private String language;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        Thread seeder = new Thread(this::seed, "geocoding-seed");
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+
+    void seed() {
+        long start = System.currentTimeMillis();
+        try {
+            List<GeoLocation> locations = parse(resourceLoader.getResource(resourceLocation));
+            int inserted = geocodingService.seed(locations, language);
+            log.info("Geocoding seed: {} cities in list, {} inserted in {} ms",
+                    locations.size(), inserted, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Geocoding seed from {} failed: {}", resourceLocation, e.getMessage());
+        }
+    }
+
+    static List<GeoLocation> parse(Resource resource) throws IOException {
+        List<GeoLocation> locations = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || (lineNumber == 1 && line.startsWith("name,"))) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length != 4) {
+                    log.warn("Skipping malformed geocoding seed line {}: {}", lineNumber, line);
+                    continue;
+                }
+                try {
+                    locations.add(GeoLocation.builder()
+                            .name(parts[0].trim())
+                            .country(parts[1].trim().isEmpty() ? null : parts[1].trim())
+                            .latitude(Double.parseDouble(parts[2].trim()))
+                            .longitude(Double.parseDouble(parts[3].trim()))
+                            .build());
+                } catch (NumberFormatException e) {
+                    log.warn("Skipping geocoding seed line {} with invalid coordinates: {}", lineNumber, line);
+                }
+            }
+        }
+        return locations;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.weather.controller;
 
+import com.example.weather.dto.WeatherBatchRequest;
+import com.example.weather.dto.WeatherBatchResponse;
 import com.example.weather.dto.WeatherDto;
 import com.example.weather.service.WeatherService;
 import lombok.RequiredArgsConstructor;
@@ -7,8 +9,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.validation.Valid;
+
 /**
  * Frontend calls: GET /api/weather/current?city=Tashkent
+ * Dashboard calls: POST /api/weather/batch {"cities": ["Tashkent", "Samarkand"]}
  *
  * Flow:
  * Frontend → this Controller → WeatherService → Open-Meteo (external) → DTO → Frontend
@@ -31,4 +36,11 @@ public class WeatherController {
         WeatherDto weather = weatherService.getCurrentWeather(city);
         return ResponseEntity.ok(weather);
     }
+
+    /** Partial results: cities that fail carry an {@code error}, the rest are still returned. */
+    @PostMapping("/batch")
+    public ResponseEntity<WeatherBatchResponse> getCurrentWeatherBatch(@Valid @RequestBody WeatherBatchRequest request) {
+        log.info("POST /api/weather/batch ({} cities)", request.getCities().size());
+        return ResponseEntity.ok(weatherService.getCurrentWeather(request.getCities()));
+    }
 }
@@ -0,0 +1,21 @@
+package com.example.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Geocoding result: resolved place name and its coordinates.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoLocation {
+
+    private String name;
+    private String country;
+    private double latitude;
+    private double longitude;
+}
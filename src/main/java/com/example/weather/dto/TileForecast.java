@@ -0,0 +1,26 @@
+package com.example.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Current conditions for one forecast tile (fetched at the tile centre). This is what the
+ * weather cache stores; {@link WeatherDto} adds the requested city on top.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TileForecast {
+
+    private String tile;
+    private Double latitude;
+    private Double longitude;
+    private Double temperatureC;
+    private Integer humidityPercent;
+    private Double windSpeedKmh;
+    private Integer weatherCode;
+    private String observedAt;
+}
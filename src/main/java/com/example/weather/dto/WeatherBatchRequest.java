@@ -0,0 +1,22 @@
+package com.example.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeatherBatchRequest {
+
+    @NotEmpty(message = "At least one city is required")
+    @Size(max = 100, message = "At most 100 cities per request")
+    private List<@NotBlank(message = "City name is required") String> cities;
+}
@@ -0,0 +1,34 @@
+package com.example.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One result per requested city, in request order. A city that could not be answered (unknown,
+ * upstream down with no last-known-good value, deadline exceeded) fails only its own item:
+ * {@code error} is set and {@code weather} is null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeatherBatchResponse {
+    /** False when at least one city has an error. */
+    private Boolean complete;
+    private Integer failed;
+    private List<Result> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private String city;
+        private WeatherDto weather;
+        private String error;
+    }
+}
@@ -10,7 +10,7 @@ import lombok.NoArgsConstructor;
  * External Open-Meteo JSON is mapped into this DTO in the service layer.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class WeatherDto {
@@ -25,4 +25,10 @@ public class WeatherDto {
     private Integer weatherCode;
     private String description;
     private String observedAt;
+    /** Forecast tile ({@code resolution:latIndex:lonIndex}) whose cached forecast served this answer. */
+    private String tile;
+    /** True when served from the last-known-good cache because the upstream is unavailable. */
+    private Boolean stale;
+    /** Age of a stale value in seconds. */
+    private Long ageSeconds;
 }
@@ -0,0 +1,56 @@
+package com.example.weather.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Resolved coordinates for a city query. {@code queryKey} is the normalized user input
+ * (see {@code GeocodingServiceImpl#normalize}), so "  Tashkent " and "tashkent" share one row.
+ */
+@Entity
+@Table(name = "geocoded_cities",
+        uniqueConstraints = @UniqueConstraint(name = "uk_geocoded_cities_query_language",
+                columnNames = {"query_key", "language"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeocodedCity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "query_key", nullable = false, length = 200)
+    private String queryKey;
+
+    @Column(nullable = false, length = 8)
+    private String language;
+
+    @Column(nullable = false, length = 200)
+    private String name;
+
+    @Column(length = 100)
+    private String country;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.weather.repository;
+
+import com.example.weather.entity.GeocodedCity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GeocodedCityRepository extends JpaRepository<GeocodedCity, Long> {
+
+    Optional<GeocodedCity> findByQueryKeyAndLanguage(String queryKey, String language);
+
+    @Query("SELECT c.queryKey FROM GeocodedCity c WHERE c.language = :language")
+    List<String> findQueryKeysByLanguage(@Param("language") String language);
+
+    List<GeocodedCity> findByLanguageOrderByIdAsc(String language, Pageable pageable);
+}
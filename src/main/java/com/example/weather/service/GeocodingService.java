@@ -0,0 +1,21 @@
+package com.example.weather.service;
+
+import com.example.weather.dto.GeoLocation;
+
+import java.util.List;
+
+public interface GeocodingService {
+
+    /**
+     * Coordinates for a city name.
+     *
+     * @throws IllegalArgumentException when the city is unknown
+     */
+    GeoLocation resolve(String city, String language);
+
+    /** Coordinates from memory or the database only; {@code null} when resolving would need the upstream. */
+    GeoLocation findKnown(String city, String language);
+
+    /** Stores already known coordinates (bulk seeding); existing entries are kept. Returns rows inserted. */
+    int seed(List<GeoLocation> locations, String language);
+}
@@ -1,7 +1,10 @@
 package com.example.weather.service;
 
+import com.example.weather.dto.WeatherBatchResponse;
 import com.example.weather.dto.WeatherDto;
 
+import java.util.List;
+
 public interface WeatherService {
 
     /**
@@ -9,4 +12,10 @@ public interface WeatherService {
      * No database / repository is used — data comes from a third-party HTTP service.
      */
     WeatherDto getCurrentWeather(String city);
+
+    /**
+     * Current weather for several cities at once. Cities fail individually; the response is
+     * returned within the batch deadline with whatever could be answered.
+     */
+    WeatherBatchResponse getCurrentWeather(List<String> cities);
 }
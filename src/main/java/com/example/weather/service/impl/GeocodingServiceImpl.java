@@ -0,0 +1,207 @@
+package com.example.weather.service.impl;
+
+import com.example.exception.UpstreamUnavailableException;
+import com.example.http.CircuitBreakerRegistry;
+import com.example.weather.dto.GeoLocation;
+import com.example.weather.entity.GeocodedCity;
+import com.example.weather.repository.GeocodedCityRepository;
+import com.example.weather.service.GeocodingService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * City name → coordinates, looked up in three tiers: in-memory map, the {@code geocoded_cities}
+ * table, then the Open-Meteo geocoding API. Coordinates never change, so entries do not expire
+ * and survive restarts; a weather cache miss only costs the forecast call.
+ */
+@Service
+@Slf4j
+public class GeocodingServiceImpl implements GeocodingService {
+
+    private static final String CIRCUIT = "open-meteo";
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    private final RestTemplate restTemplate;
+    private final GeocodedCityRepository geocodedCityRepository;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final Cache<String, GeoLocation> memory;
+
+    @Value("${weather.geocoding-url:https://geocoding-api.open-meteo.com/v1/search}")
+    private String geocodingUrl;
+
+    public GeocodingServiceImpl(RestTemplate restTemplate,
+                                GeocodedCityRepository geocodedCityRepository,
+                                CircuitBreakerRegistry circuitBreakers,
+                                @Value("${weather.geocoding.memory-max-size:20000}") long memoryMaxSize) {
+        this.restTemplate = restTemplate;
+        this.geocodedCityRepository = geocodedCityRepository;
+        this.circuitBreakers = circuitBreakers;
+        this.memory = Caffeine.newBuilder().maximumSize(memoryMaxSize).build();
+    }
+
+    @Override
+    public GeoLocation resolve(String city, String language) {
+        GeoLocation known = findKnown(city, language);
+        if (known != null) {
+            return known;
+        }
+
+        String queryKey = normalize(city);
+        String memoryKey = language + '|' + queryKey;
+        GeoLocation location = circuitBreakers.get(CIRCUIT).execute(() -> lookup(city.trim(), language));
+        try {
+            geocodedCityRepository.save(toEntity(queryKey, language, location));
+        } catch (DataIntegrityViolationException e) {
+            // Another request stored the same city concurrently; its row is equivalent
+            log.debug("Geocoded city '{}' ({}) already stored", queryKey, language);
+        }
+        memory.put(memoryKey, location);
+        return location;
+    }
+
+    @Override
+    public GeoLocation findKnown(String city, String language) {
+        String queryKey = normalize(city);
+        String memoryKey = language + '|' + queryKey;
+
+        GeoLocation cached = memory.getIfPresent(memoryKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        Optional<GeocodedCity> stored = geocodedCityRepository.findByQueryKeyAndLanguage(queryKey, language);
+        if (stored.isPresent()) {
+            GeoLocation location = toLocation(stored.get());
+            memory.put(memoryKey, location);
+            return location;
+        }
+        return null;
+    }
+
+    @Override
+    public int seed(List<GeoLocation> locations, String language) {
+        Set<String> known = new HashSet<>(geocodedCityRepository.findQueryKeysByLanguage(language));
+        List<GeocodedCity> missing = new ArrayList<>();
+        for (GeoLocation location : locations) {
+            String queryKey = normalize(location.getName());
+            if (known.add(queryKey)) {
+                missing.add(toEntity(queryKey, language, location));
+            }
+            memory.put(language + '|' + queryKey, location);
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            geocodedCityRepository.saveAll(missing);
+            return missing.size();
+        } catch (DataIntegrityViolationException e) {
+            // Rows were added concurrently (lookups or another instance): fall back to row by row
+            int inserted = 0;
+            for (GeocodedCity city : missing) {
+                try {
+                    city.setId(null);
+                    geocodedCityRepository.save(city);
+                    inserted++;
+                } catch (DataIntegrityViolationException duplicate) {
+                    // already present
+                }
+            }
+            return inserted;
+        }
+    }
+
+    /** Memory tier contents ({@code language|queryKey} → location), for the cache snapshot. */
+    Map<String, GeoLocation> memoryView() {
+        return memory.asMap();
+    }
+
+    /** Restores a memory entry from the cache snapshot; lookups made since startup win. */
+    void remember(String memoryKey, GeoLocation location) {
+        memory.asMap().putIfAbsent(memoryKey, location);
+    }
+
+    /** Lower-case, trimmed, inner whitespace collapsed: the lookup key for a city query. */
+    static String normalize(String city) {
+        if (city == null || city.trim().isEmpty()) {
+            throw new IllegalArgumentException("City name is required");
+        }
+        String normalized = city.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (normalized.length() > 200) {
+            throw new IllegalArgumentException("City name is too long");
+        }
+        return normalized;
+    }
+
+    @SuppressWarnings("unchecked")
+    private GeoLocation lookup(String cityName, String language) {
+        log.info("Geocoding city: {}", cityName);
+        try {
+            String geoUri = UriComponentsBuilder.fromHttpUrl(geocodingUrl)
+                    .queryParam("name", cityName)
+                    .queryParam("count", 1)
+                    .queryParam("language", language)
+                    .queryParam("format", "json")
+                    .toUriString();
+
+            Map<String, Object> geoResponse = restTemplate.getForObject(geoUri, Map.class);
+            if (geoResponse == null || geoResponse.get("results") == null) {
+                throw new IllegalArgumentException("City not found: " + cityName);
+            }
+
+            List<Map<String, Object>> results = (List<Map<String, Object>>) geoResponse.get("results");
+            if (results == null || results.isEmpty()) {
+                throw new IllegalArgumentException("City not found: " + cityName);
+            }
+
+            Map<String, Object> place = results.get(0);
+            return GeoLocation.builder()
+                    .name(place.get("name") != null ? String.valueOf(place.get("name")) : cityName)
+                    .country(place.get("country") != null ? String.valueOf(place.get("country")) : null)
+                    .latitude(((Number) place.get("latitude")).doubleValue())
+                    .longitude(((Number) place.get("longitude")).doubleValue())
+                    .build();
+
+        } catch (RestClientException e) {
+            log.error("Geocoding API failed for {}: {}", cityName, e.getMessage());
+            throw new UpstreamUnavailableException("External weather service is unavailable. Try again later.",
+                    RETRY_AFTER_SECONDS);
+        }
+    }
+
+    private static GeoLocation toLocation(GeocodedCity city) {
+        return GeoLocation.builder()
+                .name(city.getName())
+                .country(city.getCountry())
+                .latitude(city.getLatitude())
+                .longitude(city.getLongitude())
+                .build();
+    }
+
+    private static GeocodedCity toEntity(String queryKey, String language, GeoLocation location) {
+        return GeocodedCity.builder()
+                .queryKey(queryKey)
+                .language(language)
+                .name(location.getName())
+                .country(location.getCountry())
+                .latitude(location.getLatitude())
+                .longitude(location.getLongitude())
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.weather.service.impl;
+
+import com.example.cache.snapshot.SnapshotSection;
+import com.example.weather.dto.GeoLocation;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.cache.snapshot.SnapshotIO.*;
+
+/**
+ * Geocoding memory tier in the cache snapshot. The {@code geocoded_cities} table already survives
+ * restarts; restoring the memory tier saves the database round trip for every city after a deploy.
+ */
+@Component
+public class GeocodingSnapshotSection implements SnapshotSection {
+
+    private final GeocodingServiceImpl geocodingService;
+
+    public GeocodingSnapshotSection(GeocodingServiceImpl geocodingService) {
+        this.geocodingService = geocodingService;
+    }
+
+    @Override
+    public String getName() {
+        return "geocoding";
+    }
+
+    @Override
+    public int write(DataOutput out) throws IOException {
+        List<Map.Entry<String, GeoLocation>> entries = new ArrayList<>(geocodingService.memoryView().entrySet());
+        out.writeInt(entries.size());
+        for (Map.Entry<String, GeoLocation> entry : entries) {
+            GeoLocation location = entry.getValue();
+            out.writeUTF(entry.getKey());
+            writeString(out, location.getName());
+            writeString(out, location.getCountry());
+            out.writeDouble(location.getLatitude());
+            out.writeDouble(location.getLongitude());
+        }
+        return entries.size();
+    }
+
+    @Override
+    public int read(DataInput in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String memoryKey = in.readUTF();
+            geocodingService.remember(memoryKey, GeoLocation.builder()
+                    .name(readString(in))
+                    .country(readString(in))
+                    .latitude(in.readDouble())
+                    .longitude(in.readDouble())
+                    .build());
+        }
+        return count;
+    }
+}
@@ -1,116 +1,467 @@
 package com.example.weather.service.impl;
 
+import com.example.cache.HotKeyPrefetcher;
+import com.example.cache.StaleWhileRevalidateCache;
+import com.example.exception.UpstreamUnavailableException;
+import com.example.http.CircuitBreakerRegistry;
+import com.example.weather.dto.GeoLocation;
+import com.example.weather.dto.TileForecast;
+import com.example.weather.dto.WeatherBatchResponse;
 import com.example.weather.dto.WeatherDto;
+import com.example.weather.service.GeocodingService;
 import com.example.weather.service.WeatherService;
-import lombok.RequiredArgsConstructor;
+import com.example.weather.tile.ForecastTile;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Calls Open-Meteo (free, no API key):
- * 1) Geocoding API — city name → latitude/longitude
+ * 1) Geocoding API — city name → latitude/longitude (persisted, see {@link GeocodingServiceImpl})
  * 2) Forecast API  — coordinates → current weather
  *
  * Repository is NOT needed: we do not store weather rows in our DB.
  * RestTemplate = "axios for Java backend".
+ *
+ * Forecasts are kept in a stale-while-revalidate cache keyed by {@link ForecastTile}, so spelling
+ * variants and nearby districts share one upstream call; concurrent lookups for the same tile
+ * are coalesced, and a failing upstream keeps serving the last result until the hard TTL.
+ * Calls go through the {@code open-meteo} circuit breaker; while it is open (or a call fails)
+ * the last-known-good result is returned with {@code stale=true} and its age.
+ *
+ * Batches answer cached tiles directly, geocode unknown cities in parallel on a bounded pool and
+ * fetch all missing tiles with multi-coordinate forecast requests (one per
+ * {@code weather.batch.max-coordinates-per-request} tiles), all within one overall deadline.
+ * Those fetches are registered with the cache, so they coalesce with single lookups (and other
+ * batches) for the same tiles in either direction.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class WeatherServiceImpl implements WeatherService {
+public class WeatherServiceImpl implements WeatherService, DisposableBean {
+
+    private static final String CIRCUIT = "open-meteo";
+    private static final long RETRY_AFTER_SECONDS = 30;
+    private static final String CURRENT_FIELDS = "temperature_2m,relative_humidity_2m,weather_code,wind_speed_10m";
+    private static final String TIMED_OUT = "Timed out waiting for the weather service";
 
     private final RestTemplate restTemplate;
+    private final StaleWhileRevalidateCache<String, TileForecast> weatherCache;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final GeocodingService geocodingService;
+    private final HotKeyPrefetcher hotKeyPrefetcher;
 
-    @Value("${weather.geocoding-url:https://geocoding-api.open-meteo.com/v1/search}")
-    private String geocodingUrl;
+    /** Batch fan-out only; full queue fails the affected cities instead of blocking the request thread. */
+    private final ThreadPoolExecutor batchExecutor;
+
+    @Value("${weather.geocoding.language:en}")
+    private String geocodingLanguage;
 
     @Value("${weather.forecast-url:https://api.open-meteo.com/v1/forecast}")
     private String forecastUrl;
 
+    @Value("${weather.tile.resolution-degrees:0.1}")
+    private double tileResolution;
+
+    @Value("${weather.batch.deadline-ms:4000}")
+    private long batchDeadlineMs;
+
+    @Value("${weather.batch.max-coordinates-per-request:50}")
+    private int maxCoordinatesPerRequest;
+
+    public WeatherServiceImpl(RestTemplate restTemplate,
+                              StaleWhileRevalidateCache<String, TileForecast> weatherCache,
+                              CircuitBreakerRegistry circuitBreakers,
+                              GeocodingService geocodingService,
+                              HotKeyPrefetcher hotKeyPrefetcher,
+                              @Value("${weather.batch.threads:8}") int batchThreads,
+                              @Value("${weather.batch.queue-capacity:200}") int batchQueueCapacity) {
+        this.restTemplate = restTemplate;
+        this.weatherCache = weatherCache;
+        this.circuitBreakers = circuitBreakers;
+        this.geocodingService = geocodingService;
+        this.hotKeyPrefetcher = hotKeyPrefetcher;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("weather-batch-");
+        threadFactory.setDaemon(true);
+        this.batchExecutor = new ThreadPoolExecutor(batchThreads, batchThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchQueueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        hotKeyPrefetcher.register(weatherCache, key -> key, this::loadTile);
+    }
+
     @Override
-    @Cacheable(value = "weather", key = "#city.trim().toLowerCase()")
-    @SuppressWarnings("unchecked")
     public WeatherDto getCurrentWeather(String city) {
         if (city == null || city.trim().isEmpty()) {
             throw new IllegalArgumentException("City name is required");
         }
 
         String cityName = city.trim();
-        log.info("Fetching weather for city: {}", cityName);
 
+        // Step 1: city → coordinates (memory / database, upstream only for unknown cities)
+        GeoLocation location = geocodingService.resolve(cityName, geocodingLanguage);
+
+        // Step 2: coordinates → tile → current weather (cached per tile)
+        ForecastTile tile = ForecastTile.of(location.getLatitude(), location.getLongitude(), tileResolution);
+        String key = tile.key();
+        hotKeyPrefetcher.recordAccess(weatherCache.getName(), key);
         try {
-            // Step 1: city → coordinates
-            String geoUri = UriComponentsBuilder.fromHttpUrl(geocodingUrl)
-                    .queryParam("name", cityName)
-                    .queryParam("count", 1)
-                    .queryParam("language", "en")
-                    .queryParam("format", "json")
-                    .toUriString();
-
-            Map<String, Object> geoResponse = restTemplate.getForObject(geoUri, Map.class);
-            if (geoResponse == null || geoResponse.get("results") == null) {
-                throw new IllegalArgumentException("City not found: " + cityName);
+            TileForecast forecast = weatherCache.get(key, this::loadTile);
+            return toDto(location, forecast);
+        } catch (UpstreamUnavailableException e) {
+            StaleWhileRevalidateCache.Entry<TileForecast> lastKnownGood = weatherCache.peek(key);
+            if (lastKnownGood == null) {
+                throw e;
+            }
+            long ageSeconds = (System.currentTimeMillis() - lastKnownGood.getLoadedAt()) / 1000;
+            log.warn("Weather upstream unavailable ({}), serving {} from {}s ago", e.getMessage(), cityName, ageSeconds);
+            return toDto(location, lastKnownGood.getValue()).toBuilder()
+                    .stale(true)
+                    .ageSeconds(ageSeconds)
+                    .build();
+        }
+    }
+
+    @Override
+    public WeatherBatchResponse getCurrentWeather(List<String> cities) {
+        long deadline = System.currentTimeMillis() + batchDeadlineMs;
+
+        // Step 1: distinct cities → coordinates; only cities unknown to memory/DB go upstream, in parallel
+        Map<String, GeoLocation> locations = new HashMap<>();
+        Map<String, String> errors = new HashMap<>();
+        Map<String, CompletableFuture<GeoLocation>> geocoding = new LinkedHashMap<>();
+        for (String city : cities) {
+            String key = queryKey(city);
+            if (key == null || locations.containsKey(key) || geocoding.containsKey(key)) {
+                continue;
+            }
+            String cityName = city.trim();
+            GeoLocation known = geocodingService.findKnown(cityName, geocodingLanguage);
+            if (known != null) {
+                locations.put(key, known);
+            } else {
+                geocoding.put(key, submit(() -> geocodingService.resolve(cityName, geocodingLanguage)));
+            }
+        }
+
+        // Step 2: known cities → tiles; cached tiles are answered now, missing ones are fetched
+        // right away instead of waiting for the geocoding lookups
+        Map<String, String> tileKeys = new HashMap<>();
+        Map<String, TileForecast> forecasts = new HashMap<>();
+        Set<String> requested = new HashSet<>();
+        List<TileFetch> fetches = fetchMissingTiles(locations, tileKeys, forecasts, requested);
+
+        // Step 3: geocoded cities join as a second round of tile fetches
+        awaitAll(geocoding.values(), deadline);
+        Map<String, GeoLocation> geocoded = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<GeoLocation>> lookup : geocoding.entrySet()) {
+            String error = failureOf(lookup.getValue());
+            if (error == null) {
+                geocoded.put(lookup.getKey(), lookup.getValue().join());
+            } else {
+                errors.put(lookup.getKey(), error);
             }
+        }
+        locations.putAll(geocoded);
+        fetches.addAll(fetchMissingTiles(geocoded, tileKeys, forecasts, requested));
+        int cachedTiles = forecasts.size();
+
+        awaitAll(fetches.stream().map(TileFetch::getFuture).collect(Collectors.toList()), deadline);
+        Map<String, String> tileErrors = new HashMap<>();
+        for (TileFetch fetch : fetches) {
+            String error = failureOf(fetch.getFuture());
+            if (error == null) {
+                for (TileForecast forecast : fetch.getFuture().join()) {
+                    forecasts.put(forecast.getTile(), forecast);
+                }
+            } else {
+                for (String tileKey : fetch.getTileKeys()) {
+                    tileErrors.put(tileKey, error);
+                }
+            }
+        }
 
-            List<Map<String, Object>> results = (List<Map<String, Object>>) geoResponse.get("results");
-            if (results == null || results.isEmpty()) {
-                throw new IllegalArgumentException("City not found: " + cityName);
+        // Step 4: one result per requested city, in request order
+        List<WeatherBatchResponse.Result> results = new ArrayList<>(cities.size());
+        int failed = 0;
+        for (String city : cities) {
+            String key = queryKey(city);
+            WeatherBatchResponse.Result.ResultBuilder result = WeatherBatchResponse.Result.builder().city(city);
+            GeoLocation location = key == null ? null : locations.get(key);
+            if (location == null) {
+                result.error(key == null ? "City name is required" : errors.getOrDefault(key, TIMED_OUT));
+            } else {
+                String tileKey = tileKeys.get(key);
+                hotKeyPrefetcher.recordAccess(weatherCache.getName(), tileKey);
+                TileForecast forecast = forecasts.get(tileKey);
+                StaleWhileRevalidateCache.Entry<TileForecast> lastKnownGood =
+                        forecast == null ? weatherCache.peek(tileKey) : null;
+                if (forecast != null) {
+                    result.weather(toDto(location, forecast));
+                } else if (lastKnownGood != null) {
+                    result.weather(toDto(location, lastKnownGood.getValue()).toBuilder()
+                            .stale(true)
+                            .ageSeconds((System.currentTimeMillis() - lastKnownGood.getLoadedAt()) / 1000)
+                            .build());
+                } else {
+                    result.error(tileErrors.getOrDefault(tileKey, "Weather data unavailable"));
+                }
+            }
+            WeatherBatchResponse.Result built = result.build();
+            if (built.getError() != null) {
+                failed++;
             }
+            results.add(built);
+        }
 
-            Map<String, Object> place = results.get(0);
-            double latitude = ((Number) place.get("latitude")).doubleValue();
-            double longitude = ((Number) place.get("longitude")).doubleValue();
-            String resolvedCity = place.get("name") != null ? String.valueOf(place.get("name")) : cityName;
-            String country = place.get("country") != null ? String.valueOf(place.get("country")) : null;
+        log.info("Weather batch: {} cities, {} tiles from cache, {} loaded by {} fetches, {} failed",
+                cities.size(), cachedTiles, requested.size(), fetches.size(), failed);
+        return WeatherBatchResponse.builder()
+                .complete(failed == 0)
+                .failed(failed)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Resolves the tiles of {@code located} from the cache; tiles neither cached nor already
+     * {@code requested} are registered with the cache as in-flight loads and fetched in chunks of
+     * {@code maxCoordinatesPerRequest} on the batch pool. Tiles another request is already loading
+     * are joined instead of fetched again.
+     */
+    private List<TileFetch> fetchMissingTiles(Map<String, GeoLocation> located, Map<String, String> tileKeys,
+                                              Map<String, TileForecast> forecasts,
+                                              Set<String> requested) {
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, GeoLocation> entry : located.entrySet()) {
+            GeoLocation location = entry.getValue();
+            String key = ForecastTile.of(location.getLatitude(), location.getLongitude(), tileResolution).key();
+            tileKeys.put(entry.getKey(), key);
+            if (forecasts.containsKey(key) || requested.contains(key)) {
+                continue;
+            }
+            TileForecast cached = weatherCache.getIfPresent(key, this::loadTile);
+            if (cached != null) {
+                forecasts.put(key, cached);
+            } else {
+                missing.add(key);
+                requested.add(key);
+            }
+        }
 
-            // Step 2: coordinates → current weather
-            String weatherUri = UriComponentsBuilder.fromHttpUrl(forecastUrl)
-                    .queryParam("latitude", latitude)
-                    .queryParam("longitude", longitude)
-                    .queryParam("current", "temperature_2m,relative_humidity_2m,weather_code,wind_speed_10m")
-                    .queryParam("timezone", "auto")
-                    .toUriString();
+        StaleWhileRevalidateCache.BatchLoad<String, TileForecast> batch = weatherCache.batchLoad(missing);
+        List<TileFetch> fetches = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<TileForecast>> joined : batch.getJoined().entrySet()) {
+            CompletableFuture<List<TileForecast>> join = joined.getValue().thenApply(forecast -> forecast == null
+                    ? Collections.<TileForecast>emptyList() : Collections.singletonList(forecast));
+            fetches.add(new TileFetch(Collections.singletonList(joined.getKey()), join));
+        }
+        List<String> keys = batch.getKeys();
+        for (int from = 0; from < keys.size(); from += maxCoordinatesPerRequest) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + maxCoordinatesPerRequest));
+            CompletableFuture<List<TileForecast>> fetch = submit(() -> new ArrayList<>(batch.load(chunk,
+                    chunkKeys -> circuitBreakers.get(CIRCUIT).execute(() -> fetchForecasts(chunkKeys))).values()));
+            // Rejected by the pool or cancelled at the deadline before it started: release the keys
+            fetch.whenComplete((result, error) -> {
+                if (error != null) {
+                    batch.cancel(chunk);
+                }
+            });
+            fetches.add(new TileFetch(chunk, fetch));
+        }
+        return fetches;
+    }
+
+    @Override
+    public void destroy() {
+        batchExecutor.shutdownNow();
+    }
+
+    /** Cache loader: one tile through the circuit breaker. */
+    private TileForecast loadTile(String key) {
+        return circuitBreakers.get(CIRCUIT).execute(() -> fetchForecast(ForecastTile.fromKey(key)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private TileForecast fetchForecast(ForecastTile tile) {
+        log.info("Fetching weather for tile {}", tile);
+
+        try {
+            String weatherUri = forecastUri(String.valueOf(tile.centerLatitude()), String.valueOf(tile.centerLongitude()));
 
             Map<String, Object> weatherResponse = restTemplate.getForObject(weatherUri, Map.class);
             if (weatherResponse == null || weatherResponse.get("current") == null) {
-                throw new IllegalStateException("Weather data unavailable for: " + resolvedCity);
+                throw new UpstreamUnavailableException("Weather data unavailable for tile " + tile, RETRY_AFTER_SECONDS);
             }
 
-            Map<String, Object> current = (Map<String, Object>) weatherResponse.get("current");
-
-            Integer weatherCode = current.get("weather_code") != null
-                    ? ((Number) current.get("weather_code")).intValue()
-                    : null;
-
-            return WeatherDto.builder()
-                    .city(resolvedCity)
-                    .country(country)
-                    .latitude(latitude)
-                    .longitude(longitude)
-                    .temperatureC(asDouble(current.get("temperature_2m")))
-                    .humidityPercent(asInteger(current.get("relative_humidity_2m")))
-                    .windSpeedKmh(asDouble(current.get("wind_speed_10m")))
-                    .weatherCode(weatherCode)
-                    .description(describeWeatherCode(weatherCode))
-                    .observedAt(current.get("time") != null ? String.valueOf(current.get("time")) : null)
-                    .build();
+            return toForecast(tile, (Map<String, Object>) weatherResponse.get("current"));
 
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            throw e;
         } catch (RestClientException e) {
-            log.error("External weather API failed for {}: {}", cityName, e.getMessage());
-            throw new IllegalStateException("External weather service is unavailable. Try again later.");
+            log.error("External weather API failed for tile {}: {}", tile, e.getMessage());
+            throw new UpstreamUnavailableException("External weather service is unavailable. Try again later.",
+                    RETRY_AFTER_SECONDS);
+        }
+    }
+
+    /**
+     * One forecast request for several tiles (comma-separated coordinates). Open-Meteo answers with
+     * an array in request order, or a single object for one location. The cache stores the results
+     * as they arrive, so a fetch that finishes after the batch deadline still warms it.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, TileForecast> fetchForecasts(List<String> keys) {
+        log.info("Fetching weather for {} tiles in one request", keys.size());
+        List<ForecastTile> tiles = keys.stream().map(ForecastTile::fromKey).collect(Collectors.toList());
+
+        try {
+            String weatherUri = forecastUri(
+                    tiles.stream().map(t -> String.valueOf(t.centerLatitude())).collect(Collectors.joining(",")),
+                    tiles.stream().map(t -> String.valueOf(t.centerLongitude())).collect(Collectors.joining(",")));
+
+            Object weatherResponse = restTemplate.getForObject(weatherUri, Object.class);
+            List<Map<String, Object>> perLocation = weatherResponse instanceof List
+                    ? (List<Map<String, Object>>) weatherResponse
+                    : weatherResponse instanceof Map
+                    ? Collections.singletonList((Map<String, Object>) weatherResponse)
+                    : Collections.<Map<String, Object>>emptyList();
+            if (perLocation.size() != tiles.size()) {
+                throw new UpstreamUnavailableException("Weather data unavailable for " + tiles.size() + " tiles",
+                        RETRY_AFTER_SECONDS);
+            }
+
+            Map<String, TileForecast> forecasts = new HashMap<>();
+            for (int i = 0; i < tiles.size(); i++) {
+                Object current = perLocation.get(i) == null ? null : perLocation.get(i).get("current");
+                if (current instanceof Map) {
+                    forecasts.put(keys.get(i), toForecast(tiles.get(i), (Map<String, Object>) current));
+                }
+            }
+            return forecasts;
+
+        } catch (RestClientException e) {
+            log.error("External weather API failed for {} tiles: {}", tiles.size(), e.getMessage());
+            throw new UpstreamUnavailableException("External weather service is unavailable. Try again later.",
+                    RETRY_AFTER_SECONDS);
+        }
+    }
+
+    private String forecastUri(String latitudes, String longitudes) {
+        return UriComponentsBuilder.fromHttpUrl(forecastUrl)
+                .queryParam("latitude", latitudes)
+                .queryParam("longitude", longitudes)
+                .queryParam("current", CURRENT_FIELDS)
+                .queryParam("timezone", "auto")
+                .toUriString();
+    }
+
+    private TileForecast toForecast(ForecastTile tile, Map<String, Object> current) {
+        return TileForecast.builder()
+                .tile(tile.key())
+                .latitude(tile.centerLatitude())
+                .longitude(tile.centerLongitude())
+                .temperatureC(asDouble(current.get("temperature_2m")))
+                .humidityPercent(asInteger(current.get("relative_humidity_2m")))
+                .windSpeedKmh(asDouble(current.get("wind_speed_10m")))
+                .weatherCode(asInteger(current.get("weather_code")))
+                .observedAt(current.get("time") != null ? String.valueOf(current.get("time")) : null)
+                .build();
+    }
+
+    /** Batch dedup key: the geocoding lookup key, or {@code null} for a blank or overlong name. */
+    private static String queryKey(String city) {
+        try {
+            return GeocodingServiceImpl.normalize(city);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, batchExecutor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new UpstreamUnavailableException(
+                    "Weather service is busy. Try again later.", RETRY_AFTER_SECONDS));
+            return rejected;
+        }
+    }
+
+    private static void awaitAll(Collection<? extends CompletableFuture<?>> futures, long deadline) {
+        if (futures.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Inspected per future: failed ones carry their own exception, unfinished ones time out
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
+    /** {@code null} when the task succeeded, otherwise the message to report for the affected cities. */
+    private static String failureOf(CompletableFuture<?> future) {
+        if (!future.isDone()) {
+            // Keeps running (and caching) in the background; the batch just stops waiting for it
+            future.cancel(false);
+            return TIMED_OUT;
+        }
+        try {
+            future.join();
+            return null;
+        } catch (CancellationException e) {
+            return TIMED_OUT;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IllegalArgumentException || cause instanceof UpstreamUnavailableException) {
+                return cause.getMessage();
+            }
+            log.warn("Weather batch lookup failed: {}", cause.toString());
+            return "Weather lookup failed";
+        }
+    }
+
+    private WeatherDto toDto(GeoLocation location, TileForecast forecast) {
+        return WeatherDto.builder()
+                .city(location.getName())
+                .country(location.getCountry())
+                .latitude(location.getLatitude())
+                .longitude(location.getLongitude())
+                .temperatureC(forecast.getTemperatureC())
+                .humidityPercent(forecast.getHumidityPercent())
+                .windSpeedKmh(forecast.getWindSpeedKmh())
+                .weatherCode(forecast.getWeatherCode())
+                .description(describeWeatherCode(forecast.getWeatherCode()))
+                .observedAt(forecast.getObservedAt())
+                .tile(forecast.getTile())
+                .build();
+    }
+
     private Double asDouble(Object value) {
         return value instanceof Number ? ((Number) value).doubleValue() : null;
     }
@@ -133,4 +484,22 @@ public class WeatherServiceImpl implements WeatherService {
         if (code <= 99) return "Momaqaldiroq";
         return "Noma'lum";
     }
+
+    private static final class TileFetch {
+        private final List<String> tileKeys;
+        private final CompletableFuture<List<TileForecast>> future;
+
+        TileFetch(List<String> tileKeys, CompletableFuture<List<TileForecast>> future) {
+            this.tileKeys = tileKeys;
+            this.future = future;
+        }
+
+        List<String> getTileKeys() {
+            return tileKeys;
+        }
+
+        CompletableFuture<List<TileForecast>> getFuture() {
+            return future;
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.weather.tile;
+
+import java.math.BigDecimal;
+
+/**
+ * Square lat/lon cell of {@code resolution} degrees. Every location inside a tile is served the
+ * forecast fetched for the tile centre, so nearby cities and spelling variants share one
+ * upstream call. At the default 0.1° a tile is roughly 11 × 8 km in Central Asia, about the
+ * grid spacing of the Open-Meteo models.
+ */
+public final class ForecastTile {
+
+    // Guards against 41.3 / 0.1 = 412.99999... landing in the wrong cell
+    private static final double EPSILON = 1e-9;
+
+    private final double resolution;
+    private final long latIndex;
+    private final long lonIndex;
+
+    private ForecastTile(double resolution, long latIndex, long lonIndex) {
+        this.resolution = resolution;
+        this.latIndex = latIndex;
+        this.lonIndex = lonIndex;
+    }
+
+    public static ForecastTile of(double latitude, double longitude, double resolution) {
+        if (!(resolution > 0) || resolution > 10) {
+            throw new IllegalArgumentException("Tile resolution must be in (0, 10] degrees: " + resolution);
+        }
+        return new ForecastTile(resolution,
+                (long) Math.floor(latitude / resolution + EPSILON),
+                (long) Math.floor(longitude / resolution + EPSILON));
+    }
+
+    /** Inverse of {@link #key()}. */
+    public static ForecastTile fromKey(String key) {
+        String[] parts = key.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Not a forecast tile key: " + key);
+        }
+        try {
+            return new ForecastTile(Double.parseDouble(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a forecast tile key: " + key);
+        }
+    }
+
+    /** Stable cache key, e.g. {@code 0.1:412:692}. */
+    public String key() {
+        return BigDecimal.valueOf(resolution).stripTrailingZeros().toPlainString() + ":" + latIndex + ":" + lonIndex;
+    }
+
+    public double centerLatitude() {
+        return round((latIndex + 0.5) * resolution);
+    }
+
+    public double centerLongitude() {
+        return round((lonIndex + 0.5) * resolution);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ForecastTile)) return false;
+        ForecastTile that = (ForecastTile) o;
+        return Double.compare(resolution, that.resolution) == 0 && latIndex == that.latIndex && lonIndex == that.lonIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return key().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1e6) / 1e6;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.weather.tile;
+
+import com.example.cache.StaleWhileRevalidateCache;
+import com.example.cache.snapshot.SwrSnapshotSection;
+import com.example.weather.dto.TileForecast;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static com.example.cache.snapshot.SnapshotIO.*;
+
+/** Weather tile forecasts in the cache snapshot. */
+@Component
+public class TileForecastSnapshotSection extends SwrSnapshotSection<TileForecast> {
+
+    public TileForecastSnapshotSection(StaleWhileRevalidateCache<String, TileForecast> weatherCache) {
+        super(weatherCache);
+    }
+
+    @Override
+    protected void writeValue(DataOutput out, TileForecast forecast) throws IOException {
+        writeString(out, forecast.getTile());
+        writeDouble(out, forecast.getLatitude());
+        writeDouble(out, forecast.getLongitude());
+        writeDouble(out, forecast.getTemperatureC());
+        writeInteger(out, forecast.getHumidityPercent());
+        writeDouble(out, forecast.getWindSpeedKmh());
+        writeInteger(out, forecast.getWeatherCode());
+        writeString(out, forecast.getObservedAt());
+    }
+
+    @Override
+    protected TileForecast readValue(DataInput in) throws IOException {
+        return TileForecast.builder()
+                .tile(readString(in))
+                .latitude(readDouble(in))
+                .longitude(readDouble(in))
+                .temperatureC(readDouble(in))
+                .humidityPercent(readInteger(in))
+                .windSpeedKmh(readDouble(in))
+                .weatherCode(readInteger(in))
+                .observedAt(readString(in))
+                .build();
+    }
+}
@@ -11,6 +11,7 @@ import com.example.workflow.service.BpmnPromptGenerator;
 import com.example.workflow.service.WorkflowProcessService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -48,6 +49,7 @@ public class WorkflowProcessServiceImpl implements WorkflowProcessService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "workflows", key = "'all'")
     public List<WorkflowProcessDto> getAll() {
         return repository.findAllByOrderByNameAsc()
                 .stream().map(mapper::toDto).collect(Collectors.toList());
@@ -55,12 +57,14 @@ public class WorkflowProcessServiceImpl implements WorkflowProcessService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "workflows", key = "'id:' + #id")
     public WorkflowProcessDto getById(Long id) {
         return mapper.toDto(findOrThrow(id));
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "workflows", key = "'key:' + #key")
     public WorkflowProcessDto getByKey(String key) {
         return mapper.toDto(repository.findByProcessKey(key)
                 .orElseThrow(() -> new EntityNotFoundException("Process not found: " + key)));
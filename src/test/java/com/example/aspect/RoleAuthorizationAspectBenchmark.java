@@ -0,0 +1,163 @@
+package com.example.aspect;
+
+import com.example.annotation.RequireRole;
+import com.example.exception.InsufficientPrivilegesException;
+import com.example.security.UserPrincipal;
+import com.example.user.enums.UserRole;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link RequireRole} call through the aspect proxy: with the principal the JWT filter
+ * already resolved, and with the previous aspect that loaded the user (and its EAGER roles join)
+ * on every call. The baseline queries an in-process H2 database, so it is a lower bound for a
+ * round trip to PostgreSQL. Not a test: run {@link #main}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleAuthorizationAspectBenchmark {
+
+    private static final String EMAIL = "admin@example.com";
+
+    private Connection connection;
+    private Guarded resolvedPrincipal;
+    private Guarded perCallLookup;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:role-benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255) UNIQUE, role VARCHAR(32))");
+            statement.execute("CREATE TABLE roles (id BIGINT PRIMARY KEY, name VARCHAR(64))");
+            statement.execute("CREATE TABLE user_roles (user_id BIGINT, role_id BIGINT)");
+            statement.execute("INSERT INTO users VALUES (1, '" + EMAIL + "', 'ADMIN')");
+            statement.execute("INSERT INTO roles VALUES (1, 'AUDITOR')");
+            statement.execute("INSERT INTO user_roles VALUES (1, 1)");
+        }
+
+        AspectJProxyFactory resolved = new AspectJProxyFactory(new Guarded());
+        resolved.addAspect(new RoleAuthorizationAspect());
+        resolvedPrincipal = resolved.getProxy();
+
+        AspectJProxyFactory lookup = new AspectJProxyFactory(new Guarded());
+        lookup.addAspect(new PerCallLookupAspect(connection.prepareStatement(
+                "SELECT u.id, u.role, r.name FROM users u"
+                        + " LEFT JOIN user_roles ur ON ur.user_id = u.id"
+                        + " LEFT JOIN roles r ON r.id = ur.role_id WHERE u.email = ?")));
+        perCallLookup = lookup.getProxy();
+
+        UserPrincipal principal = new UserPrincipal(1L, EMAIL, "hash", UserRole.ADMIN, 0L,
+                Arrays.asList(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_AUDITOR")),
+                Collections.singletonList("AUDITOR"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        SecurityContextHolder.clearContext();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void resolvedPrincipal() {
+        resolvedPrincipal.adminOnly();
+    }
+
+    @Benchmark
+    public void perCallLookup() {
+        perCallLookup.adminOnly();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RoleAuthorizationAspectBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public static class Guarded {
+
+        @RequireRole(UserRole.ADMIN)
+        public void adminOnly() {
+        }
+    }
+
+    /** The aspect this replaced, kept as the baseline: one users query per guarded call. */
+    @Aspect
+    public static class PerCallLookupAspect {
+
+        private final PreparedStatement findByEmail;
+
+        PerCallLookupAspect(PreparedStatement findByEmail) {
+            this.findByEmail = findByEmail;
+        }
+
+        @Before("@annotation(requireRole)")
+        public void checkRole(JoinPoint joinPoint, RequireRole requireRole) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !authentication.isAuthenticated()) {
+                throw new InsufficientPrivilegesException("Authentication required");
+            }
+            UserRole userRole = findRole(authentication.getName());
+            for (UserRole role : requireRole.value()) {
+                if (userRole == role) {
+                    return;
+                }
+            }
+            throw new InsufficientPrivilegesException("Insufficient privileges");
+        }
+
+        private UserRole findRole(String email) {
+            try {
+                findByEmail.setString(1, email);
+                try (ResultSet rows = findByEmail.executeQuery()) {
+                    UserRole role = null;
+                    while (rows.next()) {
+                        role = UserRole.valueOf(rows.getString(2));
+                    }
+                    if (role == null) {
+                        throw new InsufficientPrivilegesException("User not found");
+                    }
+                    return role;
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
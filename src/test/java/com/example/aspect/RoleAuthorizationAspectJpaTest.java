@@ -0,0 +1,109 @@
+package com.example.aspect;
+
+import com.example.role.entity.Role;
+import com.example.security.CustomUserDetailsService;
+import com.example.security.PrincipalCache;
+import com.example.security.UserPrincipal;
+import com.example.user.entity.User;
+import com.example.user.enums.UserRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the JDBC statements Hibernate actually prepares while guarded calls run through the
+ * aspect proxy, so a query from any repository or lazy association would show up, not just
+ * {@code findByEmail}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({PrincipalCache.class, CustomUserDetailsService.class, RoleAuthorizationAspect.class,
+        RoleAuthorizationAspectJpaTest.Config.class})
+class RoleAuthorizationAspectJpaTest {
+
+    private static final String EMAIL = "guarded-admin@example.com";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private RoleAuthorizationAspectTest.Guarded guarded;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void guardedCallsIssueNoStatementsOnceThePrincipalIsCached() {
+        Role auditor = new Role();
+        auditor.setName("Auditor");
+        entityManager.persist(auditor);
+        User user = User.builder().name("Guarded Admin").email(EMAIL).password("hash").role(UserRole.ADMIN).build();
+        user.setRoles(new HashSet<>(Collections.singletonList(auditor)));
+        entityManager.persistAndFlush(user);
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled());
+        statistics.clear();
+        userDetailsService.loadUser(EMAIL, 0L);
+        assertTrue(statistics.getPrepareStatementCount() > 0, "the first request loads the user");
+
+        statistics.clear();
+        for (int request = 0; request < 10; request++) {
+            // what the JWT filter does on every request
+            UserPrincipal principal = userDetailsService.loadUser(EMAIL, 0L);
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+            guarded.adminOnly();
+            guarded.auditor();
+            SecurityContextHolder.clearContext();
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "statements across 10 guarded requests");
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        RoleAuthorizationAspectTest.Guarded guarded() {
+            return new RoleAuthorizationAspectTest.Guarded();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.aspect;
+
+import com.example.annotation.RequireRole;
+import com.example.exception.InsufficientPrivilegesException;
+import com.example.security.UserPrincipal;
+import com.example.user.enums.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoleAuthorizationAspectTest {
+
+    private final RoleAuthorizationAspect aspect = new RoleAuthorizationAspect();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void primaryEnumRoleIsAccepted() throws Exception {
+        authenticate(UserRole.ADMIN);
+        assertDoesNotThrow(() -> aspect.checkRole(null, annotation("adminOnly")));
+    }
+
+    @Test
+    void dynamicRoleNamedAfterAnEnumRoleDoesNotSatisfyIt() throws Exception {
+        authenticate(UserRole.USER, "ADMIN");
+        RequireRole requireRole = annotation("adminOnly");
+        assertThrows(InsufficientPrivilegesException.class, () -> aspect.checkRole(null, requireRole));
+    }
+
+    @Test
+    void enumRoleDoesNotSatisfyADynamicRoleRequirement() throws Exception {
+        authenticate(UserRole.HR);
+        RequireRole requireRole = annotation("auditorOrHr");
+        assertThrows(InsufficientPrivilegesException.class, () -> aspect.checkRole(null, requireRole));
+    }
+
+    @Test
+    void dynamicRoleNamesAreMatchedCaseInsensitively() throws Exception {
+        authenticate(UserRole.USER, "AUDITOR");
+        assertDoesNotThrow(() -> aspect.checkRole(null, annotation("auditor")));
+    }
+
+    @Test
+    void eitherKindOfRequirementIsEnough() throws Exception {
+        authenticate(UserRole.USER, "DIRECTOR");
+        assertDoesNotThrow(() -> aspect.checkRole(null, annotation("hrOrAdmin")));
+    }
+
+    @Test
+    void missingRoleIsRejected() throws Exception {
+        authenticate(UserRole.USER);
+        RequireRole requireRole = annotation("adminOnly");
+        assertThrows(InsufficientPrivilegesException.class, () -> aspect.checkRole(null, requireRole));
+    }
+
+    @Test
+    void unauthenticatedCallerIsRejected() throws Exception {
+        RequireRole requireRole = annotation("adminOnly");
+        assertThrows(InsufficientPrivilegesException.class, () -> aspect.checkRole(null, requireRole));
+    }
+
+    @Test
+    void principalWithoutResolvedRolesIsRejected() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user@example.com", null, Arrays.asList(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        RequireRole requireRole = annotation("adminOnly");
+        assertThrows(InsufficientPrivilegesException.class, () -> aspect.checkRole(null, requireRole));
+    }
+
+    private void authenticate(UserRole role, String... dynamicRoles) {
+        List<SimpleGrantedAuthority> granted = new ArrayList<>();
+        granted.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+        for (String dynamicRole : dynamicRoles) {
+            granted.add(new SimpleGrantedAuthority("ROLE_" + dynamicRole));
+        }
+        UserPrincipal principal = new UserPrincipal(1L, "user@example.com", "hash", role, 0L, granted,
+                Arrays.asList(dynamicRoles));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private RequireRole annotation(String methodName) throws NoSuchMethodException {
+        return Guarded.class.getDeclaredMethod(methodName).getAnnotation(RequireRole.class);
+    }
+
+    static class Guarded {
+
+        @RequireRole(UserRole.ADMIN)
+        public void adminOnly() {
+        }
+
+        @RequireRole(value = {UserRole.HR, UserRole.ADMIN}, roles = "DIRECTOR")
+        public void hrOrAdmin() {
+        }
+
+        @RequireRole(roles = "auditor")
+        public void auditor() {
+        }
+
+        @RequireRole(roles = {"auditor", "hr"})
+        public void auditorOrHr() {
+        }
+    }
+}
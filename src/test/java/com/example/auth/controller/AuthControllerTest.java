@@ -0,0 +1,98 @@
+package com.example.auth.controller;
+
+import com.example.auth.dto.AuthResponse;
+import com.example.auth.dto.RefreshTokenRequest;
+import com.example.auth.ratelimit.AuthThrottle;
+import com.example.auth.service.AuthService;
+import com.example.auth.service.OAuth2Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private OAuth2Service oAuth2Service;
+
+    @Mock
+    private AuthThrottle authThrottle;
+
+    @InjectMocks
+    private AuthController controller;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(controller, "refreshExpirationMs", 1_209_600_000L);
+    }
+
+    @Test
+    void oauthCallback_refreshTokenGoesInAnHttpOnlyCookieNotTheUrl() {
+        when(oAuth2Service.processGoogleOAuth2("code")).thenReturn(tokens("refresh-1"));
+
+        ResponseEntity<Void> response = controller.googleOAuth2Callback("code");
+
+        assertEquals(302, response.getStatusCodeValue());
+        String location = response.getHeaders().getFirst(HttpHeaders.LOCATION);
+        assertFalse(location.contains("refresh-1"), location);
+        assertFalse(location.contains("refreshToken"), location);
+        String cookie = response.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertTrue(cookie.startsWith(AuthController.REFRESH_COOKIE + "=refresh-1"), cookie);
+        assertTrue(cookie.contains("HttpOnly"), cookie);
+        assertTrue(cookie.contains("Secure"), cookie);
+        assertTrue(cookie.contains("SameSite=Strict"), cookie);
+        assertTrue(cookie.contains("Path=/api/auth"), cookie);
+    }
+
+    @Test
+    void refresh_fromCookie_rotatesIntoTheCookieAndKeepsItOutOfTheBody() {
+        when(authService.refresh("refresh-1")).thenReturn(tokens("refresh-2"));
+
+        ResponseEntity<AuthResponse> response = controller.refresh(null, "refresh-1");
+
+        assertNull(response.getBody().getRefreshToken());
+        assertEquals("access", response.getBody().getToken());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.SET_COOKIE)
+                .startsWith(AuthController.REFRESH_COOKIE + "=refresh-2"));
+    }
+
+    @Test
+    void refresh_fromBody_staysInTheBody() {
+        when(authService.refresh("refresh-1")).thenReturn(tokens("refresh-2"));
+
+        ResponseEntity<AuthResponse> response = controller.refresh(
+                RefreshTokenRequest.builder().refreshToken("refresh-1").build(), null);
+
+        assertEquals("refresh-2", response.getBody().getRefreshToken());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void logout_revokesTheCookieTokenAndClearsTheCookie() {
+        ResponseEntity<Void> response = controller.logout("Bearer access", null, "refresh-1");
+
+        verify(authService).logout("access", "refresh-1");
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.SET_COOKIE).contains("Max-Age=0"));
+    }
+
+    private AuthResponse tokens(String refreshToken) {
+        return AuthResponse.builder()
+                .token("access")
+                .refreshToken(refreshToken)
+                .email("user@example.com")
+                .message("ok")
+                .build();
+    }
+}
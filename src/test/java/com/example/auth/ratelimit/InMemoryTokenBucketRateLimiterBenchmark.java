@@ -0,0 +1,74 @@
+package com.example.auth.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of one rate-limit check: against {@code keys} known keys, and for a key never seen before
+ * once the limiter is at its cap (sweep plus eviction of the coldest key). Not a test: run
+ * {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class InMemoryTokenBucketRateLimiterBenchmark {
+
+    private static final int MAX_KEYS = 100_000;
+
+    @Param({"1", "1024"})
+    public int keys;
+
+    private final AtomicLong unseen = new AtomicLong();
+    private InMemoryTokenBucketRateLimiter known;
+    private InMemoryTokenBucketRateLimiter full;
+    private String[] keyNames;
+
+    @Setup
+    public void setUp() {
+        known = new InMemoryTokenBucketRateLimiter(10, 100, MAX_KEYS);
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "192.168." + (i / 256) + "." + (i % 256);
+            known.tryAcquire(keyNames[i]);
+        }
+        full = new InMemoryTokenBucketRateLimiter(10, 60_000, keys);
+        for (int i = 0; i < keys; i++) {
+            full.tryAcquire(keyNames[i]);
+        }
+    }
+
+    @Benchmark
+    public long knownKey() {
+        return known.tryAcquire(keyNames[ThreadLocalRandom.current().nextInt(keyNames.length)]);
+    }
+
+    @Benchmark
+    public long newKeyAtCap() {
+        return full.tryAcquire("10.0." + unseen.incrementAndGet());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InMemoryTokenBucketRateLimiterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.auth.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    @Test
+    void grantsBurstThenRefillsOnePermitPerInterval() {
+        InMemoryTokenBucketRateLimiter limiter = new InMemoryTokenBucketRateLimiter(3, 1000, 100, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(1000, limiter.tryAcquire("1.2.3.4"));
+
+        clock.addAndGet(400);
+        assertEquals(600, limiter.tryAcquire("1.2.3.4"));
+
+        clock.addAndGet(600);
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertTrue(limiter.tryAcquire("1.2.3.4") > 0);
+
+        // Other keys are independent
+        assertEquals(0, limiter.tryAcquire("5.6.7.8"));
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws Exception {
+        int capacity = 500;
+        InMemoryTokenBucketRateLimiter limiter = new InMemoryTokenBucketRateLimiter(capacity, 60_000, 100, clock::get);
+        int threads = 16;
+        int attemptsPerThread = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (limiter.tryAcquire("victim@example.com") == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(capacity, granted);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void sweepDropsIdleKeysAndKeepsActiveOnes() {
+        InMemoryTokenBucketRateLimiter limiter = new InMemoryTokenBucketRateLimiter(2, 1000, 100, clock::get);
+        limiter.tryAcquire("idle");
+        limiter.tryAcquire("active");
+        assertEquals(2, limiter.trackedKeys());
+
+        clock.addAndGet(1500);
+        limiter.tryAcquire("active");
+        clock.addAndGet(600);
+        limiter.sweep();
+
+        assertEquals(1, limiter.trackedKeys());
+
+        clock.addAndGet(5000);
+        limiter.sweep();
+        assertEquals(0, limiter.trackedKeys());
+    }
+
+    @Test
+    void newKeyAtTheCapEvictsTheColdestAndGetsItsOwnBucket() {
+        InMemoryTokenBucketRateLimiter limiter = new InMemoryTokenBucketRateLimiter(2, 1000, 3, clock::get);
+        limiter.tryAcquire("10.0.0.1");
+        clock.addAndGet(100);
+        limiter.tryAcquire("10.0.0.2");
+        clock.addAndGet(100);
+        limiter.tryAcquire("10.0.0.3");
+        clock.addAndGet(100);
+
+        assertEquals(0, limiter.tryAcquire("newcomer-1"));
+        assertEquals(0, limiter.tryAcquire("newcomer-1"));
+        assertTrue(limiter.tryAcquire("newcomer-1") > 0);
+        assertEquals(3, limiter.trackedKeys());
+
+        // A second newcomer is not starved by the first one's drained bucket
+        assertEquals(0, limiter.tryAcquire("newcomer-2"));
+        assertEquals(0, limiter.tryAcquire("newcomer-2"));
+        assertEquals(3, limiter.trackedKeys());
+
+        // The most recent established key kept its partly drained bucket
+        assertEquals(0, limiter.tryAcquire("10.0.0.3"));
+        assertTrue(limiter.tryAcquire("10.0.0.3") > 0);
+    }
+
+    @Test
+    void idleKeysAreDroppedBeforeAnActiveKeyIsEvicted() {
+        InMemoryTokenBucketRateLimiter limiter = new InMemoryTokenBucketRateLimiter(2, 1000, 2, clock::get);
+        limiter.tryAcquire("idle");
+        clock.addAndGet(100);
+        limiter.tryAcquire("active");
+        clock.addAndGet(1800);
+        limiter.tryAcquire("active");
+        clock.addAndGet(200);
+
+        assertEquals(0, limiter.tryAcquire("newcomer"));
+        assertEquals(2, limiter.trackedKeys());
+
+        // 1.2 permits left: evicting it would have handed out a full bucket instead
+        assertEquals(0, limiter.tryAcquire("active"));
+        assertEquals(800, limiter.tryAcquire("active"));
+    }
+}
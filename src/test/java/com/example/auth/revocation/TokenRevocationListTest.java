@@ -0,0 +1,86 @@
+package com.example.auth.revocation;
+
+import com.example.auth.entity.RevokedToken;
+import com.example.auth.repository.RevokedTokenRepository;
+import com.example.security.PrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+    private static final LocalDateTime EXPIRES = LocalDateTime.now().plusMinutes(15);
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        when(revokedTokenRepository.findActiveJtis(any(LocalDateTime.class))).thenReturn(Collections.<String>emptyList());
+        revocationList = new TokenRevocationList(revokedTokenRepository, principalCache, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(revocationList, "expectedEntries", 1_000);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.01);
+        revocationList.init();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void revocationOutsideATransactionIsSeenAtOnce() {
+        revocationList.revokeToken("jti-1", EXPIRES);
+
+        assertTrue(revocationList.isRevoked("jti-1"));
+        verify(revokedTokenRepository, times(1)).existsByJti("jti-1");
+    }
+
+    @Test
+    void revocationIsOnlyMirroredAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        revocationList.revokeToken("jti-1", EXPIRES);
+
+        // Not committed yet: the filter still answers "not revoked" without a lookup
+        assertFalse(revocationList.isRevoked("jti-1"));
+        verify(revokedTokenRepository, times(1)).existsByJti("jti-1");
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertTrue(revocationList.isRevoked("jti-1"));
+        verify(revokedTokenRepository, times(1)).existsByJti("jti-1");
+    }
+
+    @Test
+    void rolledBackRevocationLeavesNoEntry() {
+        TransactionSynchronizationManager.initSynchronization();
+        revocationList.revokeToken("jti-1", EXPIRES);
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertFalse(revocationList.isRevoked("jti-1"));
+    }
+}
@@ -4,7 +4,8 @@ import com.example.auth.dto.AuthResponse;
 import com.example.auth.dto.LoginRequest;
 import com.example.auth.dto.RegisterRequest;
 import com.example.auth.exception.InvalidCredentialsException;
-import com.example.security.JwtUtil;
+import com.example.auth.service.TokenService;
+import com.example.exception.ServiceUnavailableException;
 import com.example.user.entity.User;
 import com.example.user.enums.UserRole;
 import com.example.user.mapper.UserMapper;
@@ -16,12 +17,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,7 +38,7 @@ class AuthServiceImplTest {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private JwtUtil jwtUtil;
+    private TokenService tokenService;
 
     @Mock
     private UserService userService;
@@ -61,13 +65,18 @@ class AuthServiceImplTest {
 
         when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
         when(passwordEncoder.matches("password123", "encoded")).thenReturn(true);
-        when(jwtUtil.generateToken("user@example.com")).thenReturn("jwt-token");
+        when(tokenService.issueTokens(user, "Login successful")).thenReturn(AuthResponse.builder()
+                .token("jwt-token")
+                .refreshToken("refresh-token")
+                .email("user@example.com")
+                .build());
 
         AuthResponse response = authService.login(request);
 
         assertEquals("jwt-token", response.getToken());
+        assertEquals("refresh-token", response.getRefreshToken());
         assertEquals("user@example.com", response.getEmail());
-        verify(jwtUtil).generateToken("user@example.com");
+        verify(tokenService).issueTokens(user, "Login successful");
     }
 
     @Test
@@ -87,7 +96,7 @@ class AuthServiceImplTest {
         when(passwordEncoder.matches("wrong", "encoded")).thenReturn(false);
 
         assertThrows(InvalidCredentialsException.class, () -> authService.login(request));
-        verify(jwtUtil, never()).generateToken(anyString());
+        verify(tokenService, never()).issueTokens(any(User.class), anyString());
     }
 
     @Test
@@ -133,11 +142,48 @@ class AuthServiceImplTest {
             saved.setId(1L);
             return saved;
         });
-        when(jwtUtil.generateToken("new@example.com")).thenReturn("new-token");
+        when(tokenService.issueTokens(any(User.class), eq("User registered successfully")))
+                .thenAnswer(invocation -> AuthResponse.builder()
+                        .token("new-token")
+                        .email(((User) invocation.getArgument(0)).getEmail())
+                        .build());
 
         AuthResponse response = authService.register(request);
 
         assertEquals("new-token", response.getToken());
         assertEquals("new@example.com", response.getEmail());
     }
+
+    @Test
+    void login_hashingPoolSaturated_propagatesServiceUnavailable() {
+        LoginRequest request = LoginRequest.builder()
+                .email("user@example.com")
+                .password("password123")
+                .build();
+
+        User user = User.builder()
+                .email("user@example.com")
+                .password("encoded")
+                .role(UserRole.USER)
+                .build();
+
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "encoded"))
+                .thenThrow(new ServiceUnavailableException("Authentication service is busy. Please retry shortly.", 2));
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () -> authService.login(request));
+        assertEquals(2, ex.getRetryAfterSeconds());
+        verify(tokenService, never()).issueTokens(any(User.class), anyString());
+    }
+
+    @Test
+    void hashingMethods_runOutsideATransaction() throws NoSuchMethodException {
+        // A surrounding transaction would hold a pooled connection while BCrypt queues
+        for (String name : new String[]{"login", "register", "createAdmin"}) {
+            Class<?> requestType = "login".equals(name) ? LoginRequest.class : RegisterRequest.class;
+            Transactional tx = AuthServiceImpl.class.getMethod(name, requestType).getAnnotation(Transactional.class);
+            assertNotNull(tx, name);
+            assertEquals(Propagation.NOT_SUPPORTED, tx.propagation(), name);
+        }
+    }
 }
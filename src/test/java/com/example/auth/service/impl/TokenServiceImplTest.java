@@ -0,0 +1,152 @@
+package com.example.auth.service.impl;
+
+import com.example.auth.dto.AuthResponse;
+import com.example.auth.entity.RefreshToken;
+import com.example.auth.exception.InvalidCredentialsException;
+import com.example.auth.repository.RefreshTokenRepository;
+import com.example.auth.revocation.TokenRevocationList;
+import com.example.security.JwtUtil;
+import com.example.security.PrincipalCache;
+import com.example.user.entity.User;
+import com.example.user.enums.UserRole;
+import com.example.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceImplTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TokenRevocationList revocationList;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @InjectMocks
+    private TokenServiceImpl tokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenService, "refreshExpirationMs", 60_000L);
+        ReflectionTestUtils.setField(tokenService, "reuseGraceMs", 10_000L);
+        user = User.builder()
+                .id(1L)
+                .email("user@example.com")
+                .role(UserRole.USER)
+                .build();
+    }
+
+    @Test
+    void issueTokens_returnsAccessAndRefreshToken() {
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jwtUtil.generateToken("user@example.com", 0L)).thenReturn("access-token");
+        when(jwtUtil.getExpirationMs()).thenReturn(900_000L);
+
+        AuthResponse response = tokenService.issueTokens(user, "Login successful");
+
+        assertEquals("access-token", response.getToken());
+        assertNotNull(response.getRefreshToken());
+        assertEquals(900L, response.getExpiresIn());
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        // Only the hash is stored
+        assertNotEquals(response.getRefreshToken(), saved.getValue().getTokenHash());
+        assertEquals(64, saved.getValue().getTokenHash().length());
+    }
+
+    @Test
+    void refresh_rotatesTokenWithinTheSameFamily() {
+        RefreshToken current = RefreshToken.builder()
+                .id(10L).userId(1L).familyId("family-1").tokenHash("h")
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build();
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken saved = invocation.getArgument(0);
+            saved.setId(11L);
+            return saved;
+        });
+        when(refreshTokenRepository.markRotated(eq(10L), eq(11L), any(LocalDateTime.class))).thenReturn(1);
+        when(jwtUtil.generateToken("user@example.com", 0L)).thenReturn("new-access");
+
+        AuthResponse response = tokenService.refresh("old-refresh");
+
+        assertEquals("new-access", response.getToken());
+        assertNotEquals("old-refresh", response.getRefreshToken());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals("family-1", saved.getValue().getFamilyId());
+    }
+
+    @Test
+    void refresh_reusedRotatedToken_revokesEverySession() {
+        RefreshToken reused = RefreshToken.builder()
+                .id(10L).userId(1L).familyId("family-1").tokenHash("h")
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .revokedAt(LocalDateTime.now().minusMinutes(5))
+                .replacedById(11L)
+                .build();
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(reused));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertThrows(InvalidCredentialsException.class, () -> tokenService.refresh("stolen"));
+
+        verify(refreshTokenRepository).revokeFamily(eq("family-1"), any(LocalDateTime.class));
+        verify(refreshTokenRepository).revokeAllForUser(eq(1L), any(LocalDateTime.class));
+        verify(revocationList).revokeUserTokensBelow(eq("user@example.com"), eq(1L), any(LocalDateTime.class));
+        verify(principalCache).invalidate("user@example.com");
+        assertEquals(1L, user.getSecurityVersion());
+    }
+
+    @Test
+    void refresh_tokenRotatedMomentsAgo_isRejectedWithoutRevokingSessions() {
+        RefreshToken justRotated = RefreshToken.builder()
+                .id(10L).userId(1L).familyId("family-1").tokenHash("h")
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .revokedAt(LocalDateTime.now().minusSeconds(1))
+                .replacedById(11L)
+                .build();
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(justRotated));
+
+        assertThrows(InvalidCredentialsException.class, () -> tokenService.refresh("second-tab"));
+
+        verify(refreshTokenRepository, never()).revokeFamily(anyString(), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).revokeAllForUser(anyLong(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void refresh_unknownToken_isRejected() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidCredentialsException.class, () -> tokenService.refresh("garbage"));
+    }
+}
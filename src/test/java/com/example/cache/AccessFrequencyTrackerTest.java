@@ -0,0 +1,59 @@
+package com.example.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessFrequencyTrackerTest {
+
+    @Test
+    void sketchNeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        for (int i = 0; i < 5_000; i++) {
+            sketch.increment("k" + (i % 500));
+        }
+        for (int i = 0; i < 500; i++) {
+            assertTrue(sketch.estimate("k" + i) >= 10);
+        }
+        assertEquals(0, new CountMinSketch(4, 256).estimate("never"));
+    }
+
+    @Test
+    void topKeysFollowASkewedAccessStream() {
+        AccessFrequencyTracker tracker = new AccessFrequencyTracker(16, 1024);
+        Random random = new Random(42);
+        // Zipf-like: city-i is requested roughly in proportion to 1 / (i + 1)
+        for (int i = 0; i < 20_000; i++) {
+            int rank = (int) Math.floor(Math.pow(1000, random.nextDouble())) - 1;
+            tracker.record("city-" + rank);
+        }
+
+        List<String> top = tracker.topKeys(3).stream()
+                .map(AccessFrequencyTracker.HotKey::getKey)
+                .collect(Collectors.toList());
+        assertEquals("city-0", top.get(0));
+        assertTrue(top.contains("city-1"), top.toString());
+        assertTrue(tracker.topKeys(100).size() <= 16, "candidate set is bounded");
+    }
+
+    @Test
+    void decayLetsRecentlyPopularKeysOvertakeOldOnes() {
+        AccessFrequencyTracker tracker = new AccessFrequencyTracker(4, 64);
+        // Sample size is 10 × width = 640 accesses per decay
+        for (int i = 0; i < 600; i++) {
+            tracker.record("yesterday");
+        }
+        for (int round = 0; round < 6; round++) {
+            for (int i = 0; i < 640; i++) {
+                tracker.record(i % 4 == 0 ? "today" : "noise-" + (i % 7));
+            }
+        }
+
+        assertTrue(tracker.estimate("yesterday") < 20, "old counts halved on every decay");
+        assertEquals("today", tracker.topKeys(1).get(0).getKey());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.cache;
+
+import com.example.config.CacheKeyGenerator;
+import com.example.user.enums.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheKeyTest {
+
+    private static final List<Object[]> ARGUMENT_LISTS = Arrays.asList(
+            new Object[0],
+            new Object[]{null},
+            new Object[]{null, null},
+            new Object[]{null, "x"},
+            new Object[]{"x", null},
+            new Object[]{"x"},
+            new Object[]{""},
+            new Object[]{"", ""},
+            new Object[]{"\\0"},
+            new Object[]{"a:b"},
+            new Object[]{"a", "b"},
+            new Object[]{"a,b"},
+            new Object[]{new String[]{"a", "b"}},
+            new Object[]{new String[]{"a,b"}},
+            new Object[]{new String[]{"a"}, "b"},
+            new Object[]{"[a]"},
+            new Object[]{new String[]{"a"}},
+            new Object[]{new String[0]},
+            new Object[]{new String[]{null}},
+            new Object[]{"a\\", "b"},
+            new Object[]{"a\\:b"},
+            new Object[]{1L, 2L},
+            new Object[]{12L},
+            new Object[]{UserRole.HR},
+            new Object[]{new long[]{1, 2}});
+
+    @Test
+    void distinctArgumentListsAreDistinctKeysAndTexts() {
+        Set<CacheKey> keys = new HashSet<>();
+        Set<String> texts = new HashSet<>();
+        for (Object[] arguments : ARGUMENT_LISTS) {
+            CacheKey key = CacheKey.of("UserServiceImpl", "find", arguments);
+            assertTrue(keys.add(key), "key collision: " + key);
+            assertTrue(texts.add(key.toString()), "text collision: " + key);
+        }
+    }
+
+    @Test
+    void nullArgumentsAreNotDropped() {
+        assertNotEquals(CacheKey.of("s", "m", null, "x"), CacheKey.of("s", "m", "x"));
+        assertEquals("s.m:\\0:x", CacheKey.of("s", "m", null, "x").toString());
+        assertEquals("s.m", CacheKey.of("s", "m").toString());
+        assertEquals("s.m", CacheKey.of("s", "m", (Object[]) null).toString());
+    }
+
+    @Test
+    void equalArgumentsGiveEqualKeysAndStableText() {
+        CacheKey first = CacheKey.of("translation", "getByLanguage", "uz", new long[]{1, 2}, Arrays.asList("a", "b"));
+        CacheKey second = CacheKey.of("translation", "getByLanguage", "uz", new long[]{1, 2}, Arrays.asList("a", "b"));
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals("translation.getByLanguage:uz:[1,2]:[a,b]", first.toString());
+        assertSame(first.toString(), first.toString());
+    }
+
+    @Test
+    void scopeAndMethodArePartOfTheKey() {
+        assertNotEquals(CacheKey.of("user", "find", 1L), CacheKey.of("translation", "find", 1L));
+        assertNotEquals(CacheKey.of("user", "find", 1L), CacheKey.of("user", "get", 1L));
+    }
+
+    @Test
+    void argumentsAreCopied() {
+        Object[] arguments = {"a"};
+        CacheKey key = CacheKey.of("s", "m", arguments);
+        arguments[0] = "b";
+
+        assertEquals(CacheKey.of("s", "m", "a"), key);
+    }
+
+    @Test
+    void generatorsScopeByTargetClassOrFixedName() throws NoSuchMethodException {
+        Method method = CacheKeyTest.class.getDeclaredMethod("lookup", String.class);
+
+        assertEquals("CacheKeyTest.lookup:uz", new CacheKeyGenerator().generate(this, method, "uz").toString());
+        assertEquals(CacheKey.of("user", "lookup", "uz"), new CacheKeyGenerator("user").generate(this, method, "uz"));
+        assertEquals(CacheKey.of("user", "lookup", Collections.singletonList(null)),
+                new CacheKeyGenerator("user").generate(this, method, Collections.singletonList(null)));
+    }
+
+    @SuppressWarnings("unused")
+    private String lookup(String language) {
+        return language;
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.cache;
+
+import com.example.file.dto.FileDto;
+import com.example.file.dto.FileUploadRequest;
+import com.example.file.exception.FileNotFoundException;
+import com.example.file.exception.InsufficientPrivilegesException;
+import com.example.file.service.FileService;
+import com.example.role.dto.AssignRoleRequest;
+import com.example.role.dto.CreateRoleRequest;
+import com.example.role.dto.RoleDto;
+import com.example.role.dto.UpdateRoleRequest;
+import com.example.role.service.RoleService;
+import com.example.translation.dto.CreateTranslationRequest;
+import com.example.translation.dto.TranslationDto;
+import com.example.translation.dto.UpdateTranslationRequest;
+import com.example.translation.service.TranslationService;
+import com.example.user.dto.CreateUserRequest;
+import com.example.user.dto.UpdateUserRequest;
+import com.example.user.dto.UserDto;
+import com.example.user.enums.UserRole;
+import com.example.user.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads through the cached services, writes, and reads again: every write path must evict what it
+ * changed, so the second read never sees the cached pre-write value.
+ */
+@SpringBootTest(properties = "file.upload.path=target/test-uploads")
+@ActiveProfiles("test")
+class CachedServicesIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private TranslationService translationService;
+
+    @Autowired
+    private FileService fileService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void userReadsFollowUpdatesAndDeletes() {
+        UserDto user = createUser();
+        Long id = user.getId();
+
+        assertEquals(user.getName(), userService.getUserById(id).get().getName());
+        assertEquals(user.getName(), userService.getUserByEmail(user.getEmail()).get().getName());
+        assertNotNull(cacheManager.getCache("users").get("id:" + id), "read is cached");
+
+        String newEmail = "renamed" + SEQUENCE.incrementAndGet() + "@example.com";
+        userService.updateUser(id, UpdateUserRequest.builder()
+                .name(user.getName() + " Jr")
+                .email(newEmail)
+                .phone(user.getPhone())
+                .role(user.getRole())
+                .build());
+
+        assertEquals(user.getName() + " Jr", userService.getUserById(id).get().getName());
+        assertFalse(userService.getUserByEmail(user.getEmail()).isPresent(), "old email no longer resolves");
+        assertEquals(id, userService.getUserByEmail(newEmail).get().getId());
+
+        userService.deleteUser(id);
+
+        assertFalse(userService.getUserById(id).isPresent());
+        assertFalse(userService.existsByEmail(newEmail));
+    }
+
+    @Test
+    void userCountsAndExistenceChecksFollowCreation() {
+        String email = "new" + SEQUENCE.incrementAndGet() + "@example.com";
+        long before = userService.getUserCount();
+        assertFalse(userService.existsByEmail(email));
+
+        createUser(email);
+
+        assertEquals(before + 1, userService.getUserCount());
+        assertTrue(userService.existsByEmail(email));
+    }
+
+    @Test
+    void roleChangesReachRoleListsAndUsersHoldingTheRole() {
+        UserDto user = createUser();
+        int rolesBefore = roleService.getAllRoles().size();
+        assertTrue(userService.getUserById(user.getId()).get().getRoles().isEmpty());
+
+        RoleDto role = roleService.createRole(new CreateRoleRequest("AUDITOR" + SEQUENCE.incrementAndGet(), "Audits", true));
+        assertEquals(rolesBefore + 1, roleService.getAllRoles().size());
+
+        roleService.assignRolesToUser(new AssignRoleRequest(user.getId(), Collections.singleton(role.getId())));
+        assertEquals(Collections.singleton(role.getName()), userService.getUserById(user.getId()).get().getRoles());
+        assertEquals(1, roleService.getRolesByUserId(user.getId()).size());
+        assertEquals(1, roleService.getRoleById(role.getId()).get().getUserCount());
+
+        String renamed = role.getName() + "_LEAD";
+        roleService.updateRole(role.getId(), new UpdateRoleRequest(renamed, "Audits", true));
+        assertEquals(Collections.singleton(renamed), userService.getUserById(user.getId()).get().getRoles());
+        assertEquals(renamed, roleService.getRoleById(role.getId()).get().getName());
+
+        roleService.removeRolesFromUser(user.getId(), Collections.singleton(role.getId()));
+        assertTrue(userService.getUserById(user.getId()).get().getRoles().isEmpty());
+        assertTrue(roleService.getRolesByUserId(user.getId()).isEmpty());
+
+        roleService.deleteRole(role.getId());
+        assertFalse(roleService.getRoleById(role.getId()).isPresent());
+        assertEquals(rolesBefore, roleService.getAllRoles().size());
+    }
+
+    @Test
+    void translationReadsFollowEveryWritePath() {
+        String language = "t" + SEQUENCE.incrementAndGet();
+        assertTrue(translationService.getTranslationsMapForLanguage(language).isEmpty());
+        assertFalse(translationService.existsByKeyAndLanguage("greeting", language));
+        assertFalse(translationService.getAvailableLanguages().contains(language));
+
+        TranslationDto greeting = translationService.createTranslation(translation("greeting", language, "Hello"));
+
+        assertEquals("Hello", translationService.getTranslationsMapForLanguage(language).get("greeting"));
+        assertTrue(translationService.existsByKeyAndLanguage("greeting", language));
+        assertTrue(translationService.getAvailableLanguages().contains(language));
+
+        translationService.updateTranslation(greeting.getId(), UpdateTranslationRequest.builder()
+                .translationKey("greeting")
+                .languageCode(language)
+                .translationValue("Hi")
+                .isActive(true)
+                .build());
+
+        assertEquals("Hi", translationService.getTranslationsMapForLanguage(language).get("greeting"));
+        assertEquals("Hi", translationService.getTranslationById(greeting.getId()).get().getTranslationValue());
+        assertEquals("Hi", translationService.getTranslationByKeyAndLanguage("greeting", language).get().getTranslationValue());
+
+        translationService.bulkCreateTranslations(Collections.singletonList(translation("farewell", language, "Bye")));
+
+        assertEquals(2, translationService.getTranslationsByLanguage(language).size());
+        assertTrue(translationService.getAllActiveTranslationKeys().contains("farewell"));
+
+        translationService.deleteTranslation(greeting.getId());
+
+        assertFalse(translationService.getTranslationsMapForLanguage(language).containsKey("greeting"));
+        assertEquals(1, translationService.getTranslationsByLanguage(language).size());
+    }
+
+    @Test
+    void writesEvictOnlyTheEntriesTheRowAffects() {
+        String edited = "e" + SEQUENCE.incrementAndGet();
+        String untouched = "u" + SEQUENCE.incrementAndGet();
+        TranslationDto greeting = translationService.createTranslation(translation("greeting", edited, "Hello"));
+        translationService.createTranslation(translation("greeting", untouched, "Salom"));
+        translationService.getTranslationsMapForLanguage(edited);
+        translationService.getTranslationsMapForLanguage(untouched);
+
+        translationService.updateTranslation(greeting.getId(), UpdateTranslationRequest.builder()
+                .translationKey("greeting")
+                .languageCode(edited)
+                .translationValue("Hi")
+                .isActive(true)
+                .build());
+
+        assertNull(cacheManager.getCache("translationMaps").get(edited));
+        assertNotNull(cacheManager.getCache("translationMaps").get(untouched), "other languages stay cached");
+
+        UserDto first = createUser();
+        UserDto second = createUser();
+        userService.getUserById(first.getId());
+        userService.getUserById(second.getId());
+        userService.updateUser(first.getId(), UpdateUserRequest.builder()
+                .name(first.getName() + " Jr")
+                .email(first.getEmail())
+                .phone(first.getPhone())
+                .role(first.getRole())
+                .build());
+
+        assertNull(cacheManager.getCache("users").get("id:" + first.getId()));
+        assertNotNull(cacheManager.getCache("users").get("id:" + second.getId()));
+    }
+
+    @Test
+    void fileReadsFollowMetadataVisibilityAndDeletion() {
+        String owner = "owner" + SEQUENCE.incrementAndGet();
+        String other = "other" + SEQUENCE.incrementAndGet();
+        long ownedBefore = fileService.getFileCountByUser(owner);
+
+        FileUploadRequest request = new FileUploadRequest();
+        request.setDescription("Quarterly notes");
+        request.setIsPublic(true);
+        FileDto file = fileService.uploadFile(new MockMultipartFile("file", "notes.txt", "text/plain",
+                "notes".getBytes(StandardCharsets.UTF_8)), request, owner);
+
+        assertEquals(ownedBefore + 1, fileService.getFileCountByUser(owner));
+        assertEquals("Quarterly notes", fileService.getFileById(file.getId(), other).getDescription());
+        assertTrue(fileService.isFileAccessible(file.getId(), other));
+
+        request.setDescription("Annual notes");
+        fileService.updateFileMetadata(file.getId(), request, owner);
+        assertEquals("Annual notes", fileService.getFileById(file.getId(), other).getDescription());
+
+        fileService.toggleFileVisibility(file.getId(), owner);
+        assertThrows(InsufficientPrivilegesException.class, () -> fileService.getFileById(file.getId(), other));
+        assertFalse(fileService.isFileAccessible(file.getId(), other));
+        assertFalse(fileService.getFileById(file.getId(), owner).getIsPublic());
+
+        fileService.deleteFile(file.getId(), owner);
+        assertThrows(FileNotFoundException.class, () -> fileService.getFileById(file.getId(), owner));
+        assertEquals(ownedBefore, fileService.getFileCountByUser(owner));
+    }
+
+    private UserDto createUser() {
+        return createUser("user" + SEQUENCE.incrementAndGet() + "@example.com");
+    }
+
+    private UserDto createUser(String email) {
+        int n = SEQUENCE.incrementAndGet();
+        return userService.createUser(CreateUserRequest.builder()
+                .name("Cache User " + n)
+                .email(email)
+                .phone("+99891" + String.format("%07d", n))
+                .password("secret" + n)
+                .role(UserRole.USER)
+                .build());
+    }
+
+    private static CreateTranslationRequest translation(String key, String language, String value) {
+        return CreateTranslationRequest.builder()
+                .translationKey(key)
+                .languageCode(language)
+                .translationValue(value)
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyPrefetcherTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final AtomicInteger loads = new AtomicInteger();
+    private StaleWhileRevalidateCache<String, String> cache;
+    private HotKeyPrefetcher prefetcher;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StaleWhileRevalidateCache<>("weather", 60_000, 600_000, 100, Runnable::run, now::get);
+        // top 1 key, refreshed when it turns stale within 10 s
+        prefetcher = new HotKeyPrefetcher(true, 1, 10, 16, 256);
+        prefetcher.register(cache, key -> key, key -> key + "@" + loads.incrementAndGet());
+    }
+
+    @Test
+    void hotKeyIsRefreshedJustBeforeItTurnsStale() {
+        read("tashkent", 5);
+        read("nukus", 1);
+
+        now.addAndGet(40_000);
+        prefetcher.prefetch();
+        assertEquals(2, loads.get(), "tashkent still fresh for longer than the lead time");
+
+        now.addAndGet(15_000);
+        prefetcher.prefetch();
+
+        assertEquals(3, loads.get());
+        assertEquals("tashkent@3", cache.peek("tashkent").getValue());
+        assertEquals("nukus@2", cache.peek("nukus").getValue(), "only the top key is prefetched");
+        now.addAndGet(10_000);
+        assertEquals("tashkent@3", cache.get("tashkent", key -> fail("prefetched value must be fresh")));
+    }
+
+    @Test
+    void reportsTopKeysAndPrefetchHitRatio() {
+        read("tashkent", 3);
+        now.addAndGet(55_000);
+        prefetcher.prefetch();
+        read("tashkent", 1);
+
+        now.addAndGet(60_000);
+        prefetcher.prefetch();
+        now.addAndGet(60_000);
+        prefetcher.prefetch();
+
+        HotKeyPrefetcher.Report report = prefetcher.report(5).get(0);
+        assertEquals("weather", report.getCache());
+        assertEquals("tashkent", report.getTopKeys().get(0).getKey());
+        assertEquals(3, report.getPrefetches());
+        assertEquals(1, report.getPrefetchHits());
+        assertEquals(1.0 / 3, report.getPrefetchHitRatio(), 1e-9);
+    }
+
+    @Test
+    void disabledPrefetcherOnlyTracks() {
+        HotKeyPrefetcher disabled = new HotKeyPrefetcher(false, 1, 10, 16, 256);
+        disabled.register(cache, key -> key, key -> key + "@" + loads.incrementAndGet());
+        disabled.recordAccess("weather", "tashkent");
+        disabled.recordAccess("unknown-cache", "ignored");
+
+        disabled.prefetch();
+
+        assertEquals(0, loads.get());
+        assertEquals(1, disabled.report(5).get(0).getTopKeys().size());
+    }
+
+    private void read(String key, int times) {
+        for (int i = 0; i < times; i++) {
+            prefetcher.recordAccess("weather", key);
+            cache.get(key, k -> k + "@" + loads.incrementAndGet());
+        }
+    }
+}
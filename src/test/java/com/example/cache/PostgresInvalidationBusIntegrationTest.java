@@ -0,0 +1,117 @@
+package com.example.cache;
+
+import com.example.Application;
+import com.example.cache.twolevel.PostgresInvalidationBus;
+import com.example.translation.dto.CreateTranslationRequest;
+import com.example.translation.dto.TranslationDto;
+import com.example.translation.dto.UpdateTranslationRequest;
+import com.example.translation.service.TranslationService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application contexts on one Postgres database, caches in-process, kept in step by the NOTIFY
+ * bus. Needs a scratch database: {@code CACHE_BUS_TEST_DB_URL=jdbc:postgresql://localhost:5432/cache_bus_test}
+ * (user and password from {@code CACHE_BUS_TEST_DB_USER} / {@code CACHE_BUS_TEST_DB_PASSWORD},
+ * default {@code postgres}).
+ */
+@EnabledIfEnvironmentVariable(named = "CACHE_BUS_TEST_DB_URL", matches = ".+")
+class PostgresInvalidationBusIntegrationTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void evictionsOnOneNodeReachTheOther() {
+        TranslationService onA = nodeA.getBean(TranslationService.class);
+        TranslationService onB = nodeB.getBean(TranslationService.class);
+        String language = "b" + ThreadLocalRandom.current().nextInt(1000, 10000);
+
+        TranslationDto greeting = onA.createTranslation(CreateTranslationRequest.builder()
+                .translationKey("greeting").languageCode(language).translationValue("Hello").isActive(true).build());
+        awaitTrue(() -> "Hello".equals(onB.getTranslationsMapForLanguage(language).get("greeting")));
+
+        onA.updateTranslation(greeting.getId(), UpdateTranslationRequest.builder()
+                .translationKey("greeting").languageCode(language).translationValue("Hi").isActive(true).build());
+
+        awaitTrue(() -> "Hi".equals(onB.getTranslationsMapForLanguage(language).get("greeting")));
+    }
+
+    @Test
+    void nodeClearsItsCachesAfterItsListenerReconnects() {
+        Cache rolesOnB = nodeB.getBean(CacheManager.class).getCache("roles");
+        PostgresInvalidationBus busOnB = nodeB.getBean(PostgresInvalidationBus.class);
+        awaitTrue(() -> busOnB.getListenerPid() != 0);
+        int pid = busOnB.getListenerPid();
+        rolesOnB.put("probe", "possibly stale");
+
+        nodeA.getBean(JdbcTemplate.class).queryForObject("SELECT pg_terminate_backend(?)", Boolean.class, pid);
+
+        awaitTrue(() -> busOnB.getListenerPid() != 0 && busOnB.getListenerPid() != pid);
+        awaitTrue(() -> rolesOnB.get("probe") == null);
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "file.upload.path=target/test-uploads",
+                        "spring.datasource.url=" + System.getenv("CACHE_BUS_TEST_DB_URL"),
+                        "spring.datasource.username=" + env("CACHE_BUS_TEST_DB_USER", "postgres"),
+                        "spring.datasource.password=" + env("CACHE_BUS_TEST_DB_PASSWORD", "postgres"),
+                        "spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                        "cache.bus.enabled=true",
+                        "cache.bus.window-ms=20")
+                .run();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met within 15 s");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.cache;
+
+import com.example.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaleWhileRevalidateCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+
+    private StaleWhileRevalidateCache<String, String> newCache() {
+        return new StaleWhileRevalidateCache<>("test", 1_000, 10_000, 100, pendingRefreshes::add, now::get);
+    }
+
+    @Test
+    void concurrentMissesShareOneUpstreamCall() throws Exception {
+        StaleWhileRevalidateCache<String, String> cache =
+                new StaleWhileRevalidateCache<>("test", 60_000, 600_000, 100, Runnable::run);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        int callers = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> cache.get("tashkent", key -> {
+                    upstreamCalls.incrementAndGet();
+                    loaderEntered.countDown();
+                    await(releaseLoader);
+                    return "sunny";
+                })));
+            }
+            assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+            // Give the remaining callers time to pile up on the in-flight load
+            Thread.sleep(100);
+            releaseLoader.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("sunny", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void loaderFailurePropagatesToAllWaitersAndIsNotCached() {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+
+        assertThrows(IllegalStateException.class, () -> cache.get("k", key -> {
+            throw new IllegalStateException("upstream down");
+        }));
+        assertNull(cache.peek("k"));
+        assertEquals("v", cache.get("k", key -> "v"));
+    }
+
+    @Test
+    void freshValueIsServedWithoutLoading() {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+        cache.get("k", key -> "v1");
+
+        now.addAndGet(500);
+
+        assertEquals("v1", cache.get("k", key -> fail("should not load")));
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    @Test
+    void staleValueIsServedAndRefreshedOnceInBackground() {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+        cache.get("k", key -> "v1");
+        now.addAndGet(2_000);
+
+        AtomicInteger refreshes = new AtomicInteger();
+        assertEquals("v1", cache.get("k", key -> "v" + (1 + refreshes.incrementAndGet())));
+        assertEquals("v1", cache.get("k", key -> "v" + (1 + refreshes.incrementAndGet())));
+        assertEquals(1, pendingRefreshes.size(), "second stale read must not start another refresh");
+
+        pendingRefreshes.remove(0).run();
+
+        assertEquals(1, refreshes.get());
+        assertEquals("v2", cache.get("k", key -> fail("should not load")));
+    }
+
+    @Test
+    void getIfPresentNeverLoadsSynchronously() {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+
+        assertNull(cache.getIfPresent("k", key -> fail("should not load")));
+        cache.put("k", "v1");
+        now.addAndGet(2_000);
+        assertEquals("v1", cache.getIfPresent("k", key -> "v2"));
+        assertEquals(1, pendingRefreshes.size(), "stale value refreshes in the background");
+
+        now.addAndGet(10_000);
+        assertNull(cache.getIfPresent("k", key -> fail("should not load")));
+        assertEquals(2, cache.stats().getMisses());
+    }
+
+    @Test
+    void failedRefreshKeepsServingStaleUntilHardTtl() {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+        cache.get("k", key -> "v1");
+        now.addAndGet(5_000);
+
+        assertEquals("v1", cache.get("k", key -> {
+            throw new IllegalStateException("upstream down");
+        }));
+        pendingRefreshes.remove(0).run();
+        assertEquals(1, cache.stats().getLoadFailures());
+
+        now.addAndGet(4_000);
+        assertEquals("v1", cache.get("k", key -> "unused"));
+
+        now.addAndGet(2_000);
+        assertThrows(IllegalStateException.class, () -> cache.get("k", key -> {
+            throw new IllegalStateException("upstream down");
+        }));
+    }
+
+    @Test
+    void missTakesOverARefreshStillQueuedOnThePool() {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+        cache.get("k", key -> "v1");
+        now.addAndGet(5_000);
+        assertEquals("v1", cache.get("k", key -> fail("refresh should be taken over")));
+        assertEquals(1, pendingRefreshes.size());
+
+        now.addAndGet(6_000);
+        assertEquals("v2", cache.get("k", key -> "v2"));
+        assertEquals(0, cache.stats().getInFlight());
+
+        // The pool gets to the queued refresh eventually; it finds the load already done
+        pendingRefreshes.remove(0).run();
+        assertEquals(2, cache.stats().getLoads());
+        assertEquals("v2", cache.get("k", key -> fail("should not load")));
+    }
+
+    @Test
+    void missThatJoinsARejectedRefreshLoadsInsteadOfGettingNull() {
+        AtomicReference<String> joined = new AtomicReference<>();
+        AtomicReference<StaleWhileRevalidateCache<String, String>> self = new AtomicReference<>();
+        StaleWhileRevalidateCache<String, String> cache = new StaleWhileRevalidateCache<>("test", 1_000, 10_000, 100,
+                refresh -> {
+                    // Another request hard-misses while the pool is rejecting this refresh
+                    now.addAndGet(6_000);
+                    joined.set(self.get().get("k", key -> "v2"));
+                    throw new RejectedExecutionException("queue full");
+                }, now::get);
+        self.set(cache);
+        cache.get("k", key -> "v1");
+        now.addAndGet(5_000);
+
+        assertEquals("v1", cache.get("k", key -> fail("rejected refresh must not load")));
+        assertEquals("v2", joined.get());
+        assertEquals(0, cache.stats().getInFlight());
+    }
+
+    @Test
+    void waitingOnARunningLoadIsBounded() throws Exception {
+        StaleWhileRevalidateCache<String, String> cache = new StaleWhileRevalidateCache<>(
+                "test", 60_000, 600_000, 600_000, 100, 50, Runnable::run, System::currentTimeMillis);
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = pool.submit(() -> cache.get("k", key -> {
+                loaderEntered.countDown();
+                await(releaseLoader);
+                return "v1";
+            }));
+            assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+
+            assertThrows(UpstreamUnavailableException.class, () -> cache.get("k", key -> fail("load is shared")));
+
+            releaseLoader.countDown();
+            assertEquals("v1", first.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void cancelledRefreshesLeaveNothingPending() {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+        cache.get("k", key -> "v1");
+        now.addAndGet(5_000);
+        cache.get("k", key -> fail("never run"));
+        assertEquals(1, cache.stats().getInFlight());
+
+        StaleWhileRevalidateCache.cancelRefreshes(new ArrayList<>(pendingRefreshes));
+
+        assertEquals(0, cache.stats().getInFlight());
+        pendingRefreshes.remove(0).run();
+        assertEquals(1, cache.stats().getLoads());
+        assertTrue(cache.refreshAhead("k", 0, key -> "v2"), "key can refresh again");
+    }
+
+    @Test
+    void batchLoadJoinsKeysAlreadyInFlightAndLoadsTheRestInOneCall() throws Exception {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+        cache.get("a", key -> "a1");
+        now.addAndGet(5_000);
+        cache.get("a", key -> "a2");
+        assertEquals(1, pendingRefreshes.size());
+
+        StaleWhileRevalidateCache.BatchLoad<String, String> batch = cache.batchLoad(Arrays.asList("a", "b", "c", "b"));
+        assertEquals(Arrays.asList("b", "c"), batch.getKeys());
+        assertEquals(Collections.singleton("a"), batch.getJoined().keySet());
+
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Map<String, String> loaded = batch.load(batch.getKeys(), keys -> {
+            upstreamCalls.incrementAndGet();
+            return Collections.singletonMap("b", "b1");
+        });
+        assertEquals(Collections.singletonMap("b", "b1"), loaded);
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("b1", cache.peek("b").getValue());
+        assertNull(cache.peek("c"), "keys missing from the result are not cached");
+
+        pendingRefreshes.remove(0).run();
+        assertEquals("a2", batch.getJoined().get("a").get(1, TimeUnit.SECONDS));
+        assertEquals(0, cache.stats().getInFlight());
+    }
+
+    @Test
+    void missTakesOverABatchKeyThatHasNotStartedAndCancelReleasesTheRest() {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+        StaleWhileRevalidateCache.BatchLoad<String, String> batch = cache.batchLoad(Arrays.asList("a", "b"));
+
+        assertEquals("a1", cache.get("a", key -> "a1"));
+        assertTrue(batch.load(Collections.singletonList("a"), keys -> fail("taken over")).isEmpty());
+
+        StaleWhileRevalidateCache.BatchLoad<String, String> joiner = cache.batchLoad(Collections.singletonList("b"));
+        batch.cancel(Collections.singletonList("b"));
+        assertEquals(0, cache.stats().getInFlight());
+        ExecutionException dropped = assertThrows(ExecutionException.class,
+                () -> joiner.getJoined().get("b").get(1, TimeUnit.SECONDS));
+        assertTrue(dropped.getCause() instanceof UpstreamUnavailableException);
+        assertEquals("b1", cache.get("b", key -> "b1"), "key can load again");
+    }
+
+    @Test
+    void sizeIsBoundedByEvictingOldestEntries() {
+        StaleWhileRevalidateCache<String, String> cache =
+                new StaleWhileRevalidateCache<>("test", 1_000, 10_000, 10, Runnable::run, now::get);
+        for (int i = 0; i < 25; i++) {
+            now.incrementAndGet();
+            cache.put("k" + i, "v" + i);
+        }
+
+        assertTrue(cache.size() <= 10);
+        assertNotNull(cache.peek("k24"));
+        assertNull(cache.peek("k0"));
+    }
+
+    @Test
+    void purgeDropsHardExpiredEntries() {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+        cache.put("old", "v");
+        now.addAndGet(9_000);
+        cache.put("young", "v");
+        now.addAndGet(2_000);
+
+        assertEquals(1, cache.purgeExpired());
+        assertNull(cache.peek("old"));
+        assertNotNull(cache.peek("young"));
+    }
+
+    @Test
+    void hardExpiredEntriesStayAvailableAsLastKnownGoodUntilRetention() {
+        StaleWhileRevalidateCache<String, String> cache =
+                new StaleWhileRevalidateCache<>("test", 1_000, 10_000, 60_000, 100, Runnable::run, now::get);
+        cache.put("k", "v1");
+        now.addAndGet(30_000);
+
+        assertEquals(0, cache.purgeExpired());
+        assertThrows(IllegalStateException.class, () -> cache.get("k", key -> {
+            throw new IllegalStateException("upstream down");
+        }));
+        assertEquals("v1", cache.peek("k").getValue());
+
+        now.addAndGet(30_000);
+        assertEquals(1, cache.purgeExpired());
+        assertNull(cache.peek("k"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
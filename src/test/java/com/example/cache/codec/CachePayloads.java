@@ -0,0 +1,87 @@
+package com.example.cache.codec;
+
+import com.example.role.dto.RoleDto;
+import com.example.translation.dto.TranslationDto;
+import com.example.user.dto.UserDto;
+import com.example.user.enums.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** Values shaped like what the services cache, for the codec test and benchmark. */
+final class CachePayloads {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 9, 30, 15);
+
+    private CachePayloads() {
+    }
+
+    static UserDto user() {
+        return UserDto.builder()
+                .id(42L)
+                .name("Aziza Karimova")
+                .email("aziza.karimova@example.com")
+                .phone("+998901234567")
+                .role(UserRole.HR)
+                .roles(new HashSet<>(Arrays.asList("HR", "RECRUITER")))
+                .createdAt(CREATED)
+                .updatedAt(CREATED.plusDays(3))
+                .build();
+    }
+
+    static Set<RoleDto> roles() {
+        Set<RoleDto> roles = new HashSet<>();
+        for (long id = 1; id <= 4; id++) {
+            roles.add(new RoleDto(id, "ROLE_" + id, "Role number " + id, true, CREATED, CREATED,
+                    new HashSet<>(Arrays.asList(1L, 2L, 3L)), 3));
+        }
+        return roles;
+    }
+
+    /** {@code translationMaps}: key to text for one language. */
+    static Map<String, String> translationBundle(int size) {
+        Map<String, String> bundle = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            bundle.put("page.section" + (i % 20) + ".label" + i, "Tarjima matni raqam " + i);
+        }
+        return bundle;
+    }
+
+    /** {@code translations/language:<code>}: full DTOs for one language. */
+    static List<TranslationDto> translationList(int size) {
+        List<TranslationDto> translations = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            translations.add(TranslationDto.builder()
+                    .id((long) i)
+                    .translationKey("page.section" + (i % 20) + ".label" + i)
+                    .languageCode("uz")
+                    .translationValue("Tarjima matni raqam " + i)
+                    .isActive(true)
+                    .createdAt(CREATED)
+                    .updatedAt(CREATED)
+                    .build());
+        }
+        return translations;
+    }
+
+    static Object named(String name) {
+        switch (name) {
+            case "user":
+                return user();
+            case "roles":
+                return roles();
+            case "translationBundle":
+                return translationBundle(300);
+            case "translationList":
+                return translationList(300);
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.cache.codec;
+
+import com.example.config.CacheConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write and read cost of the JSON and compact cache value formats on service-shaped values. Not a
+ * test: run {@link #main}, which first prints the payload sizes of both formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheValueCodecBenchmark {
+
+    private static final String[] PAYLOADS = {"user", "roles", "translationBundle", "translationList"};
+
+    @Param({"user", "roles", "translationBundle", "translationList"})
+    public String payload;
+
+    private RedisSerializer<Object> json;
+    private RedisSerializer<Object> compact;
+    private Object value;
+    private byte[] jsonBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setUp() {
+        json = CacheConfig.jsonValueSerializer();
+        compact = new CompactCacheValueCodec(CacheConfig.cacheTypes(), json, 512);
+        value = CachePayloads.named(payload);
+        jsonBytes = json.serialize(value);
+        compactBytes = compact.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] writeJson() {
+        return json.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] writeCompact() {
+        return compact.serialize(value);
+    }
+
+    @Benchmark
+    public Object readJson() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public Object readCompact() {
+        return compact.deserialize(compactBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        RedisSerializer<Object> json = CacheConfig.jsonValueSerializer();
+        RedisSerializer<Object> compact = new CompactCacheValueCodec(CacheConfig.cacheTypes(), json, 512);
+        System.out.printf("%-18s %10s %10s %7s%n", "payload", "json (B)", "compact (B)", "ratio");
+        for (String name : PAYLOADS) {
+            Object value = CachePayloads.named(name);
+            int jsonSize = json.serialize(value).length;
+            int compactSize = compact.serialize(value).length;
+            System.out.printf("%-18s %10d %10d %6.2f%n", name, jsonSize, compactSize, (double) compactSize / jsonSize);
+        }
+        new Runner(new OptionsBuilder().include(CacheValueCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.cache.codec;
+
+import com.example.config.CacheConfig;
+import com.example.translation.dto.TranslationDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactCacheValueCodecTest {
+
+    private final RedisSerializer<Object> json = CacheConfig.jsonValueSerializer();
+    private final CompactCacheValueCodec codec = new CompactCacheValueCodec(CacheConfig.cacheTypes(), json, 512);
+
+    @Test
+    void roundTripsTheCachedValueShapes() {
+        Map<String, TranslationDto> byLanguage = new HashMap<>();
+        byLanguage.put("uz", CachePayloads.translationList(1).get(0));
+        Map<String, Map<String, TranslationDto>> grouped = new HashMap<>();
+        grouped.put("greeting", byLanguage);
+        List<Object> values = Arrays.asList(CachePayloads.user(), CachePayloads.roles(),
+                CachePayloads.translationBundle(5), CachePayloads.translationList(3), grouped, 7L, true, "uz");
+
+        for (Object value : values) {
+            Object read = codec.deserialize(codec.serialize(value));
+            assertEquals(value, read);
+            assertEquals(value.getClass(), read.getClass());
+        }
+    }
+
+    @Test
+    void readsEntriesWrittenAsJson() {
+        Object value = CachePayloads.translationList(2);
+
+        assertEquals(value, codec.deserialize(json.serialize(value)));
+        assertEquals(12L, codec.deserialize(json.serialize(12L)));
+    }
+
+    @Test
+    void isSmallerThanJsonOnRealDtos() {
+        for (String payload : Arrays.asList("user", "roles", "translationList")) {
+            Object value = CachePayloads.named(payload);
+            assertTrue(codec.serialize(value).length < json.serialize(value).length, payload);
+        }
+        Object bundle = CachePayloads.translationBundle(300);
+        assertTrue(codec.serialize(bundle).length * 3 < json.serialize(bundle).length, "deflated bundle");
+    }
+
+    @Test
+    void deflatesOnlyAboveTheThreshold() {
+        byte[] small = codec.serialize(CachePayloads.user());
+        byte[] large = codec.serialize(CachePayloads.translationBundle(300));
+
+        assertEquals(CompactCacheValueCodec.MAGIC, small[0]);
+        assertEquals(0, small[2]);
+        assertEquals(1, large[2]);
+        assertNull(codec.deserialize(codec.serialize(null)));
+    }
+
+    @Test
+    void rejectsUnknownFormatVersions() {
+        byte[] bytes = codec.serialize(CachePayloads.user());
+        bytes[1] = 99;
+
+        assertThrows(SerializationException.class, () -> codec.deserialize(bytes));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.cache.invalidation;
+
+import com.example.role.entity.Role;
+import com.example.translation.entity.Translation;
+import com.example.user.entity.User;
+import com.example.user.enums.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityInvalidationRulesTest {
+
+    private static final String[] TRANSLATION = {"translationKey", "languageCode", "translationValue", "isActive"};
+    private static final String[] USER = {"name", "email", "phone", "role"};
+
+    private final EntityInvalidationRules rules = new EntityInvalidationRules();
+
+    @Test
+    void translationValueEditEvictsOnlyItsLanguage() {
+        InvalidationSet out = collect(rules.translationInvalidationRule(), EntityChange.ofRow(EntityChange.Type.UPDATE,
+                new Translation(), 7L, TRANSLATION,
+                new Object[]{"greeting", "uz", "Salom!", true},
+                new Object[]{"greeting", "uz", "Salom", true}));
+
+        assertEquals(set("uz"), out.getKeys().get("translationMaps"));
+        assertEquals(set("id:7", "active", "grouped", "key:uz:greeting", "language:uz"), out.getKeys().get("translations"));
+        assertNull(out.getKeys().get("translationExists"), "key and language unchanged");
+        assertNull(out.getKeys().get("translationLanguages"));
+    }
+
+    @Test
+    void translationMovedToAnotherLanguageEvictsBoth() {
+        InvalidationSet out = collect(rules.translationInvalidationRule(), EntityChange.ofRow(EntityChange.Type.UPDATE,
+                new Translation(), 7L, TRANSLATION,
+                new Object[]{"greeting", "ru", "Привет", true},
+                new Object[]{"greeting", "uz", "Salom", true}));
+
+        assertEquals(set("uz", "ru"), out.getKeys().get("translationMaps"));
+        assertEquals(set("uz:greeting", "ru:greeting"), out.getKeys().get("translationExists"));
+        assertEquals(set("all"), out.getKeys().get("translationLanguages"));
+    }
+
+    @Test
+    void userEmailChangeEvictsOldAndNewLookups() {
+        InvalidationSet out = collect(rules.userInvalidationRule(), EntityChange.ofRow(EntityChange.Type.UPDATE,
+                new User(), 3L, USER,
+                new Object[]{"Ali", "new@example.com", "+998", UserRole.USER},
+                new Object[]{"Ali", "old@example.com", "+998", UserRole.USER}));
+
+        assertEquals(set("id:3", "email:old@example.com", "email:new@example.com"), out.getKeys().get("users"));
+        assertEquals(set("email:old@example.com", "email:new@example.com"), out.getKeys().get("userExists"));
+        assertNull(out.getKeys().get("userCounts"), "role unchanged");
+        assertEquals(set("user:3"), out.getTags());
+    }
+
+    @Test
+    void roleAssignmentEvictsTheUserAndEveryRoleInvolved() {
+        User user = new User();
+        user.setEmail("ali@example.com");
+        InvalidationSet out = collect(rules.userInvalidationRule(),
+                EntityChange.ofCollection(user, 3L, "roles", Arrays.asList(role(1L), role(2L))));
+
+        assertEquals(set("user:3", "all", "active", "id:1", "id:2"), out.getKeys().get("roles"));
+        assertEquals(set("id:3", "email:ali@example.com"), out.getKeys().get("users"));
+        assertEquals(set("role:1", "role:2"), out.getTags());
+    }
+
+    @Test
+    void tagsResolveToRegisteredEntriesOnce() {
+        CacheTagRegistry registry = new CacheTagRegistry(Duration.ofMinutes(5), 100);
+        registry.register("files", "id:42:alice", Collections.singleton("file:42"));
+        registry.register("fileExists", "42:bob", Collections.singleton("file:42"));
+        registry.register("files", "recent:10", Arrays.asList("files:recent", "file:43"));
+
+        Map<String, Set<String>> evicted = registry.invalidate(Collections.singleton("file:42"));
+
+        assertEquals(set("id:42:alice"), evicted.get("files"));
+        assertEquals(set("42:bob"), evicted.get("fileExists"));
+        assertTrue(registry.invalidate(Collections.singleton("file:42")).isEmpty());
+        assertEquals(set("recent:10"), registry.invalidate(Collections.singleton("files:recent")).get("files"));
+    }
+
+    private static InvalidationSet collect(EntityInvalidationRule<?> rule, EntityChange change) {
+        InvalidationSet out = new InvalidationSet();
+        rule.collect(change, out);
+        return out;
+    }
+
+    private static Role role(Long id) {
+        Role role = new Role();
+        role.setId(id);
+        return role;
+    }
+
+    private static Set<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+}
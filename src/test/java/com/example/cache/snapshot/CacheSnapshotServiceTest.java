@@ -0,0 +1,125 @@
+package com.example.cache.snapshot;
+
+import com.example.cache.StaleWhileRevalidateCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSnapshotServiceTest {
+
+    private static final long HOUR = 3_600_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesSurviveARestartWithTheirOriginalLoadTimes() throws IOException {
+        long now = System.currentTimeMillis();
+        StaleWhileRevalidateCache<String, String> before = newCache("weather");
+        before.put("fresh", "sunny", now - 60_000);
+        before.put("stale", "rain", now - 2 * HOUR);
+        before.put("retired", "snow", now - 30 * HOUR);
+        service(before).write();
+
+        StaleWhileRevalidateCache<String, String> after = newCache("weather");
+        after.put("stale", "loaded since startup", now);
+        service(after).restore();
+
+        assertEquals("sunny", after.peek("fresh").getValue());
+        assertEquals(now - 60_000, after.peek("fresh").getLoadedAt());
+        assertEquals("loaded since startup", after.peek("stale").getValue(), "newer entries are kept");
+        assertNull(after.peek("retired"), "past the retention period");
+        assertEquals("sunny", after.get("fresh", key -> fail("restored entry is served without loading")));
+    }
+
+    @Test
+    void writeReplacesThePreviousSnapshotAtomically() throws IOException {
+        StaleWhileRevalidateCache<String, String> cache = newCache("weather");
+        CacheSnapshotService service = service(cache);
+        cache.put("a", "1");
+        service.write();
+        cache.put("b", "2");
+        service.write();
+
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            assertEquals(Collections.singletonList("external-caches.snapshot"),
+                    files.map(p -> p.getFileName().toString()).collect(java.util.stream.Collectors.toList()));
+        }
+        StaleWhileRevalidateCache<String, String> restored = newCache("weather");
+        service(restored).restore();
+        assertEquals(2, restored.size());
+    }
+
+    @Test
+    void missingOrCorruptSnapshotStartsCold() throws IOException {
+        StaleWhileRevalidateCache<String, String> cache = newCache("weather");
+        service(cache).restore();
+
+        Files.write(directory.resolve("external-caches.snapshot"), new byte[]{1, 2, 3, 4});
+        service(cache).restore();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void unknownAndUnreadableSectionsDoNotStopTheOthers() throws IOException {
+        StaleWhileRevalidateCache<String, String> weather = newCache("weather");
+        StaleWhileRevalidateCache<String, String> rates = newCache("exchangeRates");
+        StaleWhileRevalidateCache<String, String> removed = newCache("removedCache");
+        weather.put("tile", "sunny");
+        rates.put("USD", "table");
+        removed.put("k", "v");
+        new CacheSnapshotService(Arrays.<SnapshotSection>asList(new StringSection(removed), new StringSection(weather),
+                new StringSection(rates)), true, directory.toString()).write();
+
+        StaleWhileRevalidateCache<String, String> weatherAfter = newCache("weather");
+        StaleWhileRevalidateCache<String, String> ratesAfter = newCache("exchangeRates");
+        SnapshotSection broken = new StringSection(weatherAfter) {
+            @Override
+            protected String readValue(DataInput in) {
+                throw new IllegalStateException("format changed");
+            }
+        };
+        new CacheSnapshotService(Arrays.<SnapshotSection>asList(broken, new StringSection(ratesAfter)), true,
+                directory.toString()).restore();
+
+        assertEquals("table", ratesAfter.peek("USD").getValue());
+        assertEquals(0, weatherAfter.size());
+    }
+
+    private CacheSnapshotService service(StaleWhileRevalidateCache<String, String> cache) {
+        return new CacheSnapshotService(Collections.<SnapshotSection>singletonList(new StringSection(cache)), true,
+                directory.toString());
+    }
+
+    private static StaleWhileRevalidateCache<String, String> newCache(String name) {
+        return new StaleWhileRevalidateCache<>(name, HOUR, 2 * HOUR + 1, 24 * HOUR, 100, Runnable::run,
+                System::currentTimeMillis);
+    }
+
+    private static class StringSection extends SwrSnapshotSection<String> {
+
+        StringSection(StaleWhileRevalidateCache<String, String> cache) {
+            super(cache);
+        }
+
+        @Override
+        protected void writeValue(DataOutput out, String value) throws IOException {
+            out.writeUTF(value);
+        }
+
+        @Override
+        protected String readValue(DataInput in) throws IOException {
+            return in.readUTF();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.cache.stats;
+
+import com.example.cache.CacheRegistry;
+import com.example.cache.StaleWhileRevalidateCache;
+import com.example.cache.twolevel.TwoLevelCacheManager;
+import com.example.cache.twolevel.TwoLevelCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheStatsServiceTest {
+
+    @Mock
+    private ObjectProvider<RedisConnectionFactory> connectionFactory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TwoLevelCacheProperties properties = new TwoLevelCacheProperties();
+    private TwoLevelCacheManager cacheManager;
+    private StaleWhileRevalidateCache<String, String> weather;
+    private CacheStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new TwoLevelCacheManager(properties, null, null);
+        weather = new StaleWhileRevalidateCache<>("weather", 60_000, 120_000, 100, Runnable::run);
+        service = new CacheStatsService(cacheManager, properties,
+                new CacheRegistry(Collections.<StaleWhileRevalidateCache<?, ?>>singletonList(weather)),
+                meterRegistry, connectionFactory, 16, 3);
+        service.bindMetrics();
+    }
+
+    @Test
+    void reportsCountersSizeMemoryAndTopKeys() {
+        Cache users = cacheManager.getCache("users");
+        users.get(1L);
+        users.put(1L, Arrays.asList("alice", "admin"));
+        users.get(1L);
+        users.get(1L);
+        users.get(2L);
+
+        CacheStatistics stats = service.get("users");
+
+        assertEquals("local", stats.getType());
+        assertEquals(2, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(0.5, stats.getHitRatio(), 1e-9);
+        assertEquals(1, stats.getLoads());
+        assertNotNull(stats.getAverageLoadMillis());
+        assertEquals(1, stats.getSize());
+        assertTrue(stats.getEstimatedMemoryBytes() > 0);
+        assertEquals(properties.getDefaultTtl().getSeconds(), stats.getTtlSeconds());
+        assertEquals("1", stats.getTopKeys().get(0).getKey());
+        assertNull(service.get("unknown"));
+    }
+
+    @Test
+    void publishesMeters() {
+        Cache users = cacheManager.getCache("users");
+        users.put("alice", "Alice");
+        users.get("alice");
+        users.get("bob");
+        weather.get("tashkent", key -> "sunny");
+        weather.get("tashkent", key -> "sunny");
+
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "users", "result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "users", "result", "miss").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.size").tags("cache", "users").gauge().value());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "weather", "result", "hit").functionCounter().count());
+        assertTrue(meterRegistry.get("cache.memory.estimated").tags("cache", "weather").gauge().value() > 0);
+    }
+
+    @Test
+    void samplesKeysWithAgeAndTtl() {
+        cacheManager.getCache("users").put("alice", "Alice");
+        weather.put("tashkent", "sunny");
+
+        List<CacheKeySample> users = service.sampleKeys("users", 10);
+        List<CacheKeySample> forecasts = service.sampleKeys("weather", 10);
+
+        assertEquals(1, users.size());
+        assertEquals("alice", users.get(0).getKey());
+        assertEquals("L1", users.get(0).getLevel());
+        assertTrue(users.get(0).getTtlSeconds() <= properties.getDefaultTtl().getSeconds());
+        assertEquals("tashkent", forecasts.get(0).getKey());
+        assertTrue(forecasts.get(0).getTtlSeconds() <= 120);
+        assertNull(service.sampleKeys("unknown", 10));
+    }
+}
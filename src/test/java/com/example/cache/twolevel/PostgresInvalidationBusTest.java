@@ -0,0 +1,66 @@
+package com.example.cache.twolevel;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostgresInvalidationBusTest {
+
+    private static String evict(String cache, String key) {
+        return new CacheInvalidation("node-a", cache, key).encode();
+    }
+
+    private static String clear(String cache) {
+        return new CacheInvalidation("node-a", cache, null).encode();
+    }
+
+    @Test
+    void coalescesDuplicatesAndKeepsOrder() {
+        List<String> coalesced = PostgresInvalidationBus.coalesce(Arrays.asList(
+                evict("users", "id:1"), evict("roles", "all"), evict("users", "id:1"), evict("users", "id:2"),
+                CacheInvalidation.forTag("node-a", "file:7").encode(), "garbage"), 10);
+
+        assertEquals(Arrays.asList(evict("users", "id:1"), evict("users", "id:2"), evict("roles", "all"),
+                CacheInvalidation.forTag("node-a", "file:7").encode()), coalesced);
+    }
+
+    @Test
+    void manyKeysOrAClearCollapseToOneClear() {
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            messages.add(evict("translations", "id:" + i));
+        }
+        messages.add(evict("files", "id:1"));
+        messages.add(clear("files"));
+        messages.add(evict("users", "name:a\nb"));
+
+        List<String> coalesced = PostgresInvalidationBus.coalesce(messages, 3);
+
+        assertEquals(Arrays.asList(clear("files"), clear("users"), clear("translations")), coalesced);
+    }
+
+    @Test
+    void payloadsStayWithinTheNotifyLimit() {
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            messages.add(evict("translations", "key:uz:" + String.join("", Collections.nCopies(20, "x")) + i));
+        }
+
+        List<String> payloads = PostgresInvalidationBus.payloads(messages);
+
+        assertTrue(payloads.size() > 1);
+        List<String> received = new ArrayList<>();
+        for (String payload : payloads) {
+            assertTrue(payload.getBytes(StandardCharsets.UTF_8).length
+                    <= PostgresInvalidationBus.MAX_PAYLOAD_BYTES);
+            received.addAll(Arrays.asList(payload.split("\n")));
+        }
+        assertEquals(messages, received);
+    }
+}
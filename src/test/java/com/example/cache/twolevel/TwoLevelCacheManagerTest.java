@@ -0,0 +1,208 @@
+package com.example.cache.twolevel;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoLevelCacheManagerTest {
+
+    /** Stands in for Redis: one L2 shared by all nodes. */
+    private final ConcurrentMapCacheManager sharedL2 = new ConcurrentMapCacheManager();
+    /** Stands in for the pub/sub channel: delivers every message to every node, sender included. */
+    private final List<TwoLevelCacheManager> subscribers = new ArrayList<>();
+    private final List<String> published = new ArrayList<>();
+
+    private TwoLevelCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TwoLevelCacheProperties();
+        TwoLevelCacheProperties.Spec users = new TwoLevelCacheProperties.Spec();
+        users.setTtl(Duration.ofMinutes(15));
+        properties.getCaches().put("users", users);
+    }
+
+    @Test
+    void readsFallBackToL2AndArePromotedToL1() {
+        Cache nodeA = node().getCache("users");
+        Cache nodeB = node().getCache("users");
+
+        nodeA.put("alice", "Alice");
+        assertEquals("Alice", nodeB.get("alice", String.class));
+
+        sharedL2.getCache("users").evict("alice");
+        assertEquals("Alice", nodeB.get("alice", String.class), "served from node B's L1");
+    }
+
+    @Test
+    void writesAndEvictionsDropOtherNodesL1Copies() {
+        Cache nodeA = node().getCache("users");
+        Cache nodeB = node().getCache("users");
+        nodeA.put("alice", "v1");
+        assertEquals("v1", nodeB.get("alice", String.class));
+
+        nodeA.put("alice", "v2");
+        assertEquals("v2", nodeB.get("alice", String.class));
+
+        nodeA.evict("alice");
+        assertNull(nodeB.get("alice"));
+
+        nodeB.put("bob", "Bob");
+        assertEquals("Bob", nodeA.get("bob", String.class));
+        nodeA.clear();
+        assertNull(nodeB.get("bob"));
+        assertEquals(5, published.size());
+    }
+
+    @Test
+    void loaderRunsOnceAcrossNodes() {
+        Cache nodeA = node().getCache("users");
+        Cache nodeB = node().getCache("users");
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("Alice", nodeA.get(42L, () -> {
+            loads.incrementAndGet();
+            return "Alice";
+        }));
+        assertEquals("Alice", nodeB.get(42L, () -> {
+            loads.incrementAndGet();
+            return "Bob";
+        }));
+
+        assertEquals(1, loads.get());
+        assertEquals("Alice", sharedL2.getCache("users").get(42L).get());
+    }
+
+    @Test
+    void withoutL2CachesAreLocalAndPublishNothing() {
+        TwoLevelCacheManager local = new TwoLevelCacheManager(properties, null, null);
+        Cache cache = local.getCache("roles");
+
+        cache.put("admin", "ADMIN");
+
+        assertEquals("ADMIN", cache.get("admin", String.class));
+        assertSame(cache, local.getCache("roles"));
+        assertTrue(local.getCacheNames().contains("roles"));
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void withoutL2OnlyEvictionsAreBroadcast() {
+        List<TwoLevelCacheManager> nodes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            nodes.add(new TwoLevelCacheManager(properties, null, message -> {
+                published.add(message);
+                nodes.forEach(node -> node.onInvalidation(message));
+            }));
+        }
+        Cache nodeA = nodes.get(0).getCache("roles");
+        Cache nodeB = nodes.get(1).getCache("roles");
+        nodeA.put("admin", "ADMIN");
+        nodeB.put("admin", "ADMIN");
+        assertTrue(published.isEmpty(), "read-through fills stay local");
+
+        nodeA.evict("admin");
+        assertNull(nodeB.get("admin"));
+
+        nodeB.put("hr", "HR");
+        nodes.get(1).clearAllLocal();
+        assertNull(nodeB.get("hr"));
+    }
+
+    @Test
+    void l2FailuresDegradeToL1() {
+        ConcurrentMapCacheManager broken = new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                return new ConcurrentMapCache(name) {
+                    @Override
+                    protected Object lookup(Object key) {
+                        throw new IllegalStateException("Redis down");
+                    }
+
+                    @Override
+                    public void put(Object key, Object value) {
+                        throw new IllegalStateException("Redis down");
+                    }
+                };
+            }
+        };
+        Cache cache = new TwoLevelCacheManager(properties, broken, null).getCache("users");
+
+        assertEquals("Alice", cache.get("alice", () -> "Alice"));
+        assertEquals("Alice", cache.get("alice", String.class));
+    }
+
+    @Test
+    void malformedMessagesAreIgnored() {
+        TwoLevelCacheManager manager = node();
+        manager.getCache("users").put("alice", "Alice");
+
+        manager.onInvalidation("not a cache message");
+        manager.onInvalidation("other-node\tE\tunknownCache\talice");
+
+        assertEquals("Alice", manager.getCache("users").get("alice", String.class));
+    }
+
+    @Test
+    void tagInvalidationsReachOtherNodesOnly() {
+        TwoLevelCacheManager nodeA = node();
+        TwoLevelCacheManager nodeB = node();
+        List<String> seenByA = new ArrayList<>();
+        List<String> seenByB = new ArrayList<>();
+        nodeA.onTagInvalidation(seenByA::add);
+        nodeB.onTagInvalidation(seenByB::add);
+
+        nodeA.publishTagInvalidation("file:42");
+
+        assertTrue(seenByA.isEmpty());
+        assertEquals(Collections.singletonList("file:42"), seenByB);
+    }
+
+    @Test
+    void countsLookupsLoadsAndHotKeys() {
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(properties, null, null);
+        List<String> created = new ArrayList<>();
+        manager.onCacheCreated(cache -> created.add(cache.getName()));
+        Cache cache = manager.getCache("users");
+        manager.getCache("users");
+
+        assertNull(cache.get("alice"));
+        cache.put("alice", "Alice");
+        cache.get("alice");
+        cache.get("alice");
+        assertEquals("Bob", cache.get("bob", () -> "Bob"));
+        cache.get("bob", () -> "other");
+        cache.evict("bob");
+
+        TwoLevelCache.Stats stats = manager.getTwoLevelCache("users").stats(5);
+        assertEquals(3, stats.getL1Hits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(2, stats.getLoads(), "the put after a miss completes a load");
+        assertEquals(1, stats.getPuts());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(1, stats.getL1Size());
+        assertEquals("alice", stats.getTopKeys().get(0).getKey());
+        assertEquals(2, stats.getTopKeys().get(0).getEstimate());
+        assertEquals(Collections.singletonList("users"), created);
+    }
+
+    private TwoLevelCacheManager node() {
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(properties, sharedL2, message -> {
+            published.add(message);
+            subscribers.forEach(subscriber -> subscriber.onInvalidation(message));
+        });
+        subscribers.add(manager);
+        return manager;
+    }
+}
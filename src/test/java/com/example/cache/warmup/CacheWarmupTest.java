@@ -0,0 +1,149 @@
+package com.example.cache.warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheWarmupTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    private CacheWarmup warmup;
+
+    @AfterEach
+    void tearDown() {
+        if (warmup != null) {
+            warmup.destroy();
+        }
+    }
+
+    @Test
+    void runsLoadsInParallelAndReportsReadyWhenAllFinish() throws InterruptedException {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> loaded = ConcurrentHashMap.newKeySet();
+        Runnable blockUntilReleased = () -> {
+            allStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        warmup = warmup(30_000,
+                CacheWarmupTask.forEach("translationMaps", () -> Arrays.asList("uz", "ru"), language -> {
+                    blockUntilReleased.run();
+                    loaded.add(language);
+                }),
+                CacheWarmupTask.of("roles", () -> {
+                    blockUntilReleased.run();
+                    loaded.add("roles");
+                }));
+        CacheWarmupHealthIndicator health = new CacheWarmupHealthIndicator(warmup);
+
+        assertEquals(Status.OUT_OF_SERVICE, health.health().getStatus());
+        warmup.start();
+        assertTrue(allStarted.await(5, TimeUnit.SECONDS), "all three loads run at once");
+        assertFalse(warmup.isComplete());
+        assertEquals(Status.OUT_OF_SERVICE, health.health().getStatus());
+
+        release.countDown();
+        awaitComplete();
+
+        assertEquals(new HashSet<>(Arrays.asList("uz", "ru", "roles")), loaded);
+        Health ready = health.health();
+        assertEquals(Status.UP, ready.getStatus());
+        @SuppressWarnings("unchecked")
+        List<CacheWarmupResult> results = (List<CacheWarmupResult>) ready.getDetails().get("caches");
+        assertEquals("translationMaps", results.get(0).getCache());
+        assertEquals("DONE", results.get(0).getStatus());
+        assertEquals(2, results.get(0).getLoads());
+        assertNotNull(results.get(0).getDurationMs());
+        assertEquals(1, meterRegistry.get("cache.warmup").tags("cache", "roles", "result", "success").timer().count());
+    }
+
+    @Test
+    void budgetExpiryReportsReadyWhileLoadsCarryOn() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        warmup = warmup(1_000, CacheWarmupTask.of("workflows", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        warmup.start();
+
+        clock.set(TimeUnit.MILLISECONDS.toNanos(999));
+        assertFalse(warmup.isComplete());
+        clock.set(TimeUnit.MILLISECONDS.toNanos(1_000));
+        assertTrue(warmup.isComplete());
+        assertTrue(warmup.isBudgetExpired());
+        assertEquals(Status.UP, new CacheWarmupHealthIndicator(warmup).health().getStatus());
+
+        release.countDown();
+        awaitComplete();
+        assertFalse(warmup.isBudgetExpired());
+    }
+
+    @Test
+    void failedLoadsFinishTheTaskAndAreReported() throws InterruptedException {
+        warmup = warmup(30_000, CacheWarmupTask.of("roles", () -> {
+            throw new IllegalStateException("database down");
+        }), CacheWarmupTask.forEach("translationMaps", Collections::<String>emptyList, language -> {
+        }));
+        warmup.start();
+        awaitComplete();
+
+        CacheWarmupResult roles = warmup.getResults().get(0);
+        assertEquals("FAILED", roles.getStatus());
+        assertTrue(roles.getError().contains("database down"));
+        assertEquals("DONE", warmup.getResults().get(1).getStatus());
+        assertEquals(1, meterRegistry.get("cache.warmup").tags("cache", "roles", "result", "failure").timer().count());
+    }
+
+    @Test
+    void disabledWarmupIsReadyAtOnce() {
+        warmup = new CacheWarmup(Collections.singletonList(CacheWarmupTask.of("roles", () -> fail("not run"))),
+                false, 1, 30_000, meterRegistry, clock::get);
+        warmup.start();
+
+        assertTrue(warmup.isComplete());
+        assertEquals(Status.UP, new CacheWarmupHealthIndicator(warmup).health().getStatus());
+    }
+
+    private CacheWarmup warmup(long budgetMs, CacheWarmupTask... tasks) {
+        return new CacheWarmup(Arrays.asList(tasks), true, 4, budgetMs, meterRegistry, clock::get);
+    }
+
+    private void awaitComplete() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!allDone() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(allDone(), "warm-up finished");
+    }
+
+    private boolean allDone() {
+        for (CacheWarmupResult result : warmup.getResults()) {
+            if (!"DONE".equals(result.getStatus()) && !"FAILED".equals(result.getStatus())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cache.interceptor.KeyGenerator;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keying one cached call with the previous string-building generator and with
+ * {@link CacheKeyGenerator}: the key alone, the key plus a map lookup, and the key plus the text
+ * form {@code TwoLevelCache} derives from it. Not a test: run {@link #main}; add {@code -prof gc}
+ * through the JMH command line for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyGeneratorBenchmark {
+
+    /** The generator this replaced, kept as the baseline. */
+    private static final KeyGenerator STRING_GENERATOR = (target, method, params) -> {
+        StringBuilder sb = new StringBuilder("translation.");
+        sb.append(method.getName()).append(".");
+        if (params != null && params.length > 0) {
+            for (Object param : params) {
+                if (param != null) {
+                    sb.append(param.toString()).append(".");
+                }
+            }
+        }
+        return sb.toString();
+    };
+
+    private final KeyGenerator cacheKeyGenerator = new CacheKeyGenerator("translation");
+    private final Object[] params = {"uz", 42L, Boolean.TRUE};
+    private final Map<Object, Object> stringKeyed = new HashMap<>();
+    private final Map<Object, Object> cacheKeyed = new HashMap<>();
+    private Method method;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        method = CacheKeyGeneratorBenchmark.class.getMethod("lookup", String.class, Long.class, Boolean.class);
+        stringKeyed.put(STRING_GENERATOR.generate(this, method, params), "value");
+        cacheKeyed.put(cacheKeyGenerator.generate(this, method, params), "value");
+    }
+
+    @Benchmark
+    public Object generateString() {
+        return STRING_GENERATOR.generate(this, method, params);
+    }
+
+    @Benchmark
+    public Object generateCacheKey() {
+        return cacheKeyGenerator.generate(this, method, params);
+    }
+
+    @Benchmark
+    public Object lookupString() {
+        return stringKeyed.get(STRING_GENERATOR.generate(this, method, params));
+    }
+
+    @Benchmark
+    public Object lookupCacheKey() {
+        return cacheKeyed.get(cacheKeyGenerator.generate(this, method, params));
+    }
+
+    @Benchmark
+    public String textString() {
+        return String.valueOf(STRING_GENERATOR.generate(this, method, params));
+    }
+
+    @Benchmark
+    public String textCacheKey() {
+        return String.valueOf(cacheKeyGenerator.generate(this, method, params));
+    }
+
+    public String lookup(String language, Long id, Boolean active) {
+        return language;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CacheKeyGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void serviceUnavailableIs503WithRetryAfter() {
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("POST", "/api/auth/login"));
+
+        ResponseEntity<ApiError> response = handler.handleServiceUnavailable(
+                new ServiceUnavailableException("Authentication service is busy. Please retry shortly.", 2), request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(503, response.getBody().getStatus());
+        assertEquals("/api/auth/login", response.getBody().getPath());
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.exchange.history;
+
+import com.example.exchange.entity.ExchangeRateHistory;
+import com.example.exchange.rates.CurrencyIndex;
+import com.example.exchange.rates.RateTable;
+import com.example.exchange.repository.ExchangeRateHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateHistoryStoreTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    @Mock
+    private ExchangeRateHistoryRepository repository;
+
+    @TempDir
+    Path directory;
+
+    private final CurrencyIndex index = new CurrencyIndex();
+
+    @Test
+    void rangeDerivesAnyPairPerDay() {
+        RateHistoryStore store = openStore(8);
+        store.record(table(MONDAY, 12000, 0.90));
+        store.record(table(MONDAY.plusDays(1), 12100, 0.92));
+        store.record(table(MONDAY.plusDays(2), 12200, 0.94));
+
+        List<RatePoint> usdUzs = store.range("USD", "UZS", MONDAY, MONDAY.plusDays(2));
+        List<RatePoint> eurUzs = store.range("EUR", "UZS", MONDAY.plusDays(1), MONDAY.plusDays(5));
+        List<RatePoint> uzsUsd = store.range("UZS", "USD", MONDAY, MONDAY);
+
+        assertEquals(3, usdUzs.size());
+        assertEquals(12200, usdUzs.get(2).getRate());
+        assertEquals(2, eurUzs.size());
+        assertEquals(MONDAY.plusDays(1), eurUzs.get(0).getDate());
+        assertEquals(12100 / 0.92, eurUzs.get(0).getRate(), 1e-9);
+        assertEquals(1 / 12000.0, uzsUsd.get(0).getRate(), 1e-15);
+        assertThrows(IllegalArgumentException.class, () -> store.range("USD", "XXX", MONDAY, MONDAY));
+    }
+
+    @Test
+    void laterTableOfTheSameDayReplacesItsRate() {
+        RateHistoryStore store = openStore(8);
+        store.record(table(MONDAY.plusDays(1), 12000, 0.90));
+        store.record(table(MONDAY.plusDays(1), 12050, 0.91));
+        store.record(table(MONDAY, 11000, 0.80));
+
+        List<RatePoint> points = store.range("USD", "UZS", MONDAY, MONDAY.plusDays(1));
+
+        assertEquals(1, points.size(), "older days are not inserted out of order");
+        assertEquals(12050, points.get(0).getRate());
+    }
+
+    @Test
+    void weeklyResampleAveragesIsoWeeks() {
+        RateHistoryStore store = openStore(8);
+        for (int day = 0; day < 10; day++) {
+            store.record(table(MONDAY.plusDays(day), 12000 + day * 10, 0.9));
+        }
+
+        List<RatePoint> weeks = store.resample("USD", "UZS", MONDAY.plusDays(2), MONDAY.plusDays(9),
+                ResampleInterval.WEEKLY);
+
+        assertEquals(2, weeks.size());
+        assertEquals(MONDAY, weeks.get(0).getDate());
+        assertEquals(5, weeks.get(0).getSamples());
+        assertEquals(12040, weeks.get(0).getRate(), 1e-9);
+        assertEquals(MONDAY.plusDays(7), weeks.get(1).getDate());
+        assertEquals(3, weeks.get(1).getSamples());
+        assertEquals(12080, weeks.get(1).getRate(), 1e-9);
+    }
+
+    @Test
+    void seriesSurviveRestartAndGrowPastInitialCapacity() {
+        RateHistoryStore store = openStore(2);
+        for (int day = 0; day < 20; day++) {
+            store.record(table(MONDAY.plusDays(day), 12000 + day, 0.9));
+        }
+        store.flush();
+
+        RateHistoryStore restarted = openStore(2);
+        List<RatePoint> points = restarted.range("USD", "UZS", MONDAY, MONDAY.plusDays(30));
+
+        assertEquals(20, points.size());
+        assertEquals(12019, points.get(19).getRate());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backupStoresClosedDaysOnce() {
+        LocalDate today = LocalDate.now();
+        RateHistoryStore store = openStore(8);
+        store.record(table(today.minusDays(1), 12000, 0.9));
+        store.record(table(today, 12100, 0.91));
+
+        store.backup();
+        store.backup();
+
+        ArgumentCaptor<List<ExchangeRateHistory>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(2)).saveAll(saved.capture());
+        for (List<ExchangeRateHistory> rows : saved.getAllValues()) {
+            assertEquals(1, rows.size());
+            assertEquals(today.minusDays(1), rows.get(0).getRateDate());
+            assertEquals("USD", rows.get(0).getBaseCurrency());
+        }
+    }
+
+    @Test
+    void rebuildsSeriesFromBackupTableWhenFilesAreMissing() {
+        when(repository.findLatestDates("USD"))
+                .thenReturn(Collections.singletonList(new Object[]{"UZS", MONDAY.plusDays(1)}));
+        when(repository.findByBaseCurrencyOrderByCurrencyAscRateDateAsc("USD")).thenReturn(Arrays.asList(
+                row("UZS", MONDAY, 12000),
+                row("UZS", MONDAY.plusDays(1), 12100)));
+
+        RateHistoryStore store = openStore(8);
+        store.backup();
+
+        assertEquals(2, store.range("USD", "UZS", MONDAY, MONDAY.plusDays(1)).size());
+        verify(repository, times(0)).saveAll(anyList());
+    }
+
+    private RateHistoryStore openStore(int initialCapacity) {
+        RateHistoryStore store = new RateHistoryStore(repository, true, "USD", directory.toString(), initialCapacity);
+        store.open();
+        return store;
+    }
+
+    private RateTable table(LocalDate day, double uzs, double eur) {
+        index.ordinalOf("USD");
+        index.ordinalOf("UZS");
+        index.ordinalOf("EUR");
+        double[] rates = new double[index.size()];
+        rates[index.indexOf("USD")] = 1.0;
+        rates[index.indexOf("UZS")] = uzs;
+        rates[index.indexOf("EUR")] = eur;
+        return new RateTable("USD", index, rates, day.atTime(12, 0));
+    }
+
+    private static ExchangeRateHistory row(String currency, LocalDate day, double rate) {
+        return ExchangeRateHistory.builder()
+                .baseCurrency("USD")
+                .currency(currency)
+                .rateDate(day)
+                .rate(rate)
+                .build();
+    }
+}
@@ -1,19 +1,41 @@
 package com.example.exchange.service.impl;
 
+import com.example.cache.HotKeyPrefetcher;
+import com.example.cache.StaleWhileRevalidateCache;
+import com.example.exchange.dto.BulkConvertRequest;
+import com.example.exchange.dto.BulkConvertResponse;
 import com.example.exchange.dto.ExchangeRateDto;
+import com.example.exchange.dto.RateHistoryDto;
+import com.example.exchange.history.RateHistoryStore;
+import com.example.exchange.history.ResampleInterval;
+import com.example.exchange.rates.RateTable;
+import com.example.exchange.rates.RateTableStore;
+import com.example.exchange.repository.ExchangeRateHistoryRepository;
+import com.example.exception.UpstreamUnavailableException;
+import com.example.http.CircuitBreakerRegistry;
+import com.example.http.OutboundHttpProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,9 +44,34 @@ class ExchangeRateServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
-    @InjectMocks
+    @Mock
+    private ExchangeRateHistoryRepository historyRepository;
+
+    @TempDir
+    Path historyDirectory;
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    private RateTableStore rateTableStore;
+
     private ExchangeRateServiceImpl exchangeRateService;
 
+    @BeforeEach
+    void setUp() {
+        StaleWhileRevalidateCache<String, RateTable> cache =
+                new StaleWhileRevalidateCache<>("exchangeRates", 60_000, 600_000, 3_600_000, 16, Runnable::run, now::get);
+        CircuitBreakerRegistry circuitBreakers =
+                new CircuitBreakerRegistry(new OutboundHttpProperties(), new SimpleMeterRegistry());
+        HotKeyPrefetcher hotKeyPrefetcher = new HotKeyPrefetcher(true, 20, 60, 64, 1024);
+        RateHistoryStore rateHistoryStore =
+                new RateHistoryStore(historyRepository, true, "USD", historyDirectory.toString(), 8);
+        rateHistoryStore.open();
+        rateTableStore = new RateTableStore(restTemplate, cache, circuitBreakers, hotKeyPrefetcher, rateHistoryStore);
+        ReflectionTestUtils.setField(rateTableStore, "apiUrl", "https://open.er-api.com/v6/latest");
+        ReflectionTestUtils.setField(rateTableStore, "anchorCurrency", "USD");
+        exchangeRateService = new ExchangeRateServiceImpl(rateTableStore, hotKeyPrefetcher, rateHistoryStore);
+    }
+
     @Test
     void getLatestRate_sameCurrency_returnsOne() {
         ExchangeRateDto result = exchangeRateService.getLatestRate("USD", "USD");
@@ -36,18 +83,7 @@ class ExchangeRateServiceImplTest {
 
     @Test
     void getLatestRate_success_returnsRate() {
-        ReflectionTestUtils.setField(exchangeRateService, "apiUrl", "https://open.er-api.com/v6/latest");
-
-        Map<String, Object> rates = new HashMap<>();
-        rates.put("UZS", 11930.5);
-        rates.put("EUR", 0.87);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("result", "success");
-        response.put("base_code", "USD");
-        response.put("rates", rates);
-
-        when(restTemplate.getForObject(contains("/USD"), eq(Map.class))).thenReturn(response);
+        stubUsdTable();
 
         ExchangeRateDto result = exchangeRateService.getLatestRate("usd", "uzs");
 
@@ -58,8 +94,6 @@ class ExchangeRateServiceImplTest {
 
     @Test
     void getLatestRate_unsupportedCurrency_throws() {
-        ReflectionTestUtils.setField(exchangeRateService, "apiUrl", "https://open.er-api.com/v6/latest");
-
         Map<String, Object> response = new HashMap<>();
         response.put("result", "success");
         response.put("rates", new HashMap<String, Object>());
@@ -69,4 +103,106 @@ class ExchangeRateServiceImplTest {
         assertThrows(IllegalArgumentException.class,
                 () -> exchangeRateService.getLatestRate("USD", "XXX"));
     }
+
+    @Test
+    void getLatestRate_crossPairs_derivedFromOneTableDownload() {
+        stubUsdTable();
+
+        ExchangeRateDto usdEur = exchangeRateService.getLatestRate("USD", "EUR");
+        ExchangeRateDto eurUzs = exchangeRateService.getLatestRate(" eur ", "uzs");
+        ExchangeRateDto uzsEur = exchangeRateService.getLatestRate("UZS", "EUR");
+
+        assertEquals(0.8, usdEur.getRate());
+        assertEquals(11930.5 / 0.8, eurUzs.getRate(), 1e-9);
+        assertEquals(0.8 / 11930.5, uzsEur.getRate(), 1e-15);
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    void convert_usesOneSnapshotAndReportsUnsupportedItemsInline() {
+        stubUsdTable();
+
+        BulkConvertRequest request = BulkConvertRequest.builder()
+                .items(Arrays.asList(
+                        new BulkConvertRequest.Item("EUR", "UZS", 10.0),
+                        new BulkConvertRequest.Item("usd", "eur", 100.0),
+                        new BulkConvertRequest.Item("USD", "XXX", 1.0)))
+                .build();
+
+        BulkConvertResponse response = exchangeRateService.convert(request);
+
+        assertEquals(3, response.getResults().size());
+        assertEquals(10.0 * 11930.5 / 0.8, response.getResults().get(0).getConvertedAmount(), 1e-6);
+        assertEquals(80.0, response.getResults().get(1).getConvertedAmount(), 1e-9);
+        assertNull(response.getResults().get(2).getConvertedAmount());
+        assertEquals("Currency not supported: XXX", response.getResults().get(2).getError());
+        assertNotNull(response.getFetchedAt());
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+    }
+
+    @Test
+    void getLatestRate_upstreamDown_servesLastKnownGoodTableFlaggedStale() {
+        stubUsdTable();
+        exchangeRateService.getLatestRate("USD", "UZS");
+
+        now.addAndGet(700_000);
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        ExchangeRateDto result = exchangeRateService.getLatestRate("USD", "UZS");
+
+        assertEquals(11930.5, result.getRate());
+        assertTrue(result.getStale());
+        assertNotNull(result.getAgeSeconds());
+    }
+
+    @Test
+    void getLatestRate_upstreamDownWithoutPreviousTable_throwsServiceUnavailable() {
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        assertThrows(UpstreamUnavailableException.class,
+                () -> exchangeRateService.getLatestRate("USD", "UZS"));
+    }
+
+    @Test
+    void getHistory_fetchedTablesAreRecordedAsTodaysRates() {
+        stubUsdTable();
+        exchangeRateService.getLatestRate("USD", "UZS");
+        LocalDate today = LocalDate.now();
+
+        RateHistoryDto history = exchangeRateService.getHistory("eur", "uzs", null, null);
+        RateHistoryDto weekly = exchangeRateService.getResampledHistory("USD", "EUR", today, today,
+                ResampleInterval.WEEKLY);
+
+        assertEquals(today.minusDays(30), history.getStart());
+        assertEquals(1, history.getPoints().size());
+        assertEquals(today, history.getPoints().get(0).getDate());
+        assertEquals(11930.5 / 0.8, history.getPoints().get(0).getRate(), 1e-9);
+        assertEquals("WEEKLY", weekly.getInterval());
+        assertEquals(0.8, weekly.getPoints().get(0).getRate(), 1e-12);
+    }
+
+    @Test
+    void getHistory_invalidRangeOrUnknownCurrency_throws() {
+        LocalDate today = LocalDate.now();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> exchangeRateService.getHistory("USD", "UZS", today, today.minusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> exchangeRateService.getHistory("USD", "XXX", null, null));
+    }
+
+    private void stubUsdTable() {
+        Map<String, Object> rates = new HashMap<>();
+        rates.put("UZS", 11930.5);
+        rates.put("EUR", 0.8);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("result", "success");
+        response.put("base_code", "USD");
+        response.put("rates", rates);
+
+        when(restTemplate.getForObject(contains("/USD"), eq(Map.class))).thenReturn(response);
+    }
 }
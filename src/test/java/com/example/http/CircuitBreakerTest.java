@@ -0,0 +1,142 @@
+package com.example.http;
+
+import com.example.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private OutboundHttpProperties.CircuitBreaker settings;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        settings = new OutboundHttpProperties.CircuitBreaker();
+        settings.setWindowSize(10);
+        settings.setMinimumCalls(4);
+        settings.setFailureRateThreshold(50);
+        settings.setSlowCallDurationMs(1000);
+        settings.setSlowCallRateThreshold(75);
+        settings.setOpenStateMs(10_000);
+        settings.setProbeIntervalMs(2_000);
+        settings.setHalfOpenSuccesses(2);
+        breaker = new CircuitBreaker("test", settings, e -> e instanceof UpstreamUnavailableException, now::get);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThresholdAndRejectsWithoutCalling() {
+        recordSuccess();
+        recordSuccess();
+        recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "below minimum calls");
+        recordFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        CircuitOpenException rejected = assertThrows(CircuitOpenException.class,
+                () -> breaker.execute(() -> fail("upstream must not be called")));
+        assertEquals(10, rejected.getRetryAfterSeconds());
+        assertEquals(1, breaker.snapshot().getNotPermittedCalls());
+    }
+
+    @Test
+    void businessErrorsDoNotCountAsFailures() {
+        for (int i = 0; i < 6; i++) {
+            assertThrows(IllegalArgumentException.class, () -> breaker.execute(() -> {
+                throw new IllegalArgumentException("City not found");
+            }));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0f, breaker.snapshot().getFailureRate());
+    }
+
+    @Test
+    void opensOnSlowCallRate() {
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(() -> {
+                now.addAndGet(1500);
+                return "slow but fine";
+            });
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void oldOutcomesSlideOutOfTheWindow() {
+        recordSuccess();
+        recordSuccess();
+        recordSuccess();
+        recordFailure();
+        for (int i = 0; i < 10; i++) {
+            recordSuccess();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0f, breaker.snapshot().getFailureRate());
+    }
+
+    @Test
+    void halfOpenAllowsRateLimitedProbesAndClosesAfterSuccesses() {
+        openCircuit();
+        now.addAndGet(10_000);
+
+        assertTrue(breaker.tryAcquirePermission(), "first probe after open period");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission(), "only one probe in flight");
+        breaker.onResult(10, false);
+
+        assertFalse(breaker.tryAcquirePermission(), "probe interval not elapsed");
+        now.addAndGet(2_000);
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onResult(10, false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.snapshot().getTransitions().get(0).getTo());
+    }
+
+    @Test
+    void failedProbeReopensCircuit() {
+        openCircuit();
+        now.addAndGet(10_000);
+
+        recordFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(10, breaker.retryAfterSeconds());
+    }
+
+    @Test
+    void probeThrowingAnErrorReopensInsteadOfWedgingTheCircuit() {
+        openCircuit();
+        now.addAndGet(10_000);
+
+        assertThrows(AssertionError.class, () -> breaker.execute(() -> {
+            throw new AssertionError("boom");
+        }));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        now.addAndGet(10_000);
+        assertEquals("ok", breaker.execute(() -> "ok"), "next probe is permitted");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            recordFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void recordSuccess() {
+        breaker.execute(() -> "ok");
+    }
+
+    private void recordFailure() {
+        assertThrows(UpstreamUnavailableException.class, () -> breaker.execute(() -> {
+            throw new UpstreamUnavailableException("down", 30);
+        }));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundHttpClientTest {
+
+    private static final String HOST = "127.0.0.1";
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final CountDownLatch releaseBlocked = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundHttpClient client;
+    private String baseUrl;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getByName(HOST), 0), 0);
+        server.createContext("/ok", exchange -> respond(exchange, 200, "{\"ok\":true}"));
+        server.createContext("/fail", exchange -> respond(exchange, 500, "{\"error\":\"boom\"}"));
+        server.createContext("/slow", exchange -> {
+            sleep(1500);
+            respond(exchange, 200, "{}");
+        });
+        server.createContext("/block", exchange -> {
+            try {
+                releaseBlocked.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{}");
+        });
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.start();
+        baseUrl = "http://" + HOST + ":" + server.getAddress().getPort();
+
+        OutboundHttpProperties properties = new OutboundHttpProperties();
+        OutboundHttpProperties.Host stubHost = new OutboundHttpProperties.Host();
+        stubHost.setReadTimeoutMs(300);
+        stubHost.setMaxConcurrent(2);
+        properties.getHosts().put(HOST, stubHost);
+
+        meterRegistry = new SimpleMeterRegistry();
+        client = new OutboundHttpClient(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void stopStub() throws IOException {
+        releaseBlocked.countDown();
+        client.destroy();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void successfulCallsAreTimedPerHostAndReuseConnections() {
+        RestTemplate restTemplate = client.restTemplate();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("{\"ok\":true}", restTemplate.getForObject(baseUrl + "/ok", String.class));
+        }
+
+        assertEquals(5, meterRegistry.get(OutboundMetricsInterceptor.METRIC)
+                .tag("host", HOST).tag("outcome", "SUCCESS").tag("status", "200")
+                .timer().count());
+        // Keep-alive: the connection went back to the pool instead of being closed
+        assertEquals(0.0, meterRegistry.get("http.client.pool.leased").gauge().value());
+        assertTrue(meterRegistry.get("http.client.pool.available").gauge().value() >= 1.0);
+    }
+
+    @Test
+    void serverErrorsAreTaggedAndStillSurfaceToTheCaller() {
+        assertThrows(HttpServerErrorException.class,
+                () -> client.restTemplate().getForObject(baseUrl + "/fail", String.class));
+
+        assertEquals(1, meterRegistry.get(OutboundMetricsInterceptor.METRIC)
+                .tag("host", HOST).tag("outcome", "SERVER_ERROR").timer().count());
+    }
+
+    @Test
+    void perHostReadTimeoutCutsOffSlowUpstream() {
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class,
+                () -> client.restTemplate().getForObject(baseUrl + "/slow", String.class));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < 1200, "read timeout not applied, took " + elapsedMs + " ms");
+        assertEquals(1, meterRegistry.get(OutboundMetricsInterceptor.METRIC)
+                .tag("host", HOST).tag("outcome", "IO_ERROR").timer().count());
+    }
+
+    @Test
+    void bulkheadRejectsRequestsBeyondTheHostLimit() throws Exception {
+        client = replaceWithLongTimeouts();
+        RestTemplate restTemplate = client.restTemplate();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = callers.submit(() -> restTemplate.getForObject(baseUrl + "/block", String.class));
+            Future<String> second = callers.submit(() -> restTemplate.getForObject(baseUrl + "/block", String.class));
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (client.bulkhead().availablePermits(HOST) > 0 && System.currentTimeMillis() < deadline) {
+                sleep(10);
+            }
+            assertEquals(0, client.bulkhead().availablePermits(HOST));
+
+            assertThrows(BulkheadFullException.class,
+                    () -> restTemplate.getForObject(baseUrl + "/ok", String.class));
+            assertEquals(1.0, meterRegistry.get("http.client.outbound.rejected").tag("host", HOST).counter().count());
+
+            releaseBlocked.countDown();
+            assertEquals("{}", first.get(5, TimeUnit.SECONDS));
+            assertEquals("{}", second.get(5, TimeUnit.SECONDS));
+            assertEquals(2, client.bulkhead().availablePermits(HOST));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private OutboundHttpClient replaceWithLongTimeouts() throws IOException {
+        client.destroy();
+        OutboundHttpProperties properties = new OutboundHttpProperties();
+        OutboundHttpProperties.Host stubHost = new OutboundHttpProperties.Host();
+        stubHost.setMaxConcurrent(2);
+        properties.getHosts().put(HOST, stubHost);
+        meterRegistry = new SimpleMeterRegistry();
+        return new OutboundHttpClient(properties, meterRegistry);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
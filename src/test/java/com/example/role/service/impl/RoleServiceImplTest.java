@@ -0,0 +1,79 @@
+package com.example.role.service.impl;
+
+import com.example.role.dto.AssignRoleRequest;
+import com.example.role.entity.Role;
+import com.example.role.mapper.RoleMapper;
+import com.example.role.repository.RoleRepository;
+import com.example.security.PrincipalCache;
+import com.example.user.entity.User;
+import com.example.user.enums.UserRole;
+import com.example.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoleServiceImplTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleMapper roleMapper;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @InjectMocks
+    private RoleServiceImpl roleService;
+
+    private User user;
+    private Role hr;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).email("user@example.com").role(UserRole.USER).build();
+        user.setRoles(new HashSet<>());
+        hr = new Role();
+        hr.setId(7L);
+        hr.setName("HR");
+    }
+
+    @Test
+    void assigningRolesBumpsTheSecurityVersionAndDropsTheCachedPrincipal() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(roleRepository.findAllById(Collections.singleton(7L))).thenReturn(Collections.singletonList(hr));
+
+        roleService.assignRolesToUser(new AssignRoleRequest(1L, Collections.singleton(7L)));
+
+        assertTrue(user.getRoles().contains(hr));
+        assertEquals(1L, user.getSecurityVersion());
+        verify(userRepository).save(user);
+        verify(principalCache).invalidate("user@example.com");
+    }
+
+    @Test
+    void removingRolesBumpsTheSecurityVersionAndDropsTheCachedPrincipal() {
+        user.getRoles().add(hr);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        roleService.removeRolesFromUser(1L, Collections.singleton(7L));
+
+        assertTrue(user.getRoles().isEmpty());
+        assertEquals(1L, user.getSecurityVersion());
+        verify(principalCache).invalidate("user@example.com");
+    }
+}
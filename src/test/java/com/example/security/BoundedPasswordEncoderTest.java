@@ -0,0 +1,141 @@
+package com.example.security;
+
+import com.example.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void encodesOnThePool() {
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(), 1, 1, 5_000, 2, meterRegistry);
+
+        assertEquals("hashed:secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "hashed:secret"));
+        assertFalse(encoder.matches("other", "hashed:secret"));
+    }
+
+    @Test
+    void saturatedPoolRejectsWithRetryAfter() throws InterruptedException {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 5_000, 2, meterRegistry);
+        Thread running = background("running");
+        assertTrue(hashing.await(5, TimeUnit.SECONDS), "worker busy");
+        Thread queued = background("queued");
+        awaitQueued();
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () -> encoder.encode("third"));
+        assertEquals(2, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("security.password.rejected").counter().count());
+
+        release.countDown();
+        running.join(5_000);
+        queued.join(5_000);
+    }
+
+    @Test
+    void queuedHashGivesUpAfterWaitTimeout() throws InterruptedException {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 50, 3, meterRegistry);
+        Thread running = background("running");
+        assertTrue(hashing.await(5, TimeUnit.SECONDS), "worker busy");
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () -> encoder.encode("queued"));
+        assertEquals(3, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("security.password.rejected").counter().count());
+
+        release.countDown();
+        running.join(5_000);
+    }
+
+    @Test
+    void calibrationPicksTheHighestCostWithinBudget() {
+        // 10 -> 4 ms, 11 -> 8 ms, 12 -> 16 ms, 13 -> 32 ms
+        assertEquals(12, BoundedPasswordEncoder.calibrateStrength(10, 20, strength -> 1L << (strength - 8)));
+    }
+
+    @Test
+    void calibrationStepsBackWhenTheNextCostOvershoots() {
+        assertEquals(10, BoundedPasswordEncoder.calibrateStrength(10, 10, strength -> strength == 10 ? 4 : 12));
+    }
+
+    @Test
+    void calibrationNeverGoesBelowTheMinimum() {
+        assertEquals(12, BoundedPasswordEncoder.calibrateStrength(12, 10, strength -> 500));
+    }
+
+    @Test
+    void calibrationStopsAtTheMaximumCost() {
+        assertEquals(16, BoundedPasswordEncoder.calibrateStrength(10, 1_000, strength -> 0));
+    }
+
+    @Test
+    void calibrationOfRealBcryptStaysInBounds() {
+        int strength = BoundedPasswordEncoder.calibrateStrength(4, 1);
+        assertTrue(strength >= 4 && strength <= 16, "strength " + strength);
+    }
+
+    private Thread background(String password) {
+        Thread thread = new Thread(() -> {
+            try {
+                encoder.encode(password);
+            } catch (ServiceUnavailableException ignored) {
+                // released or shut down by the test
+            }
+        }, "hash-caller-" + password);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("security.password.queue.depth").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1.0, meterRegistry.get("security.password.queue.depth").gauge().value(), "request queued");
+    }
+
+    private static class PlainEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private class BlockingEncoder extends PlainEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.encode(rawPassword);
+        }
+    }
+}
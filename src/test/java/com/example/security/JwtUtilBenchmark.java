@@ -0,0 +1,73 @@
+package com.example.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying an access token on every request, with the claims cache and without it
+ * (parse, Base64, HMAC each time). {@code tokens} is the number of distinct live tokens the
+ * requests cycle through. Not a test: run {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-for-jwt-verification";
+
+    @Param({"1", "1000"})
+    public int tokens;
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String[] issued;
+
+    @Setup
+    public void setUp() {
+        cached = new JwtUtil(SECRET, TimeUnit.HOURS.toMillis(1), 10_000);
+        uncached = new JwtUtil(SECRET, TimeUnit.HOURS.toMillis(1), 0);
+        issued = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            issued[i] = uncached.generateToken("user" + i + "@example.com", i);
+        }
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return uncached.extractAllClaims(next());
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cached.extractAllClaims(next());
+    }
+
+    private String next() {
+        return issued[ThreadLocalRandom.current().nextInt(issued.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
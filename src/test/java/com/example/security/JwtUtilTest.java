@@ -0,0 +1,123 @@
+package com.example.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-for-unit-tests-only";
+
+    @Test
+    void cachedAndUncachedParsersAgree() {
+        JwtUtil cached = new JwtUtil(SECRET, 60_000, 100);
+        JwtUtil uncached = new JwtUtil(SECRET, 60_000, 0);
+
+        String token = uncached.generateToken("user@example.com");
+
+        assertEquals("user@example.com", cached.extractUsername(token));
+        assertEquals(uncached.extractExpiration(token), cached.extractExpiration(token));
+        assertTrue(cached.validateToken(token, "user@example.com"));
+        assertFalse(cached.validateToken(token, "other@example.com"));
+    }
+
+    @Test
+    void repeatedVerificationReturnsCachedClaims() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String token = jwtUtil.generateToken("user@example.com");
+
+        Claims first = jwtUtil.extractAllClaims(token);
+        Claims second = jwtUtil.extractAllClaims(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void cachedClaimsCannotBeModifiedByACaller() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String token = jwtUtil.generateToken("user@example.com", 3L);
+        Claims claims = jwtUtil.extractAllClaims(token);
+
+        assertThrows(UnsupportedOperationException.class, () -> claims.setSubject("admin@example.com"));
+        assertThrows(UnsupportedOperationException.class, () -> claims.put(JwtUtil.SECURITY_VERSION_CLAIM, 99L));
+
+        Claims again = jwtUtil.extractAllClaims(token);
+        assertEquals("user@example.com", again.getSubject());
+        assertEquals(3L, JwtUtil.securityVersion(again));
+    }
+
+    @Test
+    void uncachedClaimsAreReadOnlyToo() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 0);
+        Claims claims = jwtUtil.extractAllClaims(jwtUtil.generateToken("user@example.com"));
+
+        assertThrows(UnsupportedOperationException.class, () -> claims.setSubject("admin@example.com"));
+    }
+
+    @Test
+    void expiredTokenIsRejectedEvenAfterBeingCached() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-01T09:00:00Z"));
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 2_000, 100, clock);
+        String token = jwtUtil.generateToken("user@example.com");
+        assertEquals("user@example.com", jwtUtil.extractUsername(token));
+
+        clock.advance(Duration.ofMillis(2_100));
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.extractUsername(token));
+    }
+
+    @Test
+    void tokenSignedWithAnotherSecretIsNotAccepted() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String foreign = new JwtUtil("another-secret-key-entirely", 60_000, 0).generateToken("user@example.com");
+
+        assertThrows(SignatureException.class, () -> jwtUtil.extractUsername(foreign));
+    }
+
+    @Test
+    void tokensCarryUniqueIdAndSecurityVersion() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        Claims first = jwtUtil.extractAllClaims(jwtUtil.generateToken("user@example.com", 7L));
+        Claims second = jwtUtil.extractAllClaims(jwtUtil.generateToken("user@example.com", 7L));
+
+        assertNotNull(first.getId());
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(7L, JwtUtil.securityVersion(first));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
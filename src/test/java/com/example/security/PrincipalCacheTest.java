@@ -0,0 +1,137 @@
+package com.example.security;
+
+import com.example.user.enums.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private final AtomicLong storedVersion = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private PrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = newCache(true);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void hitsAreServedWithoutLoading() {
+        UserPrincipal first = cache.get(EMAIL, 0L, this::load);
+        UserPrincipal second = cache.get(EMAIL, 0L, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void tokenNewerThanTheCachedPrincipalReloads() {
+        cache.get(EMAIL, 0L, this::load);
+        storedVersion.set(1);
+
+        assertEquals(1, cache.get(EMAIL, 1L, this::load).getSecurityVersion());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadNeverReplacesANewerSecurityVersion() {
+        storedVersion.set(2);
+        cache.get(EMAIL, 2L, this::load);
+        storedVersion.set(1); // a lagging replica, say
+
+        assertEquals(2, cache.get(EMAIL, 3L, this::load).getSecurityVersion());
+        assertEquals(2, cache.get(EMAIL, 0L, this::load).getSecurityVersion());
+    }
+
+    @Test
+    void invalidationAlsoRunsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.get(EMAIL, 0L, this::load);
+
+        cache.invalidate(EMAIL);
+        // a concurrent request re-reads the pre-commit row and caches it again
+        cache.get(EMAIL, 0L, this::load);
+        storedVersion.set(1);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        assertEquals(1, cache.get(EMAIL, 0L, this::load).getSecurityVersion());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void invalidationDuringALoadRemovesWhatThatLoadCaches() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread reader = new Thread(() -> cache.get(EMAIL, 0L, email -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return load(email); // read before the commit
+        }));
+        reader.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        storedVersion.set(1);
+        Thread invalidator = new Thread(() -> cache.invalidate(EMAIL)); // the after-commit invalidation
+        invalidator.start();
+        release.countDown();
+        reader.join(5_000);
+        invalidator.join(5_000);
+
+        assertEquals(1, cache.get(EMAIL, 0L, this::load).getSecurityVersion());
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        PrincipalCache disabled = newCache(false);
+
+        disabled.get(EMAIL, 0L, this::load);
+        disabled.get(EMAIL, 0L, this::load);
+
+        assertEquals(2, loads.get());
+        assertFalse(disabled.isEnabled());
+    }
+
+    private PrincipalCache newCache(boolean enabled) {
+        PrincipalCache principalCache = new PrincipalCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(principalCache, "enabled", enabled);
+        ReflectionTestUtils.setField(principalCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(principalCache, "ttlSeconds", 300L);
+        principalCache.init();
+        return principalCache;
+    }
+
+    private UserPrincipal load(String email) {
+        loads.incrementAndGet();
+        return new UserPrincipal(1L, email, "hash", UserRole.USER, storedVersion.get(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
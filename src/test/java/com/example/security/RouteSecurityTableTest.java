@@ -0,0 +1,62 @@
+package com.example.security;
+
+import com.example.security.RouteSecurityTable.RouteAccess;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteSecurityTableTest {
+
+    private final RouteSecurityTable table = new RouteSecurityConfig().routeSecurityTable();
+
+    @Test
+    void authEndpointsSkipTokenProcessing() {
+        assertEquals(RouteAccess.ANONYMOUS, table.resolve("POST", "/api/auth/login"));
+        assertEquals(RouteAccess.ANONYMOUS, table.resolve("POST", "/api/auth/register"));
+        assertEquals(RouteAccess.ANONYMOUS, table.resolve("POST", "/api/auth/refresh"));
+        assertEquals(RouteAccess.ANONYMOUS, table.resolve("GET", "/api/auth/oauth2/google/callback"));
+        assertEquals(RouteAccess.ANONYMOUS, table.resolve("GET", "/v3/api-docs/swagger-config"));
+    }
+
+    @Test
+    void exactRulesDoNotLeakToSiblings() {
+        assertEquals(RouteAccess.AUTHENTICATED, table.resolve("GET", "/api/auth/me"));
+        assertEquals(RouteAccess.AUTHENTICATED, table.resolve("POST", "/api/auth/create-admin"));
+        assertEquals(RouteAccess.AUTHENTICATED, table.resolve("GET", "/api/auth/login/extra"));
+    }
+
+    @Test
+    void methodSpecificRulesOnlyApplyToThatMethod() {
+        assertEquals(RouteAccess.PERMIT_ALL, table.resolve("GET", "/api/files/public/12"));
+        assertEquals(RouteAccess.AUTHENTICATED, table.resolve("DELETE", "/api/files/public/12"));
+        assertEquals(RouteAccess.PERMIT_ALL, table.resolve("GET", "/api/files/recent"));
+        assertEquals(RouteAccess.AUTHENTICATED, table.resolve("GET", "/api/files/recent/other"));
+    }
+
+    @Test
+    void subtreeRuleAlsoMatchesItsRoot() {
+        assertEquals(RouteAccess.PERMIT_ALL, table.resolve("PUT", "/api/translations"));
+        assertEquals(RouteAccess.PERMIT_ALL, table.resolve("PUT", "/api/translations/5"));
+        assertEquals(RouteAccess.PERMIT_ALL, table.resolve("GET", "/actuator/health"));
+        assertEquals(RouteAccess.PERMIT_ALL, table.resolve("GET", "/actuator/health/readiness"));
+    }
+
+    @Test
+    void preflightIsAlwaysPermitted() {
+        assertEquals(RouteAccess.PERMIT_ALL, table.resolve("OPTIONS", "/api/auth/me"));
+        assertEquals(RouteAccess.PERMIT_ALL, table.resolve("OPTIONS", "/api/users/1"));
+    }
+
+    @Test
+    void unmatchedRoutesRequireAuthentication() {
+        assertEquals(RouteAccess.AUTHENTICATED, table.resolve("GET", "/api/weather/current"));
+        assertEquals(RouteAccess.AUTHENTICATED, table.resolve("GET", "/api/unknown"));
+        assertEquals(RouteAccess.PERMIT_ALL, table.resolve("GET", "/"));
+    }
+
+    @Test
+    void wildcardInsideAPatternIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RouteSecurityTable.builder().rule(RouteAccess.PERMIT_ALL, "/api/*/public"));
+    }
+}
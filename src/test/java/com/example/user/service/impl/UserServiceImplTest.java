@@ -0,0 +1,67 @@
+package com.example.user.service.impl;
+
+import com.example.security.PrincipalCache;
+import com.example.user.dto.UpdateUserRequest;
+import com.example.user.entity.User;
+import com.example.user.enums.UserRole;
+import com.example.user.mapper.UserMapper;
+import com.example.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @InjectMocks
+    private UserServiceImpl userService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).email("user@example.com").name("User").role(UserRole.USER).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void passwordChangeBumpsTheSecurityVersionAndDropsTheCachedPrincipal() {
+        when(passwordEncoder.encode("n3w-Secret!")).thenReturn("new-hash");
+
+        userService.updateUser(1L, UpdateUserRequest.builder().password("n3w-Secret!").build());
+
+        assertEquals("new-hash", user.getPassword());
+        assertEquals(1L, user.getSecurityVersion());
+        verify(principalCache, atLeastOnce()).invalidate("user@example.com");
+    }
+
+    @Test
+    void profileEditKeepsTheSecurityVersion() {
+        userService.updateUser(1L, UpdateUserRequest.builder().build());
+
+        assertEquals(0L, user.getSecurityVersion());
+    }
+}
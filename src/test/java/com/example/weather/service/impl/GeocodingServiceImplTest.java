@@ -0,0 +1,129 @@
+package com.example.weather.service.impl;
+
+import com.example.http.CircuitBreakerRegistry;
+import com.example.http.OutboundHttpProperties;
+import com.example.weather.dto.GeoLocation;
+import com.example.weather.entity.GeocodedCity;
+import com.example.weather.repository.GeocodedCityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GeocodingServiceImplTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private GeocodedCityRepository geocodedCityRepository;
+
+    private GeocodingServiceImpl geocodingService;
+
+    @BeforeEach
+    void setUp() {
+        geocodingService = new GeocodingServiceImpl(restTemplate, geocodedCityRepository,
+                new CircuitBreakerRegistry(new OutboundHttpProperties(), new SimpleMeterRegistry()), 100);
+        ReflectionTestUtils.setField(geocodingService, "geocodingUrl", "https://geocoding-api.open-meteo.com/v1/search");
+    }
+
+    @Test
+    void resolve_storedCity_skipsUpstreamAndIsServedFromMemoryAfterwards() {
+        GeocodedCity stored = GeocodedCity.builder()
+                .queryKey("tashkent").language("en").name("Tashkent").country("Uzbekistan")
+                .latitude(41.26).longitude(69.21).build();
+        when(geocodedCityRepository.findByQueryKeyAndLanguage("tashkent", "en")).thenReturn(Optional.of(stored));
+
+        GeoLocation first = geocodingService.resolve("  TASHKENT ", "en");
+        GeoLocation second = geocodingService.resolve("tashkent", "en");
+
+        assertEquals("Tashkent", first.getName());
+        assertEquals(41.26, second.getLatitude());
+        verify(geocodedCityRepository, times(1)).findByQueryKeyAndLanguage("tashkent", "en");
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void resolve_unknownCity_callsUpstreamOnceAndPersists() {
+        when(geocodedCityRepository.findByQueryKeyAndLanguage("new york", "en"))
+                .thenReturn(Optional.empty());
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(geoResponse("New York", 40.71, -74.0));
+
+        GeoLocation location = geocodingService.resolve("New   York", "en");
+        geocodingService.resolve("new york", "en");
+
+        assertEquals("New York", location.getName());
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+        ArgumentCaptor<GeocodedCity> saved = ArgumentCaptor.forClass(GeocodedCity.class);
+        verify(geocodedCityRepository).save(saved.capture());
+        assertEquals("new york", saved.getValue().getQueryKey());
+        assertEquals(-74.0, saved.getValue().getLongitude());
+    }
+
+    @Test
+    void resolve_concurrentInsertOfSameCity_isNotAnError() {
+        when(geocodedCityRepository.findByQueryKeyAndLanguage("paris", "en")).thenReturn(Optional.empty());
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(geoResponse("Paris", 48.85, 2.35));
+        when(geocodedCityRepository.save(any(GeocodedCity.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_geocoded_cities_query_language"));
+
+        assertEquals(48.85, geocodingService.resolve("Paris", "en").getLatitude());
+    }
+
+    @Test
+    void resolve_cityNotFound_throwsIllegalArgument() {
+        when(geocodedCityRepository.findByQueryKeyAndLanguage("atlantis", "en")).thenReturn(Optional.empty());
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(new HashMap<>());
+
+        assertThrows(IllegalArgumentException.class, () -> geocodingService.resolve("Atlantis", "en"));
+        verify(geocodedCityRepository, never()).save(any());
+    }
+
+    @Test
+    void seed_insertsOnlyMissingCities() {
+        when(geocodedCityRepository.findQueryKeysByLanguage("en")).thenReturn(Collections.singletonList("tashkent"));
+
+        int inserted = geocodingService.seed(Arrays.asList(
+                GeoLocation.builder().name("Tashkent").latitude(41.26).longitude(69.21).build(),
+                GeoLocation.builder().name("Samarkand").latitude(39.65).longitude(66.95).build(),
+                GeoLocation.builder().name("samarkand").latitude(39.65).longitude(66.95).build()), "en");
+
+        assertEquals(1, inserted);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<GeocodedCity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(geocodedCityRepository).saveAll(saved.capture());
+        assertEquals("samarkand", saved.getValue().get(0).getQueryKey());
+
+        // seeded cities are answered from memory
+        assertEquals(39.65, geocodingService.resolve("Samarkand", "en").getLatitude());
+        verifyNoInteractions(restTemplate);
+    }
+
+    private static Map<String, Object> geoResponse(String name, double latitude, double longitude) {
+        Map<String, Object> place = new HashMap<>();
+        place.put("name", name);
+        place.put("latitude", latitude);
+        place.put("longitude", longitude);
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", Collections.singletonList(place));
+        return response;
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.weather.service.impl;
+
+import com.example.cache.HotKeyPrefetcher;
+import com.example.cache.StaleWhileRevalidateCache;
+import com.example.exception.UpstreamUnavailableException;
+import com.example.http.CircuitBreakerRegistry;
+import com.example.http.OutboundHttpProperties;
+import com.example.weather.dto.GeoLocation;
+import com.example.weather.dto.TileForecast;
+import com.example.weather.dto.WeatherBatchResponse;
+import com.example.weather.dto.WeatherDto;
+import com.example.weather.service.GeocodingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WeatherServiceImplTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private GeocodingService geocodingService;
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    private WeatherServiceImpl weatherService;
+
+    @BeforeEach
+    void setUp() {
+        StaleWhileRevalidateCache<String, TileForecast> cache = new StaleWhileRevalidateCache<>(
+                "weather", 600_000, 3_600_000, 86_400_000, 10_000, Runnable::run, now::get);
+        weatherService = new WeatherServiceImpl(restTemplate, cache,
+                new CircuitBreakerRegistry(new OutboundHttpProperties(), new SimpleMeterRegistry()), geocodingService,
+                new HotKeyPrefetcher(true, 20, 60, 64, 1024), 4, 20);
+        ReflectionTestUtils.setField(weatherService, "forecastUrl", "https://api.open-meteo.com/v1/forecast");
+        ReflectionTestUtils.setField(weatherService, "geocodingLanguage", "en");
+        ReflectionTestUtils.setField(weatherService, "tileResolution", 0.1);
+        ReflectionTestUtils.setField(weatherService, "batchDeadlineMs", 2_000L);
+        ReflectionTestUtils.setField(weatherService, "maxCoordinatesPerRequest", 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        weatherService.destroy();
+    }
+
+    @Test
+    void nearbyPlacesInOneTileShareOneForecastFetch() {
+        stubGeocoding("Tashkent", 41.26465, 69.21627);
+        stubGeocoding("Chilanzar", 41.27577, 69.20365);
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(forecastResponse());
+
+        WeatherDto tashkent = weatherService.getCurrentWeather("Tashkent");
+        WeatherDto chilanzar = weatherService.getCurrentWeather("Chilanzar");
+
+        assertEquals("0.1:412:692", tashkent.getTile());
+        assertEquals(tashkent.getTile(), chilanzar.getTile());
+        assertEquals("2024-05-01T12:00", chilanzar.getObservedAt());
+        assertEquals("Chilanzar", chilanzar.getCity());
+        assertEquals(41.27577, chilanzar.getLatitude());
+        verify(restTemplate, times(1)).getForObject(contains("latitude=41.25"), eq(Map.class));
+    }
+
+    @Test
+    void upstreamFailureServesLastKnownTileForecastFlaggedStale() {
+        stubGeocoding("Tashkent", 41.26465, 69.21627);
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenReturn(forecastResponse())
+                .thenThrow(new ResourceAccessException("Read timed out"));
+        weatherService.getCurrentWeather("Tashkent");
+
+        now.addAndGet(4_000_000);
+        WeatherDto stale = weatherService.getCurrentWeather("Tashkent");
+
+        assertTrue(stale.getStale());
+        assertEquals(21.5, stale.getTemperatureC());
+    }
+
+    @Test
+    void upstreamFailureWithoutCachedTileThrowsServiceUnavailable() {
+        stubGeocoding("Tashkent", 41.26465, 69.21627);
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenThrow(new ResourceAccessException("down"));
+
+        assertThrows(UpstreamUnavailableException.class, () -> weatherService.getCurrentWeather("Tashkent"));
+    }
+
+    @Test
+    void batch_servesCachedTilesAndFetchesMissingOnesInOneMultiCoordinateRequest() {
+        stubGeocoding("Tashkent", 41.26465, 69.21627);
+        stubKnown("Chilanzar", 41.27577, 69.20365);
+        stubKnown("Samarkand", 39.65417, 66.95972);
+        stubKnown("Bukhara", 39.77472, 64.42861);
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(forecastResponse());
+        weatherService.getCurrentWeather("Tashkent");
+        when(restTemplate.getForObject(anyString(), eq(Object.class)))
+                .thenAnswer(inv -> multiForecastResponse(inv.getArgument(0)));
+
+        WeatherBatchResponse response = weatherService.getCurrentWeather(
+                Arrays.asList("Chilanzar", "Samarkand", "Bukhara", "samarkand"));
+
+        assertTrue(response.getComplete());
+        assertEquals(0, response.getFailed());
+        assertEquals(Arrays.asList("Chilanzar", "Samarkand", "Bukhara", "samarkand"),
+                response.getResults().stream().map(WeatherBatchResponse.Result::getCity).collect(Collectors.toList()));
+        assertEquals(21.5, response.getResults().get(0).getWeather().getTemperatureC(), "Tashkent tile was cached");
+        // The stubbed multi-coordinate response reports each location's latitude as its temperature
+        assertEquals(39.65, response.getResults().get(1).getWeather().getTemperatureC());
+        assertEquals(39.75, response.getResults().get(2).getWeather().getTemperatureC());
+        assertEquals(response.getResults().get(1).getWeather(), response.getResults().get(3).getWeather());
+
+        ArgumentCaptor<String> uri = ArgumentCaptor.forClass(String.class);
+        verify(restTemplate, times(1)).getForObject(uri.capture(), eq(Object.class));
+        assertEquals(2, UriComponentsBuilder.fromUriString(uri.getValue()).build()
+                .getQueryParams().getFirst("latitude").split(",").length);
+        verify(geocodingService, never()).resolve(eq("Samarkand"), anyString());
+    }
+
+    @Test
+    void batch_failedCitiesCarryAnErrorAndTheRestAreStillReturned() {
+        stubKnown("Tashkent", 41.26465, 69.21627);
+        when(geocodingService.findKnown("Atlantis", "en")).thenReturn(null);
+        when(geocodingService.resolve("Atlantis", "en")).thenThrow(new IllegalArgumentException("City not found: Atlantis"));
+        when(restTemplate.getForObject(anyString(), eq(Object.class)))
+                .thenAnswer(inv -> multiForecastResponse(inv.getArgument(0)));
+
+        WeatherBatchResponse response = weatherService.getCurrentWeather(Arrays.asList("Atlantis", "Tashkent", " "));
+
+        assertFalse(response.getComplete());
+        assertEquals(2, response.getFailed());
+        assertEquals("City not found: Atlantis", response.getResults().get(0).getError());
+        assertNull(response.getResults().get(0).getWeather());
+        assertEquals("0.1:412:692", response.getResults().get(1).getWeather().getTile());
+        assertEquals("City name is required", response.getResults().get(2).getError());
+    }
+
+    @Test
+    void batch_returnsPartialResultsWhenTheDeadlinePasses() {
+        ReflectionTestUtils.setField(weatherService, "batchDeadlineMs", 200L);
+        CountDownLatch slowUpstream = new CountDownLatch(1);
+        stubKnown("Tashkent", 41.26465, 69.21627);
+        when(geocodingService.findKnown("Nukus", "en")).thenReturn(null);
+        when(geocodingService.resolve("Nukus", "en")).thenAnswer(inv -> {
+            slowUpstream.await(5, TimeUnit.SECONDS);
+            return GeoLocation.builder().name("Nukus").latitude(42.46).longitude(59.61).build();
+        });
+        when(restTemplate.getForObject(anyString(), eq(Object.class)))
+                .thenAnswer(inv -> multiForecastResponse(inv.getArgument(0)));
+
+        try {
+            long start = System.currentTimeMillis();
+            WeatherBatchResponse response = weatherService.getCurrentWeather(Arrays.asList("Nukus", "Tashkent"));
+
+            assertTrue(System.currentTimeMillis() - start < 2_000);
+            assertEquals(1, response.getFailed());
+            assertEquals("Timed out waiting for the weather service", response.getResults().get(0).getError());
+            assertNotNull(response.getResults().get(1).getWeather());
+        } finally {
+            slowUpstream.countDown();
+        }
+    }
+
+    @Test
+    void batch_upstreamDownServesLastKnownGoodOrError() {
+        stubGeocoding("Tashkent", 41.26465, 69.21627);
+        stubKnown("Tashkent", 41.26465, 69.21627);
+        stubKnown("Samarkand", 39.65417, 66.95972);
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(forecastResponse());
+        weatherService.getCurrentWeather("Tashkent");
+        now.addAndGet(4_000_000);
+        when(restTemplate.getForObject(anyString(), eq(Object.class))).thenThrow(new ResourceAccessException("down"));
+
+        WeatherBatchResponse response = weatherService.getCurrentWeather(Arrays.asList("Tashkent", "Samarkand"));
+
+        assertTrue(response.getResults().get(0).getWeather().getStale());
+        assertEquals("External weather service is unavailable. Try again later.",
+                response.getResults().get(1).getError());
+    }
+
+    @Test
+    void batch_joinsATileASingleLookupIsAlreadyLoading() throws Exception {
+        stubGeocoding("Tashkent", 41.26465, 69.21627);
+        stubKnown("Chilanzar", 41.27577, 69.20365);
+        CountDownLatch upstreamEntered = new CountDownLatch(1);
+        CountDownLatch releaseUpstream = new CountDownLatch(1);
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenAnswer(inv -> {
+            upstreamEntered.countDown();
+            releaseUpstream.await(5, TimeUnit.SECONDS);
+            return forecastResponse();
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<WeatherDto> tashkent = pool.submit(() -> weatherService.getCurrentWeather("Tashkent"));
+            assertTrue(upstreamEntered.await(5, TimeUnit.SECONDS));
+            // Let the batch find the load in flight before it completes
+            pool.submit(() -> {
+                Thread.sleep(200);
+                releaseUpstream.countDown();
+                return null;
+            });
+
+            WeatherBatchResponse response = weatherService.getCurrentWeather(Collections.singletonList("Chilanzar"));
+
+            assertTrue(response.getComplete());
+            assertEquals(21.5, response.getResults().get(0).getWeather().getTemperatureC());
+            assertEquals(21.5, tashkent.get(5, TimeUnit.SECONDS).getTemperatureC());
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+        verify(restTemplate, never()).getForObject(anyString(), eq(Object.class));
+    }
+
+    /**
+     * Replays a recorded request log (spelling variants, Tashkent districts, other cities) and
+     * compares upstream forecast fetches against the previous per-city cache key.
+     */
+    @Test
+    void replayedRequestLog_tileKeysImproveHitRateOverCityKeys() throws IOException {
+        List<String[]> requests = readReplayLog();
+        Map<String, GeoLocation> geocoded = new HashMap<>();
+        for (String[] request : requests) {
+            geocoded.put(request[0], GeoLocation.builder().name(request[1])
+                    .latitude(Double.parseDouble(request[2])).longitude(Double.parseDouble(request[3])).build());
+        }
+        when(geocodingService.resolve(anyString(), eq("en"))).thenAnswer(inv -> geocoded.get(inv.<String>getArgument(0)));
+        when(restTemplate.getForObject(anyString(), eq(Map.class))).thenReturn(forecastResponse());
+
+        Set<String> cityKeys = new HashSet<>();
+        Set<String> tiles = new HashSet<>();
+        for (String[] request : requests) {
+            cityKeys.add(GeocodingServiceImpl.normalize(request[0]));
+            tiles.add(weatherService.getCurrentWeather(request[0]).getTile());
+        }
+
+        int upstreamCalls = mockingDetails(restTemplate).getInvocations().size();
+        double cityHitRate = 1.0 - (double) cityKeys.size() / requests.size();
+        double tileHitRate = 1.0 - (double) upstreamCalls / requests.size();
+        String replay = String.format("replay of %d requests: city-keyed %d fetches (hit rate %.1f%%), "
+                        + "tile-keyed %d fetches (hit rate %.1f%%)",
+                requests.size(), cityKeys.size(), cityHitRate * 100, upstreamCalls, tileHitRate * 100);
+
+        assertEquals(tiles.size(), upstreamCalls, "one upstream fetch per distinct tile; " + replay);
+        assertTrue(tileHitRate >= cityHitRate + 0.3, "expected a clear hit-rate gain; " + replay);
+    }
+
+    private void stubGeocoding(String city, double latitude, double longitude) {
+        when(geocodingService.resolve(city, "en")).thenReturn(
+                GeoLocation.builder().name(city).country("Uzbekistan").latitude(latitude).longitude(longitude).build());
+    }
+
+    private void stubKnown(String city, double latitude, double longitude) {
+        when(geocodingService.findKnown(city, "en")).thenReturn(
+                GeoLocation.builder().name(city).country("Uzbekistan").latitude(latitude).longitude(longitude).build());
+    }
+
+    /** Open-Meteo multi-location shape: one object per coordinate pair, temperature set to the latitude. */
+    @SuppressWarnings("unchecked")
+    private static Object multiForecastResponse(String uri) {
+        String[] latitudes = UriComponentsBuilder.fromUriString(uri).build()
+                .getQueryParams().getFirst("latitude").split(",");
+        List<Map<String, Object>> locations = new ArrayList<>();
+        for (String latitude : latitudes) {
+            Map<String, Object> location = forecastResponse();
+            ((Map<String, Object>) location.get("current")).put("temperature_2m", Double.parseDouble(latitude));
+            locations.add(location);
+        }
+        return latitudes.length == 1 ? locations.get(0) : locations;
+    }
+
+    private static Map<String, Object> forecastResponse() {
+        Map<String, Object> current = new HashMap<>();
+        current.put("time", "2024-05-01T12:00");
+        current.put("temperature_2m", 21.5);
+        current.put("relative_humidity_2m", 40);
+        current.put("wind_speed_10m", 7.2);
+        current.put("weather_code", 1);
+        Map<String, Object> response = new HashMap<>();
+        response.put("current", current);
+        return response;
+    }
+
+    private static List<String[]> readReplayLog() throws IOException {
+        List<String[]> requests = new ArrayList<>();
+        try (InputStream in = WeatherServiceImplTest.class.getResourceAsStream("/weather/city-requests.csv");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("#") || line.startsWith("query,")) {
+                    continue;
+                }
+                requests.add(line.split(","));
+            }
+        }
+        return requests;
+    }
+}